@@ -0,0 +1,487 @@
+package jeudelavie;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jdk.incubator.foreign.GroupLayout;
+import jdk.incubator.foreign.MemoryLayout;
+import jdk.incubator.foreign.MemoryLayouts;
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+import jdk.incubator.foreign.SequenceLayout;
+
+/**
+ * Stockage des individus d'une population hors du tas Java, écrit avec l'API
+ * Foreign Memory.
+ * <p>
+ * Chaque individu occupe un enregistrement de disposition fixe de 48 octets,
+ * lu et écrit par des {@link VarHandle} tirés de cette disposition. Les
+ * enregistrements sont rangés par pages de {@value #TAILLE_PAGE}, chacune un
+ * segment de mémoire native ou une fenêtre projetée d'un fichier : agrandir
+ * la population ajoute des pages sans recopier les précédentes, et le tas ne
+ * contient plus que le tableau des pages et les noms donnés, ceux de la
+ * population initiale. Le fichier, dans l'ordre des octets de la machine,
+ * n'est qu'un fichier d'échange ; les points de reprise restent le seul format
+ * d'enregistrement.
+ * </p>
+ * <p>
+ * Le nom donné à un individu est rangé dans une table du tas, partagée avec
+ * les tampons du tri, et l'enregistrement n'en garde que le rang. La table ne
+ * grandit qu'avec les noms donnés : les bébés n'en ont pas.
+ * </p>
+ * <p>
+ * Le tri de la population écrit la permutation dans un second jeu de pages,
+ * projeté depuis le fichier suffixé {@code .tri} s'il y a un fichier. En
+ * mémoire native, les deux jeux sont ensuite échangés ; projetée, la
+ * permutation est recopiée dans les pages de la population, pour que chaque
+ * fichier ne serve qu'à un seul jeu. Le vieillissement recopie les âges, poids,
+ * espérances de vie et types par tranches dans des tableaux, pour que le
+ * noyau, vectoriel ou non, s'applique comme dans le tas.
+ * </p>
+ * <p>
+ * Les segments appartiennent à des portées implicites : ils sont libérés, ou
+ * leur projection retirée, lorsque le ramasse-miettes les découvre
+ * inaccessibles, et peuvent être lus et écrits par n'importe quel thread.
+ * </p>
+ * <p>
+ * Compilation et exécution : voir le module Maven {@code horstas} et
+ * {@link Colonnes#horsTas(Path)}.
+ * </p>
+ */
+final class ColonnesHorsTas implements Colonnes {
+
+    /** Le nombre d'enregistrements d'une page, une puissance de deux. */
+    static final int TAILLE_PAGE = 1 << 16;
+
+    /** Le logarithme en base 2 de {@link #TAILLE_PAGE}. */
+    private static final int DECALAGE = Integer.numberOfTrailingZeros(TAILLE_PAGE);
+
+    /** Le masque donnant le rang d'un enregistrement dans sa page. */
+    private static final int MASQUE = TAILLE_PAGE - 1;
+
+    /** Le nombre d'individus recopiés à la fois dans le tas pour le noyau du vieillissement. */
+    private static final int TRANCHE_VIEILLISSEMENT = 1 << 12;
+
+    /** La disposition d'un enregistrement, les champs les plus larges en tête. */
+    private static final GroupLayout ENREGISTREMENT = MemoryLayout.structLayout(
+            MemoryLayouts.JAVA_LONG.withName("id"),
+            MemoryLayouts.JAVA_LONG.withName("pere"),
+            MemoryLayouts.JAVA_LONG.withName("mere"),
+            MemoryLayouts.JAVA_INT.withName("age"),
+            MemoryLayouts.JAVA_INT.withName("poids"),
+            MemoryLayouts.JAVA_INT.withName("poignee"),
+            MemoryLayouts.JAVA_INT.withName("nom"),
+            MemoryLayouts.JAVA_SHORT.withName("salaire"),
+            MemoryLayouts.JAVA_BYTE.withName("esperanceVie"),
+            MemoryLayouts.JAVA_BYTE.withName("fertilite"),
+            MemoryLayouts.JAVA_BYTE.withName("type"),
+            MemoryLayout.paddingLayout(24));
+
+    /** La taille d'un enregistrement, en octets. */
+    private static final long OCTETS = ENREGISTREMENT.byteSize();
+
+    /** La disposition d'une page : une suite d'enregistrements. */
+    private static final SequenceLayout PAGE = MemoryLayout.sequenceLayout(TAILLE_PAGE, ENREGISTREMENT);
+
+    /** Accès au numéro : (segment, rang dans la page). */
+    private static final VarHandle ID = champ(long.class, "id");
+
+    /** Accès au numéro du père. */
+    private static final VarHandle PERE = champ(long.class, "pere");
+
+    /** Accès au numéro de la mère. */
+    private static final VarHandle MERE = champ(long.class, "mere");
+
+    /** Accès à l'âge. */
+    private static final VarHandle AGE = champ(int.class, "age");
+
+    /** Accès au poids. */
+    private static final VarHandle POIDS = champ(int.class, "poids");
+
+    /** Accès à la poignée. */
+    private static final VarHandle POIGNEE = champ(int.class, "poignee");
+
+    /** Accès au rang du nom dans {@link #noms}, plus un, ou 0 sans nom. */
+    private static final VarHandle NOM = champ(int.class, "nom");
+
+    /** Accès au salaire. */
+    private static final VarHandle SALAIRE = champ(short.class, "salaire");
+
+    /** Accès à l'espérance de vie. */
+    private static final VarHandle ESPERANCE_VIE = champ(byte.class, "esperanceVie");
+
+    /** Accès à la fertilité ou au taux de batifolage. */
+    private static final VarHandle FERTILITE = champ(byte.class, "fertilite");
+
+    /** Accès au type. */
+    private static final VarHandle TYPE = champ(byte.class, "type");
+
+    /** Le fichier où sont projetées les pages, ou {@code null} pour la mémoire native. */
+    private final Path fichier;
+
+    /** Les noms donnés, partagés avec les tampons du tri. */
+    private final List<String> noms;
+
+    /** Les pages. */
+    private MemorySegment[] pages = new MemorySegment[16];
+
+    /** Le nombre de pages allouées. */
+    private int nbPages;
+
+    /** Le nombre d'individus stockés. */
+    private int taille;
+
+    /**
+     * Constructeur de la classe {@code ColonnesHorsTas}.
+     *
+     * @param fichier Le fichier où projeter les pages, créé ou remplacé, ou
+     *                {@code null} pour les allouer en mémoire native.
+     * @throws UncheckedIOException Si le fichier ne peut pas être créé.
+     */
+    ColonnesHorsTas(Path fichier) {
+        this(fichier, new ArrayList<>());
+    }
+
+    /**
+     * Crée des colonnes vides qui partagent une table de noms.
+     *
+     * @param fichier Le fichier où projeter les pages, créé ou remplacé, ou
+     *                {@code null}.
+     * @param noms    La table des noms donnés.
+     * @throws UncheckedIOException Si le fichier ne peut pas être créé.
+     */
+    private ColonnesHorsTas(Path fichier, List<String> noms) {
+        this.fichier = fichier;
+        this.noms = noms;
+        if (fichier != null) {
+            try {
+                FileChannel.open(fichier, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE).close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Impossible de creer " + fichier, e);
+            }
+        }
+    }
+
+    /**
+     * Tire de la disposition d'une page l'accès à un champ des enregistrements.
+     *
+     * @param type Le type du champ.
+     * @param nom  Le nom du champ.
+     * @return L'accès, de coordonnées (segment, rang dans la page).
+     */
+    private static VarHandle champ(Class<?> type, String nom) {
+        return PAGE.varHandle(type, MemoryLayout.PathElement.sequenceElement(),
+                MemoryLayout.PathElement.groupElement(nom));
+    }
+
+    /**
+     * @param i La position d'un individu.
+     * @return La page de l'individu.
+     */
+    private MemorySegment page(int i) {
+        return pages[i >>> DECALAGE];
+    }
+
+    /**
+     * @param i La position d'un individu.
+     * @return Le rang de l'individu dans sa page.
+     */
+    private static long rang(int i) {
+        return i & MASQUE;
+    }
+
+    @Override
+    public int taille() {
+        return taille;
+    }
+
+    @Override
+    public void setTaille(int n) {
+        taille = n;
+    }
+
+    @Override
+    public void vider() {
+        taille = 0;
+        noms.clear();
+    }
+
+    @Override
+    public void assurerCapacite(int min) {
+        while ((long) nbPages << DECALAGE < min) {
+            if (nbPages == pages.length) {
+                pages = Arrays.copyOf(pages, nbPages * 2);
+            }
+            pages[nbPages] = allouer(nbPages);
+            nbPages++;
+        }
+    }
+
+    @Override
+    public ColonnesHorsTas creerTampon() {
+        Path tri = fichier != null ? fichier.resolveSibling(fichier.getFileName() + ".tri") : null;
+        return new ColonnesHorsTas(tri, noms);
+    }
+
+    @Override
+    public int age(int i) {
+        return (int) AGE.get(page(i), rang(i));
+    }
+
+    @Override
+    public void setAge(int i, int v) {
+        AGE.set(page(i), rang(i), v);
+    }
+
+    @Override
+    public int poids(int i) {
+        return (int) POIDS.get(page(i), rang(i));
+    }
+
+    @Override
+    public void setPoids(int i, int v) {
+        POIDS.set(page(i), rang(i), v);
+    }
+
+    @Override
+    public byte esperanceVie(int i) {
+        return (byte) ESPERANCE_VIE.get(page(i), rang(i));
+    }
+
+    @Override
+    public void setEsperanceVie(int i, int v) {
+        ESPERANCE_VIE.set(page(i), rang(i), (byte) v);
+    }
+
+    @Override
+    public byte fertilite(int i) {
+        return (byte) FERTILITE.get(page(i), rang(i));
+    }
+
+    @Override
+    public void setFertilite(int i, int v) {
+        FERTILITE.set(page(i), rang(i), (byte) v);
+    }
+
+    @Override
+    public short salaire(int i) {
+        return (short) SALAIRE.get(page(i), rang(i));
+    }
+
+    @Override
+    public void setSalaire(int i, int v) {
+        SALAIRE.set(page(i), rang(i), (short) v);
+    }
+
+    @Override
+    public byte type(int i) {
+        return (byte) TYPE.get(page(i), rang(i));
+    }
+
+    @Override
+    public void setType(int i, byte v) {
+        TYPE.set(page(i), rang(i), v);
+    }
+
+    @Override
+    public long id(int i) {
+        return (long) ID.get(page(i), rang(i));
+    }
+
+    @Override
+    public void setId(int i, long v) {
+        ID.set(page(i), rang(i), v);
+    }
+
+    @Override
+    public long pere(int i) {
+        return (long) PERE.get(page(i), rang(i));
+    }
+
+    @Override
+    public long mere(int i) {
+        return (long) MERE.get(page(i), rang(i));
+    }
+
+    @Override
+    public void setParents(int i, long pere, long mere) {
+        PERE.set(page(i), rang(i), pere);
+        MERE.set(page(i), rang(i), mere);
+    }
+
+    @Override
+    public int poignee(int i) {
+        return (int) POIGNEE.get(page(i), rang(i));
+    }
+
+    @Override
+    public void setPoignee(int i, int v) {
+        POIGNEE.set(page(i), rang(i), v);
+    }
+
+    @Override
+    public String nomDonne(int i) {
+        int k = (int) NOM.get(page(i), rang(i));
+        return k == 0 ? null : noms.get(k - 1);
+    }
+
+    @Override
+    public void setNom(int i, String v) {
+        int k = 0;
+        if (v != null) {
+            noms.add(v);
+            k = noms.size();
+        }
+        NOM.set(page(i), rang(i), k);
+    }
+
+    @Override
+    public void copierDepuis(Colonnes src, int de, int vers) {
+        if (src instanceof ColonnesHorsTas && ((ColonnesHorsTas) src).noms == noms) {
+            copier(((ColonnesHorsTas) src).pages, de, pages, vers, 1);
+            return;
+        }
+        setType(vers, src.type(de));
+        setAge(vers, src.age(de));
+        setPoids(vers, src.poids(de));
+        setEsperanceVie(vers, src.esperanceVie(de));
+        setFertilite(vers, src.fertilite(de));
+        setSalaire(vers, src.salaire(de));
+        setNom(vers, src.nomDonne(de));
+        setId(vers, src.id(de));
+        setParents(vers, src.pere(de), src.mere(de));
+        setPoignee(vers, src.poignee(de));
+    }
+
+    @Override
+    public void decaler(int de, int vers, int nombre) {
+        if (vers <= de) {
+            copier(pages, de, pages, vers, nombre);
+            return;
+        }
+        // Vers la fin : les plages sont recopiées de la dernière à la première.
+        int n = nombre;
+        while (n > 0) {
+            int finSource = de + n;
+            int finDestination = vers + n;
+            int dansSource = ((finSource - 1) & MASQUE) + 1;
+            int dansDestination = ((finDestination - 1) & MASQUE) + 1;
+            int m = Math.min(n, Math.min(dansSource, dansDestination));
+            copierPlage(pages[(finSource - 1) >>> DECALAGE], dansSource - m,
+                    pages[(finDestination - 1) >>> DECALAGE], dansDestination - m, m);
+            n -= m;
+        }
+    }
+
+    @Override
+    public void permuter(int[] ordre, Colonnes autres) {
+        ColonnesHorsTas tampon = (ColonnesHorsTas) autres;
+        tampon.assurerCapacite(taille);
+        for (int k = 0; k < taille; k++) {
+            copier(pages, ordre[k], tampon.pages, k, 1);
+        }
+        tampon.taille = 0;
+        if (fichier != null) {
+            // Chaque page reste projetée depuis son propre fichier : le tampon
+            // suivant remplace le fichier du tri, qui ne doit rien garder de la
+            // population.
+            copier(tampon.pages, 0, pages, 0, taille);
+            return;
+        }
+        MemorySegment[] p = pages;
+        int n = nbPages;
+        pages = tampon.pages;
+        nbPages = tampon.nbPages;
+        tampon.pages = p;
+        tampon.nbPages = n;
+    }
+
+    @Override
+    public void vieillir(NoyauVieillissement noyau, int de, int a, byte[] marques) {
+        int t = Math.min(a - de, TRANCHE_VIEILLISSEMENT);
+        int[] ages = new int[t];
+        int[] poids = new int[t];
+        byte[] esperances = new byte[t];
+        byte[] types = new byte[t];
+        byte[] tranche = new byte[t];
+        for (int debut = de; debut < a; debut += t) {
+            int m = Math.min(t, a - debut);
+            for (int k = 0; k < m; k++) {
+                int i = debut + k;
+                ages[k] = age(i);
+                poids[k] = poids(i);
+                esperances[k] = esperanceVie(i);
+                types[k] = type(i);
+            }
+            noyau.vieillir(ages, poids, esperances, types, 0, m, tranche);
+            for (int k = 0; k < m; k++) {
+                int i = debut + k;
+                setAge(i, ages[k]);
+                setPoids(i, poids[k]);
+            }
+            System.arraycopy(tranche, 0, marques, debut - de, m);
+        }
+    }
+
+    /**
+     * Recopie une plage d'enregistrements vers une plage qui ne la suit pas,
+     * en avançant du premier au dernier, page par page.
+     *
+     * @param source      Les pages source.
+     * @param de          La première position source.
+     * @param destination Les pages destination.
+     * @param vers        La première position destination, au plus
+     *                    {@code de} si les pages sont les mêmes.
+     * @param nombre      Le nombre d'enregistrements.
+     */
+    private static void copier(MemorySegment[] source, int de, MemorySegment[] destination, int vers, int nombre) {
+        for (int k = 0; k < nombre;) {
+            int i = de + k;
+            int j = vers + k;
+            int m = Math.min(nombre - k, Math.min(TAILLE_PAGE - (i & MASQUE), TAILLE_PAGE - (j & MASQUE)));
+            copierPlage(source[i >>> DECALAGE], i & MASQUE, destination[j >>> DECALAGE], j & MASQUE, m);
+            k += m;
+        }
+    }
+
+    /**
+     * Recopie des enregistrements contigus d'une page vers une page, les deux
+     * plages pouvant se chevaucher.
+     *
+     * @param source      La page source.
+     * @param de          Le rang du premier enregistrement source.
+     * @param destination La page destination.
+     * @param vers        Le rang du premier enregistrement destination.
+     * @param nombre      Le nombre d'enregistrements.
+     */
+    private static void copierPlage(MemorySegment source, int de, MemorySegment destination, int vers, int nombre) {
+        destination.asSlice(vers * OCTETS, nombre * OCTETS).copyFrom(source.asSlice(de * OCTETS, nombre * OCTETS));
+    }
+
+    /**
+     * Alloue une page en mémoire native, ou la projette depuis le fichier.
+     *
+     * @param p Le numéro de la page.
+     * @return Le segment de la page.
+     * @throws UncheckedIOException Si la page ne peut pas être projetée.
+     */
+    private MemorySegment allouer(int p) {
+        if (fichier == null) {
+            return MemorySegment.allocateNative(PAGE, ResourceScope.newImplicitScope());
+        }
+        try {
+            return MemorySegment.mapFile(fichier, p * PAGE.byteSize(), PAGE.byteSize(),
+                    FileChannel.MapMode.READ_WRITE, ResourceScope.newImplicitScope());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible de projeter " + fichier, e);
+        }
+    }
+}
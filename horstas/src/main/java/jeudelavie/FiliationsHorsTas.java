@@ -0,0 +1,133 @@
+package jeudelavie;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import jdk.incubator.foreign.MemoryLayout;
+import jdk.incubator.foreign.MemoryLayouts;
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+import jdk.incubator.foreign.SequenceLayout;
+
+/**
+ * Stockage des filiations hors du tas Java, écrit avec l'API Foreign Memory.
+ * <p>
+ * Les entrées sont rangées par pages de {@value Genealogie#TAILLE_PAGE}
+ * enregistrements de disposition fixe, {@code pere} puis {@code mere} sur
+ * huit octets chacun, lus et écrits par des {@link VarHandle} tirés de cette
+ * disposition. Chaque page est un segment de mémoire native ou une fenêtre
+ * projetée d'un fichier, à la place des enregistrements de la page dans le
+ * fichier : le tas ne contient plus que le tableau des segments, quelques
+ * octets par million d'humains enregistrés. Le fichier, dans l'ordre des
+ * octets de la machine, n'est qu'un fichier d'échange ; les points de reprise
+ * restent le seul format d'enregistrement.
+ * </p>
+ * <p>
+ * Les segments appartiennent à des portées implicites : ils sont libérés, ou
+ * leur projection retirée, lorsque le ramasse-miettes les découvre
+ * inaccessibles, et peuvent être lus par n'importe quel thread.
+ * </p>
+ * <p>
+ * Compilation et exécution : voir le module Maven {@code horstas} et
+ * {@link StockageFiliations#horsTas(Path)}.
+ * </p>
+ */
+final class FiliationsHorsTas implements StockageFiliations {
+
+    /** La disposition d'une page : une suite d'enregistrements {@code pere}, {@code mere}. */
+    private static final SequenceLayout PAGE = MemoryLayout.sequenceLayout(Genealogie.TAILLE_PAGE,
+            MemoryLayout.structLayout(
+                    MemoryLayouts.JAVA_LONG.withName("pere"),
+                    MemoryLayouts.JAVA_LONG.withName("mere")));
+
+    /** Accès au père d'un enregistrement : (segment, rang dans la page). */
+    private static final VarHandle PERE = PAGE.varHandle(long.class,
+            MemoryLayout.PathElement.sequenceElement(), MemoryLayout.PathElement.groupElement("pere"));
+
+    /** Accès à la mère d'un enregistrement : (segment, rang dans la page). */
+    private static final VarHandle MERE = PAGE.varHandle(long.class,
+            MemoryLayout.PathElement.sequenceElement(), MemoryLayout.PathElement.groupElement("mere"));
+
+    /** Le logarithme en base 2 de {@link Genealogie#TAILLE_PAGE}. */
+    private static final int DECALAGE = Integer.numberOfTrailingZeros(Genealogie.TAILLE_PAGE);
+
+    /** Le masque donnant le rang d'une entrée dans sa page. */
+    private static final long MASQUE = Genealogie.TAILLE_PAGE - 1;
+
+    /** Le fichier où sont projetées les pages, ou {@code null} pour la mémoire native. */
+    private final Path fichier;
+
+    /** Les pages. */
+    private MemorySegment[] pages = new MemorySegment[16];
+
+    /**
+     * Constructeur de la classe {@code FiliationsHorsTas}.
+     *
+     * @param fichier Le fichier où projeter les pages, créé ou remplacé, ou
+     *                {@code null} pour les allouer en mémoire native.
+     * @throws UncheckedIOException Si le fichier ne peut pas être créé.
+     */
+    FiliationsHorsTas(Path fichier) {
+        this.fichier = fichier;
+        if (fichier != null) {
+            try {
+                FileChannel.open(fichier, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE).close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Impossible de creer " + fichier, e);
+            }
+        }
+    }
+
+    @Override
+    public long getPere(long id) {
+        return (long) PERE.get(pages[(int) (id >>> DECALAGE)], id & MASQUE);
+    }
+
+    @Override
+    public long getMere(long id) {
+        return (long) MERE.get(pages[(int) (id >>> DECALAGE)], id & MASQUE);
+    }
+
+    @Override
+    public void ecrire(long id, long pere, long mere) {
+        int p = (int) (id >>> DECALAGE);
+        if (p == pages.length) {
+            pages = Arrays.copyOf(pages, p * 2);
+        }
+        if (pages[p] == null) {
+            pages[p] = allouer(p);
+        }
+        PERE.set(pages[p], id & MASQUE, pere);
+        MERE.set(pages[p], id & MASQUE, mere);
+    }
+
+    @Override
+    public void vider() {
+        pages = new MemorySegment[16];
+    }
+
+    /**
+     * Alloue une page en mémoire native, ou la projette depuis le fichier.
+     *
+     * @param p Le numéro de la page.
+     * @return Le segment de la page.
+     * @throws UncheckedIOException Si la page ne peut pas être projetée.
+     */
+    private MemorySegment allouer(int p) {
+        if (fichier == null) {
+            return MemorySegment.allocateNative(PAGE, ResourceScope.newImplicitScope());
+        }
+        try {
+            return MemorySegment.mapFile(fichier, p * PAGE.byteSize(), PAGE.byteSize(),
+                    FileChannel.MapMode.READ_WRITE, ResourceScope.newImplicitScope());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible de projeter " + fichier, e);
+        }
+    }
+}
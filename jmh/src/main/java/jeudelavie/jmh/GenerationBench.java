@@ -0,0 +1,83 @@
+package jeudelavie.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import jeudelavie.BancSimulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mesure d'une génération complète, comme dans la boucle de {@code Main} :
+ * rencontres, vieillissement, intégration des naissances, tri et rapport.
+ * <p>
+ * La population est rétablie avant chaque appel.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class GenerationBench {
+
+    /** Le mode de fonctionnement. */
+    @Param({ "0", "1", "2" })
+    public int mode;
+
+    /** La taille de la population. */
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int taille;
+
+    /** Le banc mesuré. */
+    private BancSimulation banc;
+
+    /**
+     * Crée la population.
+     */
+    @Setup(Level.Trial)
+    public void creer() {
+        banc = new BancSimulation();
+        banc.preparer(taille);
+        banc.sauvegarder();
+    }
+
+    /**
+     * Rétablit la population avant chaque appel.
+     */
+    @Setup(Level.Invocation)
+    public void restaurer() {
+        banc.restaurer();
+    }
+
+    /**
+     * Libère le banc.
+     */
+    @TearDown(Level.Trial)
+    public void fermer() {
+        banc.fermer();
+    }
+
+    /**
+     * Effectue une génération.
+     *
+     * @return La taille de la population après la génération.
+     */
+    @Benchmark
+    public int generation() {
+        banc.generation(mode);
+        return banc.taille();
+    }
+}
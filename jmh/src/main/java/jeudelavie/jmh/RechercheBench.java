@@ -0,0 +1,69 @@
+package jeudelavie.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import jeudelavie.BancSimulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mesure de {@code Population.getIndex(Humain)} sur des humains tirés au
+ * hasard dans la population.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RechercheBench {
+
+    /** La taille de la population. */
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int taille;
+
+    /** Le banc mesuré. */
+    private BancSimulation banc;
+
+    /** Désigne l'humain cherché lors du prochain appel. */
+    private int k;
+
+    /**
+     * Crée la population.
+     */
+    @Setup(Level.Trial)
+    public void creer() {
+        banc = new BancSimulation();
+        banc.preparer(taille);
+    }
+
+    /**
+     * Libère le banc.
+     */
+    @TearDown(Level.Trial)
+    public void fermer() {
+        banc.fermer();
+    }
+
+    /**
+     * Retrouve l'index d'un humain.
+     *
+     * @return L'index de l'humain.
+     */
+    @Benchmark
+    public int getIndex() {
+        return banc.chercher(k++);
+    }
+}
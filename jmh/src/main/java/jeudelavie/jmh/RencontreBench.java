@@ -0,0 +1,70 @@
+package jeudelavie.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import jeudelavie.BancSimulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mesure de {@code Homme.rencontre} et {@code Femme.rencontre} entre deux
+ * humains féconds, exceptions comprises pour les rencontres sans naissance.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RencontreBench {
+
+    /** Le banc mesuré. */
+    private BancSimulation banc;
+
+    /**
+     * Crée le banc.
+     */
+    @Setup(Level.Trial)
+    public void creer() {
+        banc = new BancSimulation();
+    }
+
+    /**
+     * Libère le banc.
+     */
+    @TearDown(Level.Trial)
+    public void fermer() {
+        banc.fermer();
+    }
+
+    /**
+     * Rencontre à l'initiative de l'homme.
+     *
+     * @return 0 en cas de naissance, 1 sinon.
+     */
+    @Benchmark
+    public int rencontreHomme() {
+        return banc.rencontreHomme();
+    }
+
+    /**
+     * Rencontre à l'initiative de la femme.
+     *
+     * @return 0 en cas de naissance, 1 sinon.
+     */
+    @Benchmark
+    public int rencontreFemme() {
+        return banc.rencontreFemme();
+    }
+}
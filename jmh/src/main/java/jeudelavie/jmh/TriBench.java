@@ -0,0 +1,84 @@
+package jeudelavie.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import jeudelavie.BancSimulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mesure de {@code Population.trierPop()}.
+ * <p>
+ * La population mesurée est celle que trie la simulation : une population
+ * triée qui vient de passer une génération de croissance forcée, avec les
+ * bébés à la fin et de nouveaux salaires. Elle est rétablie avant chaque
+ * appel.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TriBench {
+
+    /** La taille de la population. */
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int taille;
+
+    /** Le banc mesuré. */
+    private BancSimulation banc;
+
+    /**
+     * Crée la population et lui fait passer une génération sans la trier.
+     */
+    @Setup(Level.Trial)
+    public void creer() {
+        banc = new BancSimulation();
+        banc.preparer(taille);
+        banc.rencontres(1);
+        banc.vieillir();
+        banc.integrerNaissances();
+        banc.sauvegarder();
+    }
+
+    /**
+     * Rétablit la population avant chaque appel.
+     */
+    @Setup(Level.Invocation)
+    public void restaurer() {
+        banc.restaurer();
+    }
+
+    /**
+     * Libère le banc.
+     */
+    @TearDown(Level.Trial)
+    public void fermer() {
+        banc.fermer();
+    }
+
+    /**
+     * Trie la population.
+     *
+     * @return La taille de la population.
+     */
+    @Benchmark
+    public int trier() {
+        banc.trier();
+        return banc.taille();
+    }
+}
@@ -0,0 +1,90 @@
+package jeudelavie.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import jeudelavie.BancSimulation;
+import jeudelavie.NoyauVieillissement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mesure de {@code Population.vieillir()}.
+ * <p>
+ * La population est rétablie avant chaque appel, pour que chaque mesure
+ * porte sur la même population.
+ * </p>
+ * <p>
+ * Avec {@code -p noyau=vectoriel}, le vieillissement utilise le noyau
+ * vectoriel, qui demande aussi
+ * {@code -jvmArgsAppend --add-modules=jdk.incubator.vector}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class VieillissementBench {
+
+    /** Le noyau du vieillissement : {@code scalaire} ou {@code vectoriel}. */
+    @Param({ "scalaire" })
+    public String noyau;
+
+    /** La taille de la population. */
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int taille;
+
+    /** Le banc mesuré. */
+    private BancSimulation banc;
+
+    /**
+     * Crée la population.
+     */
+    @Setup(Level.Trial)
+    public void creer() {
+        banc = new BancSimulation(noyau.equals("vectoriel") ? NoyauVieillissement.vectoriel()
+                : NoyauVieillissement.scalaire());
+        banc.preparer(taille);
+        banc.sauvegarder();
+    }
+
+    /**
+     * Rétablit la population avant chaque appel.
+     */
+    @Setup(Level.Invocation)
+    public void restaurer() {
+        banc.restaurer();
+    }
+
+    /**
+     * Libère le banc.
+     */
+    @TearDown(Level.Trial)
+    public void fermer() {
+        banc.fermer();
+    }
+
+    /**
+     * Fait vieillir la population d'un an.
+     *
+     * @return La taille de la population après le vieillissement.
+     */
+    @Benchmark
+    public int vieillir() {
+        banc.vieillir();
+        return banc.taille();
+    }
+}
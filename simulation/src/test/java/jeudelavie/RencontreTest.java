@@ -0,0 +1,120 @@
+package jeudelavie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Les codes d'issue de {@link Rencontre} et leur correspondance avec les
+ * exceptions et le {@link BilanRencontres}.
+ */
+class RencontreTest {
+
+    @BeforeEach
+    void initialiserLoto() {
+        Humain.setLoto(new SplittableRandom(1));
+    }
+
+    @Test
+    void verifierDistingueAgePoidsEtSexe() {
+        assertEquals(Rencontre.NAISSANCE, Rencontre.verifier(true, 25, 70, false, 25, 60));
+        assertEquals(Rencontre.NAISSANCE, Rencontre.verifier(false, 16, 150, true, 49, 150));
+        assertEquals(Rencontre.AGE, Rencontre.verifier(true, 15, 70, false, 25, 60));
+        assertEquals(Rencontre.AGE, Rencontre.verifier(true, 25, 70, false, 50, 60));
+        assertEquals(Rencontre.POIDS, Rencontre.verifier(true, 25, 151, false, 25, 60));
+        assertEquals(Rencontre.SEXE, Rencontre.verifier(true, 25, 70, true, 25, 70));
+        assertEquals(Rencontre.SEXE, Rencontre.verifier(false, 25, 60, false, 25, 60));
+    }
+
+    @Test
+    void hommeEtFemmeNeVerifientPasDansLeMemeOrdre() {
+        // Un homme vérifie l'âge avant le poids, une femme le poids avant l'âge.
+        assertEquals(Rencontre.AGE, Rencontre.verifier(true, 60, 200, false, 25, 60));
+        assertEquals(Rencontre.POIDS, Rencontre.verifier(false, 60, 200, true, 25, 70));
+        // Le sexe n'est vérifié qu'en dernier.
+        assertEquals(Rencontre.AGE, Rencontre.verifier(true, 10, 70, true, 25, 70));
+    }
+
+    @Test
+    void isFecondCorrespondAVerifier() {
+        for (int age = 0; age <= 100; age += 3) {
+            for (int poids = 100; poids <= 200; poids += 10) {
+                boolean fecond = Rencontre.isFecond(age, poids);
+                boolean permise = Rencontre.verifier(true, age, poids, false, 25, 60) == Rencontre.NAISSANCE;
+                assertEquals(permise, fecond, "age " + age + ", poids " + poids);
+            }
+        }
+    }
+
+    @Test
+    void tirerFeconditeSuitBatifolageEtFertilite() {
+        SplittableRandom loto = new SplittableRandom(7);
+        for (int k = 0; k < 1000; k++) {
+            assertEquals(Rencontre.HOMME_INFERTILE, Rencontre.tirerFecondite(101, 100, loto));
+            assertEquals(Rencontre.FEMME_INFERTILE, Rencontre.tirerFecondite(0, -1, loto));
+            assertEquals(Rencontre.NAISSANCE, Rencontre.tirerFecondite(0, 100, loto));
+        }
+    }
+
+    @Test
+    void motifCorrespondAuxCodesDInterdiction() {
+        assertEquals(BreedingForbiddenException.Erreur.SEXE, Rencontre.motif(Rencontre.SEXE));
+        assertEquals(BreedingForbiddenException.Erreur.POIDS, Rencontre.motif(Rencontre.POIDS));
+        assertEquals(BreedingForbiddenException.Erreur.AGE, Rencontre.motif(Rencontre.AGE));
+    }
+
+    @Test
+    void leverTraduitChaqueCodeEnException() throws MeetingException {
+        Homme h = new Homme(25, 70, "Homme", 0);
+        Femme f = new Femme(25, 60, "Femme", 100);
+
+        Rencontre.lever(Rencontre.NAISSANCE, h, f, h, f);
+        for (int issue : new int[] { Rencontre.SEXE, Rencontre.POIDS, Rencontre.AGE }) {
+            BreedingForbiddenException e = assertThrows(BreedingForbiddenException.class,
+                    () -> Rencontre.lever(issue, h, f, h, f));
+            assertEquals(Rencontre.motif(issue), e.motif);
+        }
+        NoBreedingException homme = assertThrows(NoBreedingException.class,
+                () -> Rencontre.lever(Rencontre.HOMME_INFERTILE, f, h, h, f));
+        assertEquals(h, homme.getHumain()[0]);
+        NoBreedingException femme = assertThrows(NoBreedingException.class,
+                () -> Rencontre.lever(Rencontre.FEMME_INFERTILE, h, f, h, f));
+        assertEquals(f, femme.getHumain()[0]);
+    }
+
+    @Test
+    void rencontreDUnHommeLeveLeMotifDeVerifier() {
+        Homme h = new Homme(25, 70, "Homme", 0);
+        BreedingForbiddenException age = assertThrows(BreedingForbiddenException.class,
+                () -> h.rencontre(new Femme(60, 60, "Femme", 100)));
+        assertEquals(BreedingForbiddenException.Erreur.AGE, age.motif);
+        BreedingForbiddenException sexe = assertThrows(BreedingForbiddenException.class,
+                () -> h.rencontre(new Homme(25, 70, "Homme", 0)));
+        assertEquals(BreedingForbiddenException.Erreur.SEXE, sexe.motif);
+        assertThrows(NoBreedingException.class, () -> h.rencontre(new Femme(25, 60, "Femme", -1)));
+    }
+
+    @Test
+    void bilanCompteChaqueCode() {
+        BilanRencontres bilan = new BilanRencontres();
+        for (int issue = 0; issue < Rencontre.NB_ISSUES; issue++) {
+            bilan.enregistrer(issue, issue + 1);
+        }
+        bilan.ecarter(10);
+
+        assertEquals(1, bilan.getNaissances());
+        assertEquals(2, bilan.getRejets(BreedingForbiddenException.Erreur.SEXE));
+        assertEquals(3, bilan.getRejets(BreedingForbiddenException.Erreur.POIDS));
+        assertEquals(4, bilan.getRejets(BreedingForbiddenException.Erreur.AGE));
+        assertEquals(5, bilan.getHommesInfertiles());
+        assertEquals(6, bilan.getFemmesInfertiles());
+        assertEquals(21, bilan.getRencontres());
+        assertEquals(10, bilan.getEcartees());
+        assertTrue(bilan.toString().contains("Naissances : 1"));
+    }
+}
@@ -1,20 +1,53 @@
-import java.util.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+import javax.management.JMException;
+
+import jeudelavie.Archipel;
+import jeudelavie.Balayage;
+import jeudelavie.Colonnes;
+import jeudelavie.Configuration;
+import jeudelavie.Coordinateur;
+import jeudelavie.Croissance;
+import jeudelavie.Execution;
+import jeudelavie.Hasard;
+import jeudelavie.MeetingException;
+import jeudelavie.MoteurCohortes;
+import jeudelavie.MoteurSimulation;
+import jeudelavie.NoyauVieillissement;
+import jeudelavie.PointDeReprise;
+import jeudelavie.PopulationException;
+import jeudelavie.Rapport;
+import jeudelavie.Sonde;
+import jeudelavie.Statistiques;
+import jeudelavie.StockageFiliations;
 
 /**
  * Classe principale pour gérer la simulation d'une population d'humains.
  * <p>
- * Cette classe contient la méthode {@code main} qui initialise la population,
- * gère les interactions entre les humains, et exécute les cycles de génération.
- * Les paramètres de la simulation peuvent être ajustés via les arguments de la
- * ligne de commande.
+ * Cette classe n'est que l'interface en ligne de commande de la simulation,
+ * dont l'API publique est dans le paquetage {@code jeudelavie} : la méthode
+ * {@code main} lit et vérifie les arguments, en tire une {@link Configuration}
+ * et le moteur choisi, puis confie à une {@link Execution} le déroulement des
+ * générations et l'écriture du rapport.
  * </p>
  */
 public class Main {
+
+    /** Le fichier du point de reprise par défaut. */
+    private static final String FICHIER_REPRISE = "jeudelavie.ckpt";
+
     /**
      * Point d'entrée de l'application.
      *
-     * @param args Les arguments de la ligne de commande.
-     *             Les paramètres attendus sont :
+     * @param args Les arguments de la ligne de commande. Si le premier est
+     *             {@code --sweep}, les suivants décrivent un balayage de
+     *             paramètres, voir {@link Balayage#main(String[])}.
+     *             Sinon, les paramètres attendus sont :
      *             <ul>
      *             <li>nbTourDeJeu : Le nombre de tours de jeu à exécuter.</li>
      *             <li>tailleInit : La taille initiale de la population.</li>
@@ -22,17 +55,107 @@ public class Main {
      *             croissance forcée, 2 : croissance régulée).</li>
      *             <li>nbb (facultatif) : Pour le paramètre 2, spécifie un nombre
      *             entre 1 et 100.</li>
+     *             <li>--threads N (facultatif) : Le nombre de threads utilisés
+     *             pour le vieillissement et la croissance forcée (par défaut,
+     *             le nombre de processeurs). Le résultat ne dépend pas de ce
+     *             nombre.</li>
+     *             <li>--seed N (facultatif) : La graine de la simulation ; deux
+     *             exécutions de même graine donnent le même résultat. Par
+     *             défaut, la graine est tirée de l'horloge et affichée.</li>
+     *             <li>--rng NOM (facultatif) : L'algorithme des générateurs de
+     *             nombres aléatoires (par défaut {@code SplittableRandom}).</li>
+     *             <li>--report NIVEAU (facultatif) : Le niveau de détail de
+     *             l'affichage : {@code resume}, {@code echantillon} ou
+     *             {@code complet} (par défaut). Au niveau
+     *             {@code echantillon}, des lignes peuvent être abandonnées si
+     *             la sortie ne suit pas ; aux autres niveaux, la simulation
+     *             attend la sortie.</li>
+     *             <li>--sample-every N (facultatif) : Au niveau
+     *             {@code echantillon}, affiche un humain sur N (par défaut
+     *             1000).</li>
+     *             <li>--output FICHIER (facultatif) : Écrit l'affichage dans un
+     *             fichier plutôt que sur la console.</li>
+     *             <li>--engine MOTEUR (facultatif) : {@code individus} (par
+     *             défaut) simule chaque humain ; {@code cohortes} ne compte que
+     *             les humains de chaque âge, poids et fertilité, ce qui permet
+     *             des populations de plusieurs milliards d'humains.</li>
+     *             <li>--checkpoint-every N (facultatif) : Enregistre un point de
+     *             reprise toutes les N générations.</li>
+     *             <li>--checkpoint FICHIER (facultatif) : Le fichier du point de
+     *             reprise (par défaut {@value #FICHIER_REPRISE}).</li>
+     *             <li>--resume FICHIER (facultatif) : Reprend la simulation
+     *             enregistrée dans un point de reprise, avec sa graine et son
+     *             générateur ; la taille initiale est alors ignorée.</li>
+     *             <li>--stats FICHIER (facultatif) : Ajoute à un fichier les
+     *             statistiques de chaque génération, en CSV si son nom se
+     *             termine par {@code .csv}, dans un format binaire en colonnes
+     *             sinon (voir {@link Statistiques}).</li>
+     *             <li>--jmx (facultatif) : Expose la durée des phases et les
+     *             compteurs de la simulation par le MBean
+     *             {@value Sonde#NOM_MBEAN}. Les événements JFR correspondants
+     *             sont toujours publiés, voir {@link Sonde}. Non disponible
+     *             avec --demes ni --workers.</li>
+     *             <li>--genealogy (facultatif) : Conserve la filiation de
+     *             chaque humain dans une {@link jeudelavie.Genealogie} et résume à la
+     *             fin de la simulation la part des fondateurs et la
+     *             consanguinité des vivants.</li>
+     *             <li>--genealogy-offheap (facultatif) : Comme --genealogy,
+     *             mais les filiations sont rangées hors du tas Java, voir
+     *             {@link StockageFiliations}.</li>
+     *             <li>--genealogy-map FICHIER (facultatif) : Comme
+     *             --genealogy-offheap, mais les filiations sont projetées
+     *             depuis un fichier, créé ou remplacé.</li>
+     *             <li>--population-offheap (facultatif) : Range les humains
+     *             de la population hors du tas Java, voir
+     *             {@link Colonnes#horsTas(Path)}.</li>
+     *             <li>--population-map FICHIER (facultatif) : Comme
+     *             --population-offheap, mais les humains sont projetés
+     *             depuis un fichier, créé ou remplacé.</li>
+     *             <li>--lineage NOM (facultatif) : Comme --genealogy, et
+     *             indique en fin de simulation les ancêtres et les
+     *             descendants de l'humain de ce nom, par exemple
+     *             {@code Homme3}, voir {@link jeudelavie.Genealogie#chercher(String)}.</li>
+     *             <li>--recycle (facultatif) : Réutilise d'une génération à
+     *             l'autre les tampons du tri de la population, pour ne
+     *             presque plus rien allouer une fois la population
+     *             stabilisée. Le résultat n'en dépend pas.</li>
+     *             <li>--kernel NOYAU (facultatif) : Le noyau du
+     *             vieillissement, {@code scalaire} ou {@code vectoriel} (voir
+     *             {@link NoyauVieillissement}). Par défaut, le noyau vectoriel
+     *             s'il est disponible. Le résultat n'en dépend pas.</li>
+     *             <li>--demes N (facultatif) : Répartit la population entre N
+     *             îles qui jouent leurs générations en parallèle et
+     *             échangent des migrants, voir {@link Archipel}.</li>
+     *             <li>--migration-every N (facultatif) : Avec --demes, le
+     *             nombre de générations entre deux migrations (par défaut
+     *             10), 0 pour isoler les îles.</li>
+     *             <li>--migration-rate P (facultatif) : Avec --demes, la
+     *             probabilité pour chaque humain d'émigrer vers l'île
+     *             suivante lors d'une migration (par défaut 0.01).</li>
+     *             <li>--workers N (facultatif) : Comme --demes N, mais chaque
+     *             île est jouée par un processus distinct, voir
+     *             {@link Coordinateur}. N vaut au moins 2, et seul le
+     *             niveau de rapport {@code resume} est disponible.</li>
+     *             <li>--forced-pairing MODE (facultatif) : En croissance
+     *             forcée, {@code couples} (par défaut) forme des couples dont
+     *             chaque humain fait partie d'au plus un, voir
+     *             {@link Croissance#forcee()} ; {@code tous} fait se
+     *             rencontrer chaque homme et chaque femme féconds, comme la
+     *             version d'origine, voir
+     *             {@link Croissance#forceeComplete()}.</li>
      *             </ul>
      * @throws PopulationException Si la population ne peut pas se reproduire.
      * @throws MeetingException    Si une erreur survient lors d'une rencontre entre
      *                             humains.
      */
     public static void main(String[] args) throws PopulationException, MeetingException {
-
-        Random loto = new Random(Calendar.getInstance().getTimeInMillis());
+        if (args.length > 0 && args[0].equals("--sweep")) {
+            Balayage.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
 
         int nbTourDeJeu = Integer.parseInt(args[0]);
-        int tailleInit = Integer.parseInt(args[1]);
+        long tailleInit = Long.parseLong(args[1]);
         int param = Integer.parseInt(args[2]);
         int nbb = 0;
 
@@ -41,6 +164,10 @@ public class Main {
          * 1 Croissance forcée
          * 2 Croissance régulée
          */
+        if (param < 0 || param > 2) {
+            System.out.println("Erreur sur troisieme args");
+            return;
+        }
         if (param == 2) {
             nbb = Integer.parseInt(args[3]);
             if (nbb < 1 || nbb > 100) {
@@ -49,185 +176,305 @@ public class Main {
             }
         }
 
-        // Création de la population initiale
-        Population population = new Population();
-        for (int i = 0; i < tailleInit / 2; i++) {
-            int batifolage = loto.nextInt(70, 100);
-            population.addHumain(new Homme(17, 70, "Homme" + i, batifolage));
-            Homme h = (Homme) population.getHumain(i);
-            h.vieillir();
-        }
-
-        for (int i = 0; i < tailleInit / 2; i++) {
-            int fertilite = loto.nextInt(1, 100);
-            population.addHumain(new Femme(17, 70, "Femme" + i, fertilite));
-            Femme f = (Femme) population.getHumain(i + tailleInit / 2);
-            f.vieillir();
-        }
-
-        // Simulation des tours de jeu
-        for (int i = 0; i < nbTourDeJeu; i++) {
-
-            int n = 0;
-            List<Humain> tirageHuman = population.getPop();
-
-            if (population.taille() <= 1) {
-                throw new PopulationException(population);
-            }
-
-            // Calcul du nombre de bébés à créer
-            if (param == 0) {
-                n = loto.nextInt(population.taille() / 2);
-            } else if (param == 1) { // Croissance forcée
-                int countH = 0;
-                int countF = 0;
-                for (Humain h : tirageHuman) {
-                    if (h.isHomme() && h.getAge() > 15 && h.getAge() < 60) {
-                        countH++;
-                    }
-                    if (h.isFemme() && h.getAge() > 15 && h.getAge() < 60) {
-                        countF++;
-                    }
+        int nbThreads = Runtime.getRuntime().availableProcessors();
+        long graine = Hasard.graineAleatoire();
+        String algorithme = Hasard.ALGORITHME_PAR_DEFAUT;
+        Rapport.Niveau niveau = Rapport.Niveau.COMPLET;
+        int pasEchantillon = 1000;
+        String fichier = null;
+        boolean cohortes = false;
+        int pasReprise = 0;
+        String fichierReprise = FICHIER_REPRISE;
+        String reprise = null;
+        String fichierStats = null;
+        boolean jmx = false;
+        boolean genealogie = false;
+        StockageFiliations filiations = null;
+        Colonnes colonnes = null;
+        boolean recyclage = false;
+        NoyauVieillissement noyau = null;
+        int nbIles = 1;
+        int pasMigration = 10;
+        double tauxMigration = 0.01;
+        boolean processus = false;
+        boolean touteRencontre = false;
+        String lignee = null;
+        for (int k = param == 2 ? 4 : 3; k < args.length; k++) {
+            if (args[k].equals("--threads") && k + 1 < args.length) {
+                nbThreads = Integer.parseInt(args[++k]);
+            } else if (args[k].equals("--seed") && k + 1 < args.length) {
+                graine = Long.parseLong(args[++k]);
+            } else if (args[k].equals("--rng") && k + 1 < args.length) {
+                algorithme = args[++k];
+            } else if (args[k].equals("--report") && k + 1 < args.length) {
+                try {
+                    niveau = Rapport.Niveau.valueOf(args[++k].toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Niveau de rapport inconnu : " + args[k]);
+                    return;
                 }
-                n = Math.min(countH, countF);
-            }
-
-            List<Humain> newBebe = new ArrayList<>();
-
-            // Gestion de la reproduction et de la mortalité
-            if (param == 0) {
-                for (int j = 0; j < n; j++) {
-                    int i1 = loto.nextInt(tirageHuman.size());
-                    Humain h1 = tirageHuman.remove(i1);
-                    int i2 = loto.nextInt(tirageHuman.size());
-                    Humain h2 = tirageHuman.remove(i2);
-
-                    Humain bebe = null;
-
+            } else if (args[k].equals("--sample-every") && k + 1 < args.length) {
+                pasEchantillon = Integer.parseInt(args[++k]);
+            } else if (args[k].equals("--output") && k + 1 < args.length) {
+                fichier = args[++k];
+            } else if (args[k].equals("--engine") && k + 1 < args.length) {
+                String moteur = args[++k];
+                if (!moteur.equals("individus") && !moteur.equals("cohortes")) {
+                    System.out.println("Moteur inconnu : " + moteur);
+                    return;
+                }
+                cohortes = moteur.equals("cohortes");
+            } else if (args[k].equals("--checkpoint-every") && k + 1 < args.length) {
+                pasReprise = Integer.parseInt(args[++k]);
+            } else if (args[k].equals("--checkpoint") && k + 1 < args.length) {
+                fichierReprise = args[++k];
+            } else if (args[k].equals("--resume") && k + 1 < args.length) {
+                reprise = args[++k];
+            } else if (args[k].equals("--stats") && k + 1 < args.length) {
+                fichierStats = args[++k];
+            } else if (args[k].equals("--jmx")) {
+                jmx = true;
+            } else if (args[k].equals("--genealogy")) {
+                genealogie = true;
+            } else if (args[k].equals("--genealogy-offheap")
+                    || args[k].equals("--genealogy-map") && k + 1 < args.length) {
+                Path fichierFiliations = args[k].equals("--genealogy-map") ? Path.of(args[++k]) : null;
+                try {
+                    filiations = StockageFiliations.horsTas(fichierFiliations);
+                } catch (IllegalStateException | UncheckedIOException e) {
+                    System.out.println(e.getMessage());
+                    return;
+                }
+                genealogie = true;
+            } else if (args[k].equals("--population-offheap")
+                    || args[k].equals("--population-map") && k + 1 < args.length) {
+                Path fichierColonnes = args[k].equals("--population-map") ? Path.of(args[++k]) : null;
+                try {
+                    colonnes = Colonnes.horsTas(fichierColonnes);
+                } catch (IllegalStateException | UncheckedIOException e) {
+                    System.out.println(e.getMessage());
+                    return;
+                }
+            } else if (args[k].equals("--lineage") && k + 1 < args.length) {
+                lignee = args[++k];
+                genealogie = true;
+            } else if (args[k].equals("--recycle")) {
+                recyclage = true;
+            } else if (args[k].equals("--kernel") && k + 1 < args.length) {
+                String nom = args[++k];
+                if (nom.equals("scalaire")) {
+                    noyau = NoyauVieillissement.scalaire();
+                } else if (nom.equals("vectoriel")) {
                     try {
-                        bebe = population.rencontre(population.getIndex(h1), population.getIndex(h2));
-                    } catch (BreedingForbiddenException e) {
-                        System.out.println(e.getMessage());
-                    } catch (NoBreedingException e) {
+                        noyau = NoyauVieillissement.vectoriel();
+                    } catch (IllegalStateException e) {
                         System.out.println(e.getMessage());
-                    } catch (MeetingException e) {
-                        System.out.println(e.getMessage());
-                    }
-
-                    if (bebe != null) {
-                        newBebe.add(bebe);
-                        int rand = loto.nextInt(0, 100);
-                        if (rand < 20) {
-                            int randomMort = newBebe.size() + population.taille() - 1;
-                            int valMort = loto.nextInt(randomMort);
-                            if (valMort >= population.taille()) {
-                                valMort %= population.taille();
-                                newBebe.get(valMort).tuer();
-                            } else {
-                                population.getHumain(valMort).tuer();
-                            }
-                        }
+                        return;
                     }
+                } else {
+                    System.out.println("Noyau inconnu : " + nom);
+                    return;
                 }
-            } else if (param == 1) {
-                for (int k = 0; k < n; k++) {
-                    Humain h1 = tirageHuman.get(k);
-                    for (int j = 0; j < n; j++) {
-                        if (j != k) {
-                            Humain h2 = tirageHuman.get(j);
-                            Humain bebe = null;
-                            try {
-                                bebe = population.rencontre(population.getIndex(h1), population.getIndex(h2));
-                            } catch (BreedingForbiddenException e) {
-                                System.out.println(e.getMessage());
-                            } catch (NoBreedingException e) {
-                                System.out.println(e.getMessage());
-                            } catch (MeetingException e) {
-                                System.out.println(e.getMessage());
-                            }
-                            if (bebe != null) {
-                                newBebe.add(bebe);
-                                int rand = loto.nextInt(0, 100);
-                                if (rand < 20) {
-                                    int randomMort = newBebe.size() + population.taille() - 1;
-                                    int valMort = loto.nextInt(randomMort);
-                                    if (valMort >= population.taille()) {
-                                        valMort %= population.taille();
-                                        newBebe.get(valMort).tuer();
-                                    } else {
-                                        population.getHumain(valMort).tuer();
-                                    }
-                                }
-                            }
-                        }
-                    }
+            } else if (args[k].equals("--demes") && k + 1 < args.length) {
+                nbIles = Integer.parseInt(args[++k]);
+            } else if (args[k].equals("--workers") && k + 1 < args.length) {
+                nbIles = Integer.parseInt(args[++k]);
+                processus = true;
+            } else if (args[k].equals("--migration-every") && k + 1 < args.length) {
+                pasMigration = Integer.parseInt(args[++k]);
+            } else if (args[k].equals("--migration-rate") && k + 1 < args.length) {
+                tauxMigration = Double.parseDouble(args[++k]);
+            } else if (args[k].equals("--forced-pairing") && k + 1 < args.length) {
+                String appariement = args[++k];
+                if (!appariement.equals("couples") && !appariement.equals("tous")) {
+                    System.out.println("Appariement inconnu : " + appariement);
+                    return;
                 }
+                touteRencontre = appariement.equals("tous");
             } else {
-                int compteur = 0;
-                int hommeFertile = 0;
-                int femmeFertile = 0;
+                System.out.println("Argument inconnu : " + args[k]);
+                return;
+            }
+        }
+        if (nbThreads < 1) {
+            System.out.println("Erreur sur le nombre de threads");
+            return;
+        }
+        if (pasEchantillon < 1) {
+            System.out.println("Erreur sur le pas d'echantillonnage");
+            return;
+        }
+        if (pasReprise < 0) {
+            System.out.println("Erreur sur le pas des points de reprise");
+            return;
+        }
+        if (nbIles < 1) {
+            System.out.println("Erreur sur le nombre d'iles");
+            return;
+        }
+        if (processus && nbIles < 2) {
+            System.out.println("--workers demande au moins deux travailleurs");
+            return;
+        }
+        if (processus && niveau != Rapport.Niveau.RESUME) {
+            System.out.println("Seul --report resume est disponible avec --workers");
+            return;
+        }
+        if (pasMigration < 0 || !(tauxMigration >= 0 && tauxMigration <= 1)) {
+            System.out.println("Erreur sur les migrations");
+            return;
+        }
+        if ((nbIles > 1 || processus)
+                && (cohortes || pasReprise > 0 || reprise != null || fichierStats != null || genealogie
+                        || lignee != null || jmx)) {
+            System.out.println("--demes et --workers ne sont pas disponibles avec --engine cohortes, les points"
+                    + " de reprise, --stats, --genealogy, --lineage ni --jmx");
+            return;
+        }
+        if (cohortes && (pasReprise > 0 || reprise != null)) {
+            System.out.println("Les points de reprise ne sont pas disponibles avec --engine cohortes");
+            return;
+        }
+        if (cohortes && fichierStats != null) {
+            System.out.println("Les statistiques ne sont pas disponibles avec --engine cohortes");
+            return;
+        }
+        if (touteRencontre && (param != 1 || cohortes || processus)) {
+            System.out.println("--forced-pairing tous n'est disponible qu'en croissance forcee, avec le moteur"
+                    + " individus, sans --workers");
+            return;
+        }
+        if (colonnes != null && (cohortes || nbIles > 1 || processus)) {
+            System.out.println("La population hors du tas n'est disponible qu'avec le moteur individus, sans"
+                    + " --demes ni --workers");
+            return;
+        }
+        if (cohortes && genealogie) {
+            System.out.println("La genealogie n'est pas disponible avec --engine cohortes");
+            return;
+        }
+        if (!cohortes && reprise == null && tailleInit > Integer.MAX_VALUE) {
+            System.out.println("Population initiale trop grande, utiliser --engine cohortes");
+            return;
+        }
 
-                for (Humain h : tirageHuman) {
-                    if (h.isHomme() && h.getAge() > 15 && h.getAge() < 60) {
-                        hommeFertile++;
-                    } else if (h.isFemme() && h.getAge() > 15 && h.getAge() < 60) {
-                        femmeFertile++;
-                    }
-                }
-                while (compteur < nbb) {
-                    if (hommeFertile == 0 || femmeFertile == 0) {
-                        break;
-                    }
+        PointDeReprise pointDeReprise = null;
+        if (reprise != null) {
+            try {
+                pointDeReprise = PointDeReprise.lire(Path.of(reprise));
+            } catch (IOException e) {
+                System.out.println("Impossible de lire le point de reprise " + reprise + " : " + e.getMessage());
+                return;
+            }
+            if (pointDeReprise.getMode() != param || pointDeReprise.getNbb() != nbb) {
+                System.out.println("Le point de reprise a ete cree avec le parametre " + pointDeReprise.getMode()
+                        + (pointDeReprise.getMode() == 2 ? " " + pointDeReprise.getNbb() : ""));
+                return;
+            }
+            if (filiations != null) {
+                System.out.println("Les filiations hors du tas ne sont pas disponibles avec --resume");
+                return;
+            }
+            if (colonnes != null) {
+                System.out.println("La population hors du tas n'est pas disponible avec --resume");
+                return;
+            }
+            if (genealogie && pointDeReprise.getPopulation().getGenealogie() == null) {
+                System.out.println("Le point de reprise a ete cree sans --genealogy");
+                return;
+            }
+            graine = pointDeReprise.getGraine();
+            algorithme = pointDeReprise.getAlgorithme();
+        }
 
-                    int i1 = loto.nextInt(tirageHuman.size() - 1);
-                    int i2 = loto.nextInt(tirageHuman.size() - 1);
-                    Humain h1 = tirageHuman.get(i1);
-                    Humain h2 = tirageHuman.get(i2);
-                    Humain bebe = null;
+        Hasard hasard;
+        try {
+            hasard = new Hasard(graine, algorithme);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Generateur inconnu : " + algorithme);
+            return;
+        }
 
-                    try {
-                        bebe = population.rencontre(population.getIndex(h1), population.getIndex(h2));
-                    } catch (BreedingForbiddenException e) {
-                        System.out.println(e.getMessage());
-                    } catch (NoBreedingException e) {
-                        System.out.println(e.getMessage());
-                    } catch (MeetingException e) {
-                        System.out.println(e.getMessage());
-                    }
-                    if (bebe != null) {
-                        newBebe.add(bebe);
-                        int rand = loto.nextInt(0, 100);
-                        if (rand < 20) {
-                            int randomMort = newBebe.size() + population.taille() - 1;
-                            int valMort = loto.nextInt(randomMort);
-                            if (valMort >= population.taille()) {
-                                valMort %= population.taille();
-                                newBebe.get(valMort).tuer();
-                            } else {
-                                population.getHumain(valMort).tuer();
-                            }
-                        }
-                    }
-                }
+        Rapport rapport;
+        try {
+            rapport = fichier == null
+                    ? new Rapport(niveau, pasEchantillon, System.out, false)
+                    : new Rapport(niveau, pasEchantillon, Files.newOutputStream(Path.of(fichier)), true);
+        } catch (IOException e) {
+            System.out.println("Impossible d'ecrire dans " + fichier + " : " + e.getMessage());
+            return;
+        }
+        rapport.ligne("Graine : " + graine);
+        Sonde sonde = new Sonde();
+        if (jmx) {
+            try {
+                sonde.enregistrer();
+            } catch (JMException e) {
+                System.err.println("Impossible d'enregistrer le MBean " + Sonde.NOM_MBEAN + " : " + e.getMessage());
             }
-
-            // Vieillissement de la population
+        }
+        Execution execution = new Execution(rapport);
+        if (cohortes) {
+            MoteurCohortes moteur = new MoteurCohortes(tailleInit, param, nbb, hasard);
+            moteur.setSonde(sonde);
+            execution.simuler(moteur, nbTourDeJeu);
+            rapport.close();
+            return;
+        }
+        Statistiques statistiques = null;
+        if (fichierStats != null) {
             try {
-                population.vieillir();
-            } catch (PopulationException e) {
-                System.out.println(e.getMessage());
+                statistiques = pointDeReprise != null
+                        ? Statistiques.reprendre(Path.of(fichierStats), pointDeReprise.getOctetsStatistiques())
+                        : Statistiques.ouvrir(Path.of(fichierStats), false);
+            } catch (IOException e) {
+                System.out.println("Impossible d'ecrire dans " + fichierStats + " : " + e.getMessage());
+                rapport.close();
                 return;
             }
-            for (Humain bebe : newBebe) {
-                if (bebe.getAge() != 1000) {
-                    population.addHumain(bebe);
+        }
+        Configuration config = new Configuration(pointDeReprise != null ? 0 : (int) tailleInit, param, nbb);
+        config.setThreads(nbThreads);
+        config.setGraine(graine);
+        config.setAlgorithme(algorithme);
+        config.setGenealogie(genealogie);
+        config.setFiliations(filiations);
+        config.setColonnes(colonnes);
+        config.setRecyclage(recyclage);
+        if (noyau != null) {
+            config.setNoyau(noyau);
+        }
+        if (touteRencontre) {
+            config.setCroissance(Croissance.forceeComplete());
+        }
+        if (nbIles > 1 || processus) {
+            config.setIles(nbIles);
+            config.setPasMigration(pasMigration);
+            config.setTauxMigration(tauxMigration);
+            if (processus) {
+                try (Coordinateur coordinateur = new Coordinateur(config)) {
+                    execution.simuler(coordinateur, nbTourDeJeu);
+                } catch (IOException e) {
+                    System.out.println("Erreur des travailleurs : " + e.getMessage());
                 }
+                rapport.close();
+                return;
             }
-
-            // Trier la population et afficher l'état actuel
-            population.trierPop();
-            population.print();
-            System.out.println("\nGeneration numero : " + i);
+            try (Archipel archipel = new Archipel(config)) {
+                execution.simuler(archipel, nbTourDeJeu);
+            }
+            rapport.close();
+            return;
+        }
+        execution.setStatistiques(statistiques);
+        execution.setPointsDeReprise(pasReprise, Path.of(fichierReprise));
+        execution.setLignee(lignee);
+        try (MoteurSimulation simulation = pointDeReprise != null ? new MoteurSimulation(config, pointDeReprise)
+                : new MoteurSimulation(config)) {
+            simulation.setSonde(sonde);
+            execution.simuler(simulation, nbTourDeJeu);
+        } finally {
+            rapport.close();
         }
     }
 }
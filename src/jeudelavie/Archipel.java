@@ -0,0 +1,344 @@
+package jeudelavie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+/**
+ * Simulation d'une population répartie entre plusieurs îles, qui jouent
+ * chacune leurs générations indépendamment des autres, sur des threads
+ * différents, et échangent des migrants à intervalles réguliers.
+ * <p>
+ * Chaque île est un {@link MoteurSimulation} sur un seul thread, avec sa
+ * propre population et sa propre graine, tirée de la graine de l'archipel :
+ * les rencontres n'ont lieu qu'entre humains d'une même île, si bien que les
+ * îles n'ont rien à partager pendant une génération et que le débit croît
+ * presque linéairement avec le nombre de threads. La population initiale et,
+ * en croissance régulée, les naissances de chaque génération sont partagées
+ * entre les îles ; les modes 0 et 1 sont proportionnels à la taille de chaque
+ * île. Une île réduite à un seul humain, ou à un seul sexe, reste en attente,
+ * sans vieillir, jusqu'à ce que des migrants la repeuplent.
+ * </p>
+ * <p>
+ * Toutes les {@link Configuration#getPasMigration()} générations, chaque
+ * humain émigre avec la probabilité {@link Configuration#getTauxMigration()}
+ * vers l'île suivante, la dernière île envoyant ses migrants vers la
+ * première. Les migrations sont tirées sur le thread appelant, dans leurs
+ * propres flux de {@link Hasard} : le résultat ne dépend pas du nombre de
+ * threads.
+ * </p>
+ */
+public final class Archipel implements AutoCloseable {
+
+    /** Les paramètres de la simulation. */
+    private final Configuration config;
+
+    /** La source des nombres aléatoires des migrations. */
+    private final Hasard hasard;
+
+    /** Les îles. */
+    private final MoteurSimulation[] iles;
+
+    /** Les bilans des rencontres de la dernière génération de chaque île. */
+    private final BilanRencontres[] bilans;
+
+    /** Les migrants de chaque île pendant une migration. */
+    private final ColonnesSurTas[] migrants;
+
+    /** Les threads qui jouent les îles, ou {@code null} pour tout jouer sur le thread appelant. */
+    private final ExecutorService executeur;
+
+    /** Le numéro de la prochaine génération à jouer. */
+    private int generation;
+
+    /** Le nombre de migrants de la dernière génération. */
+    private int nbMigrants;
+
+    /**
+     * Crée un archipel et la population initiale de chaque île.
+     *
+     * @param config Les paramètres de la simulation, dont le nombre d'îles et
+     *               les migrations.
+     * @throws IllegalArgumentException Si l'algorithme des générateurs est
+     *                                  inconnu.
+     */
+    public Archipel(Configuration config) {
+        this.config = config;
+        this.hasard = new Hasard(config.getGraine(), config.getAlgorithme());
+        int n = config.getIles();
+        iles = new MoteurSimulation[n];
+        bilans = new BilanRencontres[n];
+        migrants = new ColonnesSurTas[n];
+        for (int k = 0; k < n; k++) {
+            bilans[k] = new BilanRencontres();
+            migrants[k] = new ColonnesSurTas();
+            iles[k] = creerIle(config, hasard, k, bilans[k]);
+        }
+        int nbThreads = Math.min(config.getThreads(), n);
+        executeur = nbThreads > 1 ? Executors.newFixedThreadPool(nbThreads, r -> {
+            Thread t = new Thread(r, "ile");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+    }
+
+    /**
+     * Crée une île d'un archipel et sa population initiale.
+     *
+     * @param config Les paramètres de l'archipel.
+     * @param hasard La source des nombres aléatoires de l'archipel.
+     * @param k      Le numéro de l'île.
+     * @param bilan  Le bilan qui reçoit, à la fin de chaque génération, les
+     *               rencontres de l'île.
+     * @return L'île, qui joue sur un seul thread.
+     */
+    static MoteurSimulation creerIle(Configuration config, Hasard hasard, int k, BilanRencontres bilan) {
+        int n = config.getIles();
+        Configuration c = new Configuration(part(config.getTailleInit(), n, k), config.getParam(), config.getNbb());
+        c.setThreads(1);
+        c.setGraine(hasard.flux(Hasard.FLUX_ILES, k).nextLong());
+        c.setAlgorithme(config.getAlgorithme());
+        c.setRecyclage(config.isRecyclage());
+        c.setNoyau(config.getNoyau());
+        c.setCroissance(config.getParam() == 2 ? Croissance.regulee(part(config.getNbb(), n, k))
+                : config.getCroissance());
+        MoteurSimulation ile = new MoteurSimulation(c);
+        ile.ajouterEcouteur(new EcouteurSimulation() {
+            @Override
+            public void finGeneration(MoteurSimulation simulation, int g) {
+                bilan.ajouter(simulation.getPopulation().getBilan());
+            }
+        });
+        return ile;
+    }
+
+    /**
+     * Calcule la part d'une île dans un total réparti entre les îles, les
+     * premières îles recevant le reste de la division.
+     *
+     * @param total Le total à répartir.
+     * @param n     Le nombre d'îles.
+     * @param k     Le numéro de l'île.
+     * @return La part de l'île.
+     */
+    private static int part(int total, int n, int k) {
+        return total / n + (k < total % n ? 1 : 0);
+    }
+
+    /**
+     * Joue une génération sur chaque île qui peut encore se reproduire, puis
+     * la migration si elle tombe à cette génération.
+     *
+     * @throws PopulationException Si aucune île ne peut plus se reproduire.
+     */
+    public void step() throws PopulationException {
+        List<MoteurSimulation> actives = new ArrayList<>();
+        for (int k = 0; k < iles.length; k++) {
+            bilans[k].reinitialiser();
+            if (viable(iles[k].getPopulation())) {
+                actives.add(iles[k]);
+            }
+        }
+        if (actives.isEmpty()) {
+            throw new PopulationException(taille() <= 1 ? "population is empty" : "population cannot grow");
+        }
+        if (executeur == null) {
+            for (MoteurSimulation ile : actives) {
+                ile.step();
+            }
+        } else {
+            List<Future<Void>> taches = new ArrayList<>();
+            for (MoteurSimulation ile : actives) {
+                taches.add(executeur.submit(() -> {
+                    ile.step();
+                    return null;
+                }));
+            }
+            attendre(taches);
+        }
+
+        nbMigrants = 0;
+        if (migration(config, generation)) {
+            migrer();
+        }
+        generation++;
+    }
+
+    /**
+     * Joue plusieurs générations.
+     *
+     * @param n Le nombre de générations à jouer.
+     * @throws PopulationException Si aucune île ne peut plus se reproduire.
+     */
+    public void run(int n) throws PopulationException {
+        for (int k = 0; k < n; k++) {
+            step();
+        }
+    }
+
+    /**
+     * Attend la fin des générations jouées sur les threads de l'archipel.
+     *
+     * @param taches Les générations en cours.
+     * @throws PopulationException Si une île n'a pas pu jouer sa génération.
+     */
+    private static void attendre(List<Future<Void>> taches) throws PopulationException {
+        try {
+            for (Future<Void> f : taches) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrompue", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof PopulationException) {
+                throw (PopulationException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Indique si une île peut jouer une génération, comme
+     * {@link Population#verifierViabilite()}.
+     *
+     * @param p La population de l'île.
+     * @return {@code true} si la population compte au moins deux humains, dont
+     *         au moins un homme et une femme.
+     */
+    static boolean viable(Population p) {
+        return p.taille() > 1 && !p.onlyMen() && !p.onlyWomen();
+    }
+
+    /**
+     * Fait émigrer des humains de chaque île vers la suivante. Tous les
+     * migrants quittent leur île avant que les premiers n'arrivent, pour
+     * qu'aucun ne migre deux fois.
+     */
+    private void migrer() {
+        int n = iles.length;
+        for (int k = 0; k < n; k++) {
+            nbMigrants += emigrer(iles[k].getPopulation(), config, hasard, generation, k, migrants[k]);
+        }
+        for (int k = 0; k < n; k++) {
+            Population destination = iles[(k + 1) % n].getPopulation();
+            destination.immigrer(migrants[k]);
+            migrants[k].vider();
+        }
+        for (MoteurSimulation ile : iles) {
+            ile.getPopulation().trierPop();
+        }
+    }
+
+    /**
+     * Tire les migrants d'une île lors d'une migration et les retire de sa
+     * population.
+     *
+     * @param p          La population de l'île.
+     * @param config     Les paramètres de l'archipel.
+     * @param hasard     La source des nombres aléatoires de l'archipel.
+     * @param generation Le numéro de la génération qui précède la migration.
+     * @param k          Le numéro de l'île.
+     * @param migrants   Les colonnes qui reçoivent les migrants.
+     * @return Le nombre de migrants.
+     */
+    static int emigrer(Population p, Configuration config, Hasard hasard, int generation, int k,
+            ColonnesSurTas migrants) {
+        RandomGenerator loto = hasard.flux(Hasard.FLUX_MIGRATIONS, generation, k);
+        int nombre = (int) Lois.binomiale(p.taille(), config.getTauxMigration(), loto);
+        return p.emigrer(nombre, loto, migrants);
+    }
+
+    /**
+     * Indique si une génération est suivie d'une migration.
+     *
+     * @param config     Les paramètres de l'archipel.
+     * @param generation Le numéro de la génération.
+     * @return {@code true} s'il faut migrer après la génération.
+     */
+    static boolean migration(Configuration config, int generation) {
+        int pas = config.getPasMigration();
+        return config.getIles() > 1 && pas > 0 && (generation + 1) % pas == 0;
+    }
+
+    /**
+     * Obtient le numéro de la prochaine génération à jouer.
+     *
+     * @return Le numéro de la prochaine génération.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Obtient les îles, dans l'ordre des migrations.
+     *
+     * @return Les îles, en lecture seule.
+     */
+    public List<MoteurSimulation> getIles() {
+        return Collections.unmodifiableList(Arrays.asList(iles));
+    }
+
+    /**
+     * Obtient la taille totale de la population, toutes îles confondues.
+     *
+     * @return Le nombre d'humains.
+     */
+    public int taille() {
+        int n = 0;
+        for (MoteurSimulation ile : iles) {
+            n += ile.getPopulation().taille();
+        }
+        return n;
+    }
+
+    /**
+     * Obtient le bilan des rencontres de la dernière génération, toutes îles
+     * confondues.
+     *
+     * @return Un nouveau bilan.
+     */
+    public BilanRencontres getBilan() {
+        BilanRencontres total = new BilanRencontres();
+        for (BilanRencontres b : bilans) {
+            total.ajouter(b);
+        }
+        return total;
+    }
+
+    /**
+     * Obtient le nombre d'humains qui ont changé d'île à la dernière
+     * génération.
+     *
+     * @return Le nombre de migrants, 0 hors des générations de migration.
+     */
+    public int getMigrants() {
+        return nbMigrants;
+    }
+
+    /**
+     * Arrête les threads de l'archipel et ceux des îles.
+     */
+    @Override
+    public void close() {
+        if (executeur != null) {
+            executeur.shutdownNow();
+        }
+        for (MoteurSimulation ile : iles) {
+            ile.close();
+        }
+    }
+}
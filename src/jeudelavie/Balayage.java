@@ -0,0 +1,530 @@
+package jeudelavie;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Balayage d'une grille de paramètres : simule chaque combinaison de taille
+ * initiale, de mode de fonctionnement et de nombre de naissances, pour
+ * plusieurs graines, dans la même JVM.
+ * <p>
+ * Les simulations sont réparties sur un nombre borné de threads, chacune sur
+ * un seul thread : une simulation du balayage donne exactement le même
+ * résultat que {@code java Main} lancé avec la même graine. Le résultat de
+ * chaque simulation est ajouté à un fichier cache, au format de la table des
+ * résultats ; une simulation dont les paramètres et la graine figurent déjà
+ * dans le cache n'est pas rejouée. Le cache commence par la version des
+ * résultats, {@link #VERSION_RESULTATS} : un cache écrit par une autre version
+ * est vidé plutôt que réutilisé.
+ * </p>
+ */
+public final class Balayage {
+
+    /** Le fichier cache par défaut. */
+    static final String FICHIER_CACHE = "jeudelavie-balayage.csv";
+
+    /**
+     * La version des résultats, à incrémenter à chaque modification du format
+     * du cache ou de la simulation qui change le résultat d'une graine donnée.
+     */
+    static final int VERSION_RESULTATS = 2;
+
+    /** La première ligne du cache, qui porte la version des résultats. */
+    private static final String VERSION = "# jeudelavie-balayage version " + VERSION_RESULTATS;
+
+    /** L'en-tête de la table des résultats et du cache. */
+    private static final String ENTETE = "generations_demandees,taille_init,param,nbb,graine,generateur,"
+            + "generations,taille_finale,naissances,morts,duree_ms";
+
+    /**
+     * Les paramètres d'une simulation, qui déterminent entièrement son
+     * résultat.
+     */
+    static final class Cle {
+
+        /** Le nombre de tours de jeu demandés. */
+        final int nbTourDeJeu;
+
+        /** La taille initiale de la population. */
+        final int tailleInit;
+
+        /** Le mode de fonctionnement. */
+        final int param;
+
+        /** Le nombre de naissances par génération en croissance régulée, 0 sinon. */
+        final int nbb;
+
+        /** La graine de la simulation. */
+        final long graine;
+
+        /** L'algorithme des générateurs de nombres aléatoires. */
+        final String algorithme;
+
+        /**
+         * Constructeur de la classe {@code Cle}.
+         *
+         * @param nbTourDeJeu Le nombre de tours de jeu demandés.
+         * @param tailleInit  La taille initiale de la population.
+         * @param param       Le mode de fonctionnement.
+         * @param nbb         Le nombre de naissances par génération en
+         *                    croissance régulée, 0 sinon.
+         * @param graine      La graine de la simulation.
+         * @param algorithme  L'algorithme des générateurs.
+         */
+        Cle(int nbTourDeJeu, int tailleInit, int param, int nbb, long graine, String algorithme) {
+            this.nbTourDeJeu = nbTourDeJeu;
+            this.tailleInit = tailleInit;
+            this.param = param;
+            this.nbb = nbb;
+            this.graine = graine;
+            this.algorithme = algorithme;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Cle)) {
+                return false;
+            }
+            Cle c = (Cle) o;
+            return nbTourDeJeu == c.nbTourDeJeu && tailleInit == c.tailleInit && param == c.param && nbb == c.nbb
+                    && graine == c.graine && algorithme.equals(c.algorithme);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(nbTourDeJeu, tailleInit, param, nbb, graine, algorithme);
+        }
+
+        @Override
+        public String toString() {
+            return nbTourDeJeu + "," + tailleInit + "," + param + "," + nbb + "," + graine + "," + algorithme;
+        }
+    }
+
+    /**
+     * Le résultat d'une simulation.
+     */
+    static final class Resultat {
+
+        /** Les paramètres de la simulation. */
+        final Cle cle;
+
+        /** Le nombre de générations jouées avant l'extinction ou la fin. */
+        final int generations;
+
+        /** La taille finale de la population. */
+        final int tailleFinale;
+
+        /** Le nombre total de naissances. */
+        final long naissances;
+
+        /** Le nombre total de morts. */
+        final long morts;
+
+        /** La durée de la simulation, en millisecondes. */
+        final long dureeMs;
+
+        /**
+         * Constructeur de la classe {@code Resultat}.
+         *
+         * @param cle          Les paramètres de la simulation.
+         * @param generations  Le nombre de générations jouées.
+         * @param tailleFinale La taille finale de la population.
+         * @param naissances   Le nombre total de naissances.
+         * @param morts        Le nombre total de morts.
+         * @param dureeMs      La durée de la simulation, en millisecondes.
+         */
+        Resultat(Cle cle, int generations, int tailleFinale, long naissances, long morts, long dureeMs) {
+            this.cle = cle;
+            this.generations = generations;
+            this.tailleFinale = tailleFinale;
+            this.naissances = naissances;
+            this.morts = morts;
+            this.dureeMs = dureeMs;
+        }
+
+        /**
+         * Lit un résultat dans une ligne de la table des résultats.
+         *
+         * @param ligne La ligne.
+         * @return Le résultat, ou {@code null} si la ligne n'en décrit pas un.
+         */
+        static Resultat lire(String ligne) {
+            String[] c = ligne.split(",");
+            if (c.length < 11) {
+                return null;
+            }
+            try {
+                Cle cle = new Cle(Integer.parseInt(c[0]), Integer.parseInt(c[1]), Integer.parseInt(c[2]),
+                        Integer.parseInt(c[3]), Long.parseLong(c[4]), c[5]);
+                return new Resultat(cle, Integer.parseInt(c[6]), Integer.parseInt(c[7]), Long.parseLong(c[8]),
+                        Long.parseLong(c[9]), Long.parseLong(c[10]));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return cle + "," + generations + "," + tailleFinale + "," + naissances + "," + morts + "," + dureeMs;
+        }
+    }
+
+    /** Les résultats connus, lus dans le cache ou calculés. */
+    private final Map<Cle, Resultat> connus = new ConcurrentHashMap<>();
+
+    /** Le fichier cache, ou {@code null} s'il n'y en a pas. */
+    private final Path fichierCache;
+
+    /** L'écrivain du fichier cache, ou {@code null} s'il n'y en a pas. */
+    private BufferedWriter cache;
+
+    /**
+     * Constructeur de la classe {@code Balayage}.
+     * <p>
+     * Charge les résultats déjà présents dans le fichier cache, s'il a été
+     * écrit par la même version des résultats ; sinon, le fichier est vidé.
+     * </p>
+     *
+     * @param fichierCache Le fichier cache, ou {@code null} pour n'en utiliser
+     *                     aucun.
+     * @throws IOException Si le fichier cache ne peut pas être lu ou ouvert.
+     */
+    Balayage(Path fichierCache) throws IOException {
+        this.fichierCache = fichierCache;
+        if (fichierCache == null) {
+            return;
+        }
+        List<String> lignes = Files.exists(fichierCache)
+                ? Files.readAllLines(fichierCache, StandardCharsets.UTF_8) : List.of();
+        boolean nouveau = lignes.isEmpty() || !lignes.get(0).equals(VERSION);
+        if (!nouveau) {
+            for (String ligne : lignes) {
+                Resultat r = Resultat.lire(ligne);
+                if (r != null) {
+                    connus.put(r.cle, r);
+                }
+            }
+        }
+        cache = Files.newBufferedWriter(fichierCache, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                nouveau ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND);
+        if (nouveau) {
+            cache.write(VERSION);
+            cache.newLine();
+            cache.write(ENTETE);
+            cache.newLine();
+            cache.flush();
+        }
+    }
+
+    /**
+     * Joue une simulation sur le thread appelant, sans rien afficher.
+     *
+     * @param cle Les paramètres de la simulation.
+     * @return Le résultat de la simulation.
+     */
+    static Resultat simuler(Cle cle) {
+        long debut = System.nanoTime();
+        Configuration config = new Configuration(cle.tailleInit, cle.param, cle.nbb);
+        config.setThreads(1);
+        config.setGraine(cle.graine);
+        config.setAlgorithme(cle.algorithme);
+        Compteur compteur = new Compteur();
+        try (MoteurSimulation simulation = new MoteurSimulation(config)) {
+            simulation.ajouterEcouteur(compteur);
+            Population population = simulation.getPopulation();
+            while (simulation.getGeneration() < cle.nbTourDeJeu && population.taille() > 1) {
+                try {
+                    simulation.step();
+                } catch (PopulationException e) {
+                    // La génération interrompue compte, avec ses naissances et ses décès.
+                    compteur.naissances += population.getBilan().getNaissances();
+                    compteur.morts += population.getDeces().getTotal();
+                    compteur.generations = simulation.getGeneration() + 1;
+                    break;
+                }
+            }
+            return new Resultat(cle, compteur.generations, population.taille(), compteur.naissances,
+                    compteur.morts, (System.nanoTime() - debut) / 1_000_000);
+        }
+    }
+
+    /**
+     * Cumul des naissances et des décès des générations jouées d'une
+     * simulation, complété par {@link #simuler(Cle)} pour une génération
+     * interrompue par une {@link PopulationException}.
+     */
+    private static final class Compteur implements EcouteurSimulation {
+
+        /** Le nombre de générations jouées. */
+        int generations;
+
+        /** Le nombre total de naissances. */
+        long naissances;
+
+        /** Le nombre total de décès. */
+        long morts;
+
+        @Override
+        public void finGeneration(MoteurSimulation simulation, int generation) {
+            Population population = simulation.getPopulation();
+            naissances += population.getBilan().getNaissances();
+            morts += population.getDeces().getTotal();
+            generations = generation + 1;
+        }
+    }
+
+    /**
+     * Joue les simulations d'une liste de paramètres qui ne figurent pas
+     * encore dans le cache, sur un nombre borné de threads. Des paramètres
+     * répétés ne sont simulés qu'une fois.
+     *
+     * @param cles     Les paramètres des simulations.
+     * @param nbTaches Le nombre de simulations jouées en même temps.
+     * @return Les résultats, dans l'ordre des paramètres.
+     * @throws ExecutionException   Si une simulation échoue.
+     * @throws InterruptedException Si le thread appelant est interrompu.
+     */
+    List<Resultat> executer(List<Cle> cles, int nbTaches) throws ExecutionException, InterruptedException {
+        Map<Cle, Future<Resultat>> taches = new LinkedHashMap<>();
+        ExecutorService executeur = Executors.newFixedThreadPool(nbTaches, r -> {
+            Thread t = new Thread(r, "balayage");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            for (Cle cle : cles) {
+                if (!connus.containsKey(cle) && !taches.containsKey(cle)) {
+                    taches.put(cle, executeur.submit(() -> memoriser(simuler(cle))));
+                }
+            }
+            List<Resultat> resultats = new ArrayList<>(cles.size());
+            for (Cle cle : cles) {
+                Future<Resultat> f = taches.get(cle);
+                resultats.add(f != null ? f.get() : connus.get(cle));
+            }
+            return resultats;
+        } finally {
+            executeur.shutdownNow();
+        }
+    }
+
+    /**
+     * Retient le résultat d'une simulation et l'ajoute au fichier cache, de
+     * sorte qu'un balayage interrompu ne perde pas les simulations achevées.
+     *
+     * @param r Le résultat.
+     * @return Le même résultat.
+     */
+    private Resultat memoriser(Resultat r) {
+        connus.put(r.cle, r);
+        if (cache != null) {
+            synchronized (this) {
+                try {
+                    cache.write(r.toString());
+                    cache.newLine();
+                    cache.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Impossible d'ecrire dans " + fichierCache, e);
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Ferme le fichier cache.
+     *
+     * @throws IOException Si le fichier cache ne peut pas être fermé.
+     */
+    void fermer() throws IOException {
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    /**
+     * Lit une liste d'entiers séparés par des virgules.
+     *
+     * @param liste La liste.
+     * @return Les entiers.
+     */
+    private static int[] entiers(String liste) {
+        String[] t = liste.split(",");
+        int[] v = new int[t.length];
+        for (int k = 0; k < t.length; k++) {
+            v[k] = Integer.parseInt(t[k].trim());
+        }
+        return v;
+    }
+
+    /**
+     * Point d'entrée du balayage, appelé par {@code java Main --sweep ...}.
+     *
+     * @param args Les arguments de la ligne de commande, sans {@code --sweep} :
+     *             <ul>
+     *             <li>nbTourDeJeu : Le nombre de tours de jeu de chaque
+     *             simulation.</li>
+     *             <li>taillesInit : Les tailles initiales, séparées par des
+     *             virgules.</li>
+     *             <li>params : Les modes de fonctionnement, séparés par des
+     *             virgules.</li>
+     *             <li>--nbb LISTE : Les nombres de naissances par génération,
+     *             pour le mode 2.</li>
+     *             <li>--replicas N (facultatif) : Le nombre de graines par
+     *             combinaison (1 par défaut).</li>
+     *             <li>--seed N (facultatif) : La première graine ; les
+     *             suivantes s'en déduisent en ajoutant 1.</li>
+     *             <li>--rng NOM (facultatif) : L'algorithme des générateurs.</li>
+     *             <li>--jobs N (facultatif) : Le nombre de simulations jouées en
+     *             même temps (par défaut le nombre de processeurs).</li>
+     *             <li>--output FICHIER (facultatif) : Le fichier de la table des
+     *             résultats (par défaut la console).</li>
+     *             <li>--cache FICHIER (facultatif) : Le fichier cache (par
+     *             défaut {@value #FICHIER_CACHE}).</li>
+     *             <li>--no-cache (facultatif) : N'utilise aucun cache.</li>
+     *             </ul>
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage : java Main --sweep <nbTourDeJeu> <taillesInit> <params> [--nbb LISTE] ...");
+            return;
+        }
+        int nbTourDeJeu;
+        int[] tailles;
+        int[] params;
+        int[] nbbs = null;
+        int replicas = 1;
+        long graine = Hasard.graineAleatoire();
+        String algorithme = Hasard.ALGORITHME_PAR_DEFAUT;
+        int nbTaches = Runtime.getRuntime().availableProcessors();
+        String fichier = null;
+        String fichierCache = FICHIER_CACHE;
+        try {
+            nbTourDeJeu = Integer.parseInt(args[0]);
+            tailles = entiers(args[1]);
+            params = entiers(args[2]);
+            for (int k = 3; k < args.length; k++) {
+                if (args[k].equals("--nbb") && k + 1 < args.length) {
+                    nbbs = entiers(args[++k]);
+                } else if (args[k].equals("--replicas") && k + 1 < args.length) {
+                    replicas = Integer.parseInt(args[++k]);
+                } else if (args[k].equals("--seed") && k + 1 < args.length) {
+                    graine = Long.parseLong(args[++k]);
+                } else if (args[k].equals("--rng") && k + 1 < args.length) {
+                    algorithme = args[++k];
+                } else if (args[k].equals("--jobs") && k + 1 < args.length) {
+                    nbTaches = Integer.parseInt(args[++k]);
+                } else if (args[k].equals("--output") && k + 1 < args.length) {
+                    fichier = args[++k];
+                } else if (args[k].equals("--cache") && k + 1 < args.length) {
+                    fichierCache = args[++k];
+                } else if (args[k].equals("--no-cache")) {
+                    fichierCache = null;
+                } else {
+                    System.out.println("Argument inconnu : " + args[k]);
+                    return;
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Nombre invalide : " + e.getMessage());
+            return;
+        }
+        if (replicas < 1 || nbTaches < 1) {
+            System.out.println("Erreur sur le nombre de repliques ou de taches");
+            return;
+        }
+        try {
+            new Hasard(graine, algorithme);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Generateur inconnu : " + algorithme);
+            return;
+        }
+
+        List<Cle> cles = new ArrayList<>();
+        for (int taille : tailles) {
+            for (int param : params) {
+                if (param < 0 || param > 2) {
+                    System.out.println("Parametre inconnu : " + param);
+                    return;
+                }
+                if (param == 2 && nbbs == null) {
+                    System.out.println("Le parametre 2 demande --nbb");
+                    return;
+                }
+                for (int nbb : param == 2 ? nbbs : new int[] { 0 }) {
+                    if (param == 2 && (nbb < 1 || nbb > 100)) {
+                        System.out.println("Erreur sur nbb : " + nbb);
+                        return;
+                    }
+                    for (int r = 0; r < replicas; r++) {
+                        cles.add(new Cle(nbTourDeJeu, taille, param, nbb, graine + r, algorithme));
+                    }
+                }
+            }
+        }
+
+        Balayage balayage;
+        try {
+            balayage = new Balayage(fichierCache == null ? null : Path.of(fichierCache));
+        } catch (IOException e) {
+            System.out.println("Impossible d'utiliser le cache " + fichierCache + " : " + e.getMessage());
+            return;
+        }
+        int enCache = 0;
+        for (Cle cle : cles) {
+            if (balayage.connus.containsKey(cle)) {
+                enCache++;
+            }
+        }
+        List<Resultat> resultats;
+        try {
+            resultats = balayage.executer(cles, nbTaches);
+        } catch (ExecutionException e) {
+            System.out.println("Echec d'une simulation : " + e.getCause());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            try {
+                balayage.fermer();
+            } catch (IOException e) {
+                System.err.println("Impossible de fermer le cache : " + e.getMessage());
+            }
+        }
+
+        try (PrintStream sortie = fichier == null ? null
+                : new PrintStream(Files.newOutputStream(Path.of(fichier)), false, StandardCharsets.UTF_8)) {
+            PrintStream s = sortie != null ? sortie : System.out;
+            s.println(ENTETE);
+            for (Resultat r : resultats) {
+                s.println(r);
+            }
+            s.flush();
+        } catch (IOException e) {
+            System.out.println("Impossible d'ecrire dans " + fichier + " : " + e.getMessage());
+            return;
+        }
+        if (fichier != null) {
+            System.out.println("Balayage : " + cles.size() + " simulations, dont " + enCache
+                    + " servies par le cache");
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package jeudelavie;
+
+import java.io.OutputStream;
+import java.util.random.RandomGenerator;
+
+/**
+ * Opérations de la simulation mesurées par les bancs d'essai du module
+ * {@code jmh}.
+ * <p>
+ * Les opérations mesurées, comme le tri ou le vieillissement d'une
+ * population, ne font pas partie de l'API publique ; cette classe les expose
+ * une à une sur une population de test, sans rien révéler des humains qui la
+ * composent.
+ * </p>
+ */
+public final class BancSimulation {
+
+    /** La graine de toutes les mesures. */
+    private static final long GRAINE = 42;
+
+    /** Nombre de naissances par génération en croissance régulée. */
+    private static final int NBB = 50;
+
+    /** Nombre d'humains parmi lesquels {@link #chercher(int)} choisit. */
+    private static final int NB_VUES = 1024;
+
+    /** La source des nombres aléatoires. */
+    private final Hasard hasard = new Hasard(GRAINE);
+
+    /** Le générateur des tirages séquentiels. */
+    private final RandomGenerator loto = hasard.flux(Hasard.FLUX_SIMULATION);
+
+    /** Le rapport, au niveau résumé et sans sortie. */
+    private final Rapport rapport = new Rapport(Rapport.Niveau.RESUME, 1, OutputStream.nullOutputStream(), true);
+
+    /** Le moteur, sur le thread appelant. */
+    private final MoteurParallele moteur = new MoteurParallele(1, hasard);
+
+    /** La population mesurée. */
+    private final Population population = new Population();
+
+    /** L'état mémorisé de la population. */
+    private final Population modele = new Population();
+
+    /** Les humains parmi lesquels {@link #chercher(int)} choisit. */
+    private final Humain[] vues = new Humain[NB_VUES];
+
+    /** Un homme fécond. */
+    private final Homme homme = new Homme(25, 70, "Homme", 80);
+
+    /** Une femme féconde. */
+    private final Femme femme = new Femme(25, 60, "Femme", 50);
+
+    /** Le numéro de la génération en cours. */
+    private int generation;
+
+    /**
+     * Constructeur de la classe {@code BancSimulation}, avec le noyau de
+     * vieillissement scalaire.
+     */
+    public BancSimulation() {
+        this(NoyauVieillissement.scalaire());
+    }
+
+    /**
+     * Constructeur de la classe {@code BancSimulation}.
+     *
+     * @param noyau Le noyau de vieillissement de la population mesurée.
+     */
+    public BancSimulation(NoyauVieillissement noyau) {
+        Humain.setLoto(hasard.flux(Hasard.FLUX_HUMAINS));
+        population.setNoyau(noyau);
+    }
+
+    /**
+     * Crée une population triée de la taille demandée, moitié hommes, moitié
+     * femmes, aux âges répartis entre 0 et 90 ans.
+     *
+     * @param taille La taille de la population.
+     */
+    public void preparer(int taille) {
+        population.vider();
+        for (int i = 0; i < taille; i++) {
+            int age = i % 91;
+            if ((i & 1) == 0) {
+                population.addHumain(new Homme(age, Homme.poidsPourAge(age, 70), "Homme" + i, 80));
+            } else {
+                population.addHumain(new Femme(age, Femme.poidsPourAge(age, 60), "Femme" + i, 50));
+            }
+        }
+        population.trierPop();
+        for (int k = 0; k < NB_VUES; k++) {
+            vues[k] = population.getHumain(loto.nextInt(taille));
+        }
+    }
+
+    /**
+     * Mémorise l'état courant de la population, voir {@link #restaurer()}.
+     */
+    public void sauvegarder() {
+        modele.remplacerPar(population);
+    }
+
+    /**
+     * Rétablit l'état mémorisé par {@link #sauvegarder()}.
+     */
+    public void restaurer() {
+        population.remplacerPar(modele);
+    }
+
+    /**
+     * Effectue les rencontres d'une génération.
+     *
+     * @param mode Le mode de fonctionnement (0, 1 ou 2).
+     */
+    public void rencontres(int mode) {
+        if (mode == 0) {
+            Croissance.croissanceNormale(population, loto);
+        } else if (mode == 1) {
+            moteur.croissanceForcee(population, generation);
+        } else {
+            Croissance.croissanceRegulee(population, NBB, loto);
+        }
+    }
+
+    /**
+     * Fait vieillir la population.
+     */
+    public void vieillir() {
+        try {
+            moteur.vieillir(population, generation++);
+        } catch (PopulationException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ajoute à la population les bébés nés depuis le dernier appel.
+     */
+    public void integrerNaissances() {
+        population.integrerNaissances();
+    }
+
+    /**
+     * Trie la population.
+     */
+    public void trier() {
+        population.trierPop();
+    }
+
+    /**
+     * Effectue une génération complète : rencontres, vieillissement,
+     * intégration des naissances, tri et rapport.
+     *
+     * @param mode Le mode de fonctionnement (0, 1 ou 2).
+     */
+    public void generation(int mode) {
+        rencontres(mode);
+        vieillir();
+        integrerNaissances();
+        trier();
+        population.rapporter(rapport);
+        population.getBilan().reinitialiser();
+        population.getDeces().reinitialiser();
+    }
+
+    /**
+     * Retrouve l'index d'un humain de la population.
+     *
+     * @param k Un entier quelconque, qui désigne l'humain cherché.
+     * @return L'index de l'humain.
+     */
+    public int chercher(int k) {
+        return population.getIndex(vues[k & (NB_VUES - 1)]);
+    }
+
+    /**
+     * Fait se rencontrer un homme et une femme féconds, à l'initiative de
+     * l'homme.
+     *
+     * @return 0 en cas de naissance, 1 sinon.
+     */
+    public int rencontreHomme() {
+        homme.setPoids(70);
+        femme.setPoids(60);
+        try {
+            homme.rencontre(femme);
+            return 0;
+        } catch (MeetingException e) {
+            return 1;
+        }
+    }
+
+    /**
+     * Fait se rencontrer un homme et une femme féconds, à l'initiative de la
+     * femme.
+     *
+     * @return 0 en cas de naissance, 1 sinon.
+     */
+    public int rencontreFemme() {
+        homme.setPoids(70);
+        femme.setPoids(60);
+        try {
+            femme.rencontre(homme);
+            return 0;
+        } catch (MeetingException e) {
+            return 1;
+        }
+    }
+
+    /**
+     * Retourne la taille de la population.
+     *
+     * @return La taille de la population.
+     */
+    public int taille() {
+        return population.taille();
+    }
+
+    /**
+     * Libère les ressources du banc.
+     */
+    public void fermer() {
+        moteur.fermer();
+        rapport.close();
+    }
+}
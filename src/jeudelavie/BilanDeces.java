@@ -0,0 +1,81 @@
+package jeudelavie;
+
+import java.util.Arrays;
+
+/**
+ * Compteurs des décès d'une population, par cause.
+ * <p>
+ * Un humain meurt de vieillesse lorsqu'il dépasse son espérance de vie, de
+ * maigreur lorsque son poids devient négatif, et au hasard lorsqu'il est tué
+ * après une naissance (voir {@link Population#tuerAuHasard}) : il est alors
+ * marqué (voir {@link Population#tuer(int)}) et disparaît au vieillissement
+ * suivant, ou à l'intégration des naissances s'il s'agit d'un bébé.
+ * </p>
+ */
+final class BilanDeces {
+
+    /** Mort de vieillesse. */
+    static final int VIEILLESSE = 0;
+
+    /** Mort de maigreur. */
+    static final int MAIGREUR = 1;
+
+    /** Mort au hasard. */
+    static final int HASARD = 2;
+
+    /** Nombre de causes de décès. */
+    static final int NB_CAUSES = 3;
+
+    /** Nombre de décès pour chaque cause. */
+    private final long[] causes = new long[NB_CAUSES];
+
+    /**
+     * Comptabilise un décès.
+     *
+     * @param cause La cause du décès.
+     */
+    void enregistrer(int cause) {
+        causes[cause]++;
+    }
+
+    /**
+     * Ajoute à ce bilan les compteurs d'un autre bilan.
+     *
+     * @param autre Le bilan à ajouter.
+     */
+    void ajouter(BilanDeces autre) {
+        for (int k = 0; k < causes.length; k++) {
+            causes[k] += autre.causes[k];
+        }
+    }
+
+    /**
+     * Remet tous les compteurs à zéro.
+     */
+    void reinitialiser() {
+        Arrays.fill(causes, 0);
+    }
+
+    /**
+     * Retourne le nombre de décès dus à une cause.
+     *
+     * @param cause La cause des décès.
+     * @return Le nombre de décès.
+     */
+    long get(int cause) {
+        return causes[cause];
+    }
+
+    /**
+     * Retourne le nombre total de décès.
+     *
+     * @return Le nombre de décès.
+     */
+    long getTotal() {
+        long total = 0;
+        for (long n : causes) {
+            total += n;
+        }
+        return total;
+    }
+}
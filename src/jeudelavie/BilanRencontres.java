@@ -0,0 +1,175 @@
+package jeudelavie;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compteurs des issues des rencontres d'une population.
+ * <p>
+ * Chaque rencontre effectuée par {@link Population#rencontrer(int, int)} est
+ * comptabilisée selon son code d'issue (voir {@link Rencontre}), ce qui
+ * remplace l'affichage d'un message pour chaque rencontre infructueuse.
+ * </p>
+ */
+public final class BilanRencontres {
+
+    /** Nombre de rencontres pour chaque code d'issue. */
+    private final long[] issues = new long[Rencontre.NB_ISSUES];
+
+    /** Nombre de rencontres écartées sans être tirées, faute de couple fécond. */
+    private long ecartees;
+
+    /**
+     * Comptabilise une rencontre.
+     *
+     * @param issue Le code d'issue de la rencontre.
+     */
+    void enregistrer(int issue) {
+        issues[issue]++;
+    }
+
+    /**
+     * Comptabilise plusieurs rencontres de même issue.
+     *
+     * @param issue Le code d'issue des rencontres.
+     * @param n     Le nombre de rencontres.
+     */
+    void enregistrer(int issue, long n) {
+        issues[issue] += n;
+    }
+
+    /**
+     * Comptabilise des rencontres écartées sans être tirées, parce qu'elles
+     * n'auraient pas réuni un homme et une femme en âge et en poids de procréer.
+     *
+     * @param n Le nombre de rencontres écartées.
+     */
+    void ecarter(long n) {
+        ecartees += n;
+    }
+
+    /**
+     * Ajoute à ce bilan les compteurs d'un autre bilan.
+     *
+     * @param autre Le bilan à ajouter.
+     */
+    void ajouter(BilanRencontres autre) {
+        for (int k = 0; k < issues.length; k++) {
+            issues[k] += autre.issues[k];
+        }
+        ecartees += autre.ecartees;
+    }
+
+    /**
+     * Envoie les compteurs à un autre processus.
+     *
+     * @param out Le flux de sortie.
+     * @throws IOException Si l'écriture échoue.
+     */
+    void envoyer(DataOutput out) throws IOException {
+        for (long n : issues) {
+            out.writeLong(n);
+        }
+        out.writeLong(ecartees);
+    }
+
+    /**
+     * Ajoute à ce bilan les compteurs reçus d'un autre processus, voir
+     * {@link #envoyer(DataOutput)}.
+     *
+     * @param in Le flux d'entrée.
+     * @throws IOException Si la lecture échoue.
+     */
+    void recevoir(DataInput in) throws IOException {
+        for (int k = 0; k < issues.length; k++) {
+            issues[k] += in.readLong();
+        }
+        ecartees += in.readLong();
+    }
+
+    /**
+     * Remet tous les compteurs à zéro.
+     */
+    void reinitialiser() {
+        Arrays.fill(issues, 0);
+        ecartees = 0;
+    }
+
+    /**
+     * Retourne le nombre de rencontres écartées sans être tirées.
+     *
+     * @return Le nombre de rencontres écartées.
+     */
+    public long getEcartees() {
+        return ecartees;
+    }
+
+    /**
+     * Retourne le nombre total de rencontres comptabilisées.
+     *
+     * @return Le nombre de rencontres.
+     */
+    public long getRencontres() {
+        long total = 0;
+        for (long n : issues) {
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Retourne le nombre de rencontres ayant donné naissance à un bébé.
+     *
+     * @return Le nombre de naissances.
+     */
+    public long getNaissances() {
+        return issues[Rencontre.NAISSANCE];
+    }
+
+    /**
+     * Retourne le nombre de rencontres interdites pour un motif donné.
+     *
+     * @param motif Le motif d'interdiction.
+     * @return Le nombre de rencontres refusées pour ce motif.
+     */
+    long getRejets(BreedingForbiddenException.Erreur motif) {
+        return issues[Rencontre.SEXE + motif.ordinal()];
+    }
+
+    /**
+     * Retourne le nombre de rencontres improductives à cause de l'homme.
+     *
+     * @return Le nombre de rencontres improductives à cause de l'homme.
+     */
+    public long getHommesInfertiles() {
+        return issues[Rencontre.HOMME_INFERTILE];
+    }
+
+    /**
+     * Retourne le nombre de rencontres improductives à cause de la femme.
+     *
+     * @return Le nombre de rencontres improductives à cause de la femme.
+     */
+    public long getFemmesInfertiles() {
+        return issues[Rencontre.FEMME_INFERTILE];
+    }
+
+    /**
+     * Retourne une représentation textuelle du bilan.
+     *
+     * @return Une chaîne de caractères résumant les issues des rencontres.
+     */
+    @Override
+    public String toString() {
+        return "Rencontres : " + getRencontres()
+                + " | Naissances : " + getNaissances()
+                + " | Meme sexe : " + issues[Rencontre.SEXE]
+                + " | Trop lourds : " + issues[Rencontre.POIDS]
+                + " | Pas l'age : " + issues[Rencontre.AGE]
+                + " | Homme non fertile : " + getHommesInfertiles()
+                + " | Femme non fertile : " + getFemmesInfertiles()
+                + " | Ecartees : " + ecartees;
+    }
+}
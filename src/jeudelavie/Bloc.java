@@ -0,0 +1,154 @@
+package jeudelavie;
+
+import java.util.Arrays;
+
+/**
+ * Portion contiguë d'une population, traitée par une seule tâche lors d'une
+ * génération parallèle.
+ * <p>
+ * Pendant la phase parallèle, une tâche ne modifie que les humains de son bloc
+ * et consigne ici tout ce qui touche à des structures partagées : humains
+ * morts, changements d'appartenance aux ensembles d'humains féconds, bébés nés,
+ * issues des rencontres et causes des décès. Ces effets sont ensuite
+ * appliqués séquentiellement, bloc après bloc, si bien que le résultat ne
+ * dépend pas du nombre de threads.
+ * </p>
+ */
+final class Bloc {
+
+    /** Le premier index du bloc. */
+    int de;
+
+    /** L'index qui suit le dernier index du bloc. */
+    int a;
+
+    /** Le nombre de survivants, regroupés au début du bloc après le vieillissement. */
+    int survivants;
+
+    /** Les poignées des humains morts dans le bloc. */
+    int[] morts = new int[16];
+
+    /** Les numéros des humains morts dans le bloc. */
+    long[] idsMorts = new long[16];
+
+    /** Les noms donnés aux humains morts dans le bloc, {@code null} pour les autres. */
+    String[] nomsMorts = new String[16];
+
+    /** Les causes des décès du bloc, voir {@link BilanDeces}. */
+    byte[] causesMorts = new byte[16];
+
+    /** Le nombre d'humains morts dans le bloc. */
+    int nbMorts;
+
+    /** Les poignées des humains dont la fécondité doit être réévaluée. */
+    int[] changements = new int[16];
+
+    /** Le nombre de changements de fécondité. */
+    int nbChangements;
+
+    /** Les marques laissées par le {@link NoyauVieillissement}, une par humain du bloc. */
+    private byte[] marques = new byte[16];
+
+    /** Les bébés nés dans le bloc. */
+    final ColonnesSurTas naissances = new ColonnesSurTas();
+
+    /** Les issues des rencontres effectuées dans le bloc. */
+    final BilanRencontres bilan = new BilanRencontres();
+
+    /** Les décès survenus dans le bloc, par cause. */
+    final BilanDeces deces = new BilanDeces();
+
+    /** Le nombre de morts au hasard provoquées par les naissances du bloc. */
+    int tuesAuHasard;
+
+    /** Les poignées des pères dont le poids a changé, des humains hors du bloc. */
+    int[] peres = new int[16];
+
+    /** Le poids perdu par chaque père, négatif s'il en a gagné. */
+    int[] pertesPeres = new int[16];
+
+    /** Le nombre de variations de poids des pères. */
+    int nbPeres;
+
+    /**
+     * Prépare le bloc pour traiter une nouvelle plage d'index.
+     *
+     * @param de Le premier index du bloc.
+     * @param a  L'index qui suit le dernier index du bloc.
+     */
+    void preparer(int de, int a) {
+        this.de = de;
+        this.a = a;
+        survivants = 0;
+        Arrays.fill(nomsMorts, 0, nbMorts, null);
+        nbMorts = 0;
+        nbChangements = 0;
+        naissances.vider();
+        bilan.reinitialiser();
+        deces.reinitialiser();
+        tuesAuHasard = 0;
+        nbPeres = 0;
+    }
+
+    /**
+     * Consigne la mort d'un humain.
+     *
+     * @param poignee La poignée de l'humain mort.
+     * @param id      Le numéro de l'humain mort.
+     * @param nom     Le nom donné à l'humain mort, ou {@code null}.
+     * @param cause   La cause du décès.
+     */
+    void mourir(int poignee, long id, String nom, int cause) {
+        if (nbMorts == morts.length) {
+            morts = Arrays.copyOf(morts, nbMorts * 2);
+            idsMorts = Arrays.copyOf(idsMorts, nbMorts * 2);
+            nomsMorts = Arrays.copyOf(nomsMorts, nbMorts * 2);
+            causesMorts = Arrays.copyOf(causesMorts, nbMorts * 2);
+        }
+        morts[nbMorts] = poignee;
+        idsMorts[nbMorts] = id;
+        causesMorts[nbMorts] = (byte) cause;
+        nomsMorts[nbMorts++] = nom;
+    }
+
+    /**
+     * Consigne un humain dont la fécondité doit être réévaluée.
+     *
+     * @param poignee La poignée de l'humain.
+     */
+    void changer(int poignee) {
+        if (nbChangements == changements.length) {
+            changements = Arrays.copyOf(changements, nbChangements * 2);
+        }
+        changements[nbChangements++] = poignee;
+    }
+
+    /**
+     * Consigne la variation du poids d'un père, à appliquer après la phase
+     * parallèle puisque le même homme peut être père dans plusieurs blocs.
+     *
+     * @param poignee La poignée du père.
+     * @param perte   Le poids perdu, négatif s'il en a gagné.
+     */
+    void peser(int poignee, int perte) {
+        if (nbPeres == peres.length) {
+            peres = Arrays.copyOf(peres, nbPeres * 2);
+            pertesPeres = Arrays.copyOf(pertesPeres, nbPeres * 2);
+        }
+        peres[nbPeres] = poignee;
+        pertesPeres[nbPeres++] = perte;
+    }
+
+    /**
+     * Obtient le tableau des marques du vieillissement, agrandi au besoin.
+     *
+     * @param n Le nombre d'humains à marquer.
+     * @return Un tableau d'au moins {@code n} marques.
+     */
+    byte[] marques(int n) {
+        if (marques.length < n) {
+            marques = new byte[Math.max(n, marques.length * 2)];
+        }
+        return marques;
+    }
+}
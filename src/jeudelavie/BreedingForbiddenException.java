@@ -1,3 +1,5 @@
+package jeudelavie;
+
 /**
  * Exception levée lorsqu'une naissance entre deux humains est impossible 
  * en raison de certaines restrictions.
@@ -0,0 +1,520 @@
+package jeudelavie;
+
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+
+/**
+ * Stockage en colonnes des individus d'une {@link Population}.
+ * <p>
+ * Au lieu d'un objet {@link Humain} par individu, chaque attribut est rangé
+ * dans une colonne de type primitif indexée par la position de l'individu, et
+ * lu ou écrit par les accesseurs de cette interface. {@link #surTas()} range
+ * les colonnes dans des tableaux Java, voir {@link ColonnesSurTas} ;
+ * {@code ColonnesHorsTas} range chaque individu dans un enregistrement de
+ * disposition fixe, dans des segments de mémoire native ou projetés depuis un
+ * fichier, avec l'API Foreign Memory du module incubateur
+ * {@code jdk.incubator.foreign} : le tas et les pauses du ramasse-miettes ne
+ * dépendent alors plus de la taille de la population. Comme le stockage des
+ * filiations hors du tas, il est compilé à part, dans le module Maven
+ * {@code horstas}, et chargé par {@link #horsTas(Path)}.
+ * </p>
+ * <p>
+ * L'attribut {@code fertilite} contient la fertilité pour les femmes et les
+ * filles, et le taux de batifolage pour les hommes et les garçons.
+ * </p>
+ * <p>
+ * Un individu est identifié par un numéro et par les numéros de ses parents.
+ * Seuls les humains créés avec un nom, comme ceux de la population initiale,
+ * ont un nom donné ; le nom des bébés est construit à partir de leur numéro au
+ * moment de l'afficher (voir {@link #nom(int)}), si bien que la place occupée
+ * par un individu ne dépend pas du nombre de générations qui l'ont précédé.
+ * </p>
+ */
+public interface Colonnes {
+
+    /** Code de type d'un garçon. */
+    byte GARCON = 0;
+
+    /** Code de type d'un homme. */
+    byte HOMME = 1;
+
+    /** Code de type d'une fille. */
+    byte FILLE = 2;
+
+    /** Code de type d'une femme. */
+    byte FEMME = 3;
+
+    /** Le nom de la classe du stockage hors du tas. */
+    String CLASSE_HORS_TAS = "jeudelavie.ColonnesHorsTas";
+
+    /** Le nombre d'individus lus ou écrits à la fois par les méthodes génériques. */
+    int TAILLE_TRANCHE = 1 << 14;
+
+    /**
+     * Le nombre de colonnes enregistrées dans un point de reprise, noms
+     * exceptés, voir {@link ColonnesSurTas#sauvegarderColonne(PointDeReprise.Sortie, int, int)}.
+     */
+    int NB_COLONNES = 10;
+
+    /**
+     * Obtient le nombre d'individus stockés.
+     *
+     * @return Le nombre d'individus.
+     */
+    int taille();
+
+    /**
+     * Fixe le nombre d'individus stockés. Les positions ajoutées doivent être
+     * écrites par l'appelant ; les noms des individus retirés sont oubliés.
+     *
+     * @param n Le nouveau nombre d'individus, au plus la capacité.
+     */
+    void setTaille(int n);
+
+    /**
+     * Garantit que les colonnes peuvent contenir au moins {@code min} individus.
+     *
+     * @param min La capacité minimale requise.
+     */
+    void assurerCapacite(int min);
+
+    /**
+     * Crée des colonnes vides rangées de la même façon, qui peuvent servir de
+     * tampon à {@link #permuter(int[], Colonnes)}.
+     *
+     * @return Les nouvelles colonnes.
+     */
+    Colonnes creerTampon();
+
+    /**
+     * @param i La position de l'individu.
+     * @return L'âge de l'individu.
+     */
+    int age(int i);
+
+    /**
+     * @param i La position de l'individu.
+     * @param v Le nouvel âge.
+     */
+    void setAge(int i, int v);
+
+    /**
+     * @param i La position de l'individu.
+     * @return Le poids de l'individu.
+     */
+    int poids(int i);
+
+    /**
+     * @param i La position de l'individu.
+     * @param v Le nouveau poids.
+     */
+    void setPoids(int i, int v);
+
+    /**
+     * @param i La position de l'individu.
+     * @return L'espérance de vie de l'individu.
+     */
+    byte esperanceVie(int i);
+
+    /**
+     * @param i La position de l'individu.
+     * @param v La nouvelle espérance de vie.
+     */
+    void setEsperanceVie(int i, int v);
+
+    /**
+     * @param i La position de l'individu.
+     * @return La fertilité (femmes) ou le taux de batifolage (hommes).
+     */
+    byte fertilite(int i);
+
+    /**
+     * @param i La position de l'individu.
+     * @param v La nouvelle fertilité ou le nouveau taux de batifolage.
+     */
+    void setFertilite(int i, int v);
+
+    /**
+     * @param i La position de l'individu.
+     * @return Le salaire de l'individu, toujours nul pour les femmes.
+     */
+    short salaire(int i);
+
+    /**
+     * @param i La position de l'individu.
+     * @param v Le nouveau salaire.
+     */
+    void setSalaire(int i, int v);
+
+    /**
+     * @param i La position de l'individu.
+     * @return Le sexe et le stade de l'individu, voir {@link #GARCON} et
+     *         suivants.
+     */
+    byte type(int i);
+
+    /**
+     * @param i La position de l'individu.
+     * @param v Le nouveau type.
+     */
+    void setType(int i, byte v);
+
+    /**
+     * @param i La position de l'individu.
+     * @return Le numéro de l'individu, ou {@code -1} s'il n'en a pas encore
+     *         reçu.
+     */
+    long id(int i);
+
+    /**
+     * @param i La position de l'individu.
+     * @param v Le nouveau numéro.
+     */
+    void setId(int i, long v);
+
+    /**
+     * @param i La position de l'individu.
+     * @return Le numéro du père de l'individu, ou {@code -1}.
+     */
+    long pere(int i);
+
+    /**
+     * @param i La position de l'individu.
+     * @return Le numéro de la mère de l'individu, ou {@code -1}.
+     */
+    long mere(int i);
+
+    /**
+     * @param i    La position de l'individu.
+     * @param pere Le numéro de son père, ou {@code -1}.
+     * @param mere Le numéro de sa mère, ou {@code -1}.
+     */
+    void setParents(int i, long pere, long mere);
+
+    /**
+     * @param i La position de l'individu.
+     * @return La poignée stable de l'individu, voir
+     *         {@link Population#getPoignee(int)}.
+     */
+    int poignee(int i);
+
+    /**
+     * @param i La position de l'individu.
+     * @param v La nouvelle poignée.
+     */
+    void setPoignee(int i, int v);
+
+    /**
+     * @param i La position de l'individu.
+     * @return Le nom donné à l'individu, ou {@code null} pour un bébé.
+     */
+    String nomDonne(int i);
+
+    /**
+     * @param i La position de l'individu.
+     * @param v Le nom donné à l'individu, ou {@code null}.
+     */
+    void setNom(int i, String v);
+
+    /**
+     * Copie un individu d'autres colonnes, rangées de n'importe quelle façon,
+     * vers une position de celles-ci.
+     *
+     * @param src  Les colonnes source.
+     * @param de   La position source.
+     * @param vers La position destination.
+     */
+    void copierDepuis(Colonnes src, int de, int vers);
+
+    /**
+     * Déplace une plage d'individus, vers le début ou vers la fin ; la plage
+     * source et la plage destination peuvent se chevaucher.
+     *
+     * @param de     La première position source.
+     * @param vers   La première position destination.
+     * @param nombre Le nombre d'individus à déplacer.
+     */
+    void decaler(int de, int vers, int nombre);
+
+    /**
+     * Réordonne les individus selon une permutation, en écrivant dans un
+     * tampon dont le contenu est ensuite échangé avec celui de ces colonnes :
+     * le tampon, vide, peut resservir au tri suivant.
+     *
+     * @param ordre  {@code ordre[k]} est l'ancienne position de l'individu qui
+     *               doit se retrouver en position {@code k}.
+     * @param tampon Des colonnes créées par {@link #creerTampon()}.
+     */
+    void permuter(int[] ordre, Colonnes tampon);
+
+    /**
+     * Fait vieillir d'un an les individus des positions {@code de} à
+     * {@code a - 1} avec un noyau, voir
+     * {@link NoyauVieillissement#vieillir(int[], int[], byte[], byte[], int, int, byte[])}.
+     *
+     * @param noyau   Le noyau du vieillissement.
+     * @param de      La première position.
+     * @param a       La position qui suit la dernière.
+     * @param marques Les marques, {@code marques[i - de]} pour l'individu en
+     *                position {@code i}.
+     */
+    void vieillir(NoyauVieillissement noyau, int de, int a, byte[] marques);
+
+    /**
+     * Réordonne les individus selon une permutation, dans un tampon neuf.
+     *
+     * @param ordre {@code ordre[k]} est l'ancienne position de l'individu qui
+     *              doit se retrouver en position {@code k}.
+     */
+    default void permuter(int[] ordre) {
+        permuter(ordre, creerTampon());
+    }
+
+    /**
+     * Supprime tous les individus.
+     */
+    default void vider() {
+        setTaille(0);
+    }
+
+    /**
+     * Retourne le nom de l'individu à une position donnée : le nom qui lui a
+     * été donné, ou à défaut un nom construit à partir de son numéro.
+     *
+     * @param i La position de l'individu.
+     * @return Le nom de l'individu.
+     */
+    default String nom(int i) {
+        String nom = nomDonne(i);
+        return nom != null ? nom : Humain.nommer(id(i), pere(i), mere(i));
+    }
+
+    /**
+     * Remplace le contenu de ces colonnes par une copie d'autres colonnes.
+     *
+     * @param src Les colonnes à copier.
+     */
+    default void remplacerPar(Colonnes src) {
+        vider();
+        int n = src.taille();
+        assurerCapacite(n);
+        setTaille(n);
+        for (int i = 0; i < n; i++) {
+            copierDepuis(src, i, i);
+        }
+    }
+
+    /**
+     * Copie les attributs d'un humain à une position donnée.
+     *
+     * @param i La position de destination.
+     * @param h L'humain à copier.
+     */
+    default void ecrire(int i, Humain h) {
+        if (h.isHomme()) {
+            setType(i, h.isGarcon() ? GARCON : HOMME);
+            setFertilite(i, h.getBatifolage());
+        } else {
+            setType(i, h.isFille() ? FILLE : FEMME);
+            setFertilite(i, h.getFertilite());
+        }
+        setAge(i, h.getAge());
+        setPoids(i, h.getPoids());
+        setEsperanceVie(i, h.getEsperanceVie());
+        setSalaire(i, h.getSalaire());
+        setNom(i, h.nom);
+        setId(i, h.getId());
+        setParents(i, h.getPere(), h.getMere());
+        setPoignee(i, -1);
+    }
+
+    /**
+     * Crée une copie détachée de l'humain à une position donnée, sous la forme
+     * de l'objet {@link Homme}, {@link Femme}, {@link Garcon} ou {@link Fille}
+     * correspondant à son type.
+     *
+     * @param i La position de l'humain.
+     * @return Une copie de l'humain, indépendante de la population.
+     */
+    default Humain extraire(int i) {
+        Humain h;
+        String nom = nomDonne(i);
+        switch (type(i)) {
+            case GARCON:
+                h = new Garcon(nom);
+                break;
+            case HOMME:
+                h = new Homme(nom);
+                break;
+            case FILLE:
+                h = new Fille(nom);
+                break;
+            default:
+                h = new Femme(nom);
+        }
+        h.setIdentite(id(i), pere(i), mere(i));
+        h.setAge(age(i));
+        h.setPoids(poids(i));
+        h.esperanceVie = esperanceVie(i);
+        if (h instanceof Homme) {
+            ((Homme) h).batifolage = fertilite(i);
+            ((Homme) h).setSalaire(salaire(i));
+        } else {
+            ((Femme) h).setFertilite(fertilite(i));
+        }
+        return h;
+    }
+
+    /**
+     * Écrit les individus dans un point de reprise, colonne par colonne, par
+     * tranches de {@value #TAILLE_TRANCHE} individus. Le format est celui de
+     * {@link ColonnesSurTas#sauvegarder(PointDeReprise.Sortie)}, quel que
+     * soit le rangement.
+     *
+     * @param s La sortie du point de reprise.
+     */
+    default void sauvegarder(PointDeReprise.Sortie s) {
+        int n = taille();
+        s.entier(n);
+        ColonnesSurTas t = new ColonnesSurTas(Math.min(n, TAILLE_TRANCHE));
+        for (int colonne = 0; colonne < NB_COLONNES; colonne++) {
+            for (int de = 0; de < n; de += TAILLE_TRANCHE) {
+                int m = Math.min(TAILLE_TRANCHE, n - de);
+                for (int k = 0; k < m; k++) {
+                    copierColonne(this, de + k, t, k, colonne);
+                }
+                t.sauvegarderColonne(s, colonne, m);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            s.chaine(nomDonne(i));
+        }
+    }
+
+    /**
+     * Remplace les individus par ceux lus dans un point de reprise, voir
+     * {@link #sauvegarder(PointDeReprise.Sortie)}.
+     *
+     * @param e L'entrée du point de reprise.
+     */
+    default void charger(PointDeReprise.Entree e) {
+        vider();
+        int n = e.entier();
+        assurerCapacite(n);
+        setTaille(n);
+        ColonnesSurTas t = new ColonnesSurTas(Math.min(n, TAILLE_TRANCHE));
+        for (int colonne = 0; colonne < NB_COLONNES; colonne++) {
+            for (int de = 0; de < n; de += TAILLE_TRANCHE) {
+                int m = Math.min(TAILLE_TRANCHE, n - de);
+                t.chargerColonne(e, colonne, m);
+                for (int k = 0; k < m; k++) {
+                    copierColonne(t, k, this, de + k, colonne);
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            setNom(i, e.chaine());
+        }
+    }
+
+    /**
+     * Copie un seul attribut d'un individu vers un autre.
+     *
+     * @param src     Les colonnes source.
+     * @param de      La position source.
+     * @param dst     Les colonnes destination.
+     * @param vers    La position destination.
+     * @param colonne Le numéro de l'attribut, dans l'ordre des points de
+     *                reprise.
+     */
+    private static void copierColonne(Colonnes src, int de, Colonnes dst, int vers, int colonne) {
+        switch (colonne) {
+            case 0:
+                dst.setType(vers, src.type(de));
+                break;
+            case 1:
+                dst.setAge(vers, src.age(de));
+                break;
+            case 2:
+                dst.setPoids(vers, src.poids(de));
+                break;
+            case 3:
+                dst.setEsperanceVie(vers, src.esperanceVie(de));
+                break;
+            case 4:
+                dst.setFertilite(vers, src.fertilite(de));
+                break;
+            case 5:
+                dst.setSalaire(vers, src.salaire(de));
+                break;
+            case 6:
+                dst.setPoignee(vers, src.poignee(de));
+                break;
+            case 7:
+                dst.setId(vers, src.id(de));
+                break;
+            case 8:
+                dst.setParents(vers, src.pere(de), dst.mere(vers));
+                break;
+            default:
+                dst.setParents(vers, dst.pere(vers), src.mere(de));
+        }
+    }
+
+    /**
+     * Indique si un type correspond à un individu de sexe masculin.
+     *
+     * @param t Le type à tester.
+     * @return {@code true} pour un homme ou un garçon.
+     */
+    static boolean isMasculin(byte t) {
+        return t == HOMME || t == GARCON;
+    }
+
+    /**
+     * Indique si un type correspond à un enfant.
+     *
+     * @param t Le type à tester.
+     * @return {@code true} pour un garçon ou une fille.
+     */
+    static boolean isEnfant(byte t) {
+        return t == GARCON || t == FILLE;
+    }
+
+    /**
+     * Retourne de nouvelles colonnes vides, rangées dans le tas Java.
+     *
+     * @return Les colonnes.
+     */
+    static Colonnes surTas() {
+        return new ColonnesSurTas();
+    }
+
+    /**
+     * Retourne de nouvelles colonnes vides, rangées hors du tas.
+     *
+     * @param fichier Le fichier où projeter les individus, créé ou remplacé, ou
+     *                {@code null} pour les ranger en mémoire native.
+     * @return Les colonnes.
+     * @throws IllegalStateException Si la classe {@value #CLASSE_HORS_TAS}
+     *                               est absente du classpath, ou si le module
+     *                               {@code jdk.incubator.foreign} n'est pas
+     *                               chargé.
+     * @throws java.io.UncheckedIOException Si le fichier ne peut pas être
+     *                                      créé.
+     */
+    static Colonnes horsTas(Path fichier) {
+        try {
+            return (Colonnes) Class.forName(CLASSE_HORS_TAS).getDeclaredConstructor(Path.class)
+                    .newInstance(fichier);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IllegalStateException("Stockage hors du tas indisponible : ajoutez le module horstas au"
+                    + " classpath et lancez java avec --add-modules jdk.incubator.foreign", e);
+        }
+    }
+}
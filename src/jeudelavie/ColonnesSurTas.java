@@ -0,0 +1,618 @@
+package jeudelavie;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Stockage en colonnes des individus dans des tableaux primitifs du tas Java,
+ * le rangement par défaut des {@link Colonnes}.
+ * <p>
+ * Chaque attribut est rangé dans un tableau indexé par la position de
+ * l'individu. Un individu occupe ainsi quelques octets contigus par attribut,
+ * sans en-tête d'objet, ce qui réduit l'empreinte mémoire et rend les
+ * parcours de la population (vieillissement, rencontres) beaucoup plus
+ * favorables au cache. Les tableaux sont accessibles directement : les
+ * naissances en attente, les blocs et les migrants, toujours rangés dans le
+ * tas, s'en servent sans passer par les accesseurs.
+ * </p>
+ */
+final class ColonnesSurTas implements Colonnes {
+
+    /** Capacité initiale des colonnes. */
+    private static final int CAPACITE_INITIALE = 16;
+
+    /** Âge de chaque individu. */
+    int[] age;
+
+    /** Poids de chaque individu. */
+    int[] poids;
+
+    /** Espérance de vie de chaque individu. */
+    byte[] esperanceVie;
+
+    /** Fertilité (femmes) ou taux de batifolage (hommes) de chaque individu. */
+    byte[] fertilite;
+
+    /** Salaire de chaque individu (toujours nul pour les femmes). */
+    short[] salaire;
+
+    /** Sexe et stade de chaque individu, voir {@link #GARCON} et suivants. */
+    byte[] type;
+
+    /** Nom donné à chaque individu, ou {@code null} pour un bébé. */
+    String[] nom;
+
+    /** Numéro de chaque individu, ou {@code -1} s'il n'en a pas encore reçu. */
+    long[] id;
+
+    /** Numéro du père de chaque individu, ou {@code -1}. */
+    long[] pere;
+
+    /** Numéro de la mère de chaque individu, ou {@code -1}. */
+    long[] mere;
+
+    /** Poignée stable de chaque individu, voir {@link Population#getPoignee(int)}. */
+    int[] poignee;
+
+    /** Nombre d'individus effectivement stockés. */
+    int taille;
+
+    /**
+     * Constructeur de la classe {@code ColonnesSurTas}.
+     * <p>
+     * Initialise des colonnes vides avec une capacité par défaut.
+     * </p>
+     */
+    ColonnesSurTas() {
+        this(CAPACITE_INITIALE);
+    }
+
+    /**
+     * Initialise des colonnes vides d'une capacité donnée.
+     *
+     * @param capacite La capacité des colonnes.
+     */
+    ColonnesSurTas(int capacite) {
+        allouer(capacite);
+        taille = 0;
+    }
+
+    /**
+     * Remplace les colonnes par des tableaux neufs d'une capacité donnée, sans
+     * en recopier le contenu.
+     *
+     * @param capacite La capacité des colonnes.
+     */
+    private void allouer(int capacite) {
+        age = new int[capacite];
+        poids = new int[capacite];
+        esperanceVie = new byte[capacite];
+        fertilite = new byte[capacite];
+        salaire = new short[capacite];
+        type = new byte[capacite];
+        nom = new String[capacite];
+        id = new long[capacite];
+        pere = new long[capacite];
+        mere = new long[capacite];
+        poignee = new int[capacite];
+    }
+
+    @Override
+    public int taille() {
+        return taille;
+    }
+
+    @Override
+    public void setTaille(int n) {
+        if (n < taille) {
+            Arrays.fill(nom, n, taille, null);
+        }
+        taille = n;
+    }
+
+    @Override
+    public ColonnesSurTas creerTampon() {
+        return new ColonnesSurTas(age.length);
+    }
+
+    @Override
+    public void assurerCapacite(int min) {
+        if (min <= age.length) {
+            return;
+        }
+        int capacite = Math.max(min, age.length + (age.length >> 1));
+        age = Arrays.copyOf(age, capacite);
+        poids = Arrays.copyOf(poids, capacite);
+        esperanceVie = Arrays.copyOf(esperanceVie, capacite);
+        fertilite = Arrays.copyOf(fertilite, capacite);
+        salaire = Arrays.copyOf(salaire, capacite);
+        type = Arrays.copyOf(type, capacite);
+        nom = Arrays.copyOf(nom, capacite);
+        id = Arrays.copyOf(id, capacite);
+        pere = Arrays.copyOf(pere, capacite);
+        mere = Arrays.copyOf(mere, capacite);
+        poignee = Arrays.copyOf(poignee, capacite);
+    }
+
+    /**
+     * Ajoute un individu sans nom ni numéro à la fin des colonnes.
+     *
+     * @param t            Le type de l'individu.
+     * @param a            L'âge de l'individu.
+     * @param p            Le poids de l'individu.
+     * @param esperance    L'espérance de vie de l'individu.
+     * @param fertiliteOuBatifolage La fertilité ou le taux de batifolage.
+     * @param s            Le salaire de l'individu.
+     * @param idPere       Le numéro du père de l'individu.
+     * @param idMere       Le numéro de la mère de l'individu.
+     * @return La position de l'individu ajouté.
+     */
+    int ajouter(byte t, int a, int p, int esperance, int fertiliteOuBatifolage, int s, long idPere, long idMere) {
+        assurerCapacite(taille + 1);
+        int i = taille++;
+        type[i] = t;
+        age[i] = a;
+        poids[i] = p;
+        esperanceVie[i] = (byte) esperance;
+        fertilite[i] = (byte) fertiliteOuBatifolage;
+        salaire[i] = (short) s;
+        nom[i] = null;
+        id[i] = -1;
+        pere[i] = idPere;
+        mere[i] = idMere;
+        poignee[i] = -1;
+        return i;
+    }
+
+    @Override
+    public int age(int i) {
+        return age[i];
+    }
+
+    @Override
+    public void setAge(int i, int v) {
+        age[i] = v;
+    }
+
+    @Override
+    public int poids(int i) {
+        return poids[i];
+    }
+
+    @Override
+    public void setPoids(int i, int v) {
+        poids[i] = v;
+    }
+
+    @Override
+    public byte esperanceVie(int i) {
+        return esperanceVie[i];
+    }
+
+    @Override
+    public void setEsperanceVie(int i, int v) {
+        esperanceVie[i] = (byte) v;
+    }
+
+    @Override
+    public byte fertilite(int i) {
+        return fertilite[i];
+    }
+
+    @Override
+    public void setFertilite(int i, int v) {
+        fertilite[i] = (byte) v;
+    }
+
+    @Override
+    public short salaire(int i) {
+        return salaire[i];
+    }
+
+    @Override
+    public void setSalaire(int i, int v) {
+        salaire[i] = (short) v;
+    }
+
+    @Override
+    public byte type(int i) {
+        return type[i];
+    }
+
+    @Override
+    public void setType(int i, byte v) {
+        type[i] = v;
+    }
+
+    @Override
+    public long id(int i) {
+        return id[i];
+    }
+
+    @Override
+    public void setId(int i, long v) {
+        id[i] = v;
+    }
+
+    @Override
+    public long pere(int i) {
+        return pere[i];
+    }
+
+    @Override
+    public long mere(int i) {
+        return mere[i];
+    }
+
+    @Override
+    public void setParents(int i, long idPere, long idMere) {
+        pere[i] = idPere;
+        mere[i] = idMere;
+    }
+
+    @Override
+    public int poignee(int i) {
+        return poignee[i];
+    }
+
+    @Override
+    public void setPoignee(int i, int v) {
+        poignee[i] = v;
+    }
+
+    @Override
+    public String nomDonne(int i) {
+        return nom[i];
+    }
+
+    @Override
+    public void setNom(int i, String v) {
+        nom[i] = v;
+    }
+
+    @Override
+    public void copierDepuis(Colonnes autres, int de, int vers) {
+        if (!(autres instanceof ColonnesSurTas)) {
+            type[vers] = autres.type(de);
+            age[vers] = autres.age(de);
+            poids[vers] = autres.poids(de);
+            esperanceVie[vers] = autres.esperanceVie(de);
+            fertilite[vers] = autres.fertilite(de);
+            salaire[vers] = autres.salaire(de);
+            nom[vers] = autres.nomDonne(de);
+            id[vers] = autres.id(de);
+            pere[vers] = autres.pere(de);
+            mere[vers] = autres.mere(de);
+            poignee[vers] = autres.poignee(de);
+            return;
+        }
+        ColonnesSurTas src = (ColonnesSurTas) autres;
+        type[vers] = src.type[de];
+        age[vers] = src.age[de];
+        poids[vers] = src.poids[de];
+        esperanceVie[vers] = src.esperanceVie[de];
+        fertilite[vers] = src.fertilite[de];
+        salaire[vers] = src.salaire[de];
+        nom[vers] = src.nom[de];
+        id[vers] = src.id[de];
+        pere[vers] = src.pere[de];
+        mere[vers] = src.mere[de];
+        poignee[vers] = src.poignee[de];
+    }
+
+    /**
+     * Remplace le contenu de ces colonnes par une copie d'autres colonnes, en
+     * réutilisant les tableaux existants lorsqu'ils sont assez grands.
+     *
+     * @param src Les colonnes à copier.
+     */
+    @Override
+    public void remplacerPar(Colonnes src) {
+        if (!(src instanceof ColonnesSurTas)) {
+            Colonnes.super.remplacerPar(src);
+            return;
+        }
+        ColonnesSurTas t = (ColonnesSurTas) src;
+        vider();
+        assurerCapacite(t.taille);
+        decalerDepuis(t, 0, 0, t.taille);
+        taille = t.taille;
+    }
+
+    /**
+     * Copie une plage d'individus d'autres colonnes vers celles-ci.
+     *
+     * @param src    Les colonnes source.
+     * @param de     La première position source.
+     * @param vers   La première position destination.
+     * @param nombre Le nombre d'individus à copier.
+     */
+    private void decalerDepuis(ColonnesSurTas src, int de, int vers, int nombre) {
+        System.arraycopy(src.type, de, type, vers, nombre);
+        System.arraycopy(src.age, de, age, vers, nombre);
+        System.arraycopy(src.poids, de, poids, vers, nombre);
+        System.arraycopy(src.esperanceVie, de, esperanceVie, vers, nombre);
+        System.arraycopy(src.fertilite, de, fertilite, vers, nombre);
+        System.arraycopy(src.salaire, de, salaire, vers, nombre);
+        System.arraycopy(src.nom, de, nom, vers, nombre);
+        System.arraycopy(src.id, de, id, vers, nombre);
+        System.arraycopy(src.pere, de, pere, vers, nombre);
+        System.arraycopy(src.mere, de, mere, vers, nombre);
+        System.arraycopy(src.poignee, de, poignee, vers, nombre);
+    }
+
+    @Override
+    public void decaler(int de, int vers, int nombre) {
+        decalerDepuis(this, de, vers, nombre);
+    }
+
+    /**
+     * Réordonne les individus selon une permutation, en écrivant dans les
+     * tableaux d'un tampon plutôt que dans des tableaux neufs.
+     * <p>
+     * Les tableaux des deux objets sont ensuite échangés : le tampon reçoit
+     * les anciens tableaux, vides, et peut resservir au tri suivant sans
+     * nouvelle allocation tant que la capacité ne change pas.
+     * </p>
+     *
+     * @param ordre  {@code ordre[k]} est l'ancienne position de l'individu qui
+     *               doit se retrouver en position {@code k}.
+     * @param autres Les colonnes dont les tableaux reçoivent la permutation,
+     *               rangées dans le tas.
+     */
+    @Override
+    public void permuter(int[] ordre, Colonnes autres) {
+        ColonnesSurTas tampon = (ColonnesSurTas) autres;
+        int n = taille;
+        if (tampon.age.length < age.length) {
+            tampon.allouer(age.length);
+        }
+        int[] a = tampon.age;
+        int[] p = tampon.poids;
+        byte[] e = tampon.esperanceVie;
+        byte[] f = tampon.fertilite;
+        short[] s = tampon.salaire;
+        byte[] t = tampon.type;
+        String[] no = tampon.nom;
+        long[] id2 = tampon.id;
+        long[] pe = tampon.pere;
+        long[] me = tampon.mere;
+        int[] po = tampon.poignee;
+        for (int k = 0; k < n; k++) {
+            int i = ordre[k];
+            a[k] = age[i];
+            p[k] = poids[i];
+            e[k] = esperanceVie[i];
+            f[k] = fertilite[i];
+            s[k] = salaire[i];
+            t[k] = type[i];
+            no[k] = nom[i];
+            id2[k] = id[i];
+            pe[k] = pere[i];
+            me[k] = mere[i];
+            po[k] = poignee[i];
+        }
+        tampon.age = age;
+        tampon.poids = poids;
+        tampon.esperanceVie = esperanceVie;
+        tampon.fertilite = fertilite;
+        tampon.salaire = salaire;
+        tampon.type = type;
+        tampon.nom = nom;
+        tampon.id = id;
+        tampon.pere = pere;
+        tampon.mere = mere;
+        tampon.poignee = poignee;
+        tampon.taille = 0;
+        Arrays.fill(tampon.nom, 0, n, null);
+        age = a;
+        poids = p;
+        esperanceVie = e;
+        fertilite = f;
+        salaire = s;
+        type = t;
+        nom = no;
+        id = id2;
+        pere = pe;
+        mere = me;
+        poignee = po;
+    }
+
+    @Override
+    public void vieillir(NoyauVieillissement noyau, int de, int a, byte[] marques) {
+        noyau.vieillir(age, poids, esperanceVie, type, de, a, marques);
+    }
+
+    /**
+     * Écrit les individus dans un point de reprise, colonne par colonne.
+     *
+     * @param s La sortie du point de reprise.
+     */
+    @Override
+    public void sauvegarder(PointDeReprise.Sortie s) {
+        s.entier(taille);
+        for (int colonne = 0; colonne < NB_COLONNES; colonne++) {
+            sauvegarderColonne(s, colonne, taille);
+        }
+        for (int i = 0; i < taille; i++) {
+            s.chaine(nom[i]);
+        }
+    }
+
+    /**
+     * Écrit dans un point de reprise les premières valeurs d'une colonne.
+     *
+     * @param s       La sortie du point de reprise.
+     * @param colonne Le numéro de la colonne : type, âge, poids, espérance de
+     *                vie, fertilité, salaire, poignée, numéro, père puis mère.
+     * @param n       Le nombre de valeurs.
+     */
+    void sauvegarderColonne(PointDeReprise.Sortie s, int colonne, int n) {
+        switch (colonne) {
+            case 0:
+                s.octets(type, n);
+                break;
+            case 1:
+                s.entiers(age, n);
+                break;
+            case 2:
+                s.entiers(poids, n);
+                break;
+            case 3:
+                s.octets(esperanceVie, n);
+                break;
+            case 4:
+                s.octets(fertilite, n);
+                break;
+            case 5:
+                s.courts(salaire, n);
+                break;
+            case 6:
+                s.entiers(poignee, n);
+                break;
+            case 7:
+                s.entiersLongs(id, n);
+                break;
+            case 8:
+                s.entiersLongs(pere, n);
+                break;
+            default:
+                s.entiersLongs(mere, n);
+        }
+    }
+
+    /**
+     * Remplace les individus par ceux lus dans un point de reprise.
+     *
+     * @param e L'entrée du point de reprise.
+     */
+    @Override
+    public void charger(PointDeReprise.Entree e) {
+        vider();
+        int n = e.entier();
+        assurerCapacite(n);
+        for (int colonne = 0; colonne < NB_COLONNES; colonne++) {
+            chargerColonne(e, colonne, n);
+        }
+        for (int i = 0; i < n; i++) {
+            nom[i] = e.chaine();
+        }
+        taille = n;
+    }
+
+    /**
+     * Lit dans un point de reprise les premières valeurs d'une colonne, voir
+     * {@link #sauvegarderColonne(PointDeReprise.Sortie, int, int)}.
+     *
+     * @param e       L'entrée du point de reprise.
+     * @param colonne Le numéro de la colonne.
+     * @param n       Le nombre de valeurs.
+     */
+    void chargerColonne(PointDeReprise.Entree e, int colonne, int n) {
+        switch (colonne) {
+            case 0:
+                e.octets(type, n);
+                break;
+            case 1:
+                e.entiers(age, n);
+                break;
+            case 2:
+                e.entiers(poids, n);
+                break;
+            case 3:
+                e.octets(esperanceVie, n);
+                break;
+            case 4:
+                e.octets(fertilite, n);
+                break;
+            case 5:
+                e.courts(salaire, n);
+                break;
+            case 6:
+                e.entiers(poignee, n);
+                break;
+            case 7:
+                e.entiersLongs(id, n);
+                break;
+            case 8:
+                e.entiersLongs(pere, n);
+                break;
+            default:
+                e.entiersLongs(mere, n);
+        }
+    }
+
+    /**
+     * Envoie les individus à un autre processus, colonne par colonne. Les
+     * poignées et les numéros, propres à une population, ne sont pas envoyés ;
+     * les noms le sont tels que {@link #nom(int)} les donne.
+     *
+     * @param out Le flux de sortie.
+     * @throws IOException Si l'écriture échoue.
+     */
+    void envoyer(DataOutput out) throws IOException {
+        out.writeInt(taille);
+        out.write(type, 0, taille);
+        for (int i = 0; i < taille; i++) {
+            out.writeInt(age[i]);
+        }
+        for (int i = 0; i < taille; i++) {
+            out.writeInt(poids[i]);
+        }
+        out.write(esperanceVie, 0, taille);
+        out.write(fertilite, 0, taille);
+        for (int i = 0; i < taille; i++) {
+            out.writeShort(salaire[i]);
+        }
+        for (int i = 0; i < taille; i++) {
+            out.writeLong(pere[i]);
+            out.writeLong(mere[i]);
+        }
+        for (int i = 0; i < taille; i++) {
+            out.writeUTF(nom(i));
+        }
+    }
+
+    /**
+     * Remplace les individus par ceux reçus d'un autre processus, voir
+     * {@link #envoyer(DataOutput)}. Ils n'ont ni numéro ni poignée.
+     *
+     * @param in Le flux d'entrée.
+     * @throws IOException Si la lecture échoue.
+     */
+    void recevoir(DataInput in) throws IOException {
+        vider();
+        int n = in.readInt();
+        assurerCapacite(n);
+        in.readFully(type, 0, n);
+        for (int i = 0; i < n; i++) {
+            age[i] = in.readInt();
+        }
+        for (int i = 0; i < n; i++) {
+            poids[i] = in.readInt();
+        }
+        in.readFully(esperanceVie, 0, n);
+        in.readFully(fertilite, 0, n);
+        for (int i = 0; i < n; i++) {
+            salaire[i] = in.readShort();
+        }
+        for (int i = 0; i < n; i++) {
+            pere[i] = in.readLong();
+            mere[i] = in.readLong();
+        }
+        for (int i = 0; i < n; i++) {
+            nom[i] = in.readUTF();
+        }
+        Arrays.fill(id, 0, n, -1L);
+        Arrays.fill(poignee, 0, n, -1);
+        taille = n;
+    }
+
+    @Override
+    public void vider() {
+        Arrays.fill(nom, 0, taille, null);
+        taille = 0;
+    }
+}
@@ -0,0 +1,362 @@
+package jeudelavie;
+
+/**
+ * Paramètres d'une simulation jouée par un {@link MoteurSimulation}.
+ * <p>
+ * La taille initiale et le mode de fonctionnement sont donnés à la
+ * construction ; les autres paramètres ont une valeur par défaut et peuvent
+ * être modifiés avant de créer le moteur.
+ * </p>
+ */
+public final class Configuration {
+
+    /** La taille initiale de la population. */
+    private final int tailleInit;
+
+    /** Le mode de fonctionnement, enregistré dans les points de reprise. */
+    private final int param;
+
+    /** Le nombre de naissances par génération en croissance régulée. */
+    private final int nbb;
+
+    /** La stratégie de croissance. */
+    private Croissance croissance;
+
+    /** Le nombre de threads de calcul. */
+    private int nbThreads = Runtime.getRuntime().availableProcessors();
+
+    /** La graine de la simulation. */
+    private long graine = Hasard.graineAleatoire();
+
+    /** L'algorithme des générateurs de nombres aléatoires. */
+    private String algorithme = Hasard.ALGORITHME_PAR_DEFAUT;
+
+    /** Indique si les filiations sont conservées dans une {@link Genealogie}. */
+    private boolean genealogie;
+
+    /** Le stockage des filiations, ou {@code null} pour le stockage dans le tas. */
+    private StockageFiliations filiations;
+
+    /** Le stockage des humains, ou {@code null} pour le stockage dans le tas. */
+    private Colonnes colonnes;
+
+    /** Indique si les tampons du tri de la population sont réutilisés. */
+    private boolean recyclage;
+
+    /** Le noyau du vieillissement. */
+    private NoyauVieillissement noyau;
+
+    /** Le nombre d'îles d'un {@link Archipel}. */
+    private int nbIles = 1;
+
+    /** Le nombre de générations entre deux migrations, ou 0. */
+    private int pasMigration = 10;
+
+    /** La probabilité pour chaque humain d'émigrer lors d'une migration. */
+    private double tauxMigration = 0.01;
+
+    /**
+     * Constructeur de la classe {@code Configuration}.
+     *
+     * @param tailleInit La taille initiale de la population.
+     * @param param      Le mode de fonctionnement : 0 normal, 1 croissance
+     *                   forcée, 2 croissance régulée.
+     * @param nbb        Le nombre de naissances par génération en mode 2,
+     *                   entre 1 et 100 ; ignoré sinon.
+     * @throws IllegalArgumentException Si l'un des paramètres est invalide.
+     */
+    public Configuration(int tailleInit, int param, int nbb) {
+        if (tailleInit < 0) {
+            throw new IllegalArgumentException("Taille initiale invalide : " + tailleInit);
+        }
+        if (param == 2 && (nbb < 1 || nbb > 100)) {
+            throw new IllegalArgumentException("Erreur sur nbb : " + nbb);
+        }
+        this.tailleInit = tailleInit;
+        this.param = param;
+        this.nbb = param == 2 ? nbb : 0;
+        this.croissance = Croissance.pour(param, nbb);
+    }
+
+    /**
+     * Obtient la taille initiale de la population.
+     *
+     * @return La taille initiale.
+     */
+    public int getTailleInit() {
+        return tailleInit;
+    }
+
+    /**
+     * Obtient le mode de fonctionnement.
+     *
+     * @return Le mode de fonctionnement.
+     */
+    public int getParam() {
+        return param;
+    }
+
+    /**
+     * Obtient le nombre de naissances par génération en croissance régulée.
+     *
+     * @return Le nombre de naissances, 0 hors du mode 2.
+     */
+    public int getNbb() {
+        return nbb;
+    }
+
+    /**
+     * Obtient la stratégie de croissance.
+     *
+     * @return La stratégie de croissance.
+     */
+    public Croissance getCroissance() {
+        return croissance;
+    }
+
+    /**
+     * Remplace la stratégie de croissance du mode de fonctionnement. Le mode
+     * reste celui qui est enregistré dans les points de reprise.
+     *
+     * @param croissance La stratégie de croissance.
+     */
+    public void setCroissance(Croissance croissance) {
+        this.croissance = croissance;
+    }
+
+    /**
+     * Obtient le nombre de threads de calcul.
+     *
+     * @return Le nombre de threads.
+     */
+    public int getThreads() {
+        return nbThreads;
+    }
+
+    /**
+     * Définit le nombre de threads de calcul. Le résultat de la simulation
+     * n'en dépend pas.
+     *
+     * @param nbThreads Le nombre de threads, au moins 1.
+     * @throws IllegalArgumentException Si le nombre de threads est invalide.
+     */
+    public void setThreads(int nbThreads) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("Erreur sur le nombre de threads : " + nbThreads);
+        }
+        this.nbThreads = nbThreads;
+    }
+
+    /**
+     * Obtient la graine de la simulation.
+     *
+     * @return La graine.
+     */
+    public long getGraine() {
+        return graine;
+    }
+
+    /**
+     * Définit la graine de la simulation.
+     *
+     * @param graine La graine.
+     */
+    public void setGraine(long graine) {
+        this.graine = graine;
+    }
+
+    /**
+     * Obtient l'algorithme des générateurs de nombres aléatoires.
+     *
+     * @return Le nom de l'algorithme.
+     */
+    public String getAlgorithme() {
+        return algorithme;
+    }
+
+    /**
+     * Définit l'algorithme des générateurs de nombres aléatoires.
+     *
+     * @param algorithme Le nom d'un algorithme du JDK.
+     */
+    public void setAlgorithme(String algorithme) {
+        this.algorithme = algorithme;
+    }
+
+    /**
+     * Indique si les filiations sont conservées.
+     *
+     * @return {@code true} si les filiations sont conservées.
+     */
+    public boolean isGenealogie() {
+        return genealogie;
+    }
+
+    /**
+     * Définit si les filiations sont conservées dans une {@link Genealogie}.
+     *
+     * @param genealogie {@code true} pour conserver les filiations.
+     */
+    public void setGenealogie(boolean genealogie) {
+        this.genealogie = genealogie;
+    }
+
+    /**
+     * Obtient le stockage des filiations.
+     *
+     * @return Le stockage, ou {@code null} pour le stockage dans le tas.
+     */
+    public StockageFiliations getFiliations() {
+        return filiations;
+    }
+
+    /**
+     * Définit le stockage des filiations, par exemple
+     * {@link StockageFiliations#horsTas(java.nio.file.Path)}, lorsqu'elles sont
+     * conservées. Le stockage ne doit servir qu'à une seule simulation. Le
+     * résultat de la simulation n'en dépend pas.
+     *
+     * @param filiations Le stockage, ou {@code null} pour le stockage dans le
+     *                   tas.
+     */
+    public void setFiliations(StockageFiliations filiations) {
+        this.filiations = filiations;
+    }
+
+    /**
+     * Obtient le stockage des humains de la population.
+     *
+     * @return Le stockage, ou {@code null} pour le stockage dans le tas.
+     */
+    public Colonnes getColonnes() {
+        return colonnes;
+    }
+
+    /**
+     * Définit le stockage des humains de la population, par exemple
+     * {@link Colonnes#horsTas(java.nio.file.Path)}. Le stockage, vide, ne doit
+     * servir qu'à une seule simulation. Le résultat de la simulation n'en
+     * dépend pas.
+     *
+     * @param colonnes Le stockage, ou {@code null} pour le stockage dans le
+     *                 tas.
+     */
+    public void setColonnes(Colonnes colonnes) {
+        this.colonnes = colonnes;
+    }
+
+    /**
+     * Indique si les tampons du tri de la population sont réutilisés d'une
+     * génération à l'autre.
+     *
+     * @return {@code true} si les tampons sont réutilisés.
+     */
+    public boolean isRecyclage() {
+        return recyclage;
+    }
+
+    /**
+     * Définit si les tampons du tri de la population sont réutilisés, voir
+     * {@link Population#setRecyclage(boolean)}. Le résultat de la simulation
+     * n'en dépend pas.
+     *
+     * @param recyclage {@code true} pour réutiliser les tampons.
+     */
+    public void setRecyclage(boolean recyclage) {
+        this.recyclage = recyclage;
+    }
+
+    /**
+     * Obtient le noyau du vieillissement : celui qui a été défini, ou à défaut
+     * {@link NoyauVieillissement#parDefaut()}.
+     *
+     * @return Le noyau.
+     */
+    public NoyauVieillissement getNoyau() {
+        if (noyau == null) {
+            noyau = NoyauVieillissement.parDefaut();
+        }
+        return noyau;
+    }
+
+    /**
+     * Définit le noyau du vieillissement. Le résultat de la simulation n'en
+     * dépend pas.
+     *
+     * @param noyau Le noyau.
+     */
+    public void setNoyau(NoyauVieillissement noyau) {
+        this.noyau = noyau;
+    }
+
+    /**
+     * Obtient le nombre d'îles entre lesquelles la population est répartie
+     * par un {@link Archipel}.
+     *
+     * @return Le nombre d'îles.
+     */
+    public int getIles() {
+        return nbIles;
+    }
+
+    /**
+     * Définit le nombre d'îles entre lesquelles la population est répartie
+     * par un {@link Archipel}. Un {@link MoteurSimulation} l'ignore.
+     *
+     * @param nbIles Le nombre d'îles, au moins 1.
+     * @throws IllegalArgumentException Si le nombre d'îles est invalide.
+     */
+    public void setIles(int nbIles) {
+        if (nbIles < 1) {
+            throw new IllegalArgumentException("Erreur sur le nombre d'iles : " + nbIles);
+        }
+        this.nbIles = nbIles;
+    }
+
+    /**
+     * Obtient le nombre de générations entre deux migrations.
+     *
+     * @return Le nombre de générations, 0 si les îles restent isolées.
+     */
+    public int getPasMigration() {
+        return pasMigration;
+    }
+
+    /**
+     * Définit le nombre de générations entre deux migrations entre les îles
+     * d'un {@link Archipel}.
+     *
+     * @param pasMigration Le nombre de générations, 0 pour isoler les îles.
+     * @throws IllegalArgumentException Si le nombre est négatif.
+     */
+    public void setPasMigration(int pasMigration) {
+        if (pasMigration < 0) {
+            throw new IllegalArgumentException("Erreur sur le pas des migrations : " + pasMigration);
+        }
+        this.pasMigration = pasMigration;
+    }
+
+    /**
+     * Obtient la probabilité pour chaque humain d'émigrer lors d'une
+     * migration.
+     *
+     * @return La probabilité.
+     */
+    public double getTauxMigration() {
+        return tauxMigration;
+    }
+
+    /**
+     * Définit la probabilité pour chaque humain d'émigrer vers l'île suivante
+     * lors d'une migration.
+     *
+     * @param tauxMigration La probabilité, entre 0 et 1.
+     * @throws IllegalArgumentException Si la probabilité est invalide.
+     */
+    public void setTauxMigration(double tauxMigration) {
+        if (!(tauxMigration >= 0 && tauxMigration <= 1)) {
+            throw new IllegalArgumentException("Erreur sur le taux de migration : " + tauxMigration);
+        }
+        this.tauxMigration = tauxMigration;
+    }
+}
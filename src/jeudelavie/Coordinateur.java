@@ -0,0 +1,319 @@
+package jeudelavie;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulation d'un {@link Archipel} dont chaque île est jouée par un processus
+ * distinct, pour dépasser la taille d'un seul tas Java.
+ * <p>
+ * Le coordinateur lance un {@link Travailleur} par île, avec la même JVM, le
+ * même classpath et les mêmes options, et les attend sur une socket de
+ * l'interface locale. Chaque génération, il demande à tous les travailleurs
+ * de jouer leur île, recueille leur taille et leur bilan des rencontres, puis,
+ * les générations de migration, fait suivre les migrants de chaque île à
+ * l'île suivante. Les îles, leurs graines et les migrations sont celles d'un
+ * {@link Archipel} de même configuration : les deux donnent exactement le
+ * même résultat.
+ * </p>
+ * <p>
+ * Le protocole est binaire, en {@link DataOutputStream} : le travailleur se
+ * présente par {@link #MAGIE}, {@link #VERSION} et le numéro de son île, et
+ * reçoit les paramètres de la simulation ; chaque message du coordinateur
+ * commence ensuite par un octet, {@link #GENERATION}, {@link #MIGRANTS} ou
+ * {@link #FIN}. Les humains sont envoyés colonne par colonne, voir
+ * {@link ColonnesSurTas#envoyer(java.io.DataOutput)}. La stratégie de croissance et
+ * le noyau du vieillissement ne sont pas transmis : chaque travailleur utilise
+ * ceux de son mode et {@link NoyauVieillissement#parDefaut()}.
+ * </p>
+ */
+public final class Coordinateur implements AutoCloseable {
+
+    /** Le début de la présentation d'un travailleur. */
+    static final int MAGIE = 0x4A444C54;
+
+    /** La version du protocole. */
+    static final int VERSION = 1;
+
+    /** Message qui demande de jouer une génération. */
+    static final byte GENERATION = 1;
+
+    /** Message qui apporte des migrants. */
+    static final byte MIGRANTS = 2;
+
+    /** Message qui termine le travailleur. */
+    static final byte FIN = 3;
+
+    /** Le délai accordé aux travailleurs pour se présenter, et pour s'arrêter, en millisecondes. */
+    private static final int DELAI_MS = 60_000;
+
+    /** Les paramètres de la simulation. */
+    private final Configuration config;
+
+    /** Les processus des travailleurs, par île. */
+    private final Process[] processus;
+
+    /** Les connexions aux travailleurs, par île. */
+    private final Socket[] sockets;
+
+    /** Les flux d'entrée des travailleurs, par île. */
+    private final DataInputStream[] entrees;
+
+    /** Les flux de sortie vers les travailleurs, par île. */
+    private final DataOutputStream[] sorties;
+
+    /** La taille de la population de chaque île. */
+    private final int[] tailles;
+
+    /** Les migrants de chaque île pendant une migration. */
+    private final ColonnesSurTas[] migrants;
+
+    /** Le bilan des rencontres de la dernière génération, toutes îles confondues. */
+    private final BilanRencontres bilan = new BilanRencontres();
+
+    /** Le numéro de la prochaine génération à jouer. */
+    private int generation;
+
+    /** Le nombre de migrants de la dernière génération. */
+    private int nbMigrants;
+
+    /**
+     * Lance un travailleur par île et attend qu'ils aient créé leur
+     * population initiale.
+     *
+     * @param config Les paramètres de la simulation, dont le nombre d'îles et
+     *               les migrations.
+     * @throws IOException Si un travailleur ne peut pas être lancé ou ne se
+     *                     présente pas à temps.
+     */
+    public Coordinateur(Configuration config) throws IOException {
+        this.config = config;
+        int n = config.getIles();
+        processus = new Process[n];
+        sockets = new Socket[n];
+        entrees = new DataInputStream[n];
+        sorties = new DataOutputStream[n];
+        tailles = new int[n];
+        migrants = new ColonnesSurTas[n];
+        try (ServerSocket serveur = new ServerSocket(0, n, InetAddress.getLoopbackAddress())) {
+            serveur.setSoTimeout(DELAI_MS);
+            for (int k = 0; k < n; k++) {
+                processus[k] = lancer(serveur.getLocalPort(), k);
+            }
+            for (int k = 0; k < n; k++) {
+                accepter(serveur.accept());
+            }
+            for (int k = 0; k < n; k++) {
+                migrants[k] = new ColonnesSurTas();
+                tailles[k] = entrees[k].readInt();
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Lance le processus d'un travailleur.
+     *
+     * @param port Le port local où le travailleur doit se présenter.
+     * @param k    Le numéro de son île.
+     * @return Le processus.
+     * @throws IOException Si le processus ne peut pas être lancé.
+     */
+    private static Process lancer(int port, int k) throws IOException {
+        List<String> commande = new ArrayList<>();
+        commande.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        for (String option : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (!option.startsWith("-agentlib") && !option.startsWith("-javaagent")) {
+                commande.add(option);
+            }
+        }
+        commande.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"), Travailleur.class.getName(),
+                String.valueOf(port), String.valueOf(k)));
+        return new ProcessBuilder(commande).inheritIO().start();
+    }
+
+    /**
+     * Reçoit la présentation d'un travailleur et lui envoie les paramètres de
+     * la simulation.
+     *
+     * @param socket La connexion du travailleur.
+     * @throws IOException Si la présentation est invalide.
+     */
+    private void accepter(Socket socket) throws IOException {
+        socket.setTcpNoDelay(true);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        if (in.readInt() != MAGIE || in.readInt() != VERSION) {
+            socket.close();
+            throw new IOException("Travailleur incompatible");
+        }
+        int k = in.readInt();
+        if (k < 0 || k >= sockets.length || sockets[k] != null) {
+            socket.close();
+            throw new IOException("Ile invalide : " + k);
+        }
+        sockets[k] = socket;
+        entrees[k] = in;
+        sorties[k] = out;
+        out.writeInt(config.getTailleInit());
+        out.writeInt(config.getParam());
+        out.writeInt(config.getNbb());
+        out.writeInt(config.getIles());
+        out.writeLong(config.getGraine());
+        out.writeUTF(config.getAlgorithme());
+        out.writeBoolean(config.isRecyclage());
+        out.writeDouble(config.getTauxMigration());
+        out.flush();
+    }
+
+    /**
+     * Joue une génération sur chaque île qui peut encore se reproduire, puis
+     * la migration si elle tombe à cette génération.
+     *
+     * @throws PopulationException Si aucune île ne peut plus se reproduire.
+     * @throws IOException         Si un travailleur ne répond plus.
+     */
+    public void step() throws PopulationException, IOException {
+        int n = sockets.length;
+        boolean migration = Archipel.migration(config, generation);
+        for (int k = 0; k < n; k++) {
+            sorties[k].writeByte(GENERATION);
+            sorties[k].writeInt(generation);
+            sorties[k].writeBoolean(migration);
+            sorties[k].flush();
+        }
+
+        bilan.reinitialiser();
+        boolean active = false;
+        for (int k = 0; k < n; k++) {
+            DataInputStream in = entrees[k];
+            active |= in.readBoolean();
+            tailles[k] = in.readInt();
+            bilan.recevoir(in);
+            if (migration) {
+                migrants[k].recevoir(in);
+            }
+        }
+        if (!active) {
+            throw new PopulationException(taille() <= 1 ? "population is empty" : "population cannot grow");
+        }
+
+        nbMigrants = 0;
+        if (migration) {
+            for (int k = 0; k < n; k++) {
+                DataOutputStream out = sorties[(k + 1) % n];
+                out.writeByte(MIGRANTS);
+                migrants[k].envoyer(out);
+                out.flush();
+                nbMigrants += migrants[k].taille;
+                migrants[k].vider();
+            }
+            for (int k = 0; k < n; k++) {
+                tailles[k] = entrees[k].readInt();
+            }
+        }
+        generation++;
+    }
+
+    /**
+     * Obtient le numéro de la prochaine génération à jouer.
+     *
+     * @return Le numéro de la prochaine génération.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Obtient la taille de la population de chaque île.
+     *
+     * @return Un nouveau tableau, indexé par le numéro de l'île.
+     */
+    public int[] getTailles() {
+        return tailles.clone();
+    }
+
+    /**
+     * Obtient la taille totale de la population, toutes îles confondues.
+     *
+     * @return Le nombre d'humains.
+     */
+    public int taille() {
+        int total = 0;
+        for (int t : tailles) {
+            total += t;
+        }
+        return total;
+    }
+
+    /**
+     * Obtient le bilan des rencontres de la dernière génération, toutes îles
+     * confondues.
+     *
+     * @return Le bilan.
+     */
+    public BilanRencontres getBilan() {
+        return bilan;
+    }
+
+    /**
+     * Obtient le nombre d'humains qui ont changé d'île à la dernière
+     * génération.
+     *
+     * @return Le nombre de migrants, 0 hors des générations de migration.
+     */
+    public int getMigrants() {
+        return nbMigrants;
+    }
+
+    /**
+     * Arrête les travailleurs, en attendant qu'ils se terminent, et ferme les
+     * connexions.
+     */
+    @Override
+    public void close() {
+        for (int k = 0; k < sockets.length; k++) {
+            if (sorties[k] != null) {
+                try {
+                    sorties[k].writeByte(FIN);
+                    sorties[k].flush();
+                } catch (IOException e) {
+                    // Le travailleur est déjà arrêté.
+                }
+            }
+        }
+        for (int k = 0; k < processus.length; k++) {
+            if (processus[k] != null) {
+                try {
+                    if (!processus[k].waitFor(DELAI_MS, TimeUnit.MILLISECONDS)) {
+                        processus[k].destroyForcibly();
+                    }
+                } catch (InterruptedException e) {
+                    processus[k].destroyForcibly();
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (sockets[k] != null) {
+                try {
+                    sockets[k].close();
+                } catch (IOException e) {
+                    // Rien à faire de plus.
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package jeudelavie;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Stratégie de croissance d'une population : les rencontres jouées à chaque
+ * génération, avant le vieillissement.
+ * <p>
+ * Les trois modes de fonctionnement de la simulation sont fournis par
+ * {@link #normale()}, {@link #forcee()} et {@link #regulee(int)} ; un
+ * {@link MoteurSimulation} peut aussi recevoir une stratégie définie par
+ * l'appelant, voir {@link Configuration#setCroissance(Croissance)}. Une
+ * stratégie ne tire ses nombres aléatoires que dans le générateur qui lui est
+ * passé et dans les flux du {@link MoteurParallele}, pour que la simulation
+ * reste reproductible.
+ * </p>
+ */
+@FunctionalInterface
+public interface Croissance {
+
+    /**
+     * Nombre maximal de rencontres tentées par naissance demandée en croissance
+     * régulée, pour ne pas boucler indéfiniment sur une population presque
+     * stérile. Une rencontre entre humains féconds donne un enfant avec une
+     * probabilité de l'ordre de 8 % dans une population ordinaire : la limite
+     * n'est atteinte que si cette probabilité tombe sous un pour mille, par
+     * exemple lorsque tous les hommes ont un batifolage de 100.
+     */
+    int TENTATIVES_PAR_NAISSANCE = 1000;
+
+    /**
+     * Joue les rencontres d'une génération. Les bébés sont ajoutés aux
+     * naissances en attente de la population.
+     *
+     * @param population La population, qui compte au moins deux humains.
+     * @param moteur     Le moteur qui exécute les phases parallèles.
+     * @param generation Le numéro de la génération.
+     * @param loto       Le générateur de nombres aléatoires de la génération.
+     * @param sonde      La sonde qui mesure la durée des phases.
+     */
+    void croitre(Population population, MoteurParallele moteur, int generation, RandomGenerator loto, Sonde sonde);
+
+    /**
+     * Retourne la stratégie d'un mode de fonctionnement.
+     *
+     * @param param Le mode : 0 pour {@link #normale()}, 1 pour
+     *              {@link #forcee()}, 2 pour {@link #regulee(int)}.
+     * @param nbb   Le nombre de naissances par génération en mode 2.
+     * @return La stratégie.
+     */
+    static Croissance pour(int param, int nbb) {
+        switch (param) {
+            case 0:
+                return normale();
+            case 1:
+                return forcee();
+            case 2:
+                return regulee(nbb);
+            default:
+                throw new IllegalArgumentException("Parametre inconnu : " + param);
+        }
+    }
+
+    /**
+     * Fonctionnement normal (mode 0), voir
+     * {@link #croissanceNormale(Population, RandomGenerator)}.
+     *
+     * @return La stratégie.
+     */
+    static Croissance normale() {
+        return (population, moteur, generation, loto, sonde) -> {
+            sonde.debut(Sonde.Phase.RENCONTRES);
+            croissanceNormale(population, loto);
+            sonde.fin();
+        };
+    }
+
+    /**
+     * Croissance forcée (mode 1) : le plus grand nombre possible de couples
+     * féconds se rencontrent, voir
+     * {@link MoteurParallele#croissanceForcee(Population, int)}.
+     * <p>
+     * Chaque humain fécond appartient à au plus un couple et n'a donc qu'une
+     * chance d'avoir un enfant par génération. La version d'origine du mode 1
+     * faisait se rencontrer deux fois tous les couples parmi les {@code n}
+     * premiers humains de la population, triée par âge, {@code n} étant le
+     * plus petit des nombres d'hommes et de femmes de 16 à 59 ans : le
+     * nombre de naissances y croissait comme le carré du nombre d'humains
+     * féconds, et la population dépassait la mémoire en une vingtaine de
+     * générations. Ce rendement est disponible avec {@link #forceeComplete()}.
+     * </p>
+     *
+     * @return La stratégie.
+     */
+    static Croissance forcee() {
+        return (population, moteur, generation, loto, sonde) -> moteur.croissanceForcee(population, generation);
+    }
+
+    /**
+     * Croissance forcée complète : chaque homme fécond rencontre chaque femme
+     * féconde deux fois, comme dans la version d'origine du mode 1, voir
+     * {@link MoteurParallele#croissanceForceeComplete(Population, int)}.
+     *
+     * @return La stratégie.
+     */
+    static Croissance forceeComplete() {
+        return (population, moteur, generation, loto, sonde) ->
+                moteur.croissanceForceeComplete(population, generation);
+    }
+
+    /**
+     * Croissance régulée (mode 2), voir
+     * {@link #croissanceRegulee(Population, int, RandomGenerator)}.
+     *
+     * @param nbb Le nombre de naissances souhaitées par génération.
+     * @return La stratégie.
+     */
+    static Croissance regulee(int nbb) {
+        return (population, moteur, generation, loto, sonde) -> {
+            sonde.debut(Sonde.Phase.RENCONTRES);
+            croissanceRegulee(population, nbb, loto);
+            sonde.fin();
+        };
+    }
+
+    /**
+     * Fonctionnement normal : effectue entre 0 et la moitié de la taille de la
+     * population rencontres entre deux humains tirés au hasard, sans remise.
+     * <p>
+     * Pour chaque rencontre, seule la catégorie des deux humains est tirée :
+     * homme fécond, femme féconde ou autre, d'après le nombre d'humains de
+     * chaque catégorie qui ne se sont pas encore rencontrés. Les humains
+     * eux-mêmes ne sont tirés que pour les rencontres entre un homme et une
+     * femme féconds ; les autres sont écartées sans toucher à la population.
+     * </p>
+     * <p>
+     * Les humains féconds pris par une rencontre écartée ne sont pas retirés
+     * des tableaux où sont tirés les couples : ils forment un sous-ensemble
+     * uniforme qui n'est plus jamais consulté, si bien que chaque couple reste
+     * tiré sans remise parmi les humains qui ne se sont pas encore rencontrés,
+     * exactement comme dans la version d'origine.
+     * </p>
+     *
+     * @param population La population, qui doit compter au moins deux humains.
+     * @param loto       Le générateur de nombres aléatoires de la simulation.
+     */
+    static void croissanceNormale(Population population, RandomGenerator loto) {
+        int n = loto.nextInt(population.taille() / 2);
+        int[] hommes = population.getHommesFeconds();
+        int[] femmes = population.getFemmesFeconds();
+        int tirablesH = hommes.length;
+        int tirablesF = femmes.length;
+        int resteH = tirablesH;
+        int resteF = tirablesF;
+        int reste = population.taille();
+        long ecartees = 0;
+
+        for (int j = 0; j < n; j++) {
+            if (resteH == 0 || resteF == 0) {
+                ecartees += n - j;
+                break;
+            }
+
+            int tirage = loto.nextInt(reste--);
+            boolean premierHomme = tirage < resteH;
+            boolean premiereFemme = !premierHomme && tirage < resteH + resteF;
+            if (premierHomme) {
+                resteH--;
+            } else if (premiereFemme) {
+                resteF--;
+            }
+            tirage = loto.nextInt(reste--);
+            boolean secondHomme = tirage < resteH;
+            boolean secondeFemme = !secondHomme && tirage < resteH + resteF;
+            if (secondHomme) {
+                resteH--;
+            } else if (secondeFemme) {
+                resteF--;
+            }
+
+            if (!(premierHomme && secondeFemme) && !(premiereFemme && secondHomme)) {
+                ecartees++;
+                continue;
+            }
+            int h = tirerSansRemise(hommes, tirablesH--, loto);
+            int f = tirerSansRemise(femmes, tirablesF--, loto);
+            int issue = premierHomme ? population.rencontrerPoignees(h, f) : population.rencontrerPoignees(f, h);
+            if (issue == Rencontre.NAISSANCE) {
+                tuerAuHasard(population, loto);
+            }
+        }
+        population.getBilan().ecarter(ecartees);
+    }
+
+    /**
+     * Croissance régulée : fait se rencontrer un homme et une femme féconds
+     * tirés au hasard jusqu'à obtenir {@code nbb} naissances, sans dépasser
+     * {@link #TENTATIVES_PAR_NAISSANCE} rencontres par naissance demandée.
+     * <p>
+     * Deux écarts avec la version d'origine sont voulus. Celle-ci s'arrêtait
+     * faute d'hommes ou de femmes de 16 à 59 ans, et non faute d'humains
+     * féconds ; mais une génération sans humain fécond de l'un des sexes ne
+     * peut donner aucun enfant, et l'arrêt est le même dès qu'il en reste.
+     * Surtout, elle ne comptait pas ses naissances : sa boucle ne se terminait
+     * jamais tant qu'il restait des adultes des deux sexes. Les naissances
+     * sont donc comptées, et la limite de tentatives borne la durée d'une
+     * génération quand elles deviennent trop improbables.
+     * </p>
+     *
+     * @param population La population.
+     * @param nbb        Le nombre de naissances souhaitées.
+     * @param loto       Le générateur de nombres aléatoires de la simulation.
+     */
+    static void croissanceRegulee(Population population, int nbb, RandomGenerator loto) {
+        int compteur = 0;
+        int tentatives = 0;
+        while (compteur < nbb && tentatives < TENTATIVES_PAR_NAISSANCE * nbb) {
+            if (population.nbHommesFeconds() == 0 || population.nbFemmesFeconds() == 0) {
+                break;
+            }
+
+            int h = population.tirerHommeFecond(loto);
+            int f = population.tirerFemmeFeconde(loto);
+            tentatives++;
+            if (rencontrerCouple(population, h, f, loto) == Rencontre.NAISSANCE) {
+                compteur++;
+                tuerAuHasard(population, loto);
+            }
+        }
+    }
+
+    /**
+     * Après une naissance, tue au hasard un humain ou un bébé avec une
+     * probabilité de 20 %.
+     *
+     * @param population La population dans laquelle la naissance a eu lieu.
+     * @param loto       Le générateur de nombres aléatoires de la simulation.
+     */
+    private static void tuerAuHasard(Population population, RandomGenerator loto) {
+        int rand = loto.nextInt(0, 100);
+        if (rand < 20) {
+            population.tuerAuHasard(loto);
+        }
+    }
+
+    /**
+     * Tire au hasard une poignée parmi les {@code reste} premières d'un tableau,
+     * puis la place après elles pour qu'elle ne soit plus tirée.
+     *
+     * @param tirage Les poignées des humains pouvant encore être tirés.
+     * @param reste  Le nombre de poignées pouvant encore être tirées.
+     * @param loto   Le générateur de nombres aléatoires de la simulation.
+     * @return La poignée tirée.
+     */
+    private static int tirerSansRemise(int[] tirage, int reste, RandomGenerator loto) {
+        int k = loto.nextInt(reste);
+        int p = tirage[k];
+        tirage[k] = tirage[reste - 1];
+        tirage[reste - 1] = p;
+        return p;
+    }
+
+    /**
+     * Fait se rencontrer un homme et une femme, en tirant au sort lequel des
+     * deux est à l'initiative de la rencontre.
+     *
+     * @param population La population des deux humains.
+     * @param homme      La poignée de l'homme.
+     * @param femme      La poignée de la femme.
+     * @param loto       Le générateur de nombres aléatoires de la simulation.
+     * @return Le code d'issue de la rencontre, voir {@link Rencontre}.
+     */
+    private static int rencontrerCouple(Population population, int homme, int femme, RandomGenerator loto) {
+        if (loto.nextBoolean()) {
+            return population.rencontrerPoignees(homme, femme);
+        }
+        return population.rencontrerPoignees(femme, homme);
+    }
+}
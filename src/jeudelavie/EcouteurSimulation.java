@@ -0,0 +1,58 @@
+package jeudelavie;
+
+/**
+ * Écouteur des événements d'un {@link MoteurSimulation} : naissances, décès et
+ * fin de chaque génération. Un {@link MoteurCohortes}, qui ne représente aucun
+ * humain, ne signale que la fin de chaque génération.
+ * <p>
+ * Les naissances et les décès sont signalés pendant les phases séquentielles
+ * de la génération, dans un ordre qui ne dépend pas du nombre de threads. Un
+ * écouteur appelé pour chaque humain doit rester bref : toute écriture
+ * coûteuse ralentit d'autant la simulation.
+ * </p>
+ */
+public interface EcouteurSimulation {
+
+    /**
+     * Signale la naissance d'un humain, au moment où il rejoint la population.
+     *
+     * @param id   Le numéro du nouveau-né.
+     * @param pere Le numéro de son père.
+     * @param mere Le numéro de sa mère.
+     */
+    default void naissance(long id, long pere, long mere) {
+    }
+
+    /**
+     * Signale la mort d'un humain de la population.
+     *
+     * @param id    Le numéro de l'humain mort.
+     * @param nom   Le nom qui lui a été donné, ou {@code null} s'il n'en a pas
+     *              reçu, voir {@link Humain#nommer(long, long, long)}.
+     * @param cause La cause du décès, voir {@link BilanDeces}.
+     */
+    default void deces(long id, String nom, int cause) {
+    }
+
+    /**
+     * Signale la fin d'une génération, population triée, avant la remise à
+     * zéro des bilans des rencontres et des décès.
+     *
+     * @param simulation La simulation, dont {@link MoteurSimulation#getGeneration()}
+     *                   est déjà le numéro de la génération suivante.
+     * @param generation Le numéro de la génération qui s'achève.
+     */
+    default void finGeneration(MoteurSimulation simulation, int generation) {
+    }
+
+    /**
+     * Signale la fin d'une génération du moteur par cohortes, avant la remise à
+     * zéro du bilan des rencontres.
+     *
+     * @param moteur     Le moteur, dont {@link MoteurCohortes#getGeneration()}
+     *                   est déjà le numéro de la génération suivante.
+     * @param generation Le numéro de la génération qui s'achève.
+     */
+    default void finGeneration(MoteurCohortes moteur, int generation) {
+    }
+}
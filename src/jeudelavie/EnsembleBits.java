@@ -0,0 +1,111 @@
+package jeudelavie;
+
+import java.util.Arrays;
+
+/**
+ * Ensemble d'entiers positifs rangé dans un tableau de bits : un bit par
+ * entier possible, soit un octet pour huit humains.
+ * <p>
+ * L'ajout, le retrait et le test d'appartenance se font en temps constant,
+ * et le nombre d'éléments est tenu à jour, si bien qu'un parcours peut ignorer
+ * l'ensemble lorsqu'il est vide. Contrairement à {@link EnsembleIndex}, les
+ * éléments ne peuvent pas être tirés au sort ; l'ensemble convient aux marques
+ * rares et temporaires, comme les humains tués en attendant leur retrait.
+ * </p>
+ */
+final class EnsembleBits {
+
+    /** Les bits de l'ensemble, 64 entiers par mot. */
+    private long[] mots = new long[1];
+
+    /** Le nombre d'éléments. */
+    private int taille;
+
+    /** L'index qui suit le dernier mot contenant un élément, ou moins. */
+    private int motsUtilises;
+
+    /**
+     * Ajoute un entier à l'ensemble.
+     *
+     * @param e L'entier, positif ou nul.
+     * @return {@code true} si l'entier n'appartenait pas déjà à l'ensemble.
+     */
+    boolean ajouter(int e) {
+        int m = e >>> 6;
+        if (m >= mots.length) {
+            mots = Arrays.copyOf(mots, Math.max(m + 1, mots.length * 2));
+        }
+        long bit = 1L << e;
+        if ((mots[m] & bit) != 0) {
+            return false;
+        }
+        mots[m] |= bit;
+        motsUtilises = Math.max(motsUtilises, m + 1);
+        taille++;
+        return true;
+    }
+
+    /**
+     * Retire un entier de l'ensemble, s'il y appartient.
+     *
+     * @param e L'entier.
+     */
+    void retirer(int e) {
+        if (taille == 0) {
+            return;
+        }
+        int m = e >>> 6;
+        long bit = 1L << e;
+        if (m < mots.length && (mots[m] & bit) != 0) {
+            mots[m] &= ~bit;
+            taille--;
+        }
+    }
+
+    /**
+     * Indique si un entier appartient à l'ensemble.
+     *
+     * @param e L'entier.
+     * @return {@code true} si l'entier appartient à l'ensemble.
+     */
+    boolean contient(int e) {
+        int m = e >>> 6;
+        return m < mots.length && (mots[m] & (1L << e)) != 0;
+    }
+
+    /**
+     * Obtient le nombre d'éléments de l'ensemble.
+     *
+     * @return Le nombre d'éléments.
+     */
+    int taille() {
+        return taille;
+    }
+
+    /**
+     * Vide l'ensemble, en ne remettant à zéro que les mots qui ont pu être
+     * utilisés.
+     */
+    void vider() {
+        if (taille > 0) {
+            Arrays.fill(mots, 0, motsUtilises, 0L);
+        }
+        taille = 0;
+        motsUtilises = 0;
+    }
+
+    /**
+     * Remplace le contenu de l'ensemble par une copie d'un autre ensemble.
+     *
+     * @param src L'ensemble à copier.
+     */
+    void remplacerPar(EnsembleBits src) {
+        vider();
+        if (mots.length < src.mots.length) {
+            mots = new long[src.mots.length];
+        }
+        System.arraycopy(src.mots, 0, mots, 0, src.motsUtilises);
+        taille = src.taille;
+        motsUtilises = src.motsUtilises;
+    }
+}
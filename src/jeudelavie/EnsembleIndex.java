@@ -0,0 +1,179 @@
+package jeudelavie;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ensemble de poignées d'humains supportant l'ajout, le retrait, le test
+ * d'appartenance et le tirage au sort en temps constant.
+ * <p>
+ * Les poignées sont rangées de façon contiguë dans {@link #elements} ; le
+ * tableau {@link #rang} donne, pour chaque poignée, sa place dans
+ * {@code elements} ({@code -1} si elle n'appartient pas à l'ensemble). Un
+ * retrait déplace le dernier élément à la place de l'élément retiré.
+ * </p>
+ */
+final class EnsembleIndex {
+
+    /** Les poignées contenues dans l'ensemble. */
+    private int[] elements;
+
+    /** La place de chaque poignée dans {@link #elements}, ou {@code -1}. */
+    private int[] rang;
+
+    /** Le nombre de poignées contenues dans l'ensemble. */
+    private int taille;
+
+    /**
+     * Constructeur de la classe {@code EnsembleIndex}.
+     * <p>
+     * Initialise un ensemble vide.
+     * </p>
+     */
+    EnsembleIndex() {
+        elements = new int[16];
+        rang = new int[16];
+        Arrays.fill(rang, -1);
+    }
+
+    /**
+     * Indique si une poignée appartient à l'ensemble.
+     *
+     * @param p La poignée à tester.
+     * @return {@code true} si la poignée appartient à l'ensemble.
+     */
+    boolean contient(int p) {
+        return p < rang.length && rang[p] >= 0;
+    }
+
+    /**
+     * Ajoute une poignée à l'ensemble si elle n'y est pas déjà.
+     *
+     * @param p La poignée à ajouter.
+     */
+    void ajouter(int p) {
+        if (p >= rang.length) {
+            int ancienne = rang.length;
+            rang = Arrays.copyOf(rang, Math.max(p + 1, ancienne * 2));
+            Arrays.fill(rang, ancienne, rang.length, -1);
+        }
+        if (rang[p] >= 0) {
+            return;
+        }
+        if (taille == elements.length) {
+            elements = Arrays.copyOf(elements, taille * 2);
+        }
+        rang[p] = taille;
+        elements[taille++] = p;
+    }
+
+    /**
+     * Retire une poignée de l'ensemble si elle y est.
+     *
+     * @param p La poignée à retirer.
+     */
+    void retirer(int p) {
+        if (!contient(p)) {
+            return;
+        }
+        int k = rang[p];
+        int dernier = elements[--taille];
+        elements[k] = dernier;
+        rang[dernier] = k;
+        rang[p] = -1;
+    }
+
+    /**
+     * Retourne le nombre de poignées contenues dans l'ensemble.
+     *
+     * @return La taille de l'ensemble.
+     */
+    int taille() {
+        return taille;
+    }
+
+    /**
+     * Retourne la poignée rangée à une place donnée.
+     *
+     * @param k La place, comprise entre 0 et {@link #taille()} exclu.
+     * @return La poignée rangée à cette place.
+     */
+    int get(int k) {
+        return elements[k];
+    }
+
+    /**
+     * Tire une poignée au hasard dans l'ensemble, qui ne doit pas être vide.
+     *
+     * @param loto Le générateur de nombres aléatoires à utiliser.
+     * @return Une poignée de l'ensemble.
+     */
+    int tirer(RandomGenerator loto) {
+        return elements[loto.nextInt(taille)];
+    }
+
+    /**
+     * Retourne une copie des poignées contenues dans l'ensemble.
+     *
+     * @return Un nouveau tableau contenant les poignées de l'ensemble.
+     */
+    int[] copier() {
+        return Arrays.copyOf(elements, taille);
+    }
+
+    /**
+     * Remplace le contenu de cet ensemble par une copie d'un autre ensemble.
+     *
+     * @param src L'ensemble à copier.
+     */
+    void remplacerPar(EnsembleIndex src) {
+        if (elements.length < src.elements.length) {
+            elements = new int[src.elements.length];
+        }
+        if (rang.length < src.rang.length) {
+            rang = new int[src.rang.length];
+        }
+        System.arraycopy(src.elements, 0, elements, 0, src.taille);
+        System.arraycopy(src.rang, 0, rang, 0, src.rang.length);
+        Arrays.fill(rang, src.rang.length, rang.length, -1);
+        taille = src.taille;
+    }
+
+    /**
+     * Écrit les poignées de l'ensemble dans un point de reprise, dans l'ordre
+     * où elles sont rangées.
+     *
+     * @param s La sortie du point de reprise.
+     */
+    void sauvegarder(PointDeReprise.Sortie s) {
+        s.entier(taille);
+        s.entiers(elements, taille);
+    }
+
+    /**
+     * Remplace le contenu de l'ensemble par les poignées lues dans un point de
+     * reprise, rangées dans le même ordre : les tirages au sort qui suivent
+     * sont ainsi les mêmes qu'avant l'enregistrement.
+     *
+     * @param e L'entrée du point de reprise.
+     */
+    void charger(PointDeReprise.Entree e) {
+        vider();
+        int n = e.entier();
+        int[] t = new int[n];
+        e.entiers(t, n);
+        for (int p : t) {
+            ajouter(p);
+        }
+    }
+
+    /**
+     * Retire toutes les poignées de l'ensemble.
+     */
+    void vider() {
+        for (int k = 0; k < taille; k++) {
+            rang[elements[k]] = -1;
+        }
+        taille = 0;
+    }
+}
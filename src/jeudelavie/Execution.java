@@ -0,0 +1,382 @@
+package jeudelavie;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Exécution d'une simulation jusqu'à son terme, avec son rapport.
+ * <p>
+ * Les moteurs ({@link MoteurSimulation}, {@link Archipel}, {@link Coordinateur}
+ * et {@link MoteurCohortes}) jouent les générations sans rien écrire ; une
+ * exécution les fait jouer jusqu'au nombre de tours demandé et écrit dans un
+ * {@link Rapport} l'état de la population à la fin de chaque génération, puis,
+ * pour une population dont les filiations sont conservées, le résumé de sa
+ * {@link Genealogie}. Avec un {@link MoteurSimulation}, elle écrit aussi les
+ * statistiques et les points de reprise.
+ * </p>
+ * <p>
+ * Une population qui ne peut plus se reproduire arrête l'exécution, et le
+ * message de l'exception est écrit dans le rapport.
+ * </p>
+ */
+public final class Execution {
+
+    /** Le nombre de vivants dont la consanguinité est résumée en fin de simulation. */
+    private static final int ECHANTILLON_CONSANGUINITE = 100;
+
+    /** Le nombre maximal d'ancêtres et de descendants nommés par la lignée. */
+    private static final int NOMS_LIGNEE = 20;
+
+    /** Le rapport où afficher l'état de la population. */
+    private final Rapport rapport;
+
+    /** Les statistiques, ou {@code null}. */
+    private Statistiques statistiques;
+
+    /** Le nombre de générations entre deux points de reprise, ou 0. */
+    private int pasReprise;
+
+    /** Le fichier du point de reprise. */
+    private Path fichierReprise;
+
+    /** Le nom de l'humain dont la lignée est écrite en fin de simulation, ou {@code null}. */
+    private String lignee;
+
+    /**
+     * Constructeur de la classe {@code Execution}.
+     *
+     * @param rapport Le rapport où afficher l'état de la population. Il n'est
+     *                pas fermé par l'exécution.
+     */
+    public Execution(Rapport rapport) {
+        this.rapport = rapport;
+    }
+
+    /**
+     * Définit les statistiques mesurées à la fin de chaque génération d'un
+     * {@link MoteurSimulation}. Elles sont fermées à la fin de l'exécution.
+     *
+     * @param statistiques Les statistiques, ou {@code null} pour n'en mesurer
+     *                     aucune.
+     */
+    public void setStatistiques(Statistiques statistiques) {
+        this.statistiques = statistiques;
+    }
+
+    /**
+     * Définit les points de reprise écrits pendant l'exécution d'un
+     * {@link MoteurSimulation}.
+     *
+     * @param pas     Le nombre de générations entre deux points de reprise, ou
+     *                0 pour n'en écrire aucun.
+     * @param fichier Le fichier du point de reprise, remplacé à chaque fois.
+     */
+    public void setPointsDeReprise(int pas, Path fichier) {
+        this.pasReprise = pas;
+        this.fichierReprise = fichier;
+    }
+
+    /**
+     * Demande d'écrire en fin de simulation les ancêtres et les descendants
+     * d'un humain, si les filiations de la population sont conservées.
+     *
+     * @param nom Le nom de l'humain, voir {@link Genealogie#getNom(long)}, ou
+     *            {@code null}.
+     */
+    public void setLignee(String nom) {
+        this.lignee = nom;
+    }
+
+    /**
+     * Joue une simulation jusqu'au nombre de tours demandé. Au niveau
+     * {@link Rapport.Niveau#COMPLET}, chaque décès est écrit.
+     *
+     * @param simulation  La simulation, neuve ou reprise.
+     * @param nbTourDeJeu Le nombre de tours de jeu à exécuter, en comptant ceux
+     *                    d'une simulation reprise.
+     * @throws PopulationException Si la population compte moins de deux humains
+     *                             avant une génération.
+     */
+    public void simuler(MoteurSimulation simulation, int nbTourDeJeu) throws PopulationException {
+        try {
+            if (simulation.getGeneration() > 0) {
+                rapport.ligne("Reprise a la generation : " + simulation.getGeneration());
+            }
+            if (rapport.accepte(Rapport.Niveau.COMPLET)) {
+                simulation.ajouterEcouteur(new EcouteurSimulation() {
+                    @Override
+                    public void deces(long id, String nom, int cause) {
+                        rapport.ligne((nom != null ? nom : Humain.nommer(id, -1, -1)) + " est mort !");
+                    }
+                });
+            }
+            simulation.ajouterEcouteur(new Affichage(rapport, statistiques, pasReprise, fichierReprise));
+
+            while (simulation.getGeneration() < nbTourDeJeu) {
+                if (simulation.getPopulation().taille() <= 1) {
+                    throw new PopulationException(simulation.getPopulation());
+                }
+                try {
+                    simulation.step();
+                } catch (PopulationException e) {
+                    rapport.ligne(e.getMessage());
+                    return;
+                }
+            }
+            Genealogie g = simulation.getPopulation().getGenealogie();
+            if (g != null) {
+                rapporterGenealogie(simulation.getPopulation());
+                if (lignee != null) {
+                    rapporterLignee(g, lignee);
+                }
+            }
+        } finally {
+            if (statistiques != null) {
+                statistiques.close();
+            }
+        }
+    }
+
+    /**
+     * Joue une population répartie entre plusieurs îles. Chaque génération
+     * affiche l'état de chaque île, puis la taille totale, le nombre de
+     * migrants et le bilan des rencontres de toutes les îles. Les décès ne sont
+     * pas affichés un par un.
+     *
+     * @param archipel    L'archipel.
+     * @param nbTourDeJeu Le nombre de tours de jeu à exécuter.
+     */
+    public void simuler(Archipel archipel, int nbTourDeJeu) {
+        List<MoteurSimulation> iles = archipel.getIles();
+        while (archipel.getGeneration() < nbTourDeJeu) {
+            try {
+                archipel.step();
+            } catch (PopulationException e) {
+                rapport.ligne(e.getMessage());
+                return;
+            }
+            for (int k = 0; k < iles.size(); k++) {
+                rapport.ligne("Ile " + k + " :");
+                iles.get(k).getPopulation().rapporter(rapport);
+            }
+            rapport.ligne("Population totale de : " + archipel.taille() + " individus | Migrants : "
+                    + archipel.getMigrants());
+            rapport.ligne(archipel.getBilan().toString());
+            rapport.ligne("\nGeneration numero : " + (archipel.getGeneration() - 1));
+            rapport.publier();
+        }
+    }
+
+    /**
+     * Joue une population répartie entre plusieurs processus, avec le même
+     * affichage que {@link #simuler(Archipel, int)} au niveau
+     * {@link Rapport.Niveau#RESUME}.
+     *
+     * @param coordinateur Le coordinateur des travailleurs.
+     * @param nbTourDeJeu  Le nombre de tours de jeu à exécuter.
+     * @throws IOException Si un travailleur ne répond plus.
+     */
+    public void simuler(Coordinateur coordinateur, int nbTourDeJeu) throws IOException {
+        while (coordinateur.getGeneration() < nbTourDeJeu) {
+            try {
+                coordinateur.step();
+            } catch (PopulationException e) {
+                rapport.ligne(e.getMessage());
+                return;
+            }
+            int[] tailles = coordinateur.getTailles();
+            for (int k = 0; k < tailles.length; k++) {
+                rapport.ligne("Ile " + k + " :");
+                rapport.ligne("Population de : " + tailles[k] + " individus");
+            }
+            rapport.ligne("Population totale de : " + coordinateur.taille() + " individus | Migrants : "
+                    + coordinateur.getMigrants());
+            rapport.ligne(coordinateur.getBilan().toString());
+            rapport.ligne("\nGeneration numero : " + (coordinateur.getGeneration() - 1));
+            rapport.publier();
+        }
+    }
+
+    /**
+     * Joue une population agrégée par cohortes, qui suit les mêmes règles sans
+     * représenter chaque humain.
+     *
+     * @param moteur      Le moteur par cohortes.
+     * @param nbTourDeJeu Le nombre de tours de jeu à exécuter.
+     */
+    public void simuler(MoteurCohortes moteur, int nbTourDeJeu) {
+        moteur.ajouterEcouteur(new EcouteurSimulation() {
+            @Override
+            public void finGeneration(MoteurCohortes m, int generation) {
+                m.rapporter(rapport);
+                rapport.ligne(m.getBilan().toString());
+                rapport.ligne("\nGeneration numero : " + generation);
+                rapport.publier();
+            }
+        });
+        while (moteur.getGeneration() < nbTourDeJeu) {
+            try {
+                moteur.step();
+            } catch (PopulationException e) {
+                rapport.ligne(e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Affichage de l'état de la population à la fin de chaque génération,
+     * écriture des statistiques et des points de reprise.
+     */
+    private static final class Affichage implements EcouteurSimulation {
+
+        /** Le rapport où afficher l'état de la population. */
+        private final Rapport rapport;
+
+        /** Les statistiques, ou {@code null}. */
+        private final Statistiques statistiques;
+
+        /** Le nombre de générations entre deux points de reprise, ou 0. */
+        private final int pasReprise;
+
+        /** Le fichier du point de reprise. */
+        private final Path fichierReprise;
+
+        /**
+         * Constructeur de la classe {@code Affichage}.
+         *
+         * @param rapport        Le rapport où afficher l'état de la population.
+         * @param statistiques   Les statistiques, ou {@code null}.
+         * @param pasReprise     Le nombre de générations entre deux points de
+         *                       reprise, ou 0 pour n'en écrire aucun.
+         * @param fichierReprise Le fichier du point de reprise.
+         */
+        Affichage(Rapport rapport, Statistiques statistiques, int pasReprise, Path fichierReprise) {
+            this.rapport = rapport;
+            this.statistiques = statistiques;
+            this.pasReprise = pasReprise;
+            this.fichierReprise = fichierReprise;
+        }
+
+        @Override
+        public void finGeneration(MoteurSimulation simulation, int generation) {
+            Population population = simulation.getPopulation();
+            population.rapporter(rapport);
+            rapport.ligne(population.getBilan().toString());
+            if (statistiques != null) {
+                statistiques.mesurer(generation, population);
+            }
+            rapport.ligne("\nGeneration numero : " + generation);
+            rapport.publier();
+
+            if (pasReprise > 0 && simulation.getGeneration() % pasReprise == 0) {
+                try {
+                    long octets = -1;
+                    if (statistiques != null) {
+                        statistiques.publier();
+                        octets = statistiques.octets();
+                    }
+                    simulation.ecrirePointDeReprise(fichierReprise, octets);
+                } catch (IOException e) {
+                    System.err.println("Impossible d'ecrire le point de reprise : " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Résume le registre des filiations d'une population : part des
+     * fondateurs dans l'ascendance des vivants, descendance du fondateur le
+     * plus représenté et consanguinité d'un échantillon de vivants.
+     *
+     * @param population La population, dont les filiations sont conservées.
+     */
+    private void rapporterGenealogie(Population population) {
+        Genealogie g = population.getGenealogie();
+        int n = population.taille();
+        double[] parts = g.contributions(population.col::id, n);
+        int representes = 0;
+        int premier = -1;
+        for (int k = 0; k < parts.length; k++) {
+            if (parts[k] > 0) {
+                representes++;
+                if (premier < 0 || parts[k] > parts[premier]) {
+                    premier = k;
+                }
+            }
+        }
+        rapport.ligne("Genealogie : " + g.taille() + " humains enregistres | Fondateurs : " + g.nbFondateurs()
+                + " dont " + representes + " representes | Nombre effectif de fondateurs : "
+                + String.format(Locale.ROOT, "%.1f", Genealogie.nombreEffectif(parts)));
+        if (premier >= 0) {
+            long fondateur = g.getFondateur(premier);
+            rapport.ligne("Fondateur le plus represente : " + g.getNom(fondateur)
+                    + String.format(Locale.ROOT, " (%.2f %%)", 100 * parts[premier])
+                    + " | Descendants : " + g.descendants(fondateur, id -> {
+                    }));
+        }
+
+        int pas = Math.max(1, (n + ECHANTILLON_CONSANGUINITE - 1) / ECHANTILLON_CONSANGUINITE);
+        int echantillon = 0;
+        int sansAncetreCommun = 0;
+        long somme = 0;
+        for (int i = 0; i < n; i += pas) {
+            int profondeur = g.profondeurConsanguinite(population.col.id(i));
+            echantillon++;
+            if (profondeur < 0) {
+                sansAncetreCommun++;
+            } else {
+                somme += profondeur;
+            }
+        }
+        int consanguins = echantillon - sansAncetreCommun;
+        rapport.ligne("Consanguinite : " + consanguins + " sur " + echantillon + " vivants echantillonnes"
+                + (consanguins > 0
+                        ? String.format(Locale.ROOT, " | Profondeur moyenne : %.2f", (double) somme / consanguins)
+                        : ""));
+    }
+
+    /**
+     * Indique le nombre d'ancêtres et de descendants d'un humain, et nomme les
+     * {@value #NOMS_LIGNEE} premiers de chacun.
+     *
+     * @param g   Le registre des filiations.
+     * @param nom Le nom de l'humain, voir {@link Genealogie#getNom(long)}.
+     */
+    private void rapporterLignee(Genealogie g, String nom) {
+        long id = g.chercher(nom);
+        if (id < 0) {
+            rapport.ligne("Lignee : aucun humain ne s'appelle " + nom);
+            return;
+        }
+        List<String> ancetres = new ArrayList<>();
+        long nbAncetres = g.ancetres(id, a -> {
+            if (ancetres.size() < NOMS_LIGNEE) {
+                ancetres.add(g.getNom(a));
+            }
+        });
+        List<String> descendants = new ArrayList<>();
+        long nbDescendants = g.descendants(id, d -> {
+            if (descendants.size() < NOMS_LIGNEE) {
+                descendants.add(g.getNom(d));
+            }
+        });
+        rapport.ligne("Lignee de " + nom + " : " + nbAncetres + " ancetres" + lister(ancetres, nbAncetres)
+                + " | " + nbDescendants + " descendants" + lister(descendants, nbDescendants));
+    }
+
+    /**
+     * Présente les premiers noms d'une liste d'humains.
+     *
+     * @param noms   Les premiers noms.
+     * @param nombre Le nombre d'humains de la liste.
+     * @return Les noms séparés par des virgules, suivis de points de suspension
+     *         s'il en manque.
+     */
+    private static String lister(List<String> noms, long nombre) {
+        return noms.isEmpty() ? "" : " : " + String.join(", ", noms) + (nombre > noms.size() ? ", ..." : "");
+    }
+}
@@ -1,3 +1,7 @@
+package jeudelavie;
+
+import java.util.random.RandomGenerator;
+
 /**
  * Classe représentant une femme dans le système, héritant de la classe
  * {@link Humain}.
@@ -53,6 +57,15 @@ public class Femme extends Humain {
         return fertilite;
     }
 
+    /**
+     * Définit le niveau de fertilité de la femme.
+     *
+     * @param fertilite Le nouveau niveau de fertilité.
+     */
+    void setFertilite(int fertilite) {
+        this.fertilite = fertilite;
+    }
+
     /**
      * Augmente l'âge de la femme d'un an et met à jour la fertilité et le poids en
      * conséquence.
@@ -61,13 +74,35 @@ public class Femme extends Humain {
     public void vieillir() {
         age++;
         if (age == 15) {
-            fertilite = loto.nextInt(101);
+            fertilite = tirerFertilite(loto());
         }
+        poids = poidsPourAge(age, poids);
+    }
+
+    /**
+     * Tire la fertilité attribuée à une femme à ses 15 ans.
+     *
+     * @param loto Le générateur de nombres aléatoires à utiliser.
+     * @return Une fertilité comprise entre 0 et 100.
+     */
+    static int tirerFertilite(RandomGenerator loto) {
+        return loto.nextInt(101);
+    }
+
+    /**
+     * Calcule le poids d'une femme qui vient d'atteindre un âge donné.
+     *
+     * @param age   L'âge atteint.
+     * @param poids Le poids actuel.
+     * @return Le nouveau poids.
+     */
+    static int poidsPourAge(int age, int poids) {
         if (age <= 20) {
-            poids = 3 + (int) (2.6 * age);
+            return 3 + (int) (2.6 * age);
         } else if (age >= 50) {
-            poids += (age % 2);
+            return poids + (age % 2);
         }
+        return poids;
     }
 
     /**
@@ -90,39 +125,22 @@ public class Femme extends Humain {
      */
     @Override
     public Humain rencontre(Humain h) throws BreedingForbiddenException, NoBreedingException {
-        if (this.poids > 150 || h.getPoids() > 150) {
-            throw new BreedingForbiddenException(this, h, BreedingForbiddenException.Erreur.POIDS);
-        }
-
-        if ((!(this.getAge() > 15 && this.getAge() < 50)) || (!(h.getAge() > 15 && h.getAge() < 50))) {
-            throw new BreedingForbiddenException(this, h, BreedingForbiddenException.Erreur.AGE);
-        }
-
-        if (h.isFemme() || h.isFille()) {
-            throw new BreedingForbiddenException(this, h, BreedingForbiddenException.Erreur.SEXE);
-        }
-
-        int b = loto.nextInt(101);
-        Homme h1 = (Homme) h;
-        if (b < h1.getBatifolage()) {
-            throw new NoBreedingException(h);
+        int issue = Rencontre.verifier(false, age, poids, h.isHomme(), h.getAge(), h.getPoids());
+        if (issue == Rencontre.NAISSANCE) {
+            issue = Rencontre.tirerFecondite(h.getBatifolage(), fertilite, loto());
         }
+        Rencontre.lever(issue, this, h, h, this);
 
-        int f = loto.nextInt(101);
-        if (f > this.fertilite) {
-            throw new NoBreedingException(this);
-        }
-
-        int p = loto.nextInt(101);
+        int p = loto().nextInt(101);
         Humain bebe;
-        String nomBaby = h.getNom() + nom + " ";
         if (p < 50) {
-            bebe = new Garcon(nomBaby);
+            bebe = new Garcon(null);
         } else {
-            bebe = new Fille(nomBaby);
+            bebe = new Fille(null);
         }
+        bebe.setIdentite(-1, h.getId(), getId());
 
-        int g = loto.nextInt(21);
+        int g = loto().nextInt(21);
         h.grossir(g);
         this.grossir(10);
 
@@ -134,7 +152,17 @@ public class Femme extends Humain {
      * ans.
      */
     protected void setEsperanceVie() {
-        esperanceVie = loto.nextInt(55, 95);
+        esperanceVie = tirerEsperanceVie(loto());
+    }
+
+    /**
+     * Tire une espérance de vie aléatoire pour une femme.
+     *
+     * @param loto Le générateur de nombres aléatoires à utiliser.
+     * @return Une espérance de vie comprise entre 55 et 95 ans.
+     */
+    static int tirerEsperanceVie(RandomGenerator loto) {
+        return loto.nextInt(55, 95);
     }
 
     /**
@@ -0,0 +1,58 @@
+package jeudelavie;
+
+import java.util.Arrays;
+
+/**
+ * Stockage des filiations dans le tas Java, voir
+ * {@link StockageFiliations#surTas()}.
+ * <p>
+ * Les entrées sont rangées dans des pages de {@value Genealogie#TAILLE_PAGE}
+ * entiers longs, si bien que le stockage peut grandir jusqu'à des centaines
+ * de millions d'entrées sans recopier ce qui est déjà enregistré.
+ * </p>
+ */
+final class FiliationsSurTas implements StockageFiliations {
+
+    /** Le logarithme en base 2 de {@link Genealogie#TAILLE_PAGE}. */
+    private static final int DECALAGE = Integer.numberOfTrailingZeros(Genealogie.TAILLE_PAGE);
+
+    /** Le masque donnant la place d'une entrée dans sa page. */
+    private static final int MASQUE = Genealogie.TAILLE_PAGE - 1;
+
+    /** Les pages des numéros des pères. */
+    private long[][] peres = new long[16][];
+
+    /** Les pages des numéros des mères. */
+    private long[][] meres = new long[16][];
+
+    @Override
+    public long getPere(long id) {
+        return peres[(int) (id >>> DECALAGE)][(int) id & MASQUE];
+    }
+
+    @Override
+    public long getMere(long id) {
+        return meres[(int) (id >>> DECALAGE)][(int) id & MASQUE];
+    }
+
+    @Override
+    public void ecrire(long id, long pere, long mere) {
+        int page = (int) (id >>> DECALAGE);
+        if (page == peres.length) {
+            peres = Arrays.copyOf(peres, page * 2);
+            meres = Arrays.copyOf(meres, page * 2);
+        }
+        if (peres[page] == null) {
+            peres[page] = new long[Genealogie.TAILLE_PAGE];
+            meres[page] = new long[Genealogie.TAILLE_PAGE];
+        }
+        peres[page][(int) id & MASQUE] = pere;
+        meres[page][(int) id & MASQUE] = mere;
+    }
+
+    @Override
+    public void vider() {
+        peres = new long[16][];
+        meres = new long[16][];
+    }
+}
@@ -1,3 +1,5 @@
+package jeudelavie;
+
 /**
  * Classe représentant une fille, héritant de la classe {@link Femme}.
  * <p>
@@ -1,3 +1,5 @@
+package jeudelavie;
+
 /**
  * Classe représentant un garçon, héritant de la classe {@link Homme}.
  * <p>
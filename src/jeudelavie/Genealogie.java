@@ -0,0 +1,534 @@
+package jeudelavie;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongConsumer;
+
+/**
+ * Registre des filiations de tous les humains d'une simulation, y compris les
+ * morts.
+ * <p>
+ * Pour chaque numéro d'humain, le registre conserve les numéros de son père et
+ * de sa mère ({@code -1} pour un fondateur), dans un
+ * {@link StockageFiliations} : par défaut des pages de tableaux dans le tas,
+ * ou de la mémoire hors du tas pour les très longues simulations. Les noms
+ * ne sont pas conservés : un fondateur s'appelle {@code Homme<i>} ou
+ * {@code Femme<i>}, {@code i} étant son rang parmi les fondateurs de son sexe,
+ * comme dans la population initiale de {@link MoteurSimulation}, et les autres
+ * humains {@code Humain<numéro>}. Seul le sexe des fondateurs est donc
+ * retenu, sur un bit.
+ * </p>
+ * <p>
+ * Les numéros sont attribués dans l'ordre des naissances : un humain a toujours
+ * un numéro supérieur à ceux de ses parents. Les parcours d'ascendance et de
+ * descendance sont donc de simples balayages des numéros, vers le bas ou vers
+ * le haut, marquant les humains rencontrés dans un tableau de bits.
+ * </p>
+ */
+public final class Genealogie {
+
+    /** Le nombre d'entrées d'une page des stockages et des parts, une puissance de deux. */
+    static final int TAILLE_PAGE = 1 << 20;
+
+    /** Le logarithme en base 2 de {@link #TAILLE_PAGE}. */
+    private static final int DECALAGE = 20;
+
+    /** Le masque donnant la place d'une entrée dans sa page. */
+    private static final int MASQUE = TAILLE_PAGE - 1;
+
+    /** Le début du nom des hommes fondateurs. */
+    static final String PREFIXE_HOMME = "Homme";
+
+    /** Le début du nom des femmes fondatrices. */
+    static final String PREFIXE_FEMME = "Femme";
+
+    /** Les numéros des parents de chaque humain. */
+    private final StockageFiliations filiations;
+
+    /** Le nombre d'humains enregistrés, égal au prochain numéro. */
+    private long taille;
+
+    /** Les numéros des fondateurs, humains sans parents, dans l'ordre. */
+    private long[] fondateurs = new long[16];
+
+    /** Le nombre de fondateurs. */
+    private int nbFondateurs;
+
+    /** Un bit par fondateur, dans l'ordre, levé pour un homme. */
+    private long[] hommesFondateurs = new long[1];
+
+    /**
+     * Crée un registre vide, rangé dans le tas.
+     */
+    Genealogie() {
+        this(StockageFiliations.surTas());
+    }
+
+    /**
+     * Crée un registre vide, rangé dans un stockage donné.
+     *
+     * @param filiations Le stockage des numéros des parents, vide et propre à
+     *                   ce registre.
+     */
+    Genealogie(StockageFiliations filiations) {
+        this.filiations = filiations;
+    }
+
+    /**
+     * Enregistre un nouvel humain, qui reçoit le numéro suivant.
+     *
+     * @param pere  Le numéro de son père, ou {@code -1} pour un fondateur.
+     * @param mere  Le numéro de sa mère, ou {@code -1} pour un fondateur.
+     * @param homme Le sexe de l'humain, qui n'est retenu que pour un
+     *              fondateur et donne son nom.
+     * @return Le numéro de l'humain enregistré.
+     */
+    long ajouter(long pere, long mere, boolean homme) {
+        long id = taille;
+        filiations.ecrire(id, pere, mere);
+        if (pere < 0 && mere < 0) {
+            if (nbFondateurs == fondateurs.length) {
+                fondateurs = Arrays.copyOf(fondateurs, nbFondateurs * 2);
+                hommesFondateurs = Arrays.copyOf(hommesFondateurs, (fondateurs.length + 63) >>> 6);
+            }
+            if (homme) {
+                marquer(hommesFondateurs, nbFondateurs);
+            }
+            fondateurs[nbFondateurs++] = id;
+        }
+        taille++;
+        return id;
+    }
+
+    /**
+     * Supprime tous les humains enregistrés, en gardant le stockage.
+     */
+    void vider() {
+        filiations.vider();
+        taille = 0;
+        nbFondateurs = 0;
+        Arrays.fill(hommesFondateurs, 0);
+    }
+
+    /**
+     * Obtient le nombre d'humains enregistrés.
+     *
+     * @return Le nombre d'humains enregistrés.
+     */
+    public long taille() {
+        return taille;
+    }
+
+    /**
+     * Obtient le numéro du père d'un humain.
+     *
+     * @param id Le numéro de l'humain.
+     * @return Le numéro de son père, ou {@code -1} pour un fondateur.
+     */
+    public long getPere(long id) {
+        return filiations.getPere(id);
+    }
+
+    /**
+     * Obtient le numéro de la mère d'un humain.
+     *
+     * @param id Le numéro de l'humain.
+     * @return Le numéro de sa mère, ou {@code -1} pour un fondateur.
+     */
+    public long getMere(long id) {
+        return filiations.getMere(id);
+    }
+
+    /**
+     * Obtient le nombre de fondateurs.
+     *
+     * @return Le nombre d'humains enregistrés sans parents.
+     */
+    public int nbFondateurs() {
+        return nbFondateurs;
+    }
+
+    /**
+     * Obtient le numéro d'un fondateur.
+     *
+     * @param k Le rang du fondateur, entre 0 et {@link #nbFondateurs()} exclu.
+     * @return Le numéro du fondateur.
+     */
+    public long getFondateur(int k) {
+        return fondateurs[k];
+    }
+
+    /**
+     * Retourne le nom d'un humain enregistré : {@code Homme<i>} ou
+     * {@code Femme<i>} pour un fondateur, {@code i} étant son rang parmi les
+     * fondateurs de son sexe, et {@code Humain<numéro>} sinon.
+     *
+     * @param id Le numéro de l'humain.
+     * @return Le nom de l'humain.
+     */
+    public String getNom(long id) {
+        int k = getPere(id) < 0 && getMere(id) < 0 ? Arrays.binarySearch(fondateurs, 0, nbFondateurs, id) : -1;
+        if (k < 0) {
+            return Humain.nommer(id, getPere(id), getMere(id));
+        }
+        int rang = rangHomme(k);
+        return estMarque(hommesFondateurs, k) ? PREFIXE_HOMME + rang : PREFIXE_FEMME + (k - rang);
+    }
+
+    /**
+     * Cherche un humain par son nom, voir {@link #getNom(long)}.
+     *
+     * @param nom Un nom comme {@code Homme3}, {@code Femme3} ou
+     *            {@code Humain42}.
+     * @return Le numéro de l'humain, ou {@code -1} s'il n'est pas enregistré.
+     */
+    public long chercher(String nom) {
+        try {
+            if (nom.startsWith(PREFIXE_HOMME)) {
+                return chercherFondateur(true, Integer.parseInt(nom.substring(PREFIXE_HOMME.length())));
+            }
+            if (nom.startsWith(PREFIXE_FEMME)) {
+                return chercherFondateur(false, Integer.parseInt(nom.substring(PREFIXE_FEMME.length())));
+            }
+            if (nom.startsWith(Humain.PREFIXE_NOM)) {
+                long id = Long.parseLong(nom.substring(Humain.PREFIXE_NOM.length()));
+                if (id >= 0 && id < taille && getNom(id).equals(nom)) {
+                    return id;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Cherche un fondateur par son rang parmi les fondateurs de son sexe.
+     *
+     * @param homme Le sexe du fondateur.
+     * @param rang  Son rang parmi les fondateurs de ce sexe.
+     * @return Le numéro du fondateur, ou {@code -1} s'il n'y en a pas autant.
+     */
+    private long chercherFondateur(boolean homme, int rang) {
+        if (rang < 0) {
+            return -1;
+        }
+        int reste = rang;
+        for (int m = 0; (long) m << 6 < nbFondateurs; m++) {
+            long mot = homme ? hommesFondateurs[m] : ~hommesFondateurs[m];
+            int n = Long.bitCount(mot);
+            if (reste < n) {
+                for (; reste > 0; reste--) {
+                    mot &= mot - 1;
+                }
+                int k = (m << 6) + Long.numberOfTrailingZeros(mot);
+                return k < nbFondateurs ? fondateurs[k] : -1;
+            }
+            reste -= n;
+        }
+        return -1;
+    }
+
+    /**
+     * Compte les hommes parmi les fondateurs qui précèdent un fondateur.
+     *
+     * @param k Le rang du fondateur parmi tous les fondateurs.
+     * @return Le nombre d'hommes parmi les fondateurs de rang inférieur à {@code k}.
+     */
+    private int rangHomme(int k) {
+        int n = 0;
+        for (int m = 0; m < k >>> 6; m++) {
+            n += Long.bitCount(hommesFondateurs[m]);
+        }
+        return n + Long.bitCount(hommesFondateurs[k >>> 6] & ((1L << (k & 63)) - 1));
+    }
+
+    /**
+     * Parcourt les ancêtres d'un humain, du plus récent au plus ancien numéro.
+     * <p>
+     * Le coût est linéaire en le numéro de l'humain, et un bit par numéro
+     * inférieur est alloué pour marquer les ancêtres.
+     * </p>
+     *
+     * @param id     Le numéro de l'humain.
+     * @param action L'action appliquée au numéro de chaque ancêtre.
+     * @return Le nombre d'ancêtres.
+     */
+    public long ancetres(long id, LongConsumer action) {
+        long[] marques = new long[(int) ((id >>> 6) + 1)];
+        marquer(marques, getPere(id));
+        marquer(marques, getMere(id));
+        long n = 0;
+        for (long k = id - 1; k >= 0; k--) {
+            if (estMarque(marques, k)) {
+                marquer(marques, getPere(k));
+                marquer(marques, getMere(k));
+                action.accept(k);
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Parcourt les descendants d'un humain, par numéro croissant.
+     * <p>
+     * Le coût est linéaire en le nombre d'humains enregistrés après lui, et
+     * un bit par humain enregistré après lui est alloué pour marquer les
+     * descendants.
+     * </p>
+     *
+     * @param id     Le numéro de l'humain.
+     * @param action L'action appliquée au numéro de chaque descendant.
+     * @return Le nombre de descendants.
+     */
+    public long descendants(long id, LongConsumer action) {
+        long[] marques = new long[(int) (((taille - id) >>> 6) + 1)];
+        marquer(marques, 0);
+        long n = 0;
+        for (long k = id + 1; k < taille; k++) {
+            long p = getPere(k) - id;
+            long m = getMere(k) - id;
+            if ((p >= 0 && estMarque(marques, p)) || (m >= 0 && estMarque(marques, m))) {
+                marquer(marques, k - id);
+                action.accept(k);
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Calcule la part de chaque fondateur dans l'ascendance d'un groupe
+     * d'humains, par exemple les vivants.
+     * <p>
+     * Chaque humain du groupe transmet la moitié de sa part à chacun de ses
+     * parents, en remontant les numéros du plus grand au plus petit ; la part
+     * d'un fondateur est ce qui lui parvient. Les parts des fondateurs ont
+     * pour somme 1, à moins que le groupe ne soit vide.
+     * </p>
+     *
+     * @param ids Le numéro de chaque humain du groupe, par rang.
+     * @param n   Le nombre d'humains du groupe.
+     * @return La part de chaque fondateur, au rang donné par
+     *         {@link #getFondateur(int)}.
+     */
+    public double[] contributions(IntToLongFunction ids, int n) {
+        double[][] parts = new double[(int) (taille >>> DECALAGE) + 1][];
+        long max = -1;
+        for (int i = 0; i < n; i++) {
+            long id = ids.applyAsLong(i);
+            ajouterPart(parts, id, 1.0 / n);
+            max = Math.max(max, id);
+        }
+        double[] resultat = new double[nbFondateurs];
+        int f = nbFondateurs - 1;
+        for (long k = max; k >= 0; k--) {
+            double[] page = parts[(int) (k >>> DECALAGE)];
+            if (page == null) {
+                k &= ~(long) MASQUE;
+                continue;
+            }
+            double w = page[(int) k & MASQUE];
+            if (w == 0) {
+                continue;
+            }
+            long p = getPere(k);
+            long m = getMere(k);
+            if (p < 0 && m < 0) {
+                while (fondateurs[f] > k) {
+                    f--;
+                }
+                resultat[f] += w;
+            } else {
+                ajouterPart(parts, p, w / 2);
+                ajouterPart(parts, m, w / 2);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Calcule le nombre effectif de fondateurs d'un groupe d'humains : le
+     * nombre de fondateurs qui, contribuant à parts égales, donneraient la
+     * même diversité, soit l'inverse de la somme des carrés des parts.
+     *
+     * @param parts Les parts des fondateurs, voir {@link #contributions(IntToLongFunction, int)}.
+     * @return Le nombre effectif de fondateurs, ou 0 si aucun ne contribue.
+     */
+    public static double nombreEffectif(double[] parts) {
+        double somme = 0;
+        for (double p : parts) {
+            somme += p * p;
+        }
+        return somme == 0 ? 0 : 1 / somme;
+    }
+
+    /**
+     * Calcule la profondeur de consanguinité d'un humain : le plus petit
+     * nombre de générations qu'il faut remonter, à la fois du côté du père et
+     * du côté de la mère, pour trouver un ancêtre commun.
+     * <p>
+     * Les deux ascendances sont parcourues génération par génération, chacune
+     * marquant ses ancêtres dans son propre tableau de bits.
+     * </p>
+     *
+     * @param id Le numéro de l'humain.
+     * @return La profondeur, 1 si ses parents ont un parent commun (demi-frère
+     *         et demi-sœur ou frère et sœur), ou {@code -1} si ses parents
+     *         n'ont aucun ancêtre commun ou s'il est un fondateur.
+     */
+    public int profondeurConsanguinite(long id) {
+        long pere = getPere(id);
+        long mere = getMere(id);
+        if (pere < 0 || mere < 0) {
+            return -1;
+        }
+        long[] cotePere = new long[(int) ((id >>> 6) + 1)];
+        long[] coteMere = new long[cotePere.length];
+        long[] frontPere = { pere };
+        long[] frontMere = { mere };
+        marquer(cotePere, pere);
+        marquer(coteMere, mere);
+        for (int profondeur = 1; frontPere.length > 0 || frontMere.length > 0; profondeur++) {
+            frontPere = remonter(frontPere, cotePere);
+            frontMere = remonter(frontMere, coteMere);
+            if (croise(frontPere, coteMere) || croise(frontMere, cotePere)) {
+                return profondeur;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Remonte d'une génération : retourne les parents des humains d'une
+     * génération qui n'ont pas encore été marqués, en les marquant.
+     *
+     * @param front   Les numéros d'une génération.
+     * @param marques Les ancêtres déjà rencontrés.
+     * @return Les numéros des nouveaux ancêtres de la génération précédente.
+     */
+    private long[] remonter(long[] front, long[] marques) {
+        long[] suivant = new long[front.length * 2];
+        int n = 0;
+        for (long k : front) {
+            long p = getPere(k);
+            long m = getMere(k);
+            if (p >= 0 && !estMarque(marques, p)) {
+                marquer(marques, p);
+                suivant[n++] = p;
+            }
+            if (m >= 0 && !estMarque(marques, m)) {
+                marquer(marques, m);
+                suivant[n++] = m;
+            }
+        }
+        return Arrays.copyOf(suivant, n);
+    }
+
+    /**
+     * Indique si l'un des numéros donnés est marqué.
+     *
+     * @param front   Les numéros à tester.
+     * @param marques Le tableau de bits.
+     * @return {@code true} si au moins un numéro est marqué.
+     */
+    private static boolean croise(long[] front, long[] marques) {
+        for (long k : front) {
+            if (estMarque(marques, k)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ajoute une part à un humain dans des pages de parts allouées à la
+     * demande.
+     *
+     * @param parts Les pages de parts.
+     * @param id    Le numéro de l'humain.
+     * @param w     La part à ajouter.
+     */
+    private static void ajouterPart(double[][] parts, long id, double w) {
+        int page = (int) (id >>> DECALAGE);
+        if (parts[page] == null) {
+            parts[page] = new double[TAILLE_PAGE];
+        }
+        parts[page][(int) id & MASQUE] += w;
+    }
+
+    /**
+     * Marque un numéro dans un tableau de bits, sauf s'il est négatif.
+     *
+     * @param marques Le tableau de bits.
+     * @param k       Le numéro à marquer.
+     */
+    private static void marquer(long[] marques, long k) {
+        if (k >= 0) {
+            marques[(int) (k >>> 6)] |= 1L << k;
+        }
+    }
+
+    /**
+     * Indique si un numéro est marqué dans un tableau de bits.
+     *
+     * @param marques Le tableau de bits.
+     * @param k       Le numéro à tester.
+     * @return {@code true} si le numéro est marqué.
+     */
+    private static boolean estMarque(long[] marques, long k) {
+        return (marques[(int) (k >>> 6)] & (1L << k)) != 0;
+    }
+
+    /**
+     * Écrit le registre dans un point de reprise.
+     *
+     * @param s La sortie du point de reprise.
+     */
+    void sauvegarder(PointDeReprise.Sortie s) {
+        s.entierLong(taille);
+        long[] peres = new long[(int) Math.min(TAILLE_PAGE, taille)];
+        long[] meres = new long[peres.length];
+        for (int page = 0; (long) page << DECALAGE < taille; page++) {
+            long de = (long) page << DECALAGE;
+            int n = (int) Math.min(TAILLE_PAGE, taille - de);
+            for (int i = 0; i < n; i++) {
+                peres[i] = filiations.getPere(de + i);
+                meres[i] = filiations.getMere(de + i);
+            }
+            s.entiersLongs(peres, n);
+            s.entiersLongs(meres, n);
+        }
+        s.entier(nbFondateurs);
+        s.entiersLongs(hommesFondateurs, (nbFondateurs + 63) >>> 6);
+    }
+
+    /**
+     * Remplace le contenu du registre par celui d'un point de reprise, voir
+     * {@link #sauvegarder(PointDeReprise.Sortie)}.
+     *
+     * @param e L'entrée du point de reprise.
+     */
+    void charger(PointDeReprise.Entree e) {
+        long n = e.entierLong();
+        int nbPages = (int) ((n + MASQUE) >>> DECALAGE);
+        vider();
+        long[] peres = new long[(int) Math.min(TAILLE_PAGE, n)];
+        long[] meres = new long[peres.length];
+        for (int page = 0; page < nbPages; page++) {
+            int m = (int) Math.min(TAILLE_PAGE, n - ((long) page << DECALAGE));
+            e.entiersLongs(peres, m);
+            e.entiersLongs(meres, m);
+            for (int i = 0; i < m; i++) {
+                ajouter(peres[i], meres[i], false);
+            }
+        }
+        if (e.entier() != nbFondateurs) {
+            throw new UncheckedIOException(new IOException("Nombre de fondateurs incoherent"));
+        }
+        e.entiersLongs(hommesFondateurs, (nbFondateurs + 63) >>> 6);
+    }
+}
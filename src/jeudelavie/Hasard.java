@@ -0,0 +1,127 @@
+package jeudelavie;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Source des nombres aléatoires d'une simulation.
+ * <p>
+ * Tous les générateurs d'une simulation sont dérivés d'une seule graine : un
+ * flux est identifié par une suite de clés (par exemple la génération, la
+ * phase et le numéro d'un bloc), mélangées à la graine pour obtenir la graine
+ * du flux. Deux flux de clés différentes sont indépendants, et un même flux
+ * redonne toujours les mêmes nombres ; chaque thread peut ainsi tirer dans son
+ * propre flux, sans partager d'état avec les autres, et une simulation lancée
+ * avec la même graine se déroule toujours de la même façon.
+ * </p>
+ * <p>
+ * L'algorithme des générateurs est choisi par son nom parmi ceux de
+ * {@link RandomGeneratorFactory} ({@code SplittableRandom} par défaut).
+ * </p>
+ */
+public final class Hasard {
+
+    /** L'algorithme utilisé par défaut. */
+    public static final String ALGORITHME_PAR_DEFAUT = "SplittableRandom";
+
+    /** Clé du flux des tirages séquentiels de la simulation. */
+    static final long FLUX_SIMULATION = -1;
+
+    /** Clé du flux partagé par les humains, voir {@link Humain#loto()}. */
+    static final long FLUX_HUMAINS = -2;
+
+    /** Clé des flux qui donnent la graine de chaque île d'un {@link Archipel}. */
+    static final long FLUX_ILES = -3;
+
+    /** Clé des flux des migrations entre les îles d'un {@link Archipel}. */
+    static final long FLUX_MIGRATIONS = -4;
+
+    /** Constante de Weyl utilisée pour combiner la graine et les clés. */
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** La graine de la simulation. */
+    private final long graine;
+
+    /** La fabrique des générateurs. */
+    private final RandomGeneratorFactory<RandomGenerator> fabrique;
+
+    /**
+     * Constructeur de la classe {@code Hasard} utilisant l'algorithme par
+     * défaut.
+     *
+     * @param graine La graine de la simulation.
+     */
+    public Hasard(long graine) {
+        this(graine, ALGORITHME_PAR_DEFAUT);
+    }
+
+    /**
+     * Constructeur de la classe {@code Hasard}.
+     *
+     * @param graine     La graine de la simulation.
+     * @param algorithme Le nom de l'algorithme des générateurs.
+     * @throws IllegalArgumentException Si l'algorithme est inconnu.
+     */
+    public Hasard(long graine, String algorithme) {
+        this.graine = graine;
+        this.fabrique = RandomGeneratorFactory.of(algorithme);
+    }
+
+    /**
+     * Retourne la graine de la simulation.
+     *
+     * @return La graine.
+     */
+    public long getGraine() {
+        return graine;
+    }
+
+    /**
+     * Retourne le nom de l'algorithme des générateurs.
+     *
+     * @return Le nom de l'algorithme.
+     */
+    public String getAlgorithme() {
+        return fabrique.name();
+    }
+
+    /**
+     * Retourne un nouveau générateur pour le flux identifié par des clés.
+     * <p>
+     * Le générateur retourné n'est pas partagé : il ne doit être utilisé que
+     * par un seul thread à la fois.
+     * </p>
+     *
+     * @param cles Les clés identifiant le flux.
+     * @return Un générateur qui ne dépend que de la graine et des clés.
+     */
+    RandomGenerator flux(long... cles) {
+        long z = melanger(graine);
+        for (long cle : cles) {
+            z = melanger(z + GAMMA * (cle + 1));
+        }
+        return fabrique.create(z);
+    }
+
+    /**
+     * Tire une graine à partir de l'horloge, pour une simulation qui n'en
+     * précise pas.
+     *
+     * @return Une graine.
+     */
+    public static long graineAleatoire() {
+        return melanger(System.currentTimeMillis() ^ System.nanoTime());
+    }
+
+    /**
+     * Mélange les bits d'un entier (fonction de finalisation de SplitMix64).
+     *
+     * @param z L'entier à mélanger.
+     * @return L'entier mélangé.
+     */
+    private static long melanger(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,3 +1,7 @@
+package jeudelavie;
+
+import java.util.random.RandomGenerator;
+
 /**
  * Classe représentant un homme, héritant de la classe {@link Humain}.
  * <p>
@@ -59,39 +63,23 @@ public class Homme extends Humain {
      */
     @Override
     public Humain rencontre(Humain f) throws BreedingForbiddenException, NoBreedingException {
-        if ((!(this.getAge() > 15 && this.getAge() < 50)) || (!(f.getAge() > 15 && f.getAge() < 50))) {
-            throw new BreedingForbiddenException(this, f, BreedingForbiddenException.Erreur.AGE);
-        }
-
-        if (this.poids > 150 || f.getPoids() > 150) {
-            throw new BreedingForbiddenException(this, f, BreedingForbiddenException.Erreur.POIDS);
-        }
-
-        if (f.isHomme() || f.isGarcon()) {
-            throw new BreedingForbiddenException(this, f, BreedingForbiddenException.Erreur.SEXE);
-        }
-
-        int b = loto.nextInt(101);
-        if (b < batifolage) {
-            throw new NoBreedingException(this);
+        int issue = Rencontre.verifier(true, age, poids, f.isHomme(), f.getAge(), f.getPoids());
+        if (issue == Rencontre.NAISSANCE) {
+            issue = Rencontre.tirerFecondite(batifolage, f.getFertilite(), loto());
         }
+        Rencontre.lever(issue, this, f, this, f);
 
-        int c = loto.nextInt(101);
-        if (c > f.getFertilite()) {
-            throw new NoBreedingException(f);
-        }
-
-        int p = loto.nextInt(101);
+        int p = loto().nextInt(101);
         Humain bebe;
-        String nomBebe = this.nom + f.getNom();
 
         if (p < 50) {
-            bebe = new Garcon(nomBebe);
+            bebe = new Garcon(null);
         } else {
-            bebe = new Fille(nomBebe);
+            bebe = new Fille(null);
         }
+        bebe.setIdentite(-1, getId(), f.getId());
 
-        int g = loto.nextInt(-10, 10);
+        int g = loto().nextInt(-10, 10);
         this.grossir(g);
         f.grossir(10);
 
@@ -105,29 +93,72 @@ public class Homme extends Humain {
     public void vieillir() {
         age++;
         if (age == 18) {
-            salaire = loto.nextInt(1000, 11000);
+            salaire = tirerSalaire(loto());
         }
+        batifolage = batifolagePourAge(age, batifolage, loto());
+        poids = poidsPourAge(age, poids);
+    }
+
+    /**
+     * Tire le salaire attribué à un homme à ses 18 ans.
+     *
+     * @param loto Le générateur de nombres aléatoires à utiliser.
+     * @return Un salaire compris entre 1000 et 11000.
+     */
+    static int tirerSalaire(RandomGenerator loto) {
+        return loto.nextInt(1000, 11000);
+    }
 
+    /**
+     * Calcule le taux de batifolage d'un homme qui vient d'atteindre un âge donné.
+     *
+     * @param age L'âge atteint.
+     * @param batifolage Le taux de batifolage actuel.
+     * @param loto Le générateur de nombres aléatoires à utiliser.
+     * @return Le nouveau taux de batifolage.
+     */
+    static int batifolagePourAge(int age, int batifolage, RandomGenerator loto) {
         if (age > 15) {
-            batifolage = loto.nextInt(70, 101);
+            return loto.nextInt(70, 101);
         } else if (age > 30) {
-            batifolage = loto.nextInt(30, 51);
+            return loto.nextInt(30, 51);
         } else if (age > 60) {
-            batifolage = loto.nextInt(50, 101);
+            return loto.nextInt(50, 101);
         }
+        return batifolage;
+    }
 
+    /**
+     * Calcule le poids d'un homme qui vient d'atteindre un âge donné.
+     *
+     * @param age L'âge atteint.
+     * @param poids Le poids actuel.
+     * @return Le nouveau poids.
+     */
+    static int poidsPourAge(int age, int poids) {
         if (age <= 20) {
-            poids = 3 + (int) (3.6 * age);
+            return 3 + (int) (3.6 * age);
         } else if (age >= 50) {
-            poids += (age % 2);
+            return poids + (age % 2);
         }
+        return poids;
     }
 
     /**
      * Définit une espérance de vie aléatoire pour l'homme, comprise entre 50 et 81 ans.
      */
     protected void setEsperanceVie() {
-        esperanceVie = loto.nextInt(50, 81);
+        esperanceVie = tirerEsperanceVie(loto());
+    }
+
+    /**
+     * Tire une espérance de vie aléatoire pour un homme.
+     *
+     * @param loto Le générateur de nombres aléatoires à utiliser.
+     * @return Une espérance de vie comprise entre 50 et 81 ans.
+     */
+    static int tirerEsperanceVie(RandomGenerator loto) {
+        return loto.nextInt(50, 81);
     }
 
     /**
@@ -200,11 +231,21 @@ public class Homme extends Humain {
         return false;
     }
 
+    /**
+     * Définit le salaire de l'homme.
+     *
+     * @param salaire Le nouveau salaire à assigner à l'homme.
+     */
+    void setSalaire(int salaire) {
+        this.salaire = salaire;
+    }
+
     /**
      * Retourne le taux de batifolage de l'homme.
      * 
      * @return Le taux de batifolage de l'homme.
      */
+    @Override
     public int getBatifolage() {
         return batifolage;
     }
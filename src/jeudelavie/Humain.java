@@ -1,4 +1,7 @@
+package jeudelavie;
+
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * Classe abstraite représentant un humain, permettant de modéliser les
@@ -17,11 +20,42 @@ import java.util.*;
  */
 abstract class Humain implements Comparable<Humain> {
 
+    /** Début du nom des humains qui n'en ont pas reçu, suivi de leur numéro. */
+    static final String PREFIXE_NOM = "Humain";
+
+    /**
+     * Générateur de nombres aléatoires des humains, propre à chaque thread,
+     * initialisé avec la date actuelle puis remplacé par un flux de la
+     * simulation, voir {@link #setLoto(RandomGenerator)}.
+     * <p>
+     * Chaque thread qui déroule une simulation a ainsi son propre générateur,
+     * ce qui permet d'exécuter plusieurs simulations à la fois dans la même
+     * JVM, voir {@link Balayage}. Les threads de calcul d'une génération
+     * parallèle n'utilisent pas ce générateur mais leur propre flux.
+     * </p>
+     */
+    private static final ThreadLocal<RandomGenerator> LOTO = ThreadLocal
+            .withInitial(() -> new Hasard(Hasard.graineAleatoire()).flux(Hasard.FLUX_HUMAINS));
+
+    /**
+     * Retourne le générateur de nombres aléatoires des humains pour le thread
+     * courant.
+     *
+     * @return Le générateur du thread courant.
+     */
+    static RandomGenerator loto() {
+        return LOTO.get();
+    }
+
     /**
-     * Instance de {@link Random} pour générer des nombres aléatoires,
-     * initialisée avec la date actuelle.
+     * Remplace le générateur de nombres aléatoires des humains pour le thread
+     * courant.
+     *
+     * @param generateur Le nouveau générateur.
      */
-    protected static Random loto = new Random(Calendar.getInstance().getTimeInMillis());
+    static void setLoto(RandomGenerator generateur) {
+        LOTO.set(generateur);
+    }
 
     /**
      * L'âge de l'humain.
@@ -34,15 +68,44 @@ abstract class Humain implements Comparable<Humain> {
     protected int poids;
 
     /**
-     * Le nom de l'humain.
+     * Le nom donné à l'humain, ou {@code null} pour un bébé dont le nom est
+     * construit à partir de son numéro, voir {@link #nommer(long, long, long)}.
      */
     protected String nom;
 
+    /**
+     * Le numéro de l'humain, ou {@code -1} tant qu'il n'a pas rejoint une
+     * {@link Population}.
+     */
+    protected long id = -1;
+
+    /**
+     * Le numéro du père de l'humain, ou {@code -1} s'il est inconnu.
+     */
+    protected long pere = -1;
+
+    /**
+     * Le numéro de la mère de l'humain, ou {@code -1} si elle est inconnue.
+     */
+    protected long mere = -1;
+
     /**
      * L'espérance de vie de l'humain.
      */
     protected int esperanceVie;
 
+    /**
+     * Indique si l'humain a été tué ; il meurt au vieillissement suivant.
+     */
+    protected boolean tue;
+
+    /**
+     * Constructeur sans initialisation, réservé aux vues sur une
+     * {@link Population} dont les attributs sont stockés en colonnes.
+     */
+    protected Humain() {
+    }
+
     /**
      * Constructeur de la classe {@code Humain} initialisant le nom.
      * 
@@ -70,6 +133,22 @@ abstract class Humain implements Comparable<Humain> {
         setEsperanceVie();
     }
 
+    /**
+     * Construit le nom d'un humain qui n'en a pas reçu à partir de son numéro,
+     * ou à défaut de ceux de ses parents.
+     *
+     * @param id   Le numéro de l'humain, ou {@code -1}.
+     * @param pere Le numéro de son père, ou {@code -1}.
+     * @param mere Le numéro de sa mère, ou {@code -1}.
+     * @return Le nom de l'humain.
+     */
+    static String nommer(long id, long pere, long mere) {
+        if (id >= 0) {
+            return PREFIXE_NOM + id;
+        }
+        return "Enfant de " + pere + " et " + mere;
+    }
+
     /**
      * Indique si cet humain est un homme.
      * 
@@ -103,6 +182,15 @@ abstract class Humain implements Comparable<Humain> {
      */
     public abstract int getFertilite();
 
+    /**
+     * Retourne le taux de batifolage de l'humain, nul sauf pour un homme.
+     * 
+     * @return Le taux de batifolage de l'humain.
+     */
+    int getBatifolage() {
+        return 0;
+    }
+
     /**
      * Retourne le salaire de l'humain.
      * 
@@ -133,6 +221,19 @@ abstract class Humain implements Comparable<Humain> {
         this.nom = nom;
     }
 
+    /**
+     * Définit le numéro de l'humain et ceux de ses parents.
+     *
+     * @param id   Le numéro de l'humain.
+     * @param pere Le numéro de son père.
+     * @param mere Le numéro de sa mère.
+     */
+    void setIdentite(long id, long pere, long mere) {
+        this.id = id;
+        this.pere = pere;
+        this.mere = mere;
+    }
+
     /**
      * Définit l'âge de l'humain.
      * 
@@ -175,7 +276,43 @@ abstract class Humain implements Comparable<Humain> {
      * @return Le nom de l'humain.
      */
     String getNom() {
-        return nom;
+        return nom != null ? nom : nommer(getId(), getPere(), getMere());
+    }
+
+    /**
+     * Retourne le numéro de l'humain.
+     *
+     * @return Le numéro de l'humain, ou {@code -1}.
+     */
+    long getId() {
+        return id;
+    }
+
+    /**
+     * Retourne le numéro du père de l'humain.
+     *
+     * @return Le numéro du père, ou {@code -1}.
+     */
+    long getPere() {
+        return pere;
+    }
+
+    /**
+     * Retourne le numéro de la mère de l'humain.
+     *
+     * @return Le numéro de la mère, ou {@code -1}.
+     */
+    long getMere() {
+        return mere;
+    }
+
+    /**
+     * Retourne l'espérance de vie de l'humain.
+     * 
+     * @return L'espérance de vie de l'humain.
+     */
+    int getEsperanceVie() {
+        return esperanceVie;
     }
 
     /**
@@ -207,7 +344,7 @@ abstract class Humain implements Comparable<Humain> {
      * @return {@code true} si l'humain est mort, {@code false} sinon.
      */
     public boolean isDead() {
-        return age > esperanceVie || poids < 0;
+        return tue || age > esperanceVie || poids < 0;
     }
 
     /**
@@ -216,14 +353,24 @@ abstract class Humain implements Comparable<Humain> {
      * @return Une chaîne de caractères décrivant l'humain.
      */
     public String toString() {
-        return ("Age : " + age + " | Poids : " + poids + " | Nom : " + nom + " | Esperance de vie : " + esperanceVie);
+        return ("Age : " + age + " | Poids : " + poids + " | Nom : " + getNom() + " | Esperance de vie : " + esperanceVie);
     }
 
     /**
-     * TUE l'humain en le définissant à un âge fictif élevé.
+     * TUE l'humain : il est considéré comme mort et disparaît de la population
+     * au vieillissement suivant.
      */
     public void tuer() {
-        setAge(1000);
+        tue = true;
+    }
+
+    /**
+     * Indique si l'humain a été tué.
+     *
+     * @return {@code true} si l'humain a été tué, {@code false} sinon.
+     */
+    public boolean isTue() {
+        return tue;
     }
 
     /**
@@ -0,0 +1,336 @@
+package jeudelavie;
+
+/**
+ * Vue d'un individu stocké dans les colonnes d'une {@link Population}.
+ * <p>
+ * Une {@code HumainVue} ne possède aucun attribut propre : chaque lecture et
+ * chaque écriture est redirigée vers la position de l'individu dans la
+ * population. Elle permet de manipuler un individu stocké en colonnes avec
+ * l'API habituelle de {@link Humain} (comparateurs, affichage, rencontres).
+ * </p>
+ * <p>
+ * La vue désigne l'individu par sa poignée : elle reste valide lorsque la
+ * population est triée ou réorganisée, et tant que l'individu en fait partie.
+ * Une fois l'individu mort et retiré de la population, chaque accès lève une
+ * {@link IllegalStateException}, même si sa poignée a été réattribuée à un
+ * autre individu.
+ * </p>
+ */
+class HumainVue extends Humain {
+
+    /** La population qui stocke l'individu. */
+    private final Population population;
+
+    /** La poignée de l'individu dans la population. */
+    private final int poignee;
+
+    /** Le numéro de l'individu, qui distingue sa poignée d'une poignée réattribuée. */
+    private final long id;
+
+    /**
+     * Constructeur de la classe {@code HumainVue}.
+     *
+     * @param population La population qui stocke l'individu.
+     * @param poignee    La poignée de l'individu dans la population.
+     */
+    HumainVue(Population population, int poignee) {
+        this.population = population;
+        this.poignee = poignee;
+        this.id = population.col.id(population.position[poignee]);
+    }
+
+    /**
+     * Retourne la poignée de l'individu dans la population.
+     *
+     * @return La poignée de l'individu.
+     */
+    int getPoignee() {
+        return poignee;
+    }
+
+    /**
+     * Retourne la position actuelle de l'individu dans la population.
+     *
+     * @return La position de l'individu.
+     * @throws IllegalStateException Si l'individu ne fait plus partie de la
+     *                               population.
+     */
+    int getIndex() {
+        int index = population.getIndexPoignee(poignee);
+        if (index < 0 || population.col.id(index) != id) {
+            throw new IllegalStateException("Humain retire de la population : " + id);
+        }
+        return index;
+    }
+
+    /**
+     * Retourne la population qui stocke l'individu.
+     *
+     * @return La population de l'individu.
+     */
+    Population getPopulation() {
+        return population;
+    }
+
+    /**
+     * Indique si cet individu est de sexe masculin.
+     *
+     * @return {@code true} pour un homme ou un garçon, {@code false} sinon.
+     */
+    @Override
+    public boolean isHomme() {
+        return Colonnes.isMasculin(population.col.type(getIndex()));
+    }
+
+    /**
+     * Indique si cet individu est de sexe féminin.
+     *
+     * @return {@code true} pour une femme ou une fille, {@code false} sinon.
+     */
+    @Override
+    public boolean isFemme() {
+        return !Colonnes.isMasculin(population.col.type(getIndex()));
+    }
+
+    /**
+     * Indique si cet individu est un garçon.
+     *
+     * @return {@code true} si l'individu est un garçon, {@code false} sinon.
+     */
+    @Override
+    public boolean isGarcon() {
+        return population.col.type(getIndex()) == Colonnes.GARCON;
+    }
+
+    /**
+     * Indique si cet individu est une fille.
+     *
+     * @return {@code true} si l'individu est une fille, {@code false} sinon.
+     */
+    @Override
+    public boolean isFille() {
+        return population.col.type(getIndex()) == Colonnes.FILLE;
+    }
+
+    /**
+     * Rencontrer un autre humain de la même population.
+     * <p>
+     * La rencontre est effectuée directement sur les colonnes de la population
+     * par {@link Population#rencontre(int, int)}.
+     * </p>
+     *
+     * @param h L'humain rencontré, qui doit appartenir à la même population.
+     * @return L'enfant issu de la rencontre si toutes les conditions sont réunies.
+     * @throws BreedingForbiddenException Si la naissance est impossible à cause
+     *                                    d'une condition non respectée.
+     * @throws NoBreedingException        Si la rencontre ne mène pas à une
+     *                                    naissance en raison de la fertilité.
+     */
+    @Override
+    public Humain rencontre(Humain h) throws BreedingForbiddenException, NoBreedingException {
+        if (!(h instanceof HumainVue) || ((HumainVue) h).population != population) {
+            throw new IllegalArgumentException("les deux humains doivent appartenir à la même population");
+        }
+        return population.rencontre(getIndex(), ((HumainVue) h).getIndex());
+    }
+
+    /**
+     * Retourne le niveau de fertilité de l'individu, {@code -1} pour un homme.
+     *
+     * @return Le niveau de fertilité de l'individu.
+     */
+    @Override
+    public int getFertilite() {
+        return isHomme() ? -1 : population.col.fertilite(getIndex());
+    }
+
+    /**
+     * Retourne le salaire de l'individu.
+     *
+     * @return Le salaire de l'individu.
+     */
+    @Override
+    public int getSalaire() {
+        return population.col.salaire(getIndex());
+    }
+
+    /**
+     * Retourne le taux de batifolage de l'individu, nul pour une femme.
+     *
+     * @return Le taux de batifolage de l'individu.
+     */
+    @Override
+    public int getBatifolage() {
+        return isHomme() ? population.col.fertilite(getIndex()) : 0;
+    }
+
+    /**
+     * Définit le nom de l'individu.
+     *
+     * @param nom Le nouveau nom à assigner à l'individu.
+     */
+    @Override
+    void setNom(String nom) {
+        population.col.setNom(getIndex(), nom);
+    }
+
+    /**
+     * Définit l'âge de l'individu.
+     *
+     * @param age Le nouvel âge à assigner à l'individu.
+     */
+    @Override
+    void setAge(int age) {
+        population.col.setAge(getIndex(), age);
+        population.majFecondite(getIndex());
+    }
+
+    /**
+     * Définit le poids de l'individu.
+     *
+     * @param poids Le nouveau poids à assigner à l'individu.
+     */
+    @Override
+    void setPoids(int poids) {
+        population.col.setPoids(getIndex(), poids);
+        population.majFecondite(getIndex());
+    }
+
+    /**
+     * Retourne l'âge de l'individu.
+     *
+     * @return L'âge de l'individu.
+     */
+    @Override
+    int getAge() {
+        return population.col.age(getIndex());
+    }
+
+    /**
+     * Retourne le poids de l'individu.
+     *
+     * @return Le poids de l'individu.
+     */
+    @Override
+    int getPoids() {
+        return population.col.poids(getIndex());
+    }
+
+    /**
+     * Retourne le nom de l'individu.
+     *
+     * @return Le nom de l'individu.
+     */
+    @Override
+    String getNom() {
+        return population.col.nom(getIndex());
+    }
+
+    /**
+     * Retourne le numéro de l'individu.
+     *
+     * @return Le numéro de l'individu.
+     */
+    @Override
+    long getId() {
+        return population.col.id(getIndex());
+    }
+
+    /**
+     * Retourne le numéro du père de l'individu.
+     *
+     * @return Le numéro du père, ou {@code -1}.
+     */
+    @Override
+    long getPere() {
+        return population.col.pere(getIndex());
+    }
+
+    /**
+     * Retourne le numéro de la mère de l'individu.
+     *
+     * @return Le numéro de la mère, ou {@code -1}.
+     */
+    @Override
+    long getMere() {
+        return population.col.mere(getIndex());
+    }
+
+    /**
+     * Retourne l'espérance de vie de l'individu.
+     *
+     * @return L'espérance de vie de l'individu.
+     */
+    @Override
+    int getEsperanceVie() {
+        return population.col.esperanceVie(getIndex());
+    }
+
+    /**
+     * Tire une nouvelle espérance de vie selon le sexe de l'individu.
+     */
+    @Override
+    protected void setEsperanceVie() {
+        population.col.setEsperanceVie(getIndex(), (isHomme() ? Homme.tirerEsperanceVie(loto())
+                : Femme.tirerEsperanceVie(loto())));
+    }
+
+    /**
+     * Augmente l'âge de l'individu d'un an, voir {@link Population#vieillir(int)}.
+     */
+    @Override
+    public void vieillir() {
+        population.vieillir(getIndex(), loto());
+        population.majFecondite(getIndex());
+    }
+
+    /**
+     * Modifie le poids de l'individu de la même manière que {@link Humain#grossir(int)}.
+     *
+     * @param p La quantité de poids à retirer à l'individu.
+     */
+    @Override
+    public void grossir(int p) {
+        int index = getIndex();
+        population.col.setPoids(index, population.col.poids(index) - p);
+        population.majFecondite(index);
+    }
+
+    /**
+     * TUE l'individu, voir {@link Population#tuer(int)}.
+     */
+    @Override
+    public void tuer() {
+        population.tuer(getIndex());
+    }
+
+    /**
+     * Indique si l'individu a été tué.
+     *
+     * @return {@code true} si l'individu a été tué, {@code false} sinon.
+     */
+    @Override
+    public boolean isTue() {
+        return population.estTue(getIndex());
+    }
+
+    /**
+     * Vérifie si l'individu est mort.
+     *
+     * @return {@code true} si l'individu est mort, {@code false} sinon.
+     */
+    @Override
+    public boolean isDead() {
+        return population.isDead(getIndex());
+    }
+
+    /**
+     * Retourne une représentation textuelle de l'individu.
+     *
+     * @return Une chaîne de caractères décrivant l'individu.
+     */
+    @Override
+    public String toString() {
+        return population.decrire(getIndex());
+    }
+}
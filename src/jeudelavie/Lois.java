@@ -0,0 +1,150 @@
+package jeudelavie;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Tirages selon les lois de probabilité discrètes utilisées par le
+ * {@link MoteurCohortes}.
+ * <p>
+ * Les effectifs des cohortes pouvant atteindre des milliards, les tirages
+ * sont exacts tant que le nombre d'événements attendus est faible, et
+ * approchés par une loi normale au-delà, où l'approximation est très bonne.
+ * </p>
+ */
+final class Lois {
+
+    /** Taille au-delà de laquelle un tirage exact n'est plus simulé un à un. */
+    private static final int SEUIL_EXACT = 64;
+
+    /** Espérance au-delà de laquelle la loi binomiale est approchée. */
+    private static final double SEUIL_NORMAL = 30;
+
+    /**
+     * Constructeur privé : classe utilitaire.
+     */
+    private Lois() {
+    }
+
+    /**
+     * Tire le nombre de succès parmi {@code n} essais indépendants de
+     * probabilité {@code p}.
+     *
+     * @param n    Le nombre d'essais.
+     * @param p    La probabilité de succès d'un essai.
+     * @param loto Le générateur de nombres aléatoires à utiliser.
+     * @return Un nombre compris entre 0 et {@code n}.
+     */
+    static long binomiale(long n, double p, RandomGenerator loto) {
+        if (n <= 0 || p <= 0) {
+            return 0;
+        }
+        if (p >= 1) {
+            return n;
+        }
+        if (p > 0.5) {
+            return n - binomiale(n, 1 - p, loto);
+        }
+        if (n <= SEUIL_EXACT) {
+            long x = 0;
+            for (long k = 0; k < n; k++) {
+                if (loto.nextDouble() < p) {
+                    x++;
+                }
+            }
+            return x;
+        }
+        double moyenne = n * p;
+        if (moyenne < SEUIL_NORMAL) {
+            // Les succès sont séparés par des écarts de loi géométrique.
+            double log = Math.log1p(-p);
+            long x = 0;
+            double rang = 0;
+            while (true) {
+                rang += Math.floor(Math.log(1 - loto.nextDouble()) / log) + 1;
+                if (rang > n) {
+                    return x;
+                }
+                x++;
+            }
+        }
+        return normale(moyenne, Math.sqrt(moyenne * (1 - p)), 0, n, loto);
+    }
+
+    /**
+     * Tire le nombre d'éléments marqués parmi {@code k} éléments choisis sans
+     * remise dans un ensemble de {@code t} éléments dont {@code c} sont marqués.
+     *
+     * @param k    Le nombre d'éléments choisis.
+     * @param c    Le nombre d'éléments marqués.
+     * @param t    Le nombre total d'éléments.
+     * @param loto Le générateur de nombres aléatoires à utiliser.
+     * @return Un nombre compris entre {@code max(0, k + c - t)} et
+     *         {@code min(k, c)}.
+     */
+    static long hypergeometrique(long k, long c, long t, RandomGenerator loto) {
+        if (k <= 0 || c <= 0) {
+            return 0;
+        }
+        if (k >= t) {
+            return c;
+        }
+        if (c >= t) {
+            return k;
+        }
+        if (k <= SEUIL_EXACT) {
+            return tirerUnAUn(k, c, t, loto);
+        }
+        if (c <= SEUIL_EXACT) {
+            return tirerUnAUn(c, k, t, loto);
+        }
+        if (t - k <= SEUIL_EXACT) {
+            return c - tirerUnAUn(t - k, c, t, loto);
+        }
+        if (t - c <= SEUIL_EXACT) {
+            return k - tirerUnAUn(k, t - c, t, loto);
+        }
+
+        long min = Math.max(0, k + c - t);
+        long max = Math.min(k, c);
+        double q = (double) c / t;
+        if (k * 10 < t) {
+            return Math.max(min, Math.min(max, binomiale(k, q, loto)));
+        }
+        double variance = k * q * (1 - q) * (t - k) / (t - 1.0);
+        return normale(k * q, Math.sqrt(variance), min, max, loto);
+    }
+
+    /**
+     * Tire une loi hypergéométrique en simulant les {@code k} tirages.
+     *
+     * @param k    Le nombre d'éléments choisis, petit.
+     * @param c    Le nombre d'éléments marqués.
+     * @param t    Le nombre total d'éléments.
+     * @param loto Le générateur de nombres aléatoires à utiliser.
+     * @return Le nombre d'éléments marqués parmi les éléments choisis.
+     */
+    private static long tirerUnAUn(long k, long c, long t, RandomGenerator loto) {
+        long x = 0;
+        for (long j = 0; j < k; j++) {
+            if (loto.nextLong(t - j) < c - x) {
+                x++;
+            }
+        }
+        return x;
+    }
+
+    /**
+     * Tire un entier selon une loi normale arrondie et bornée.
+     *
+     * @param moyenne  La moyenne.
+     * @param ecartType L'écart type.
+     * @param min      La borne inférieure.
+     * @param max      La borne supérieure.
+     * @param loto     Le générateur de nombres aléatoires à utiliser.
+     * @return Un entier compris entre {@code min} et {@code max}.
+     */
+    private static long normale(double moyenne, double ecartType, long min, long max, RandomGenerator loto) {
+        long x = Math.round(moyenne + ecartType * loto.nextGaussian());
+        return Math.max(min, Math.min(max, x));
+    }
+}
@@ -1,3 +1,5 @@
+package jeudelavie;
+
 /**
  * Exception lancée lors d'un problème de rencontre entre deux humains.
  * <p>
@@ -5,7 +7,7 @@
  * sur les humains impliqués dans la rencontre qui a échoué.
  * </p>
  */
-class MeetingException extends Exception {
+public class MeetingException extends Exception {
 
     /** Les humains impliqués dans la rencontre. */
     protected Humain[] source;
@@ -0,0 +1,798 @@
+package jeudelavie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Simulation agrégée d'une population, sans aucun humain individuel.
+ * <p>
+ * La population est un histogramme : pour chaque sexe, on compte les humains
+ * de chaque âge, de chaque tranche de poids et, pour les femmes, de chaque
+ * fertilité. Les règles de {@link Homme}, {@link Femme} et {@link Rencontre}
+ * sont appliquées à chaque case sous forme de tirages binomiaux et
+ * hypergéométriques, voir {@link Lois} : le coût d'une génération et la
+ * mémoire occupée ne dépendent pas de la taille de la population, qui peut
+ * compter des milliards d'humains.
+ * </p>
+ * <p>
+ * Quelques attributs sont résumés par leur loi plutôt que conservés :
+ * </p>
+ * <ul>
+ * <li>le taux de batifolage d'un homme, tiré à nouveau chaque année, est
+ * remplacé par la probabilité moyenne qu'il soit fertile ;</li>
+ * <li>l'espérance de vie, uniforme, est remplacée par la probabilité de mourir
+ * à chaque âge sachant qu'on l'a atteint ;</li>
+ * <li>les poids négatifs (mort au prochain anniversaire passé 20 ans) et
+ * supérieurs à 150 (plus jamais fécond) forment chacun une seule tranche ;</li>
+ * <li>le salaire, qui n'influe pas sur l'évolution de la population, n'est
+ * pas simulé.</li>
+ * </ul>
+ * <p>
+ * Comme {@link MoteurSimulation}, le moteur joue une génération à chaque appel
+ * à {@link #step()} et n'écrit rien : la fin de chaque génération est
+ * signalée aux {@link EcouteurSimulation écouteurs}.
+ * </p>
+ */
+public final class MoteurCohortes {
+
+    /** Nombre d'âges distincts : personne ne dépasse 94 ans. */
+    static final int NB_AGES = 96;
+
+    /** Nombre de tranches de poids : négatif, de 0 à 150, puis plus de 150. */
+    static final int NB_POIDS = 153;
+
+    /** Nombre de fertilités distinctes, de 0 à 100. */
+    static final int NB_FERTILITES = 101;
+
+    /** Tranche des poids négatifs. */
+    private static final int POIDS_NEGATIF = 0;
+
+    /** Tranche des poids supérieurs à 150. */
+    private static final int POIDS_LOURD = NB_POIDS - 1;
+
+    /**
+     * Probabilité qu'un homme soit fertile lors d'une rencontre : son
+     * batifolage est uniforme entre 70 et 100, et il est infertile si un
+     * tirage entre 0 et 100 lui est inférieur.
+     */
+    private static final double P_HOMME_FERTILE = 1 - 85.0 / 101;
+
+    /** Probabilité qu'un bébé soit un garçon. */
+    private static final double P_GARCON = 50.0 / 101;
+
+    /** Probabilité qu'une naissance soit suivie d'une mort au hasard. */
+    private static final double P_MORT_AU_HASARD = 0.2;
+
+    /** Écart de poids minimal d'un père après une naissance. */
+    private static final int ECART_PERE_MIN = -20;
+
+    /** Probabilité de chaque écart de poids d'un père, à partir de {@link #ECART_PERE_MIN}. */
+    private static final double[] ECARTS_PERE = new double[31];
+
+    static {
+        // Père à l'initiative : il perd entre -10 et 9 (Homme#rencontre).
+        for (int g = -10; g < 10; g++) {
+            ECARTS_PERE[-g - ECART_PERE_MIN] += 0.5 / 20;
+        }
+        // Mère à l'initiative : il perd entre 0 et 20 (Femme#rencontre).
+        for (int g = 0; g <= 20; g++) {
+            ECARTS_PERE[-g - ECART_PERE_MIN] += 0.5 / 21;
+        }
+    }
+
+    /** Les hommes et les garçons, par âge puis par tranche de poids. */
+    private long[] hommes = new long[NB_AGES * NB_POIDS];
+
+    /** Les femmes et les filles, par âge, par tranche de poids puis par fertilité. */
+    private long[] femmes = new long[NB_AGES * NB_POIDS * NB_FERTILITES];
+
+    /** Tampon des hommes pendant le vieillissement. */
+    private long[] suivantsH = new long[hommes.length];
+
+    /** Tampon des femmes pendant le vieillissement. */
+    private long[] suivantsF = new long[femmes.length];
+
+    /** Les hommes choisis pour une rencontre. */
+    private final long[] choisisH = new long[hommes.length];
+
+    /** Les femmes choisies pour une rencontre. */
+    private final long[] choisisF = new long[femmes.length];
+
+    /** Indique, pour chaque âge et chaque tranche de poids, si l'on peut procréer. */
+    private final boolean[] fecond = new boolean[NB_AGES * NB_POIDS];
+
+    /** Les garçons nés depuis le dernier vieillissement. */
+    private long garcons;
+
+    /** Les filles nées depuis le dernier vieillissement. */
+    private long filles;
+
+    /** Le nombre de morts depuis le dernier rapport. */
+    private long morts;
+
+    /** Les issues des rencontres. */
+    private final BilanRencontres bilan = new BilanRencontres();
+
+    /** Le générateur de nombres aléatoires de la simulation. */
+    private final RandomGenerator loto;
+
+    /** Le mode de fonctionnement : 0 normal, 1 croissance forcée, 2 régulée. */
+    private final int param;
+
+    /** Le nombre de naissances par génération en croissance régulée. */
+    private final int nbb;
+
+    /** Les écouteurs, dans l'ordre où ils ont été ajoutés. */
+    private final List<EcouteurSimulation> ecouteurs = new ArrayList<>();
+
+    /** La sonde qui mesure la durée des phases. */
+    private Sonde sonde = new Sonde();
+
+    /** Le numéro de la prochaine génération à jouer. */
+    private int generation;
+
+    /**
+     * Crée une simulation par cohortes et sa population initiale, comme
+     * {@link MoteurSimulation#MoteurSimulation(Configuration)} : autant
+     * d'hommes que de femmes, créés à 17 ans puis vieillis d'un an, les femmes
+     * ayant une fertilité comprise entre 1 et 99.
+     *
+     * @param tailleInit La taille de la population initiale, qui peut dépasser
+     *                   celle d'un tableau.
+     * @param param      Le mode de fonctionnement : 0 normal, 1 croissance
+     *                   forcée, 2 croissance régulée.
+     * @param nbb        Le nombre de naissances par génération en croissance
+     *                   régulée.
+     * @param hasard     La source des nombres aléatoires.
+     */
+    public MoteurCohortes(long tailleInit, int param, int nbb, Hasard hasard) {
+        this.loto = hasard.flux(Hasard.FLUX_SIMULATION);
+        this.param = param;
+        this.nbb = nbb;
+        for (int a = 0; a < NB_AGES; a++) {
+            for (int w = 0; w < NB_POIDS; w++) {
+                fecond[a * NB_POIDS + w] = Rencontre.isFecond(a, poidsDe(w));
+            }
+        }
+        initialiser(tailleInit);
+    }
+
+    /**
+     * Crée la population initiale.
+     *
+     * @param tailleInit La taille de la population initiale.
+     */
+    private void initialiser(long tailleInit) {
+        long n = tailleInit / 2;
+        hommes[18 * NB_POIDS + tranche(Homme.poidsPourAge(18, 70))] += n;
+        int ligne = 18 * NB_POIDS + tranche(Femme.poidsPourAge(18, 70));
+        long reste = n;
+        for (int f = 1; f < 100; f++) {
+            long x = Lois.binomiale(reste, 1.0 / (100 - f), loto);
+            femmes[ligne * NB_FERTILITES + f] += x;
+            reste -= x;
+        }
+    }
+
+    /**
+     * Retourne le nombre d'humains de la population, sans les bébés nés depuis
+     * le dernier vieillissement.
+     *
+     * @return La taille de la population.
+     */
+    public long taille() {
+        return somme(hommes) + somme(femmes);
+    }
+
+    /**
+     * Retourne le bilan des rencontres de la génération en cours.
+     *
+     * @return Le bilan des rencontres.
+     */
+    public BilanRencontres getBilan() {
+        return bilan;
+    }
+
+    /**
+     * Obtient le numéro de la prochaine génération à jouer.
+     *
+     * @return Le numéro de la prochaine génération.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Ajoute un écouteur de la fin des générations.
+     *
+     * @param ecouteur L'écouteur.
+     */
+    public void ajouterEcouteur(EcouteurSimulation ecouteur) {
+        ecouteurs.add(ecouteur);
+    }
+
+    /**
+     * Définit la sonde qui mesure la durée des phases.
+     *
+     * @param sonde La sonde.
+     */
+    public void setSonde(Sonde sonde) {
+        this.sonde = sonde;
+    }
+
+    /**
+     * Joue une génération : les rencontres du mode de fonctionnement, puis le
+     * vieillissement.
+     * <p>
+     * Si une exception est levée, la génération est interrompue et la
+     * simulation ne peut pas continuer.
+     * </p>
+     *
+     * @throws PopulationException Si la population compte moins de deux humains,
+     *                             ou ne contient que des hommes ou que des
+     *                             femmes.
+     */
+    public void step() throws PopulationException {
+        if (taille() <= 1) {
+            throw new PopulationException("population is empty");
+        }
+        int i = generation;
+        sonde.debutGeneration(i);
+        sonde.debut(Sonde.Phase.RENCONTRES);
+        if (param == 0) {
+            croissanceNormale();
+        } else if (param == 1) {
+            croissanceForcee();
+        } else {
+            croissanceRegulee(nbb, (long) Croissance.TENTATIVES_PAR_NAISSANCE * nbb);
+        }
+        sonde.fin();
+        sonde.debut(Sonde.Phase.VIEILLISSEMENT);
+        vieillir();
+        sonde.fin();
+        generation++;
+
+        sonde.debut(Sonde.Phase.SORTIE);
+        for (EcouteurSimulation e : ecouteurs) {
+            e.finGeneration(this, i);
+        }
+        sonde.fin();
+        sonde.finGeneration(taille(), bilan);
+        bilan.reinitialiser();
+    }
+
+    /**
+     * Joue plusieurs générations.
+     *
+     * @param n Le nombre de générations à jouer.
+     * @throws PopulationException Si la population ne peut plus se reproduire,
+     *                             voir {@link #step()}.
+     */
+    public void run(int n) throws PopulationException {
+        for (int k = 0; k < n; k++) {
+            step();
+        }
+    }
+
+    /**
+     * Fonctionnement normal : une rencontre entre deux humains tirés au hasard
+     * pour chacune des {@code n} rencontres, {@code n} étant tiré entre 0 et la
+     * moitié de la population. Seules les rencontres entre un homme et une
+     * femme féconds sont simulées, les autres sont écartées.
+     */
+    void croissanceNormale() {
+        long taille = taille();
+        long n = loto.nextLong(taille / 2);
+        long nbH = compterFeconds(hommes, 1);
+        long nbF = compterFeconds(femmes, NB_FERTILITES);
+        double p = 2.0 * nbH * nbF / ((double) taille * (taille - 1));
+        long k = Math.min(Lois.binomiale(n, p, loto), Math.min(nbH, nbF));
+        bilan.ecarter(n - k);
+        rencontrer(k, nbH, nbF);
+    }
+
+    /**
+     * Croissance forcée : les hommes et les femmes féconds sont appariés au
+     * hasard, et chaque couple se rencontre une fois.
+     */
+    void croissanceForcee() {
+        long nbH = compterFeconds(hommes, 1);
+        long nbF = compterFeconds(femmes, NB_FERTILITES);
+        rencontrer(Math.min(nbH, nbF), nbH, nbF);
+    }
+
+    /**
+     * Croissance régulée : un homme et une femme féconds sont tirés au hasard,
+     * avec remise, jusqu'à obtenir {@code nbb} naissances ou dépasser le nombre
+     * de tentatives permis. Les mêmes règles que le moteur individuel, voir
+     * {@link Croissance#croissanceRegulee(Population, int, RandomGenerator)}.
+     *
+     * @param nbb            Le nombre de naissances souhaitées.
+     * @param maxTentatives  Le nombre maximal de rencontres, en général
+     *                       {@link Croissance#TENTATIVES_PAR_NAISSANCE} fois {@code nbb}.
+     */
+    void croissanceRegulee(int nbb, long maxTentatives) {
+        long tentatives = 0;
+        for (int b = 0; b < nbb; b++) {
+            long nbH = compterFeconds(hommes, 1);
+            long nbF = 0;
+            double fertilites = 0;
+            for (int aw = 0; aw < fecond.length; aw++) {
+                if (fecond[aw]) {
+                    for (int f = 0; f < NB_FERTILITES; f++) {
+                        long c = femmes[aw * NB_FERTILITES + f];
+                        nbF += c;
+                        fertilites += c * (f + 1) / 101.0;
+                    }
+                }
+            }
+            if (nbH == 0 || nbF == 0) {
+                return;
+            }
+
+            // Rencontres infructueuses avant la prochaine naissance.
+            double pNaissance = P_HOMME_FERTILE * fertilites / nbF;
+            long echecs = geometrique(pNaissance);
+            boolean naissance = echecs < maxTentatives - tentatives;
+            if (!naissance) {
+                echecs = maxTentatives - tentatives;
+            }
+            long hommesInfertiles = Lois.binomiale(echecs, (1 - P_HOMME_FERTILE) / (1 - pNaissance), loto);
+            bilan.enregistrer(Rencontre.HOMME_INFERTILE, hommesInfertiles);
+            bilan.enregistrer(Rencontre.FEMME_INFERTILE, echecs - hommesInfertiles);
+            tentatives += echecs;
+            if (!naissance) {
+                return;
+            }
+            tentatives++;
+
+            int mere = tirerMere(fertilites);
+            int pere = tirerCase(hommes, 1, loto.nextLong(nbH));
+            femmes[mere]--;
+            femmes[deplacer(mere / NB_FERTILITES, -10) * NB_FERTILITES + mere % NB_FERTILITES]++;
+            hommes[pere]--;
+            hommes[deplacer(pere, ecartPere())]++;
+            bilan.enregistrer(Rencontre.NAISSANCE, 1);
+            naitre(1);
+            if (loto.nextDouble() < P_MORT_AU_HASARD) {
+                tuerAuHasard(1);
+            }
+        }
+    }
+
+    /**
+     * Fait vieillir la population d'un an, puis lui ajoute les bébés nés
+     * depuis le dernier vieillissement.
+     *
+     * @throws PopulationException Si la population est vide ou ne contient que des
+     *                             hommes ou que des femmes.
+     */
+    void vieillir() throws PopulationException {
+        long nbH = somme(hommes);
+        long nbF = somme(femmes);
+        if (nbH + nbF <= 1) {
+            throw new PopulationException("population is empty");
+        }
+        if (nbH == 0 || nbF == 0) {
+            throw new PopulationException("population cannot grow");
+        }
+
+        Arrays.fill(suivantsH, 0);
+        Arrays.fill(suivantsF, 0);
+        for (int a = 0; a < NB_AGES; a++) {
+            double mortH = tauxMortalite(a, 50, 81);
+            double mortF = tauxMortalite(a, 55, 95);
+            for (int w = 0; w < NB_POIDS; w++) {
+                int aw = a * NB_POIDS + w;
+                long c = hommes[aw];
+                if (c > 0) {
+                    int suivante = survivre(a, Homme.poidsPourAge(a + 1, poidsDe(w)));
+                    long survivants = suivante < 0 ? 0 : c - Lois.binomiale(c, mortH, loto);
+                    morts += c - survivants;
+                    if (survivants > 0) {
+                        suivantsH[suivante] += survivants;
+                    }
+                }
+                int suivante = survivre(a, Femme.poidsPourAge(a + 1, poidsDe(w)));
+                for (int f = 0; f < NB_FERTILITES; f++) {
+                    c = femmes[aw * NB_FERTILITES + f];
+                    if (c == 0) {
+                        continue;
+                    }
+                    long survivants = suivante < 0 ? 0 : c - Lois.binomiale(c, mortF, loto);
+                    morts += c - survivants;
+                    if (survivants == 0) {
+                        continue;
+                    }
+                    if (a + 1 == 15) {
+                        // Fertilité tirée à 15 ans (Femme#vieillir).
+                        for (int f2 = 0; f2 < NB_FERTILITES && survivants > 0; f2++) {
+                            long x = Lois.binomiale(survivants, 1.0 / (NB_FERTILITES - f2), loto);
+                            suivantsF[suivante * NB_FERTILITES + f2] += x;
+                            survivants -= x;
+                        }
+                    } else {
+                        suivantsF[suivante * NB_FERTILITES + f] += survivants;
+                    }
+                }
+            }
+        }
+        long[] t = hommes;
+        hommes = suivantsH;
+        suivantsH = t;
+        t = femmes;
+        femmes = suivantsF;
+        suivantsF = t;
+
+        hommes[tranche(3)] += garcons;
+        femmes[tranche(3) * NB_FERTILITES] += filles;
+        garcons = 0;
+        filles = 0;
+    }
+
+    /**
+     * Écrit l'état de la population dans un rapport : la pyramide des âges si
+     * le niveau le permet, le nombre de morts et la taille de la population.
+     * Le nombre de morts est ensuite remis à zéro.
+     *
+     * @param r Le rapport où écrire.
+     */
+    public void rapporter(Rapport r) {
+        if (r.accepte(Rapport.Niveau.ECHANTILLON)) {
+            for (int a = 0; a < NB_AGES; a++) {
+                long h = somme(hommes, a * NB_POIDS, (a + 1) * NB_POIDS);
+                long f = somme(femmes, a * NB_POIDS * NB_FERTILITES, (a + 1) * NB_POIDS * NB_FERTILITES);
+                if (h + f > 0) {
+                    r.ligne("Age : " + a + " | Hommes : " + h + " | Femmes : " + f);
+                }
+            }
+        }
+        r.ligne("Morts : " + morts);
+        r.ligne("Population de : " + taille() + " individus");
+        morts = 0;
+    }
+
+    /**
+     * Fait se rencontrer {@code k} couples formés d'un homme et d'une femme
+     * féconds tirés au hasard, sans remise.
+     *
+     * @param k   Le nombre de couples.
+     * @param nbH Le nombre d'hommes féconds.
+     * @param nbF Le nombre de femmes féconds.
+     */
+    private void rencontrer(long k, long nbH, long nbF) {
+        if (k <= 0) {
+            return;
+        }
+        choisir(hommes, 1, k, nbH, choisisH);
+        choisir(femmes, NB_FERTILITES, k, nbF, choisisF);
+
+        long naissances = 0;
+        for (int i = 0; i < choisisF.length; i++) {
+            long s = choisisF[i];
+            if (s == 0) {
+                continue;
+            }
+            int f = i % NB_FERTILITES;
+            long hommesInfertiles = Lois.binomiale(s, 1 - P_HOMME_FERTILE, loto);
+            long b = Lois.binomiale(s - hommesInfertiles, (f + 1) / 101.0, loto);
+            bilan.enregistrer(Rencontre.HOMME_INFERTILE, hommesInfertiles);
+            bilan.enregistrer(Rencontre.FEMME_INFERTILE, s - hommesInfertiles - b);
+            bilan.enregistrer(Rencontre.NAISSANCE, b);
+            if (b > 0) {
+                femmes[i] -= b;
+                femmes[deplacer(i / NB_FERTILITES, -10) * NB_FERTILITES + f] += b;
+                naissances += b;
+            }
+        }
+
+        // Les pères sont répartis au hasard parmi les hommes choisis.
+        long reste = naissances;
+        for (int i = 0; i < choisisH.length && reste > 0; i++) {
+            long s = choisisH[i];
+            if (s == 0) {
+                continue;
+            }
+            long d = Lois.hypergeometrique(reste, s, k, loto);
+            reste -= d;
+            k -= s;
+            hommes[i] -= d;
+            double q = 1;
+            for (int e = 0; e < ECARTS_PERE.length && d > 0; e++) {
+                long x = Lois.binomiale(d, ECARTS_PERE[e] / q, loto);
+                q -= ECARTS_PERE[e];
+                hommes[deplacer(i, ECART_PERE_MIN + e)] += x;
+                d -= x;
+            }
+            hommes[i] += d;
+        }
+
+        naitre(naissances);
+        tuerAuHasard(Lois.binomiale(naissances, P_MORT_AU_HASARD, loto));
+    }
+
+    /**
+     * Ajoute des bébés aux naissances en attente.
+     *
+     * @param n Le nombre de bébés.
+     */
+    private void naitre(long n) {
+        long g = Lois.binomiale(n, P_GARCON, loto);
+        garcons += g;
+        filles += n - g;
+    }
+
+    /**
+     * Tue des humains ou des bébés en attente, choisis au hasard.
+     *
+     * @param n Le nombre de morts.
+     */
+    private void tuerAuHasard(long n) {
+        long bebes = garcons + filles;
+        long total = taille() + bebes;
+        n = Math.min(n, total);
+        long parmiBebes = Lois.hypergeometrique(n, bebes, total, loto);
+        long g = Lois.hypergeometrique(parmiBebes, garcons, bebes, loto);
+        garcons -= g;
+        filles -= parmiBebes - g;
+        morts += n;
+
+        total -= bebes;
+        long nbH = somme(hommes);
+        long reste = retirer(hommes, n - parmiBebes, total);
+        retirer(femmes, reste, total - nbH);
+    }
+
+    /**
+     * Retire au hasard des humains d'un histogramme.
+     *
+     * @param cases  L'histogramme.
+     * @param n      Le nombre d'humains à retirer de l'ensemble de la population.
+     * @param total  Le nombre d'humains de cet histogramme et des suivants.
+     * @return Le nombre d'humains qui restent à retirer des histogrammes suivants.
+     */
+    private long retirer(long[] cases, long n, long total) {
+        for (int i = 0; i < cases.length && n > 0; i++) {
+            long c = cases[i];
+            if (c == 0) {
+                continue;
+            }
+            long x = Lois.hypergeometrique(n, c, total, loto);
+            cases[i] -= x;
+            n -= x;
+            total -= c;
+        }
+        return n;
+    }
+
+    /**
+     * Choisit au hasard, sans remise, {@code k} humains féconds.
+     *
+     * @param cases   L'histogramme des humains.
+     * @param largeur Le nombre de cases par âge et par tranche de poids.
+     * @param k       Le nombre d'humains à choisir.
+     * @param total   Le nombre d'humains féconds.
+     * @param choisis Reçoit le nombre d'humains choisis dans chaque case.
+     */
+    private void choisir(long[] cases, int largeur, long k, long total, long[] choisis) {
+        Arrays.fill(choisis, 0);
+        for (int aw = 0; aw < fecond.length && k > 0; aw++) {
+            if (!fecond[aw]) {
+                continue;
+            }
+            for (int i = aw * largeur; i < (aw + 1) * largeur && k > 0; i++) {
+                long c = cases[i];
+                if (c == 0) {
+                    continue;
+                }
+                long x = Lois.hypergeometrique(k, c, total, loto);
+                choisis[i] = x;
+                k -= x;
+                total -= c;
+            }
+        }
+    }
+
+    /**
+     * Compte les humains féconds d'un histogramme.
+     *
+     * @param cases   L'histogramme des humains.
+     * @param largeur Le nombre de cases par âge et par tranche de poids.
+     * @return Le nombre d'humains féconds.
+     */
+    private long compterFeconds(long[] cases, int largeur) {
+        long n = 0;
+        for (int aw = 0; aw < fecond.length; aw++) {
+            if (fecond[aw]) {
+                n += somme(cases, aw * largeur, (aw + 1) * largeur);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Retourne la case du {@code rang}-ième humain fécond d'un histogramme.
+     *
+     * @param cases   L'histogramme des humains.
+     * @param largeur Le nombre de cases par âge et par tranche de poids.
+     * @param rang    Le rang de l'humain, inférieur au nombre d'humains féconds.
+     * @return L'index de la case.
+     */
+    private int tirerCase(long[] cases, int largeur, long rang) {
+        for (int aw = 0; aw < fecond.length; aw++) {
+            if (!fecond[aw]) {
+                continue;
+            }
+            for (int i = aw * largeur; i < (aw + 1) * largeur; i++) {
+                rang -= cases[i];
+                if (rang < 0) {
+                    return i;
+                }
+            }
+        }
+        throw new IllegalStateException("Rang hors de l'histogramme");
+    }
+
+    /**
+     * Tire une mère parmi les femmes fécondes, avec une probabilité
+     * proportionnelle à sa fertilité.
+     *
+     * @param fertilites La somme des probabilités de concevoir des femmes fécondes.
+     * @return L'index de la case de la mère.
+     */
+    private int tirerMere(double fertilites) {
+        double r = loto.nextDouble() * fertilites;
+        int derniere = -1;
+        for (int aw = 0; aw < fecond.length; aw++) {
+            if (!fecond[aw]) {
+                continue;
+            }
+            for (int f = 0; f < NB_FERTILITES; f++) {
+                int i = aw * NB_FERTILITES + f;
+                if (femmes[i] == 0) {
+                    continue;
+                }
+                derniere = i;
+                r -= femmes[i] * (f + 1) / 101.0;
+                if (r < 0) {
+                    return i;
+                }
+            }
+        }
+        return derniere;
+    }
+
+    /**
+     * Tire l'écart de poids d'un père après une naissance.
+     *
+     * @return L'écart de poids.
+     */
+    private int ecartPere() {
+        return loto.nextBoolean() ? -loto.nextInt(-10, 10) : -loto.nextInt(21);
+    }
+
+    /**
+     * Tire le nombre d'échecs avant un premier succès de probabilité {@code p}.
+     *
+     * @param p La probabilité de succès.
+     * @return Le nombre d'échecs, éventuellement {@link Long#MAX_VALUE}.
+     */
+    private long geometrique(double p) {
+        if (p >= 1) {
+            return 0;
+        }
+        if (p <= 0) {
+            return Long.MAX_VALUE;
+        }
+        double x = Math.floor(Math.log(1 - loto.nextDouble()) / Math.log1p(-p));
+        return x >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) x;
+    }
+
+    /**
+     * Retourne la ligne (âge, tranche de poids) d'un humain après un changement
+     * de poids.
+     *
+     * @param aw    La ligne de l'humain.
+     * @param ecart L'écart de poids.
+     * @return La nouvelle ligne.
+     */
+    private static int deplacer(int aw, int ecart) {
+        int a = aw / NB_POIDS;
+        int w = aw % NB_POIDS;
+        if (w == POIDS_LOURD && ecart >= 0) {
+            return aw;
+        }
+        return a * NB_POIDS + tranche(poidsDe(w) + ecart);
+    }
+
+    /**
+     * Retourne la ligne d'un humain qui vient de vieillir, ou {@code -1} s'il
+     * meurt de son poids.
+     *
+     * @param a     L'âge avant le vieillissement.
+     * @param poids Le poids après le vieillissement.
+     * @return La ligne de l'humain, ou {@code -1}.
+     */
+    private static int survivre(int a, int poids) {
+        if (poids < 0 || a + 1 >= NB_AGES) {
+            return -1;
+        }
+        return (a + 1) * NB_POIDS + tranche(poids);
+    }
+
+    /**
+     * Retourne la probabilité de mourir en passant de l'âge {@code a} à l'âge
+     * {@code a + 1}, pour une espérance de vie uniforme entre {@code min}
+     * inclus et {@code max} exclu : un humain vivant à l'âge {@code a} a une
+     * espérance de vie d'au moins {@code a}, et meurt si elle vaut exactement
+     * {@code a}.
+     *
+     * @param a   L'âge avant le vieillissement.
+     * @param min L'espérance de vie minimale.
+     * @param max L'espérance de vie maximale, exclue.
+     * @return La probabilité de mourir.
+     */
+    private static double tauxMortalite(int a, int min, int max) {
+        if (a < min) {
+            return 0;
+        }
+        if (a >= max - 1) {
+            return 1;
+        }
+        return 1.0 / (max - a);
+    }
+
+    /**
+     * Retourne la tranche d'un poids.
+     *
+     * @param poids Le poids.
+     * @return La tranche du poids.
+     */
+    private static int tranche(int poids) {
+        if (poids < 0) {
+            return POIDS_NEGATIF;
+        }
+        if (poids > 150) {
+            return POIDS_LOURD;
+        }
+        return poids + 1;
+    }
+
+    /**
+     * Retourne un poids représentatif d'une tranche.
+     *
+     * @param w La tranche.
+     * @return Un poids de cette tranche.
+     */
+    private static int poidsDe(int w) {
+        return w - 1;
+    }
+
+    /**
+     * Retourne la somme des cases d'un histogramme.
+     *
+     * @param cases L'histogramme.
+     * @return La somme des cases.
+     */
+    private static long somme(long[] cases) {
+        return somme(cases, 0, cases.length);
+    }
+
+    /**
+     * Retourne la somme d'une plage de cases d'un histogramme.
+     *
+     * @param cases L'histogramme.
+     * @param de    La première case.
+     * @param a     La case qui suit la dernière case.
+     * @return La somme des cases.
+     */
+    private static long somme(long[] cases, int de, int a) {
+        long n = 0;
+        for (int i = de; i < a; i++) {
+            n += cases[i];
+        }
+        return n;
+    }
+}
@@ -0,0 +1,412 @@
+package jeudelavie;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * Exécution d'une génération d'une {@link Population} sur plusieurs threads.
+ * <p>
+ * La population est découpée en {@link Bloc blocs} de taille fixe, traités
+ * par les threads d'un {@link ForkJoinPool}. Chaque bloc tire ses nombres
+ * aléatoires d'un flux de {@link Hasard} qui ne dépend que de la génération,
+ * de la phase et du numéro du bloc ; comme les effets des blocs sont ensuite
+ * appliqués séquentiellement, dans l'ordre des blocs, une simulation lancée
+ * avec la même graine donne le même résultat quel que soit le nombre de
+ * threads.
+ * </p>
+ */
+final class MoteurParallele {
+
+    /** Nombre d'humains, ou de couples, traités par bloc. */
+    static final int TAILLE_BLOC = 1 << 14;
+
+    /** Phase du vieillissement. */
+    private static final int PHASE_VIEILLISSEMENT = 0;
+
+    /** Phase de la formation des couples. */
+    private static final int PHASE_APPARIEMENT = 1;
+
+    /** Phase des rencontres entre couples. */
+    private static final int PHASE_RENCONTRES = 2;
+
+    /** Phase des morts au hasard qui suivent les naissances. */
+    private static final int PHASE_MORTS = 3;
+
+    /**
+     * Le nombre de valeurs distinctes du batifolage d'un homme qui changent
+     * l'issue d'une rencontre : au-delà de 100, l'homme refuse toujours.
+     */
+    private static final int NB_BATIFOLAGES = 102;
+
+    /** Les threads de calcul, ou {@code null} pour tout exécuter sur le thread appelant. */
+    private final ForkJoinPool pool;
+
+    /** La source des nombres aléatoires de la simulation. */
+    private final Hasard hasard;
+
+    /** La sonde qui mesure la durée des phases. */
+    private Sonde sonde = new Sonde();
+
+    /** Les blocs réutilisés d'une phase à l'autre. */
+    private Bloc[] blocs = new Bloc[0];
+
+    /**
+     * Constructeur de la classe {@code MoteurParallele}.
+     *
+     * @param nbThreads Le nombre de threads de calcul, au moins 1.
+     * @param hasard    La source des nombres aléatoires de la simulation.
+     */
+    MoteurParallele(int nbThreads, Hasard hasard) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("Nombre de threads invalide : " + nbThreads);
+        }
+        this.pool = nbThreads > 1 ? new ForkJoinPool(nbThreads, Calculateur::new, null, false) : null;
+        this.hasard = hasard;
+    }
+
+    /**
+     * Définit la sonde qui mesure la durée des phases exécutées par le moteur.
+     *
+     * @param sonde La sonde.
+     */
+    void setSonde(Sonde sonde) {
+        this.sonde = sonde;
+    }
+
+    /**
+     * Fait vieillir toute la population, comme {@link Population#vieillir()},
+     * en traitant les blocs en parallèle.
+     *
+     * @param population La population à faire vieillir.
+     * @param generation Le numéro de la génération.
+     * @throws PopulationException Si la population est vide ou ne contient que des
+     *                             hommes ou que des femmes.
+     */
+    void vieillir(Population population, int generation) throws PopulationException {
+        population.verifierViabilite();
+
+        sonde.debut(Sonde.Phase.VIEILLISSEMENT);
+        int n = population.taille();
+        int nbBlocs = preparer(n);
+        executer(nbBlocs, k -> population.vieillirBloc(blocs[k], flux(generation, PHASE_VIEILLISSEMENT, k)));
+        sonde.fin();
+
+        sonde.debut(Sonde.Phase.DECES);
+        population.compacter(blocs, nbBlocs);
+        executer(nbBlocs, k -> population.reindexer(blocs[k].de, blocs[k].a));
+        for (int k = 0; k < nbBlocs; k++) {
+            population.appliquer(blocs[k]);
+        }
+        sonde.fin();
+    }
+
+    /**
+     * Fait se rencontrer le plus grand nombre possible de couples féconds.
+     * <p>
+     * Les hommes et les femmes en âge et en poids de procréer sont appariés au
+     * hasard, chaque humain appartenant à au plus un couple : on forme ainsi
+     * {@code min(hommes, femmes)} couples, qui se rencontrent en parallèle
+     * puisqu'aucun humain n'appartient à deux couples. Les morts au hasard qui
+     * suivent les naissances sont tirées une fois toutes les rencontres faites.
+     * Chaque humain fécond n'a ainsi qu'une chance d'avoir un enfant par
+     * génération ; {@link #croissanceForceeComplete(Population, int)} donne le
+     * rendement de la version d'origine du mode 1.
+     * </p>
+     *
+     * @param population La population dans laquelle former les couples.
+     * @param generation Le numéro de la génération.
+     */
+    void croissanceForcee(Population population, int generation) {
+        sonde.debut(Sonde.Phase.APPARIEMENT);
+        int[] hommes = population.getHommesFeconds();
+        int[] femmes = population.getFemmesFeconds();
+        int n = Math.min(hommes.length, femmes.length);
+        RandomGenerator loto = flux(generation, PHASE_APPARIEMENT, 0);
+        melanger(hommes, n, loto);
+        melanger(femmes, n, loto);
+        sonde.fin();
+
+        sonde.debut(Sonde.Phase.RENCONTRES);
+        int nbBlocs = preparer(n);
+        executer(nbBlocs, k -> {
+            Bloc b = blocs[k];
+            RandomGenerator g = flux(generation, PHASE_RENCONTRES, k);
+            for (int j = b.de; j < b.a; j++) {
+                int h = population.position[hommes[j]];
+                int f = population.position[femmes[j]];
+                int issue = g.nextBoolean()
+                        ? population.rencontrer(h, f, g, b.naissances, b.bilan)
+                        : population.rencontrer(f, h, g, b.naissances, b.bilan);
+                if (issue == Rencontre.NAISSANCE) {
+                    b.changer(hommes[j]);
+                    b.changer(femmes[j]);
+                    if (g.nextInt(100) < 20) {
+                        b.tuesAuHasard++;
+                    }
+                }
+            }
+        });
+
+        int tues = 0;
+        for (int k = 0; k < nbBlocs; k++) {
+            population.appliquer(blocs[k]);
+            tues += blocs[k].tuesAuHasard;
+        }
+        sonde.fin();
+
+        sonde.debut(Sonde.Phase.DECES);
+        RandomGenerator morts = flux(generation, PHASE_MORTS, 0);
+        for (int t = 0; t < tues; t++) {
+            population.tuerAuHasard(morts);
+        }
+        sonde.fin();
+    }
+
+    /**
+     * Fait se rencontrer chaque homme fécond et chaque femme féconde deux fois,
+     * l'un puis l'autre à l'initiative de la rencontre, comme la double boucle
+     * sur tous les couples de la version d'origine du mode 1.
+     * <p>
+     * Les rencontres ne sont pas jouées une à une : ce sont des essais
+     * indépendants, dont l'issue ne dépend que du batifolage de l'homme et de
+     * la fertilité de la femme. Les hommes sont donc regroupés par batifolage
+     * et, pour chaque femme et chaque groupe, le nombre de rencontres où
+     * l'homme consent puis le nombre de naissances sont tirés par deux lois
+     * binomiales ; seules les naissances sont ensuite jouées, le père étant
+     * tiré au hasard dans le groupe. Le coût est proportionnel au nombre
+     * d'humains féconds et au nombre de naissances, et non au nombre de
+     * rencontres ; mais le nombre de naissances, comme dans la version
+     * d'origine, croît avec le produit du nombre d'hommes et de femmes
+     * féconds. La fécondité de chacun n'est réévaluée qu'à la fin des
+     * rencontres.
+     * </p>
+     *
+     * @param population La population dont les humains se rencontrent.
+     * @param generation Le numéro de la génération.
+     */
+    void croissanceForceeComplete(Population population, int generation) {
+        sonde.debut(Sonde.Phase.APPARIEMENT);
+        Colonnes c = population.col;
+        int[] hommes = population.getHommesFeconds();
+        int[] femmes = population.getFemmesFeconds();
+        int[] debut = new int[NB_BATIFOLAGES + 1];
+        for (int h : hommes) {
+            debut[batifolage(c, population.position[h]) + 1]++;
+        }
+        for (int v = 0; v < NB_BATIFOLAGES; v++) {
+            debut[v + 1] += debut[v];
+        }
+        int[] parBatifolage = new int[hommes.length];
+        int[] rang = Arrays.copyOf(debut, NB_BATIFOLAGES);
+        for (int h : hommes) {
+            parBatifolage[rang[batifolage(c, population.position[h])]++] = h;
+        }
+        sonde.fin();
+
+        sonde.debut(Sonde.Phase.RENCONTRES);
+        int nbBlocs = preparer(femmes.length);
+        executer(nbBlocs, k -> {
+            Bloc b = blocs[k];
+            RandomGenerator g = flux(generation, PHASE_RENCONTRES, k);
+            for (int j = b.de; j < b.a; j++) {
+                int f = population.position[femmes[j]];
+                double fertile = (Math.min(Math.max(c.fertilite(f), -1), 100) + 1) / 101.0;
+                long nes = 0;
+                for (int v = 0; v < NB_BATIFOLAGES; v++) {
+                    int groupe = debut[v + 1] - debut[v];
+                    if (groupe == 0) {
+                        continue;
+                    }
+                    long essais = 2L * groupe;
+                    long consentis = Lois.binomiale(essais, (101 - v) / 101.0, g);
+                    long naissances = Lois.binomiale(consentis, fertile, g);
+                    b.bilan.enregistrer(Rencontre.HOMME_INFERTILE, essais - consentis);
+                    b.bilan.enregistrer(Rencontre.FEMME_INFERTILE, consentis - naissances);
+                    b.bilan.enregistrer(Rencontre.NAISSANCE, naissances);
+                    for (long t = 0; t < naissances; t++) {
+                        int pere = parBatifolage[debut[v] + g.nextInt(groupe)];
+                        b.peser(pere, population.naitre(population.position[pere], f, g.nextBoolean(), g,
+                                b.naissances));
+                        b.changer(pere);
+                    }
+                    nes += naissances;
+                }
+                if (nes > 0) {
+                    c.setPoids(f, c.poids(f) - (int) Math.min(10 * nes, Integer.MAX_VALUE));
+                    b.changer(femmes[j]);
+                    b.tuesAuHasard += (int) Lois.binomiale(nes, 0.2, g);
+                }
+            }
+        });
+
+        int tues = 0;
+        for (int k = 0; k < nbBlocs; k++) {
+            population.appliquer(blocs[k]);
+            tues += blocs[k].tuesAuHasard;
+        }
+        sonde.fin();
+
+        sonde.debut(Sonde.Phase.DECES);
+        RandomGenerator morts = flux(generation, PHASE_MORTS, 0);
+        for (int t = 0; t < tues; t++) {
+            population.tuerAuHasard(morts);
+        }
+        sonde.fin();
+    }
+
+    /**
+     * Retourne le batifolage d'un homme, borné aux valeurs que peut prendre le
+     * tirage de {@link Rencontre#tirerFecondite(int, int, RandomGenerator)}.
+     *
+     * @param c Les colonnes de la population.
+     * @param i L'index de l'homme.
+     * @return Le batifolage, entre 0 et {@value #NB_BATIFOLAGES} - 1.
+     */
+    private static int batifolage(Colonnes c, int i) {
+        return Math.min(Math.max(c.fertilite(i), 0), NB_BATIFOLAGES - 1);
+    }
+
+    /**
+     * Arrête les threads de calcul.
+     */
+    void fermer() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Découpe les index de 0 à {@code n} en blocs de {@link #TAILLE_BLOC}.
+     *
+     * @param n Le nombre d'index à découper.
+     * @return Le nombre de blocs utilisés.
+     */
+    private int preparer(int n) {
+        int nbBlocs = (n + TAILLE_BLOC - 1) / TAILLE_BLOC;
+        if (nbBlocs > blocs.length) {
+            int ancien = blocs.length;
+            blocs = Arrays.copyOf(blocs, Math.max(nbBlocs, ancien * 2));
+            for (int k = ancien; k < blocs.length; k++) {
+                blocs[k] = new Bloc();
+            }
+        }
+        for (int k = 0; k < nbBlocs; k++) {
+            blocs[k].preparer(k * TAILLE_BLOC, Math.min(n, (k + 1) * TAILLE_BLOC));
+        }
+        return nbBlocs;
+    }
+
+    /**
+     * Exécute une tâche pour chaque bloc, en parallèle si le moteur dispose de
+     * plusieurs threads.
+     *
+     * @param nbBlocs Le nombre de blocs.
+     * @param tache   La tâche, qui reçoit le numéro du bloc.
+     */
+    private void executer(int nbBlocs, IntConsumer tache) {
+        if (pool == null || nbBlocs <= 1) {
+            for (int k = 0; k < nbBlocs; k++) {
+                tache.accept(k);
+            }
+        } else {
+            pool.invoke(new Tache(0, nbBlocs, tache));
+        }
+    }
+
+    /**
+     * Place au hasard {@code n} éléments distincts d'un tableau en tête de
+     * celui-ci.
+     *
+     * @param t    Le tableau à mélanger.
+     * @param n    Le nombre d'éléments à tirer.
+     * @param loto Le générateur de nombres aléatoires à utiliser.
+     */
+    private static void melanger(int[] t, int n, RandomGenerator loto) {
+        for (int k = 0; k < n; k++) {
+            int j = k + loto.nextInt(t.length - k);
+            int tmp = t[k];
+            t[k] = t[j];
+            t[j] = tmp;
+        }
+    }
+
+    /**
+     * Retourne le générateur de nombres aléatoires d'un bloc pour une phase
+     * d'une génération.
+     *
+     * @param generation Le numéro de la génération.
+     * @param phase      La phase.
+     * @param bloc       Le numéro du bloc.
+     * @return Un générateur qui ne dépend que de la graine et des paramètres.
+     */
+    private RandomGenerator flux(int generation, int phase, int bloc) {
+        return hasard.flux(generation, phase, bloc);
+    }
+
+    /**
+     * Thread de calcul, qui signale sa fin à la sonde du moteur pour que ses
+     * allocations restent comptées.
+     */
+    private final class Calculateur extends ForkJoinWorkerThread {
+
+        /**
+         * Constructeur de la classe {@code Calculateur}.
+         *
+         * @param pool Les threads de calcul du moteur.
+         */
+        Calculateur(ForkJoinPool pool) {
+            super(pool);
+        }
+
+        @Override
+        protected void onTermination(Throwable exception) {
+            sonde.finThread();
+            super.onTermination(exception);
+        }
+    }
+
+    /**
+     * Tâche qui partage récursivement une plage de blocs entre les threads.
+     */
+    private static final class Tache extends RecursiveAction {
+
+        /** La version de la forme sérialisée. */
+        private static final long serialVersionUID = 1L;
+
+        /** Le premier bloc de la plage. */
+        private final int de;
+
+        /** Le bloc qui suit le dernier bloc de la plage. */
+        private final int a;
+
+        /** La tâche à exécuter pour chaque bloc. */
+        private final IntConsumer tache;
+
+        /**
+         * Constructeur de la classe {@code Tache}.
+         *
+         * @param de    Le premier bloc de la plage.
+         * @param a     Le bloc qui suit le dernier bloc de la plage.
+         * @param tache La tâche à exécuter pour chaque bloc.
+         */
+        Tache(int de, int a, IntConsumer tache) {
+            this.de = de;
+            this.a = a;
+            this.tache = tache;
+        }
+
+        @Override
+        protected void compute() {
+            if (a - de == 1) {
+                tache.accept(de);
+                return;
+            }
+            int milieu = (de + a) >>> 1;
+            invokeAll(new Tache(de, milieu, tache), new Tache(milieu, a, tache));
+        }
+    }
+}
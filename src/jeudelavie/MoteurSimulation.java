@@ -0,0 +1,308 @@
+package jeudelavie;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Déroulement d'une simulation, génération par génération, indépendant de la
+ * ligne de commande.
+ * <p>
+ * Le moteur crée la population initiale décrite par une {@link Configuration}
+ * (ou la reprend d'un {@link PointDeReprise}), puis joue une génération à
+ * chaque appel à {@link #step()} : rencontres selon la {@link Croissance},
+ * vieillissement, intégration des naissances et tri. Il n'écrit rien ; les
+ * naissances, les décès et la fin de chaque génération sont signalés aux
+ * {@link EcouteurSimulation écouteurs}.
+ * </p>
+ * <p>
+ * Chaque génération tire dans ses propres flux de {@link Hasard}, pour qu'une
+ * simulation reprise tire les mêmes nombres qu'une simulation ininterrompue.
+ * Le générateur des humains est celui du thread appelant (voir
+ * {@link Humain#setLoto}) : plusieurs moteurs peuvent jouer en même temps sur
+ * des threads différents, mais un moteur ne doit être utilisé que par un
+ * thread à la fois.
+ * </p>
+ */
+public final class MoteurSimulation implements AutoCloseable {
+
+    /** Les paramètres de la simulation. */
+    private final Configuration config;
+
+    /** La source des nombres aléatoires de la simulation. */
+    private final Hasard hasard;
+
+    /** Le moteur qui exécute les phases parallèles. */
+    private final MoteurParallele moteur;
+
+    /** La population simulée. */
+    private final Population population;
+
+    /** Les écouteurs, dans l'ordre où ils ont été ajoutés. */
+    private final List<EcouteurSimulation> ecouteurs = new ArrayList<>();
+
+    /** La sonde qui mesure la durée des phases. */
+    private Sonde sonde = new Sonde();
+
+    /** Le numéro de la prochaine génération à jouer. */
+    private int generation;
+
+    /**
+     * Crée une simulation et sa population initiale : {@code tailleInit / 2}
+     * hommes puis autant de femmes, tous âgés de 18 ans.
+     *
+     * @param config Les paramètres de la simulation.
+     * @throws IllegalArgumentException Si l'algorithme des générateurs est
+     *                                  inconnu.
+     */
+    public MoteurSimulation(Configuration config) {
+        this(config, new Hasard(config.getGraine(), config.getAlgorithme()),
+                config.getColonnes() != null ? new Population(config.getColonnes()) : new Population(), 0);
+        if (config.isGenealogie()) {
+            population.setGenealogie(config.getFiliations() != null ? new Genealogie(config.getFiliations())
+                    : new Genealogie());
+        }
+        int tailleInit = config.getTailleInit();
+        RandomGenerator loto = hasard.flux(Hasard.FLUX_SIMULATION);
+        Humain.setLoto(hasard.flux(Hasard.FLUX_HUMAINS));
+        for (int i = 0; i < tailleInit / 2; i++) {
+            int batifolage = loto.nextInt(70, 100);
+            population.addHumain(new Homme(17, 70, "Homme" + i, batifolage));
+            population.getHumain(i).vieillir();
+        }
+
+        for (int i = 0; i < tailleInit / 2; i++) {
+            int fertilite = loto.nextInt(1, 100);
+            population.addHumain(new Femme(17, 70, "Femme" + i, fertilite));
+            population.getHumain(i + tailleInit / 2).vieillir();
+        }
+    }
+
+    /**
+     * Reprend une simulation enregistrée dans un point de reprise, avec sa
+     * graine et son générateur ; la taille initiale, la graine et l'algorithme
+     * de la configuration sont ignorés.
+     *
+     * @param config  Les paramètres de la simulation.
+     * @param reprise Le point de reprise.
+     * @throws IllegalArgumentException Si le point de reprise a été créé avec
+     *                                  un autre mode de fonctionnement.
+     */
+    public MoteurSimulation(Configuration config, PointDeReprise reprise) {
+        this(config, hasard(config, reprise), reprise.population, reprise.generation);
+    }
+
+    /**
+     * Vérifie qu'un point de reprise correspond à une configuration et crée la
+     * source de ses nombres aléatoires.
+     *
+     * @param config  Les paramètres de la simulation.
+     * @param reprise Le point de reprise.
+     * @return La source des nombres aléatoires du point de reprise.
+     * @throws IllegalArgumentException Si le point de reprise a été créé avec
+     *                                  un autre mode de fonctionnement.
+     */
+    private static Hasard hasard(Configuration config, PointDeReprise reprise) {
+        if (reprise.mode != config.getParam() || reprise.nbb != config.getNbb()) {
+            throw new IllegalArgumentException("Le point de reprise a ete cree avec le parametre " + reprise.mode
+                    + (reprise.mode == 2 ? " " + reprise.nbb : ""));
+        }
+        return new Hasard(reprise.graine, reprise.algorithme);
+    }
+
+    /**
+     * Constructeur commun.
+     *
+     * @param config     Les paramètres de la simulation.
+     * @param hasard     La source des nombres aléatoires.
+     * @param population La population.
+     * @param generation Le numéro de la prochaine génération à jouer.
+     */
+    private MoteurSimulation(Configuration config, Hasard hasard, Population population, int generation) {
+        this.config = config;
+        this.hasard = hasard;
+        this.moteur = new MoteurParallele(config.getThreads(), hasard);
+        this.population = population;
+        this.generation = generation;
+        population.setRecyclage(config.isRecyclage());
+        population.setNoyau(config.getNoyau());
+        moteur.setSonde(sonde);
+    }
+
+    /**
+     * Ajoute un écouteur des événements de la simulation.
+     *
+     * @param ecouteur L'écouteur.
+     */
+    public void ajouterEcouteur(EcouteurSimulation ecouteur) {
+        ecouteurs.add(ecouteur);
+        population.setEcouteur(ecouteurs.size() == 1 ? ecouteur : new Diffuseur(ecouteurs));
+    }
+
+    /**
+     * Définit la sonde qui mesure la durée des phases.
+     *
+     * @param sonde La sonde.
+     */
+    public void setSonde(Sonde sonde) {
+        this.sonde = sonde;
+        moteur.setSonde(sonde);
+    }
+
+    /**
+     * Joue une génération.
+     * <p>
+     * Si une exception est levée, la génération est interrompue et la
+     * simulation ne peut pas continuer.
+     * </p>
+     *
+     * @throws PopulationException Si la population compte moins de deux humains,
+     *                             ou ne contient que des hommes ou que des
+     *                             femmes.
+     */
+    public void step() throws PopulationException {
+        if (population.taille() <= 1) {
+            throw new PopulationException(population);
+        }
+        int i = generation;
+        RandomGenerator loto = hasard.flux(Hasard.FLUX_SIMULATION, i);
+        Humain.setLoto(hasard.flux(Hasard.FLUX_HUMAINS, i));
+
+        sonde.debutGeneration(i);
+        config.getCroissance().croitre(population, moteur, i, loto, sonde);
+        moteur.vieillir(population, i);
+        sonde.debut(Sonde.Phase.NAISSANCES);
+        population.integrerNaissances();
+        sonde.fin();
+        sonde.debut(Sonde.Phase.TRI);
+        population.trierPop();
+        sonde.fin();
+        generation++;
+
+        sonde.debut(Sonde.Phase.SORTIE);
+        for (EcouteurSimulation e : ecouteurs) {
+            e.finGeneration(this, i);
+        }
+        sonde.fin();
+        sonde.finGeneration(population.taille(), population.getBilan());
+        population.getBilan().reinitialiser();
+        population.getDeces().reinitialiser();
+    }
+
+    /**
+     * Joue plusieurs générations.
+     *
+     * @param n Le nombre de générations à jouer.
+     * @throws PopulationException Si la population ne peut plus se reproduire,
+     *                             voir {@link #step()}.
+     */
+    public void run(int n) throws PopulationException {
+        for (int k = 0; k < n; k++) {
+            step();
+        }
+    }
+
+    /**
+     * Enregistre l'état de la simulation dans un point de reprise.
+     *
+     * @param fichier Le fichier du point de reprise.
+     * @throws IOException Si le fichier ne peut pas être écrit.
+     */
+    public void ecrirePointDeReprise(Path fichier) throws IOException {
+        ecrirePointDeReprise(fichier, -1);
+    }
+
+    /**
+     * Enregistre l'état de la simulation dans un point de reprise, avec la
+     * longueur du fichier de statistiques qui l'accompagne.
+     *
+     * @param fichier            Le fichier du point de reprise.
+     * @param octetsStatistiques La longueur du fichier de statistiques, voir
+     *                           {@link Statistiques#octets()}, ou -1 s'il n'y
+     *                           en a pas.
+     * @throws IOException Si le fichier ne peut pas être écrit.
+     */
+    public void ecrirePointDeReprise(Path fichier, long octetsStatistiques) throws IOException {
+        PointDeReprise.ecrire(fichier, generation, config.getParam(), config.getNbb(), hasard, octetsStatistiques,
+                population);
+    }
+
+    /**
+     * Obtient le numéro de la prochaine génération à jouer.
+     *
+     * @return Le numéro de la prochaine génération.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Obtient la population simulée.
+     *
+     * @return La population.
+     */
+    public Population getPopulation() {
+        return population;
+    }
+
+    /**
+     * Obtient la graine de la simulation, celle du point de reprise pour une
+     * simulation reprise.
+     *
+     * @return La graine.
+     */
+    public long getGraine() {
+        return hasard.getGraine();
+    }
+
+    /**
+     * Obtient les paramètres de la simulation.
+     *
+     * @return La configuration.
+     */
+    public Configuration getConfiguration() {
+        return config;
+    }
+
+    /**
+     * Arrête les threads de calcul.
+     */
+    @Override
+    public void close() {
+        moteur.fermer();
+    }
+
+    /**
+     * Transmet les naissances et les décès à plusieurs écouteurs.
+     */
+    private static final class Diffuseur implements EcouteurSimulation {
+
+        /** Les écouteurs. */
+        private final List<EcouteurSimulation> ecouteurs;
+
+        /**
+         * Constructeur de la classe {@code Diffuseur}.
+         *
+         * @param ecouteurs Les écouteurs.
+         */
+        Diffuseur(List<EcouteurSimulation> ecouteurs) {
+            this.ecouteurs = ecouteurs;
+        }
+
+        @Override
+        public void naissance(long id, long pere, long mere) {
+            for (EcouteurSimulation e : ecouteurs) {
+                e.naissance(id, pere, mere);
+            }
+        }
+
+        @Override
+        public void deces(long id, String nom, int cause) {
+            for (EcouteurSimulation e : ecouteurs) {
+                e.deces(id, nom, cause);
+            }
+        }
+    }
+}
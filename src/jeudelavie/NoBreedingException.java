@@ -1,3 +1,5 @@
+package jeudelavie;
+
 /**
  * Exception levée lorsqu'une rencontre entre deux humains est improductive
  * à cause de la non-fertilité de l'un d'eux.
@@ -0,0 +1,141 @@
+package jeudelavie;
+
+/**
+ * Noyau arithmétique du vieillissement : fait vieillir d'un an une plage
+ * d'humains rangés en colonnes et marque ceux qui meurent et ceux dont la
+ * fécondité change.
+ * <p>
+ * Le noyau ne tire aucun nombre aléatoire et ne déplace personne : les
+ * tirages (espérance de vie des nouveaux adultes, salaire, batifolage,
+ * fertilité) et le regroupement des survivants sont faits ensuite par
+ * {@link Population#vieillirBloc(Bloc, java.util.random.RandomGenerator)},
+ * humain par humain et dans le même ordre, si bien que le résultat de la
+ * simulation ne dépend pas du noyau utilisé.
+ * </p>
+ * <p>
+ * Le noyau vectoriel, {@code NoyauVectoriel}, s'appuie sur l'API Vector du
+ * module incubateur {@code jdk.incubator.vector}. Il est compilé à part, dans
+ * le module Maven {@code vectoriel}, pour que les sources de la simulation
+ * restent compilables par {@code javac} sans option ; {@link #parDefaut()} le charge lorsqu'il se trouve
+ * dans le classpath et que la JVM a été lancée avec
+ * {@code --add-modules jdk.incubator.vector}, et se rabat sinon sur
+ * {@link #scalaire()}.
+ * </p>
+ */
+@FunctionalInterface
+public interface NoyauVieillissement {
+
+    /** Marque d'un humain mort au cours du vieillissement. */
+    byte MORT = 1;
+
+    /** Marque d'un humain qui devient fécond ou cesse de l'être. */
+    byte CHANGEMENT = 2;
+
+    /** Le nom de la classe du noyau vectoriel. */
+    String CLASSE_VECTORIELLE = "jeudelavie.NoyauVectoriel";
+
+    /**
+     * Fait vieillir d'un an les humains des index {@code de} à {@code a - 1} :
+     * l'âge augmente de 1 et le poids suit l'âge, comme
+     * {@link Homme#poidsPourAge(int, int)} et
+     * {@link Femme#poidsPourAge(int, int)}. La marque de chaque humain reçoit
+     * {@link #MORT} s'il dépasse son espérance de vie ou si son poids devient
+     * négatif, et {@link #CHANGEMENT} si {@link Rencontre#isFecond(int, int)}
+     * change.
+     *
+     * @param age          L'âge de chaque humain.
+     * @param poids        Le poids de chaque humain.
+     * @param esperanceVie L'espérance de vie de chaque humain.
+     * @param type         Le type de chaque humain, voir {@link Colonnes}.
+     * @param de           Le premier index.
+     * @param a            L'index qui suit le dernier index.
+     * @param marques      Les marques, {@code marques[i - de]} pour l'humain
+     *                     d'index {@code i}.
+     */
+    void vieillir(int[] age, int[] poids, byte[] esperanceVie, byte[] type, int de, int a, byte[] marques);
+
+    /**
+     * Retourne le noyau scalaire, qui traite un humain à la fois.
+     *
+     * @return Le noyau scalaire.
+     */
+    static NoyauVieillissement scalaire() {
+        return NoyauVieillissement::vieillirScalaire;
+    }
+
+    /**
+     * Retourne le noyau vectoriel.
+     *
+     * @return Le noyau vectoriel.
+     * @throws IllegalStateException Si la classe {@value #CLASSE_VECTORIELLE}
+     *                               est absente du classpath, ou si le module
+     *                               {@code jdk.incubator.vector} n'est pas
+     *                               chargé.
+     */
+    static NoyauVieillissement vectoriel() {
+        try {
+            return (NoyauVieillissement) Class.forName(CLASSE_VECTORIELLE).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IllegalStateException("Noyau vectoriel indisponible : ajoutez le module vectoriel au classpath"
+                    + " et lancez java avec --add-modules jdk.incubator.vector", e);
+        }
+    }
+
+    /**
+     * Retourne le noyau vectoriel s'il est disponible, le noyau scalaire
+     * sinon.
+     *
+     * @return Le noyau.
+     */
+    static NoyauVieillissement parDefaut() {
+        try {
+            return vectoriel();
+        } catch (IllegalStateException e) {
+            return scalaire();
+        }
+    }
+
+    /**
+     * Implémentation du noyau scalaire, voir
+     * {@link #vieillir(int[], int[], byte[], byte[], int, int, byte[])}.
+     *
+     * @param age          L'âge de chaque humain.
+     * @param poids        Le poids de chaque humain.
+     * @param esperanceVie L'espérance de vie de chaque humain.
+     * @param type         Le type de chaque humain.
+     * @param de           Le premier index.
+     * @param a            L'index qui suit le dernier index.
+     * @param marques      Les marques.
+     */
+    static void vieillirScalaire(int[] age, int[] poids, byte[] esperanceVie, byte[] type, int de, int a,
+            byte[] marques) {
+        for (int i = de; i < a; i++) {
+            marques[i - de] = vieillirUn(age, poids, esperanceVie, type, i);
+        }
+    }
+
+    /**
+     * Fait vieillir d'un an un seul humain, voir
+     * {@link #vieillir(int[], int[], byte[], byte[], int, int, byte[])}.
+     *
+     * @param age          L'âge de chaque humain.
+     * @param poids        Le poids de chaque humain.
+     * @param esperanceVie L'espérance de vie de chaque humain.
+     * @param type         Le type de chaque humain.
+     * @param i            L'index de l'humain.
+     * @return La marque de l'humain.
+     */
+    static byte vieillirUn(int[] age, int[] poids, byte[] esperanceVie, byte[] type, int i) {
+        boolean fecond = Rencontre.isFecond(age[i], poids[i]);
+        int ageAtteint = age[i] + 1;
+        int p = Colonnes.isMasculin(type[i]) ? Homme.poidsPourAge(ageAtteint, poids[i])
+                : Femme.poidsPourAge(ageAtteint, poids[i]);
+        age[i] = ageAtteint;
+        poids[i] = p;
+        int m = ageAtteint > esperanceVie[i] || p < 0 ? MORT : 0;
+        if (fecond != Rencontre.isFecond(ageAtteint, p)) {
+            m |= CHANGEMENT;
+        }
+        return (byte) m;
+    }
+}
@@ -0,0 +1,705 @@
+package jeudelavie;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Point de reprise d'une simulation : un instantané binaire de la population,
+ * du numéro de la génération et de ce qui détermine les nombres aléatoires.
+ * <p>
+ * Les générateurs de {@link Hasard} ne dépendant que de la graine, de
+ * l'algorithme et de leurs clés, il suffit d'enregistrer la graine et le nom
+ * de l'algorithme : une simulation reprise à la génération {@code g} tire
+ * ensuite les mêmes nombres que si elle ne s'était pas interrompue.
+ * </p>
+ * <p>
+ * Le fichier est écrit et lu à travers des fenêtres de {@link FileChannel}
+ * projetées en mémoire, colonne par colonne, si bien que même une population
+ * de plusieurs gigaoctets est enregistrée en quelques secondes. Il est d'abord
+ * écrit à côté du fichier de destination, puis renommé : une interruption
+ * pendant l'écriture laisse intact le point de reprise précédent.
+ * </p>
+ * <p>
+ * Le point de reprise retient aussi la longueur du fichier de
+ * {@link Statistiques} au moment où il est écrit : à la reprise, les lignes
+ * ajoutées depuis sont retirées, pour qu'elles ne figurent pas deux fois.
+ * </p>
+ */
+public final class PointDeReprise {
+
+    /** Les quatre premiers octets d'un point de reprise, "JDLV". */
+    private static final int MAGIE = 0x4A444C56;
+
+    /** La version du format. */
+    private static final int VERSION = 5;
+
+    /** La taille maximale d'une fenêtre projetée en mémoire. */
+    private static final int TAILLE_FENETRE = 1 << 26;
+
+    /** Le numéro de la prochaine génération à simuler. */
+    final int generation;
+
+    /** Le mode de fonctionnement de la simulation. */
+    final int mode;
+
+    /** Le nombre de naissances par génération en croissance régulée. */
+    final int nbb;
+
+    /** La graine de la simulation. */
+    final long graine;
+
+    /** Le nom de l'algorithme des générateurs de nombres aléatoires. */
+    final String algorithme;
+
+    /** La longueur du fichier de statistiques, ou -1 s'il n'y en avait pas. */
+    final long octetsStatistiques;
+
+    /** La population. */
+    final Population population;
+
+    /**
+     * Constructeur de la classe {@code PointDeReprise}.
+     *
+     * @param generation Le numéro de la prochaine génération à simuler.
+     * @param mode       Le mode de fonctionnement de la simulation.
+     * @param nbb        Le nombre de naissances par génération en croissance
+     *                   régulée.
+     * @param graine     La graine de la simulation.
+     * @param algorithme         Le nom de l'algorithme des générateurs.
+     * @param octetsStatistiques La longueur du fichier de statistiques, ou -1.
+     * @param population         La population.
+     */
+    private PointDeReprise(int generation, int mode, int nbb, long graine, String algorithme,
+            long octetsStatistiques, Population population) {
+        this.generation = generation;
+        this.mode = mode;
+        this.nbb = nbb;
+        this.graine = graine;
+        this.algorithme = algorithme;
+        this.octetsStatistiques = octetsStatistiques;
+        this.population = population;
+    }
+
+    /**
+     * Obtient le numéro de la prochaine génération à simuler.
+     *
+     * @return Le numéro de la prochaine génération.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Obtient le mode de fonctionnement de la simulation.
+     *
+     * @return Le mode : 0 normal, 1 croissance forcée, 2 croissance régulée.
+     */
+    public int getMode() {
+        return mode;
+    }
+
+    /**
+     * Obtient le nombre de naissances par génération en croissance régulée.
+     *
+     * @return Le nombre de naissances par génération.
+     */
+    public int getNbb() {
+        return nbb;
+    }
+
+    /**
+     * Obtient la graine de la simulation.
+     *
+     * @return La graine.
+     */
+    public long getGraine() {
+        return graine;
+    }
+
+    /**
+     * Obtient le nom de l'algorithme des générateurs de nombres aléatoires.
+     *
+     * @return Le nom de l'algorithme.
+     */
+    public String getAlgorithme() {
+        return algorithme;
+    }
+
+    /**
+     * Obtient la longueur du fichier de statistiques au moment du point de reprise.
+     *
+     * @return La longueur du fichier, ou -1 s'il n'y en avait pas.
+     */
+    public long getOctetsStatistiques() {
+        return octetsStatistiques;
+    }
+
+    /**
+     * Obtient la population enregistrée.
+     *
+     * @return La population.
+     */
+    public Population getPopulation() {
+        return population;
+    }
+
+    /**
+     * Enregistre l'état d'une simulation entre deux générations.
+     *
+     * @param fichier    Le fichier où écrire le point de reprise.
+     * @param generation Le numéro de la prochaine génération à simuler.
+     * @param mode       Le mode de fonctionnement de la simulation.
+     * @param nbb        Le nombre de naissances par génération en croissance
+     *                   régulée.
+     * @param hasard             La source des nombres aléatoires de la
+     *                           simulation.
+     * @param octetsStatistiques La longueur du fichier de statistiques, toutes
+     *                           les lignes des générations déjà simulées
+     *                           écrites, ou -1 s'il n'y en a pas.
+     * @param population         La population.
+     * @throws IOException Si le fichier ne peut pas être écrit.
+     */
+    static void ecrire(Path fichier, int generation, int mode, int nbb, Hasard hasard, long octetsStatistiques,
+            Population population) throws IOException {
+        Sortie mesure = new Sortie();
+        ecrire(mesure, generation, mode, nbb, hasard, octetsStatistiques, population);
+
+        Path provisoire = fichier.resolveSibling(fichier.getFileName() + ".tmp");
+        try (Sortie s = new Sortie(provisoire, mesure.position())) {
+            ecrire(s, generation, mode, nbb, hasard, octetsStatistiques, population);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(provisoire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Écrit l'en-tête et la population.
+     *
+     * @param s          La sortie.
+     * @param generation Le numéro de la prochaine génération à simuler.
+     * @param mode       Le mode de fonctionnement de la simulation.
+     * @param nbb        Le nombre de naissances par génération en croissance
+     *                   régulée.
+     * @param hasard             La source des nombres aléatoires de la
+     *                           simulation.
+     * @param octetsStatistiques La longueur du fichier de statistiques, ou -1.
+     * @param population         La population.
+     */
+    private static void ecrire(Sortie s, int generation, int mode, int nbb, Hasard hasard, long octetsStatistiques,
+            Population population) {
+        s.entier(MAGIE);
+        s.entier(VERSION);
+        s.entier(generation);
+        s.entier(mode);
+        s.entier(nbb);
+        s.entierLong(hasard.getGraine());
+        s.chaine(hasard.getAlgorithme());
+        s.entierLong(octetsStatistiques);
+        population.sauvegarder(s);
+    }
+
+    /**
+     * Lit un point de reprise.
+     *
+     * @param fichier Le fichier à lire.
+     * @return Le point de reprise.
+     * @throws IOException Si le fichier ne peut pas être lu ou n'est pas un point
+     *                     de reprise.
+     */
+    public static PointDeReprise lire(Path fichier) throws IOException {
+        try (Entree e = new Entree(fichier)) {
+            if (e.entier() != MAGIE) {
+                throw new IOException(fichier + " n'est pas un point de reprise");
+            }
+            int version = e.entier();
+            if (version != VERSION) {
+                throw new IOException("Version de point de reprise non prise en charge : " + version);
+            }
+            int generation = e.entier();
+            int mode = e.entier();
+            int nbb = e.entier();
+            long graine = e.entierLong();
+            String algorithme = e.chaine();
+            long octetsStatistiques = e.entierLong();
+            Population population = new Population();
+            population.charger(e);
+            return new PointDeReprise(generation, mode, nbb, graine, algorithme, octetsStatistiques, population);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException(fichier + " est tronqué ou corrompu", e);
+        }
+    }
+
+    /**
+     * Écriture séquentielle dans un fichier à travers des fenêtres projetées en
+     * mémoire.
+     * <p>
+     * Une sortie créée sans fichier n'écrit rien et se contente de compter les
+     * octets, ce qui permet de connaître à l'avance la taille du fichier.
+     * </p>
+     */
+    static final class Sortie implements Closeable {
+
+        /** Le canal du fichier, ou {@code null} pour une sortie qui mesure. */
+        private final FileChannel canal;
+
+        /** La taille du fichier. */
+        private final long taille;
+
+        /** La fenêtre courante. */
+        private MappedByteBuffer fenetre;
+
+        /** La position dans le fichier du début de la fenêtre courante. */
+        private long debut;
+
+        /** Le nombre d'octets écrits, pour une sortie qui mesure. */
+        private long mesure;
+
+        /**
+         * Constructeur d'une sortie qui ne fait que compter les octets.
+         */
+        private Sortie() {
+            this.canal = null;
+            this.taille = Long.MAX_VALUE;
+        }
+
+        /**
+         * Constructeur d'une sortie vers un fichier.
+         *
+         * @param fichier Le fichier, créé ou remplacé.
+         * @param taille  Le nombre exact d'octets qui seront écrits.
+         * @throws IOException Si le fichier ne peut pas être ouvert.
+         */
+        private Sortie(Path fichier, long taille) throws IOException {
+            this.canal = FileChannel.open(fichier, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.taille = taille;
+            projeter(0);
+        }
+
+        /**
+         * Retourne le nombre d'octets écrits.
+         *
+         * @return La position dans le fichier.
+         */
+        long position() {
+            return canal == null ? mesure : debut + fenetre.position();
+        }
+
+        /**
+         * Écrit un entier.
+         *
+         * @param v L'entier.
+         */
+        void entier(int v) {
+            if (reserver(Integer.BYTES)) {
+                fenetre.putInt(v);
+            }
+        }
+
+        /**
+         * Écrit un entier long.
+         *
+         * @param v L'entier.
+         */
+        void entierLong(long v) {
+            if (reserver(Long.BYTES)) {
+                fenetre.putLong(v);
+            }
+        }
+
+        /**
+         * Écrit une chaîne, précédée de sa longueur.
+         *
+         * @param v La chaîne, qui peut être {@code null}.
+         */
+        void chaine(String v) {
+            if (v == null) {
+                entier(-1);
+                return;
+            }
+            entier(v.length());
+            if (canal == null) {
+                mesure += (long) Character.BYTES * v.length();
+                return;
+            }
+            int k = 0;
+            while (k < v.length()) {
+                int m = Math.min(v.length() - k, morceau(Character.BYTES));
+                fenetre.asCharBuffer().put(v, k, k + m);
+                avancer(m * Character.BYTES);
+                k += m;
+            }
+        }
+
+        /**
+         * Écrit les {@code n} premiers éléments d'un tableau d'entiers.
+         *
+         * @param t Le tableau.
+         * @param n Le nombre d'éléments.
+         */
+        void entiers(int[] t, int n) {
+            if (canal == null) {
+                mesure += (long) Integer.BYTES * n;
+                return;
+            }
+            int k = 0;
+            while (k < n) {
+                int m = Math.min(n - k, morceau(Integer.BYTES));
+                fenetre.asIntBuffer().put(t, k, m);
+                avancer(m * Integer.BYTES);
+                k += m;
+            }
+        }
+
+        /**
+         * Écrit les {@code n} premiers éléments d'un tableau d'entiers longs.
+         *
+         * @param t Le tableau.
+         * @param n Le nombre d'éléments.
+         */
+        void entiersLongs(long[] t, int n) {
+            if (canal == null) {
+                mesure += (long) Long.BYTES * n;
+                return;
+            }
+            int k = 0;
+            while (k < n) {
+                int m = Math.min(n - k, morceau(Long.BYTES));
+                fenetre.asLongBuffer().put(t, k, m);
+                avancer(m * Long.BYTES);
+                k += m;
+            }
+        }
+
+        /**
+         * Écrit les {@code n} premiers éléments d'un tableau d'entiers courts.
+         *
+         * @param t Le tableau.
+         * @param n Le nombre d'éléments.
+         */
+        void courts(short[] t, int n) {
+            if (canal == null) {
+                mesure += (long) Short.BYTES * n;
+                return;
+            }
+            int k = 0;
+            while (k < n) {
+                int m = Math.min(n - k, morceau(Short.BYTES));
+                fenetre.asShortBuffer().put(t, k, m);
+                avancer(m * Short.BYTES);
+                k += m;
+            }
+        }
+
+        /**
+         * Écrit les {@code n} premiers éléments d'un tableau d'octets.
+         *
+         * @param t Le tableau.
+         * @param n Le nombre d'éléments.
+         */
+        void octets(byte[] t, int n) {
+            if (canal == null) {
+                mesure += n;
+                return;
+            }
+            int k = 0;
+            while (k < n) {
+                int m = Math.min(n - k, morceau(1));
+                fenetre.put(t, k, m);
+                k += m;
+            }
+        }
+
+        /**
+         * Vérifie que tout a été écrit, force l'écriture sur le disque et ferme
+         * le fichier.
+         *
+         * @throws IOException Si le fichier ne peut pas être fermé.
+         */
+        @Override
+        public void close() throws IOException {
+            if (canal == null) {
+                return;
+            }
+            try {
+                if (position() != taille) {
+                    throw new IOException("Point de reprise incomplet : " + position() + " octets sur " + taille);
+                }
+                fenetre.force();
+            } finally {
+                canal.close();
+            }
+        }
+
+        /**
+         * Prépare l'écriture d'une valeur, en passant à la fenêtre suivante si
+         * la valeur ne tient pas dans la fenêtre courante.
+         *
+         * @param n La taille de la valeur en octets.
+         * @return {@code true} si la valeur doit être écrite dans la fenêtre,
+         *         {@code false} pour une sortie qui mesure.
+         */
+        private boolean reserver(int n) {
+            if (canal == null) {
+                mesure += n;
+                return false;
+            }
+            if (fenetre.remaining() < n) {
+                projeter(position());
+            }
+            return true;
+        }
+
+        /**
+         * Retourne le nombre d'éléments qui tiennent dans la fenêtre courante,
+         * en passant à la fenêtre suivante si elle est pleine.
+         *
+         * @param taille La taille d'un élément en octets.
+         * @return Un nombre d'éléments strictement positif.
+         */
+        private int morceau(int taille) {
+            if (fenetre.remaining() < taille) {
+                projeter(position());
+            }
+            return fenetre.remaining() / taille;
+        }
+
+        /**
+         * Avance la position de la fenêtre après une écriture par une vue.
+         *
+         * @param n Le nombre d'octets écrits.
+         */
+        private void avancer(int n) {
+            fenetre.position(fenetre.position() + n);
+        }
+
+        /**
+         * Projette en mémoire la fenêtre qui commence à une position donnée.
+         *
+         * @param position La position dans le fichier.
+         */
+        private void projeter(long position) {
+            if (fenetre != null) {
+                fenetre.force();
+            }
+            try {
+                debut = position;
+                fenetre = canal.map(FileChannel.MapMode.READ_WRITE, position,
+                        Math.min(TAILLE_FENETRE, taille - position));
+                fenetre.order(ByteOrder.LITTLE_ENDIAN);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Lecture séquentielle d'un fichier à travers des fenêtres projetées en
+     * mémoire.
+     */
+    static final class Entree implements Closeable {
+
+        /** Le canal du fichier. */
+        private final FileChannel canal;
+
+        /** La taille du fichier. */
+        private final long taille;
+
+        /** La fenêtre courante. */
+        private MappedByteBuffer fenetre;
+
+        /** La position dans le fichier du début de la fenêtre courante. */
+        private long debut;
+
+        /**
+         * Constructeur de la classe {@code Entree}.
+         *
+         * @param fichier Le fichier à lire.
+         * @throws IOException Si le fichier ne peut pas être ouvert.
+         */
+        private Entree(Path fichier) throws IOException {
+            this.canal = FileChannel.open(fichier, StandardOpenOption.READ);
+            this.taille = canal.size();
+            projeter(0);
+        }
+
+        /**
+         * Lit un entier.
+         *
+         * @return L'entier.
+         */
+        int entier() {
+            reserver(Integer.BYTES);
+            return fenetre.getInt();
+        }
+
+        /**
+         * Lit un entier long.
+         *
+         * @return L'entier.
+         */
+        long entierLong() {
+            reserver(Long.BYTES);
+            return fenetre.getLong();
+        }
+
+        /**
+         * Lit une chaîne précédée de sa longueur.
+         *
+         * @return La chaîne, qui peut être {@code null}.
+         */
+        String chaine() {
+            int n = entier();
+            if (n < 0) {
+                return null;
+            }
+            char[] t = new char[n];
+            int k = 0;
+            while (k < n) {
+                int m = Math.min(n - k, morceau(Character.BYTES));
+                fenetre.asCharBuffer().get(t, k, m);
+                avancer(m * Character.BYTES);
+                k += m;
+            }
+            return new String(t);
+        }
+
+        /**
+         * Lit {@code n} entiers dans un tableau.
+         *
+         * @param t Le tableau, d'au moins {@code n} éléments.
+         * @param n Le nombre d'éléments.
+         */
+        void entiers(int[] t, int n) {
+            int k = 0;
+            while (k < n) {
+                int m = Math.min(n - k, morceau(Integer.BYTES));
+                fenetre.asIntBuffer().get(t, k, m);
+                avancer(m * Integer.BYTES);
+                k += m;
+            }
+        }
+
+        /**
+         * Lit {@code n} entiers longs dans un tableau.
+         *
+         * @param t Le tableau, d'au moins {@code n} éléments.
+         * @param n Le nombre d'éléments.
+         */
+        void entiersLongs(long[] t, int n) {
+            int k = 0;
+            while (k < n) {
+                int m = Math.min(n - k, morceau(Long.BYTES));
+                fenetre.asLongBuffer().get(t, k, m);
+                avancer(m * Long.BYTES);
+                k += m;
+            }
+        }
+
+        /**
+         * Lit {@code n} entiers courts dans un tableau.
+         *
+         * @param t Le tableau, d'au moins {@code n} éléments.
+         * @param n Le nombre d'éléments.
+         */
+        void courts(short[] t, int n) {
+            int k = 0;
+            while (k < n) {
+                int m = Math.min(n - k, morceau(Short.BYTES));
+                fenetre.asShortBuffer().get(t, k, m);
+                avancer(m * Short.BYTES);
+                k += m;
+            }
+        }
+
+        /**
+         * Lit {@code n} octets dans un tableau.
+         *
+         * @param t Le tableau, d'au moins {@code n} éléments.
+         * @param n Le nombre d'éléments.
+         */
+        void octets(byte[] t, int n) {
+            int k = 0;
+            while (k < n) {
+                int m = Math.min(n - k, morceau(1));
+                fenetre.get(t, k, m);
+                k += m;
+            }
+        }
+
+        /**
+         * Ferme le fichier.
+         *
+         * @throws IOException Si le fichier ne peut pas être fermé.
+         */
+        @Override
+        public void close() throws IOException {
+            canal.close();
+        }
+
+        /**
+         * Prépare la lecture d'une valeur, en passant à la fenêtre suivante si
+         * la valeur ne tient pas dans la fenêtre courante.
+         *
+         * @param n La taille de la valeur en octets.
+         * @throws IndexOutOfBoundsException Si le fichier s'arrête avant la fin de
+         *                                   la valeur.
+         */
+        private void reserver(int n) {
+            if (fenetre.remaining() < n) {
+                projeter(debut + fenetre.position());
+                if (fenetre.remaining() < n) {
+                    throw new IndexOutOfBoundsException("Fin du fichier atteinte");
+                }
+            }
+        }
+
+        /**
+         * Retourne le nombre d'éléments disponibles dans la fenêtre courante, en
+         * passant à la fenêtre suivante si elle est épuisée.
+         *
+         * @param taille La taille d'un élément en octets.
+         * @return Un nombre d'éléments strictement positif.
+         */
+        private int morceau(int taille) {
+            reserver(taille);
+            return fenetre.remaining() / taille;
+        }
+
+        /**
+         * Avance la position de la fenêtre après une lecture par une vue.
+         *
+         * @param n Le nombre d'octets lus.
+         */
+        private void avancer(int n) {
+            fenetre.position(fenetre.position() + n);
+        }
+
+        /**
+         * Projette en mémoire la fenêtre qui commence à une position donnée.
+         *
+         * @param position La position dans le fichier.
+         */
+        private void projeter(long position) {
+            try {
+                debut = position;
+                fenetre = canal.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(TAILLE_FENETRE, taille - position));
+                fenetre.order(ByteOrder.LITTLE_ENDIAN);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,1416 @@
+package jeudelavie;
+
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+/**
+ * Classe représentant une population d'humains.
+ * <p>
+ * Cette classe permet de gérer un ensemble d'humains, d'effectuer des
+ * opérations sur cette population, telles que l'ajout, la suppression, le
+ * vieillissement des individus, et le tri de la population.
+ * </p>
+ * <p>
+ * Les individus ne sont pas conservés sous forme d'objets {@link Humain} mais
+ * dans des {@link Colonnes} de types primitifs. Les méthodes qui retournent un
+ * {@code Humain} fournissent une {@link HumainVue} sur ces colonnes.
+ * </p>
+ */
+public class Population {
+
+    /** Les attributs des humains de la population, rangés en colonnes. */
+    Colonnes col;
+
+    /** Les bébés nés depuis le dernier appel à {@link #integrerNaissances()}. */
+    ColonnesSurTas naissances;
+
+    /** Les issues des rencontres effectuées dans la population. */
+    BilanRencontres bilan;
+
+    /** Les décès survenus dans la population, par cause. */
+    BilanDeces deces;
+
+    /**
+     * Position de chaque humain dans {@link #col}, indexée par sa poignée, ou
+     * {@code -1} si la poignée n'est pas attribuée.
+     */
+    int[] position;
+
+    /** Les poignées libérées par les humains supprimés, prêtes à être réattribuées. */
+    private int[] libres;
+
+    /** Le nombre de poignées libres. */
+    private int nbLibres;
+
+    /** La plus petite poignée qui n'a encore jamais été attribuée. */
+    private int prochainePoignee;
+
+    /** Le numéro qui sera donné au prochain humain ajouté à la population. */
+    private long prochainId;
+
+    /** Le registre des filiations, ou {@code null} si elles ne sont pas conservées. */
+    private Genealogie genealogie;
+
+    /**
+     * Les poignées des humains tués au hasard depuis le dernier vieillissement,
+     * qui les retire de la population.
+     */
+    private final EnsembleBits tues = new EnsembleBits();
+
+    /** Les index, parmi les naissances en attente, des bébés tués. */
+    private final EnsembleBits bebesTues = new EnsembleBits();
+
+    /**
+     * Les poignées des hommes en âge et en poids de procréer, voir
+     * {@link Rencontre#isFecond(int, int)} : de 16 à 49 ans et d'au plus 150.
+     * <p>
+     * La version d'origine comptait à chaque génération les hommes et les
+     * femmes de 16 à 59 ans ; ces ensembles ne retiennent que ceux dont une
+     * rencontre peut donner un enfant, parmi lesquels les rencontres sont
+     * tirées. Le critère plus étroit ne change pas l'arrêt de la croissance
+     * régulée, voir {@link Croissance#croissanceRegulee(Population, int, RandomGenerator)}.
+     * </p>
+     */
+    EnsembleIndex hommesFeconds;
+
+    /** Les poignées des femmes en âge et en poids de procréer. */
+    EnsembleIndex femmesFeconds;
+
+    /** L'écouteur prévenu des naissances et des décès, ou {@code null}. */
+    private EcouteurSimulation ecouteur;
+
+    /** Le noyau du vieillissement. */
+    private NoyauVieillissement noyau = NoyauVieillissement.scalaire();
+
+    /** Indique si les tampons du tri sont conservés d'un tri à l'autre. */
+    private boolean recyclage;
+
+    /** Les colonnes qui reçoivent la population triée, si le recyclage est activé. */
+    private Colonnes colonnesTri;
+
+    /** Les tableaux de travail du tri, si le recyclage est activé. */
+    private final int[][] tamponsTri = new int[3][0];
+
+    /**
+     * Constructeur de la classe {@code Population}.
+     * <p>
+     * Initialise une nouvelle population vide.
+     * </p>
+     */
+    Population() {
+        this(Colonnes.surTas());
+    }
+
+    /**
+     * Initialise une nouvelle population vide, dont les humains sont rangés
+     * dans des colonnes données.
+     *
+     * @param col Les colonnes, vides et propres à cette population, par
+     *            exemple rangées hors du tas, voir {@link Colonnes#horsTas(java.nio.file.Path)}.
+     */
+    Population(Colonnes col) {
+        this.col = col;
+        naissances = new ColonnesSurTas();
+        bilan = new BilanRencontres();
+        deces = new BilanDeces();
+        position = new int[16];
+        libres = new int[16];
+        hommesFeconds = new EnsembleIndex();
+        femmesFeconds = new EnsembleIndex();
+    }
+
+    /**
+     * Définit l'écouteur prévenu des naissances, lors de l'intégration des
+     * bébés, et des décès, lors du vieillissement.
+     *
+     * @param ecouteur L'écouteur, ou {@code null} pour n'en prévenir aucun.
+     */
+    void setEcouteur(EcouteurSimulation ecouteur) {
+        this.ecouteur = ecouteur;
+    }
+
+    /**
+     * Conserve désormais la filiation de chaque humain ajouté à la population
+     * dans un registre, consultable une fois la simulation terminée.
+     * <p>
+     * Cette méthode doit être appelée avant d'ajouter le premier humain : le
+     * registre attribue lui-même les numéros, qui doivent se suivre.
+     * </p>
+     *
+     * @param genealogie Le registre, vide, ou {@code null} pour ne plus
+     *                   conserver les filiations.
+     */
+    void setGenealogie(Genealogie genealogie) {
+        this.genealogie = genealogie;
+    }
+
+    /**
+     * Définit le noyau qui calcule l'âge, le poids et les décès lors du
+     * vieillissement. Le résultat de la simulation n'en dépend pas.
+     *
+     * @param noyau Le noyau.
+     */
+    void setNoyau(NoyauVieillissement noyau) {
+        this.noyau = noyau;
+    }
+
+    /**
+     * Active ou désactive le recyclage des tampons du tri.
+     * <p>
+     * Sans recyclage, chaque tri de la population qui déplace des humains
+     * alloue de nouvelles colonnes et ses tableaux de comptage, soit une
+     * quarantaine d'octets par humain à chaque génération. Avec recyclage,
+     * ces tableaux sont conservés et réutilisés : une fois la population
+     * stabilisée, une génération n'alloue presque plus rien, au prix d'un
+     * second jeu de colonnes gardé en mémoire entre deux tris.
+     * </p>
+     *
+     * @param recyclage {@code true} pour conserver les tampons du tri,
+     *                  {@code false} pour les libérer.
+     */
+    void setRecyclage(boolean recyclage) {
+        this.recyclage = recyclage;
+        if (!recyclage) {
+            colonnesTri = null;
+            Arrays.fill(tamponsTri, new int[0]);
+        }
+    }
+
+    /**
+     * Obtient le registre des filiations.
+     *
+     * @return Le registre, ou {@code null} si les filiations ne sont pas
+     *         conservées.
+     */
+    public Genealogie getGenealogie() {
+        return genealogie;
+    }
+
+    /**
+     * Vide la population en supprimant tous les humains.
+     */
+    public void vider() {
+        col.vider();
+        naissances.vider();
+        Arrays.fill(position, 0, prochainePoignee, -1);
+        nbLibres = 0;
+        prochainePoignee = 0;
+        prochainId = 0;
+        if (genealogie != null) {
+            genealogie.vider();
+        }
+        tues.vider();
+        bebesTues.vider();
+        hommesFeconds.vider();
+        femmesFeconds.vider();
+    }
+
+    /**
+     * Remplace le contenu de cette population par une copie d'une autre
+     * population : humains, poignées, naissances en attente, ensembles
+     * d'humains féconds et bilan des rencontres. Les tableaux existants sont
+     * réutilisés lorsqu'ils sont assez grands. Le registre des filiations
+     * n'est pas copié.
+     *
+     * @param modele La population à copier.
+     */
+    void remplacerPar(Population modele) {
+        col.remplacerPar(modele.col);
+        naissances.remplacerPar(modele.naissances);
+        if (position.length < modele.position.length) {
+            position = new int[modele.position.length];
+        }
+        System.arraycopy(modele.position, 0, position, 0, modele.prochainePoignee);
+        Arrays.fill(position, modele.prochainePoignee, Math.max(prochainePoignee, modele.prochainePoignee), -1);
+        if (libres.length < modele.nbLibres) {
+            libres = new int[modele.libres.length];
+        }
+        System.arraycopy(modele.libres, 0, libres, 0, modele.nbLibres);
+        nbLibres = modele.nbLibres;
+        prochainePoignee = modele.prochainePoignee;
+        prochainId = modele.prochainId;
+        tues.remplacerPar(modele.tues);
+        bebesTues.remplacerPar(modele.bebesTues);
+        hommesFeconds.remplacerPar(modele.hommesFeconds);
+        femmesFeconds.remplacerPar(modele.femmesFeconds);
+        bilan.reinitialiser();
+        bilan.ajouter(modele.bilan);
+        deces.reinitialiser();
+        deces.ajouter(modele.deces);
+    }
+
+    /**
+     * Écrit la population dans un point de reprise : humains, naissances en
+     * attente, poignées, ensembles d'humains féconds et registre des
+     * filiations s'il y en a un. Les bilans des
+     * rencontres et des décès ne sont pas enregistrés.
+     *
+     * @param s La sortie du point de reprise.
+     */
+    void sauvegarder(PointDeReprise.Sortie s) {
+        col.sauvegarder(s);
+        naissances.sauvegarder(s);
+        s.entierLong(prochainId);
+        s.entier(prochainePoignee);
+        s.entiers(position, prochainePoignee);
+        s.entier(nbLibres);
+        s.entiers(libres, nbLibres);
+        hommesFeconds.sauvegarder(s);
+        femmesFeconds.sauvegarder(s);
+        s.entier(genealogie != null ? 1 : 0);
+        if (genealogie != null) {
+            genealogie.sauvegarder(s);
+        }
+    }
+
+    /**
+     * Remplace le contenu de la population par celui d'un point de reprise,
+     * voir {@link #sauvegarder(PointDeReprise.Sortie)}.
+     *
+     * @param e L'entrée du point de reprise.
+     */
+    void charger(PointDeReprise.Entree e) {
+        col.charger(e);
+        naissances.charger(e);
+        prochainId = e.entierLong();
+        prochainePoignee = e.entier();
+        position = new int[Math.max(16, prochainePoignee)];
+        Arrays.fill(position, -1);
+        e.entiers(position, prochainePoignee);
+        nbLibres = e.entier();
+        libres = new int[Math.max(16, nbLibres)];
+        e.entiers(libres, nbLibres);
+        hommesFeconds.charger(e);
+        femmesFeconds.charger(e);
+        if (e.entier() != 0) {
+            if (genealogie == null) {
+                genealogie = new Genealogie();
+            }
+            genealogie.charger(e);
+        } else {
+            genealogie = null;
+        }
+        bilan.reinitialiser();
+        deces.reinitialiser();
+    }
+
+    /**
+     * Ajoute un humain à la population.
+     * <p>
+     * Les attributs de l'humain sont copiés dans les colonnes de la population.
+     * </p>
+     *
+     * @param h L'humain à ajouter.
+     */
+    void addHumain(Humain h) {
+        int i = col.taille();
+        col.assurerCapacite(i + 1);
+        col.setTaille(i + 1);
+        col.ecrire(i, h);
+        attribuerId(i);
+        attribuerPoignee(i);
+        majFecondite(i);
+        if (h.isTue()) {
+            tuer(i);
+        }
+    }
+
+    /**
+     * Donne un numéro à l'humain à un index donné s'il n'en a pas encore.
+     * <p>
+     * Un humain qui revient dans la population garde son numéro ; les numéros
+     * donnés ensuite lui sont supérieurs.
+     * </p>
+     *
+     * @param index L'index de l'humain.
+     */
+    private void attribuerId(int index) {
+        if (col.id(index) < 0) {
+            col.setId(index, prochainId++);
+            if (genealogie != null) {
+                genealogie.ajouter(col.pere(index), col.mere(index), Colonnes.isMasculin(col.type(index)));
+            }
+        } else {
+            prochainId = Math.max(prochainId, col.id(index) + 1);
+        }
+    }
+
+    /**
+     * Obtient un humain à un index donné.
+     *
+     * @param index L'index de l'humain à récupérer.
+     * @return Une vue sur l'humain à l'index spécifié.
+     */
+    Humain getHumain(int index) {
+        Objects.checkIndex(index, col.taille());
+        return new HumainVue(this, col.poignee(index));
+    }
+
+    /**
+     * Obtient un humain à partir de sa poignée, en temps constant.
+     *
+     * @param poignee La poignée de l'humain.
+     * @return Une vue sur l'humain, ou {@code null} si la poignée n'est attribuée
+     *         à aucun humain de la population.
+     */
+    Humain getHumainPoignee(int poignee) {
+        int index = getIndexPoignee(poignee);
+        return index < 0 ? null : new HumainVue(this, poignee);
+    }
+
+    /**
+     * Obtient la poignée de l'humain à un index donné.
+     * <p>
+     * Contrairement à l'index, la poignée d'un humain ne change pas lorsque la
+     * population est triée ou que d'autres humains sont supprimés ; elle peut
+     * être réattribuée à un nouvel humain après sa mort.
+     * </p>
+     *
+     * @param index L'index de l'humain.
+     * @return La poignée de l'humain.
+     */
+    public int getPoignee(int index) {
+        Objects.checkIndex(index, col.taille());
+        return col.poignee(index);
+    }
+
+    /**
+     * Obtient les poignées de tous les humains de la population.
+     *
+     * @return Un nouveau tableau contenant la poignée de chaque humain, dans
+     *         l'ordre de la population.
+     */
+    public int[] getPoignees() {
+        int[] poignees = new int[col.taille()];
+        for (int i = 0; i < poignees.length; i++) {
+            poignees[i] = col.poignee(i);
+        }
+        return poignees;
+    }
+
+    /**
+     * Obtient l'index actuel d'un humain à partir de sa poignée, en temps
+     * constant.
+     *
+     * @param poignee La poignée de l'humain.
+     * @return L'index de l'humain, ou {@code -1} si la poignée n'est attribuée à
+     *         aucun humain de la population.
+     */
+    public int getIndexPoignee(int poignee) {
+        if (poignee < 0 || poignee >= prochainePoignee) {
+            return -1;
+        }
+        return position[poignee];
+    }
+
+    /**
+     * Supprime un humain de la population.
+     *
+     * @param h L'humain à supprimer.
+     * @return Une copie de l'humain supprimé, ou {@code null} si l'humain
+     *         n'appartient pas à la population.
+     */
+    Humain removeHumain(Humain h) {
+        int index = getIndex(h);
+        return index < 0 ? null : removeHumain(index);
+    }
+
+    /**
+     * Supprime un humain à un index donné.
+     *
+     * @param index L'index de l'humain à supprimer.
+     * @return Une copie de l'humain supprimé, détachée de la population.
+     */
+    Humain removeHumain(int index) {
+        Objects.checkIndex(index, col.taille());
+        Humain h = col.extraire(index);
+        retirerFecondite(index);
+        libererPoignee(col.poignee(index));
+        col.decaler(index + 1, index, col.taille() - index - 1);
+        col.setTaille(col.taille() - 1);
+        reindexer(index, col.taille());
+        return h;
+    }
+
+    /**
+     * Retire de la population des humains tirés au hasard, sans remise, et
+     * les ajoute à la fin de colonnes de migrants.
+     * <p>
+     * Les migrants ne sont pas comptés parmi les décès. Ils sont tirés par
+     * l'algorithme de Floyd, en autant de tirages que de migrants, puis les
+     * autres humains sont regroupés en un seul parcours, plage par plage, sans
+     * changer d'ordre.
+     * </p>
+     *
+     * @param nombre   Le nombre de migrants, borné par la taille de la
+     *                 population.
+     * @param loto     Le générateur de nombres aléatoires à utiliser.
+     * @param migrants Les colonnes qui reçoivent les migrants.
+     * @return Le nombre de migrants.
+     */
+    int emigrer(int nombre, RandomGenerator loto, ColonnesSurTas migrants) {
+        Colonnes c = col;
+        int n = c.taille();
+        nombre = Math.min(nombre, n);
+        if (nombre <= 0) {
+            return 0;
+        }
+        EnsembleBits choisis = new EnsembleBits();
+        for (int j = n - nombre; j < n; j++) {
+            if (!choisis.ajouter(loto.nextInt(j + 1))) {
+                choisis.ajouter(j);
+            }
+        }
+
+        migrants.assurerCapacite(migrants.taille + nombre);
+        int w = 0;
+        int debut = 0;
+        for (int i = 0; i < n; i++) {
+            if (!choisis.contient(i)) {
+                continue;
+            }
+            migrants.copierDepuis(c, i, migrants.taille);
+            migrants.nom[migrants.taille++] = c.nom(i);
+            retirerFecondite(i);
+            libererPoignee(c.poignee(i));
+            if (w != debut) {
+                c.decaler(debut, w, i - debut);
+            }
+            w += i - debut;
+            debut = i + 1;
+        }
+        if (w != debut) {
+            c.decaler(debut, w, n - debut);
+        }
+        w += n - debut;
+        c.setTaille(w);
+        reindexer(0, w);
+        return nombre;
+    }
+
+    /**
+     * Ajoute à la fin de la population des humains venus d'une autre
+     * population, retirés par {@link #emigrer}.
+     * <p>
+     * Les numéros n'étant uniques qu'au sein d'une population, chaque migrant
+     * reçoit un nouveau numéro et garde son nom ; les numéros de ses parents
+     * restent ceux de sa population d'origine.
+     * </p>
+     *
+     * @param migrants Les migrants.
+     */
+    void immigrer(ColonnesSurTas migrants) {
+        col.assurerCapacite(col.taille() + migrants.taille);
+        for (int k = 0; k < migrants.taille; k++) {
+            int i = col.taille();
+            col.setTaille(i + 1);
+            col.copierDepuis(migrants, k, i);
+            col.setId(i, -1);
+            attribuerId(i);
+            attribuerPoignee(i);
+            majFecondite(i);
+        }
+    }
+
+    /**
+     * Obtient la taille de la population.
+     *
+     * @return Le nombre d'humains dans la population.
+     */
+    public int taille() {
+        return col.taille();
+    }
+
+    /**
+     * Fait vieillir tous les humains de la population.
+     * <p>
+     * Les garçons et les filles de 17 ans deviennent des hommes et des femmes,
+     * puis les humains morts sont retirés de la population. Tout se fait en un
+     * seul parcours : chaque survivant est recopié à la suite du précédent, si
+     * bien que le coût reste linéaire quel que soit le nombre de morts.
+     * </p>
+     * <p>
+     * Cette méthode traite la population comme un seul {@link Bloc} ; voir
+     * {@link MoteurParallele} pour un vieillissement réparti sur plusieurs
+     * threads.
+     * </p>
+     *
+     * @throws PopulationException Si la population est vide ou ne contient que des
+     *                             hommes ou que des femmes.
+     */
+    public void vieillir() throws PopulationException {
+        verifierViabilite();
+
+        Bloc b = new Bloc();
+        b.preparer(0, col.taille());
+        vieillirBloc(b, Humain.loto());
+        compacter(new Bloc[] { b }, 1);
+        reindexer(0, col.taille());
+        appliquer(b);
+    }
+
+    /**
+     * Vérifie que la population peut encore vieillir et se reproduire.
+     *
+     * @throws PopulationException Si la population est vide ou ne contient que des
+     *                             hommes ou que des femmes.
+     */
+    void verifierViabilite() throws PopulationException {
+        if (this.taille() <= 1) {
+            throw new PopulationException(this);
+        }
+        if (onlyMen() || onlyWomen()) {
+            throw new PopulationException(this);
+        }
+    }
+
+    /**
+     * Fait vieillir les humains d'un bloc et regroupe les survivants au début du
+     * bloc.
+     * <p>
+     * Seules les colonnes comprises dans le bloc sont modifiées : les morts et
+     * les changements de fécondité sont consignés dans le bloc, pour être
+     * appliqués plus tard par {@link #appliquer(Bloc)}. Des blocs disjoints
+     * peuvent donc être traités en parallèle.
+     * </p>
+     * <p>
+     * L'âge, le poids et les marques des morts et des changements de
+     * fécondité sont calculés d'un seul tenant par le
+     * {@link NoyauVieillissement noyau}. Un second parcours fait ensuite les
+     * tirages au sort, humain par humain dans l'ordre du bloc, puis les
+     * survivants sont regroupés plage par plage.
+     * </p>
+     *
+     * @param b    Le bloc à faire vieillir.
+     * @param loto Le générateur de nombres aléatoires propre au bloc.
+     */
+    void vieillirBloc(Bloc b, RandomGenerator loto) {
+        Colonnes c = col;
+        byte[] marques = b.marques(b.a - b.de);
+        c.vieillir(noyau, b.de, b.a, marques);
+
+        boolean tuesAuHasard = tues.taille() > 0;
+        for (int i = b.de; i < b.a; i++) {
+            if (tuesAuHasard && tues.contient(c.poignee(i))) {
+                marques[i - b.de] = NoyauVieillissement.MORT;
+                continue;
+            }
+            byte t = c.type(i);
+            int a = c.age(i);
+            if (Colonnes.isMasculin(t)) {
+                if (a == 18 && t == Colonnes.GARCON) {
+                    promouvoir(i, loto);
+                    marquerMort(i, marques, b.de);
+                }
+                if (a == 18) {
+                    c.setSalaire(i, Homme.tirerSalaire(loto));
+                }
+                c.setFertilite(i, Homme.batifolagePourAge(a, c.fertilite(i), loto));
+            } else if (a == 18 && t == Colonnes.FILLE) {
+                promouvoir(i, loto);
+                marquerMort(i, marques, b.de);
+            } else if (a == 15) {
+                c.setFertilite(i, Femme.tirerFertilite(loto));
+            }
+        }
+
+        int w = b.de;
+        int debut = b.de;
+        for (int i = b.de; i < b.a; i++) {
+            int m = marques[i - b.de];
+            if (m == 0) {
+                continue;
+            }
+            if ((m & NoyauVieillissement.MORT) != 0) {
+                int cause = tuesAuHasard && tues.contient(c.poignee(i)) ? BilanDeces.HASARD
+                        : c.age(i) > c.esperanceVie(i) ? BilanDeces.VIEILLESSE : BilanDeces.MAIGREUR;
+                b.mourir(c.poignee(i), c.id(i), c.nomDonne(i), cause);
+                b.deces.enregistrer(cause);
+                if (w != debut) {
+                    c.decaler(debut, w, i - debut);
+                }
+                w += i - debut;
+                debut = i + 1;
+            } else {
+                b.changer(c.poignee(i));
+            }
+        }
+        if (w != debut) {
+            c.decaler(debut, w, b.a - debut);
+        }
+        w += b.a - debut;
+        b.survivants = w - b.de;
+    }
+
+    /**
+     * Réévalue la marque de mort d'un humain dont l'espérance de vie vient
+     * d'être tirée à nouveau.
+     *
+     * @param i       L'index de l'humain.
+     * @param marques Les marques du bloc.
+     * @param de      Le premier index du bloc.
+     */
+    private void marquerMort(int i, byte[] marques, int de) {
+        boolean mort = col.age(i) > col.esperanceVie(i) || col.poids(i) < 0;
+        marques[i - de] = (byte) (mort ? marques[i - de] | NoyauVieillissement.MORT
+                : marques[i - de] & ~NoyauVieillissement.MORT);
+    }
+
+    /**
+     * Rassemble les survivants de blocs consécutifs au début de la population.
+     * <p>
+     * Après l'appel, chaque bloc désigne la plage qu'occupent ses survivants ;
+     * les positions des poignées restent à mettre à jour.
+     * </p>
+     *
+     * @param blocs  Les blocs qui couvrent la population, dans l'ordre.
+     * @param nbBlocs Le nombre de blocs utilisés.
+     */
+    void compacter(Bloc[] blocs, int nbBlocs) {
+        Colonnes c = col;
+        int n = c.taille();
+        int w = 0;
+        for (int k = 0; k < nbBlocs; k++) {
+            Bloc b = blocs[k];
+            if (b.de != w) {
+                c.decaler(b.de, w, b.survivants);
+            }
+            b.de = w;
+            b.a = w + b.survivants;
+            w = b.a;
+        }
+        c.setTaille(w);
+    }
+
+    /**
+     * Applique à la population les effets consignés dans un bloc : poids des
+     * pères, morts, changements de fécondité, bébés nés, issues des rencontres et causes des
+     * décès.
+     * <p>
+     * Cette méthode modifie des structures partagées et doit être appelée par
+     * un seul thread, pour chaque bloc dans l'ordre.
+     * </p>
+     *
+     * @param b Le bloc dont les effets doivent être appliqués.
+     */
+    void appliquer(Bloc b) {
+        for (int k = 0; k < b.nbPeres; k++) {
+            int i = position[b.peres[k]];
+            col.setPoids(i, col.poids(i) - b.pertesPeres[k]);
+        }
+        for (int k = 0; k < b.nbMorts; k++) {
+            if (ecouteur != null) {
+                ecouteur.deces(b.idsMorts[k], b.nomsMorts[k], b.causesMorts[k]);
+            }
+            hommesFeconds.retirer(b.morts[k]);
+            femmesFeconds.retirer(b.morts[k]);
+            libererPoignee(b.morts[k]);
+        }
+        for (int k = 0; k < b.nbChangements; k++) {
+            majFecondite(position[b.changements[k]]);
+        }
+        ColonnesSurTas bebes = b.naissances;
+        naissances.assurerCapacite(naissances.taille + bebes.taille);
+        for (int k = 0; k < bebes.taille; k++) {
+            naissances.copierDepuis(bebes, k, naissances.taille++);
+        }
+        bilan.ajouter(b.bilan);
+        deces.ajouter(b.deces);
+    }
+
+    /**
+     * Fait vieillir d'un an l'humain à un index donné.
+     * <p>
+     * Applique les mêmes règles que {@link Homme#vieillir()} et
+     * {@link Femme#vieillir()} directement sur les colonnes.
+     * </p>
+     *
+     * @param i    L'index de l'humain à faire vieillir.
+     * @param loto Le générateur de nombres aléatoires à utiliser.
+     */
+    void vieillir(int i, RandomGenerator loto) {
+        Colonnes c = col;
+        int a = c.age(i) + 1;
+        c.setAge(i, a);
+        if (Colonnes.isMasculin(c.type(i))) {
+            if (a == 18) {
+                c.setSalaire(i, Homme.tirerSalaire(loto));
+            }
+            c.setFertilite(i, Homme.batifolagePourAge(a, c.fertilite(i), loto));
+            c.setPoids(i, Homme.poidsPourAge(a, c.poids(i)));
+        } else {
+            if (a == 15) {
+                c.setFertilite(i, Femme.tirerFertilite(loto));
+            }
+            c.setPoids(i, Femme.poidsPourAge(a, c.poids(i)));
+        }
+    }
+
+    /**
+     * Fait passer un garçon à l'état d'homme, ou une fille à l'état de femme.
+     * <p>
+     * Comme lors de la création d'un nouvel adulte, l'espérance de vie est
+     * tirée à nouveau et le batifolage d'un homme est remis à zéro.
+     * </p>
+     *
+     * @param i    L'index de l'enfant à promouvoir.
+     * @param loto Le générateur de nombres aléatoires à utiliser.
+     */
+    void promouvoir(int i, RandomGenerator loto) {
+        Colonnes c = col;
+        if (c.type(i) == Colonnes.GARCON) {
+            c.setType(i, Colonnes.HOMME);
+            c.setFertilite(i, 0);
+            c.setEsperanceVie(i, Homme.tirerEsperanceVie(loto));
+        } else {
+            c.setType(i, Colonnes.FEMME);
+            c.setEsperanceVie(i, Femme.tirerEsperanceVie(loto));
+        }
+    }
+
+    /**
+     * Vérifie si l'humain à un index donné est mort.
+     *
+     * @param i L'index de l'humain.
+     * @return {@code true} si l'humain est mort, {@code false} sinon.
+     */
+    boolean isDead(int i) {
+        return estTue(i) || col.age(i) > col.esperanceVie(i) || col.poids(i) < 0;
+    }
+
+    /**
+     * Indique si l'humain à un index donné a été tué au hasard depuis le
+     * dernier vieillissement.
+     *
+     * @param i L'index de l'humain.
+     * @return {@code true} si l'humain a été tué.
+     */
+    boolean estTue(int i) {
+        return tues.taille() > 0 && tues.contient(col.poignee(i));
+    }
+
+    /**
+     * Affiche la population et le nombre d'individus.
+     */
+    public void print() {
+        for (int i = 0; i < col.taille(); i++) {
+            System.out.println(decrire(i));
+        }
+        System.out.println("Population de : " + col.taille() + " individus");
+    }
+
+    /**
+     * Écrit l'état de la population dans un rapport : tous les humains, un
+     * échantillon ou aucun selon le niveau du rapport, puis la taille de la
+     * population.
+     *
+     * @param r Le rapport où écrire.
+     */
+    public void rapporter(Rapport r) {
+        int pas = r.accepte(Rapport.Niveau.COMPLET) ? 1 : r.getPasEchantillon();
+        if (r.accepte(Rapport.Niveau.ECHANTILLON)) {
+            for (int i = 0; i < col.taille(); i += pas) {
+                r.ligne(decrire(i));
+            }
+        }
+        r.ligne("Population de : " + col.taille() + " individus");
+    }
+
+    /**
+     * Retourne une représentation textuelle de l'humain à un index donné,
+     * identique à celle de la classe {@link Humain} correspondant à son type.
+     *
+     * @param i L'index de l'humain.
+     * @return Une chaîne de caractères décrivant l'humain.
+     */
+    String decrire(int i) {
+        Colonnes c = col;
+        StringBuilder sb = new StringBuilder(96);
+        sb.append("Age : ").append(c.age(i))
+                .append(" | Poids : ").append(c.poids(i))
+                .append(" | Nom : ").append(c.nom(i))
+                .append(" | Esperance de vie : ").append(c.esperanceVie(i));
+        switch (c.type(i)) {
+            case Colonnes.GARCON:
+                sb.append(" | Salaire : ").append(c.salaire(i)).append(" | Garçon");
+                break;
+            case Colonnes.HOMME:
+                sb.append(" | Salaire : ").append(c.salaire(i));
+                break;
+            case Colonnes.FILLE:
+                sb.append(" | Femme | Fille");
+                break;
+            default:
+                sb.append(" | Femme");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Obtient la liste des humains dans la population.
+     * <p>
+     * La liste retournée est une vue : la lire ou en retirer un élément
+     * agit directement sur la population.
+     * </p>
+     *
+     * @return La liste des humains.
+     */
+    List<Humain> getPop() {
+        return new AbstractList<Humain>() {
+            @Override
+            public Humain get(int index) {
+                return getHumain(index);
+            }
+
+            @Override
+            public Humain remove(int index) {
+                return removeHumain(index);
+            }
+
+            @Override
+            public int size() {
+                return col.taille();
+            }
+        };
+    }
+
+    /**
+     * Trie la population par âge, puis les femmes avant les hommes, puis les
+     * hommes par salaire.
+     * <p>
+     * Tout le monde vieillissant d'un an à chaque génération, l'ordre change à
+     * peine d'une génération à l'autre : seuls les bébés, ajoutés en fin de
+     * population, et les hommes qui viennent de recevoir un salaire ne sont
+     * pas à leur place. La méthode vérifie donc d'abord, en un parcours, si la
+     * population est déjà triée ; sinon, elle la trie par deux tris par
+     * comptage stables (salaire, puis âge et sexe), en temps linéaire.
+     * </p>
+     */
+    public void trierPop() {
+        Colonnes c = col;
+        int n = c.taille();
+        if (estTriee()) {
+            return;
+        }
+
+        int maxAge = 0;
+        int maxSalaire = 0;
+        for (int i = 0; i < n; i++) {
+            maxAge = Math.max(maxAge, c.age(i));
+            maxSalaire = Math.max(maxSalaire, c.salaire(i));
+        }
+
+        // Premier tri : par salaire (nul pour les femmes et les enfants).
+        int nbSalaires = maxSalaire + 2;
+        int[] compte = tamponTri(0, nbSalaires);
+        for (int i = 0; i < n; i++) {
+            compte[c.salaire(i) + 1]++;
+        }
+        for (int k = 1; k < nbSalaires; k++) {
+            compte[k] += compte[k - 1];
+        }
+        int[] parSalaire = tamponTri(1, n);
+        for (int i = 0; i < n; i++) {
+            parSalaire[compte[c.salaire(i)]++] = i;
+        }
+
+        // Second tri, stable : par âge, puis les femmes avant les hommes.
+        int nbCles = 2 * (maxAge + 1) + 1;
+        compte = tamponTri(0, nbCles);
+        for (int i = 0; i < n; i++) {
+            compte[cleTri(i) + 1]++;
+        }
+        for (int k = 1; k < nbCles; k++) {
+            compte[k] += compte[k - 1];
+        }
+        int[] ordre = tamponTri(2, n);
+        for (int k = 0; k < n; k++) {
+            int i = parSalaire[k];
+            ordre[compte[cleTri(i)]++] = i;
+        }
+
+        if (recyclage) {
+            if (colonnesTri == null) {
+                colonnesTri = c.creerTampon();
+            }
+            c.permuter(ordre, colonnesTri);
+        } else {
+            c.permuter(ordre);
+        }
+        reindexer(0, n);
+    }
+
+    /**
+     * Fournit un tableau de travail du tri, dont les {@code n} premières cases
+     * sont nulles : un tableau neuf sans recyclage, sinon le tableau conservé
+     * sous le même numéro, agrandi au besoin.
+     *
+     * @param k Le numéro du tableau de travail.
+     * @param n La taille minimale du tableau.
+     * @return Le tableau de travail.
+     */
+    private int[] tamponTri(int k, int n) {
+        if (!recyclage) {
+            return new int[n];
+        }
+        int[] t = tamponsTri[k];
+        if (t.length < n) {
+            t = new int[Math.max(n, t.length + (t.length >> 1))];
+            tamponsTri[k] = t;
+        } else {
+            Arrays.fill(t, 0, n, 0);
+        }
+        return t;
+    }
+
+    /**
+     * Indique si la population est triée dans l'ordre de {@link #trierPop()}.
+     *
+     * @return {@code true} si la population est triée.
+     */
+    boolean estTriee() {
+        Colonnes c = col;
+        for (int i = 1; i < c.taille(); i++) {
+            int d = cleTri(i - 1) - cleTri(i);
+            if (d > 0 || (d == 0 && c.salaire(i - 1) > c.salaire(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retourne la clé de tri par âge et par sexe de l'humain à un index donné.
+     *
+     * @param i L'index de l'humain.
+     * @return Le double de l'âge, plus 1 pour un homme ou un garçon.
+     */
+    private int cleTri(int i) {
+        return 2 * col.age(i) + (Colonnes.isMasculin(col.type(i)) ? 1 : 0);
+    }
+
+    /**
+     * Ajoute un humain à un index donné.
+     *
+     * @param index L'index où l'humain doit être ajouté.
+     * @param h     L'humain à ajouter.
+     */
+    void addHumainIndex(int index, Humain h) {
+        Objects.checkIndex(index, col.taille() + 1);
+        col.assurerCapacite(col.taille() + 1);
+        col.setTaille(col.taille() + 1);
+        col.decaler(index, index + 1, col.taille() - index - 1);
+        col.ecrire(index, h);
+        attribuerId(index);
+        attribuerPoignee(index);
+        majFecondite(index);
+        if (h.isTue()) {
+            tuer(index);
+        }
+        reindexer(index + 1, col.taille());
+    }
+
+    /**
+     * Vérifie si la population ne contient que des hommes.
+     *
+     * @return {@code true} si la population ne contient que des hommes, sinon
+     *         {@code false}.
+     */
+    public boolean onlyMen() {
+        for (int i = 0; i < col.taille(); i++) {
+            if (!Colonnes.isMasculin(col.type(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Vérifie si la population ne contient que des femmes.
+     *
+     * @return {@code true} si la population ne contient que des femmes, sinon
+     *         {@code false}.
+     */
+    public boolean onlyWomen() {
+        for (int i = 0; i < col.taille(); i++) {
+            if (Colonnes.isMasculin(col.type(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Effectue une rencontre entre deux humains de la population.
+     * <p>
+     * Les règles sont celles de {@link Homme#rencontre(Humain)} lorsque le
+     * premier humain est un homme, et celles de {@link Femme#rencontre(Humain)}
+     * sinon. Cette méthode est une enveloppe de {@link #rencontrer(int, int)}
+     * conservée pour les appelants qui attendent une exception.
+     * </p>
+     *
+     * @param index1 L'index du premier humain.
+     * @param index2 L'index du deuxième humain.
+     * @return Le bébé résultant de la rencontre, qui n'est pas ajouté à la
+     *         population.
+     * @throws BreedingForbiddenException Si la naissance est impossible à cause
+     *                                    d'une condition non respectée.
+     * @throws NoBreedingException        Si la rencontre ne mène pas à une
+     *                                    naissance en raison de la fertilité.
+     */
+    Humain rencontre(int index1, int index2) throws BreedingForbiddenException, NoBreedingException {
+        int issue = rencontrer(index1, index2);
+        boolean homme = Colonnes.isMasculin(col.type(index1));
+        Rencontre.lever(issue, getHumain(index1), getHumain(index2),
+                getHumain(homme ? index1 : index2), getHumain(homme ? index2 : index1));
+
+        int dernier = naissances.taille - 1;
+        Humain bebe = naissances.extraire(dernier);
+        naissances.taille = dernier;
+        naissances.nom[dernier] = null;
+        return bebe;
+    }
+
+    /**
+     * Effectue une rencontre entre deux humains de la population sans lever
+     * d'exception.
+     * <p>
+     * En cas de naissance, le bébé est ajouté aux naissances en attente, voir
+     * {@link #integrerNaissances()}. Chaque rencontre est comptabilisée dans le
+     * {@link BilanRencontres} de la population.
+     * </p>
+     *
+     * @param index1 L'index de l'humain qui rencontre.
+     * @param index2 L'index de l'humain rencontré.
+     * @return Le code d'issue de la rencontre, voir {@link Rencontre}.
+     */
+    int rencontrer(int index1, int index2) {
+        int issue = rencontrer(index1, index2, Humain.loto(), naissances, bilan);
+        if (issue == Rencontre.NAISSANCE) {
+            majFecondite(index1);
+            majFecondite(index2);
+        }
+        return issue;
+    }
+
+    /**
+     * Effectue une rencontre entre deux humains sans modifier d'autre humain
+     * que les deux concernés, ni les ensembles d'humains féconds.
+     * <p>
+     * L'appelant doit réévaluer la fécondité des deux humains après une
+     * naissance, leur poids ayant changé.
+     * </p>
+     *
+     * @param index1     L'index de l'humain qui rencontre.
+     * @param index2     L'index de l'humain rencontré.
+     * @param loto       Le générateur de nombres aléatoires à utiliser.
+     * @param naissances Les colonnes où ajouter le bébé en cas de naissance.
+     * @param bilan      Le bilan où comptabiliser la rencontre.
+     * @return Le code d'issue de la rencontre, voir {@link Rencontre}.
+     */
+    int rencontrer(int index1, int index2, RandomGenerator loto, ColonnesSurTas naissances, BilanRencontres bilan) {
+        Colonnes c = col;
+        boolean homme = Colonnes.isMasculin(c.type(index1));
+        int iHomme = homme ? index1 : index2;
+        int iFemme = homme ? index2 : index1;
+
+        int issue = estTue(index1) || estTue(index2) ? Rencontre.AGE
+                : Rencontre.verifier(homme, c.age(index1), c.poids(index1),
+                        Colonnes.isMasculin(c.type(index2)), c.age(index2), c.poids(index2));
+        if (issue == Rencontre.NAISSANCE) {
+            issue = Rencontre.tirerFecondite(c.fertilite(iHomme), c.fertilite(iFemme), loto);
+        }
+        bilan.enregistrer(issue);
+        if (issue != Rencontre.NAISSANCE) {
+            return issue;
+        }
+
+        c.setPoids(iHomme, c.poids(iHomme) - naitre(iHomme, iFemme, homme, loto, naissances));
+        c.setPoids(iFemme, c.poids(iFemme) - 10);
+        return Rencontre.NAISSANCE;
+    }
+
+    /**
+     * Ajoute aux naissances le bébé d'un couple, et tire la variation du poids
+     * du père, sans la lui appliquer.
+     *
+     * @param iHomme     L'index du père.
+     * @param iFemme     L'index de la mère.
+     * @param initiative {@code true} si le père est à l'initiative de la
+     *                   rencontre.
+     * @param loto       Le générateur de nombres aléatoires à utiliser.
+     * @param naissances Les colonnes où ajouter le bébé.
+     * @return Le poids que perd le père, négatif s'il en gagne.
+     */
+    int naitre(int iHomme, int iFemme, boolean initiative, RandomGenerator loto, ColonnesSurTas naissances) {
+        Colonnes c = col;
+        int p = loto.nextInt(101);
+        if (p < 50) {
+            naissances.ajouter(Colonnes.GARCON, 0, 3, Homme.tirerEsperanceVie(loto), 0, 0, c.id(iHomme), c.id(iFemme));
+        } else {
+            naissances.ajouter(Colonnes.FILLE, 0, 3, Femme.tirerEsperanceVie(loto), 0, 0, c.id(iHomme), c.id(iFemme));
+        }
+        return initiative ? loto.nextInt(-10, 10) : loto.nextInt(21);
+    }
+
+    /**
+     * Obtient le nombre de bébés nés depuis le dernier appel à
+     * {@link #integrerNaissances()}.
+     *
+     * @return Le nombre de naissances en attente.
+     */
+    public int nbNaissances() {
+        return naissances.taille;
+    }
+
+    /**
+     * TUE l'humain à un index donné, comme {@link Humain#tuer()}.
+     * <p>
+     * L'humain est marqué dans un ensemble de bits plutôt que retiré : il ne
+     * peut plus se reproduire et sera retiré, avec les autres morts, au
+     * prochain vieillissement, sans décaler la population entre-temps.
+     * </p>
+     *
+     * @param index L'index de l'humain à tuer.
+     */
+    public void tuer(int index) {
+        Objects.checkIndex(index, col.taille());
+        tues.ajouter(col.poignee(index));
+        retirerFecondite(index);
+    }
+
+    /**
+     * TUE un bébé en attente d'intégration ; il ne sera pas intégré à la
+     * population.
+     *
+     * @param index L'index du bébé parmi les naissances en attente.
+     */
+    public void tuerNaissance(int index) {
+        Objects.checkIndex(index, naissances.taille);
+        bebesTues.ajouter(index);
+    }
+
+    /**
+     * TUE au hasard un humain de la population ou un bébé en attente
+     * d'intégration.
+     *
+     * @param loto Le générateur de nombres aléatoires à utiliser.
+     */
+    void tuerAuHasard(RandomGenerator loto) {
+        int valMort = loto.nextInt(nbNaissances() + taille() - 1);
+        if (valMort >= taille()) {
+            valMort %= taille();
+            tuerNaissance(valMort);
+        } else {
+            tuer(valMort);
+        }
+    }
+
+    /**
+     * Ajoute à la population les bébés nés depuis le dernier appel, à
+     * l'exception de ceux qui ont été tués.
+     * <p>
+     * Les bébés reçoivent leur numéro ici, dans l'ordre des naissances, et non
+     * au moment de leur conception : les numéros ne dépendent donc pas du
+     * nombre de threads.
+     * </p>
+     */
+    public void integrerNaissances() {
+        ColonnesSurTas b = naissances;
+        col.assurerCapacite(col.taille() + b.taille);
+        boolean tuesAuHasard = bebesTues.taille() > 0;
+        for (int k = 0; k < b.taille; k++) {
+            if (!tuesAuHasard || !bebesTues.contient(k)) {
+                int i = col.taille();
+                col.setTaille(i + 1);
+                col.copierDepuis(b, k, i);
+                col.setId(i, prochainId++);
+                if (genealogie != null) {
+                    genealogie.ajouter(b.pere[k], b.mere[k], Colonnes.isMasculin(b.type[k]));
+                }
+                if (ecouteur != null) {
+                    ecouteur.naissance(col.id(i), b.pere[k], b.mere[k]);
+                }
+                attribuerPoignee(i);
+            } else {
+                deces.enregistrer(BilanDeces.HASARD);
+            }
+        }
+        b.vider();
+        bebesTues.vider();
+    }
+
+    /**
+     * Obtient le bilan des rencontres effectuées dans la population.
+     *
+     * @return Le bilan des rencontres.
+     */
+    public BilanRencontres getBilan() {
+        return bilan;
+    }
+
+    /**
+     * Obtient le bilan des décès survenus dans la population.
+     *
+     * @return Le bilan des décès.
+     */
+    BilanDeces getDeces() {
+        return deces;
+    }
+
+    /**
+     * Effectue une rencontre entre deux humains désignés par leur poignée, sans
+     * lever d'exception.
+     *
+     * @param poignee1 La poignée de l'humain qui rencontre.
+     * @param poignee2 La poignée de l'humain rencontré.
+     * @return Le code d'issue de la rencontre, voir {@link Rencontre}.
+     */
+    int rencontrerPoignees(int poignee1, int poignee2) {
+        return rencontrer(position[poignee1], position[poignee2]);
+    }
+
+    /**
+     * Obtient le nombre d'hommes en âge et en poids de procréer, en temps
+     * constant.
+     *
+     * @return Le nombre d'hommes féconds.
+     */
+    public int nbHommesFeconds() {
+        return hommesFeconds.taille();
+    }
+
+    /**
+     * Obtient le nombre de femmes en âge et en poids de procréer, en temps
+     * constant.
+     *
+     * @return Le nombre de femmes fécondes.
+     */
+    public int nbFemmesFeconds() {
+        return femmesFeconds.taille();
+    }
+
+    /**
+     * Tire au hasard la poignée d'un homme en âge et en poids de procréer.
+     *
+     * @param loto Le générateur de nombres aléatoires à utiliser.
+     * @return La poignée d'un homme fécond.
+     */
+    public int tirerHommeFecond(RandomGenerator loto) {
+        return hommesFeconds.tirer(loto);
+    }
+
+    /**
+     * Tire au hasard la poignée d'une femme en âge et en poids de procréer.
+     *
+     * @param loto Le générateur de nombres aléatoires à utiliser.
+     * @return La poignée d'une femme féconde.
+     */
+    public int tirerFemmeFeconde(RandomGenerator loto) {
+        return femmesFeconds.tirer(loto);
+    }
+
+    /**
+     * Obtient les poignées des hommes en âge et en poids de procréer.
+     *
+     * @return Un nouveau tableau contenant les poignées des hommes féconds.
+     */
+    public int[] getHommesFeconds() {
+        return hommesFeconds.copier();
+    }
+
+    /**
+     * Obtient les poignées des femmes en âge et en poids de procréer.
+     *
+     * @return Un nouveau tableau contenant les poignées des femmes fécondes.
+     */
+    public int[] getFemmesFeconds() {
+        return femmesFeconds.copier();
+    }
+
+    /**
+     * Met à jour l'appartenance de l'humain à un index donné aux ensembles
+     * {@link #hommesFeconds} et {@link #femmesFeconds}, après une modification
+     * de son âge ou de son poids.
+     *
+     * @param index L'index de l'humain.
+     */
+    void majFecondite(int index) {
+        Colonnes c = col;
+        EnsembleIndex e = Colonnes.isMasculin(c.type(index)) ? hommesFeconds : femmesFeconds;
+        if (Rencontre.isFecond(c.age(index), c.poids(index))) {
+            e.ajouter(c.poignee(index));
+        } else {
+            e.retirer(c.poignee(index));
+        }
+    }
+
+    /**
+     * Retire l'humain à un index donné des ensembles d'humains féconds.
+     *
+     * @param index L'index de l'humain.
+     */
+    private void retirerFecondite(int index) {
+        EnsembleIndex e = Colonnes.isMasculin(col.type(index)) ? hommesFeconds : femmesFeconds;
+        e.retirer(col.poignee(index));
+    }
+
+    /**
+     * Obtient l'index d'un humain donné, en temps constant.
+     *
+     * @param h L'humain dont l'index doit être trouvé.
+     * @return L'index de l'humain, ou {@code -1} si l'humain n'appartient pas à
+     *         la population.
+     */
+    int getIndex(Humain h) {
+        if (h instanceof HumainVue && ((HumainVue) h).getPopulation() == this) {
+            return getIndexPoignee(((HumainVue) h).getPoignee());
+        }
+        return -1;
+    }
+
+    /**
+     * Attribue une poignée libre à l'humain à un index donné.
+     *
+     * @param index L'index de l'humain.
+     */
+    private void attribuerPoignee(int index) {
+        int p;
+        if (nbLibres > 0) {
+            p = libres[--nbLibres];
+        } else {
+            p = prochainePoignee++;
+            if (p >= position.length) {
+                position = Arrays.copyOf(position, position.length * 2);
+            }
+        }
+        position[p] = index;
+        col.setPoignee(index, p);
+    }
+
+    /**
+     * Libère une poignée pour qu'elle puisse être réattribuée.
+     *
+     * @param p La poignée à libérer.
+     */
+    private void libererPoignee(int p) {
+        position[p] = -1;
+        tues.retirer(p);
+        if (nbLibres == libres.length) {
+            libres = Arrays.copyOf(libres, libres.length * 2);
+        }
+        libres[nbLibres++] = p;
+    }
+
+    /**
+     * Met à jour la position des humains dont l'index a changé.
+     *
+     * @param de L'index du premier humain déplacé.
+     * @param a  L'index qui suit le dernier humain déplacé.
+     */
+    void reindexer(int de, int a) {
+        for (int i = de; i < a; i++) {
+            position[col.poignee(i)] = i;
+        }
+    }
+}
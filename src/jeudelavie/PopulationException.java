@@ -1,3 +1,5 @@
+package jeudelavie;
+
 /**
  * Classe représentant une exception liée à une population.
  * <p>
@@ -5,7 +7,7 @@
  * qui peuvent survenir lors de la gestion d'une population d'humains.
  * </p>
  */
-class PopulationException extends Exception {
+public class PopulationException extends Exception {
 
     /** L'objet population associé à l'exception. */
     Population pop;
@@ -20,6 +22,16 @@ class PopulationException extends Exception {
         this.pop = pop;
     }
 
+    /**
+     * Constructeur de la classe {@code PopulationException} pour une population
+     * qui n'est pas représentée par un objet {@link Population}.
+     *
+     * @param message Le message décrivant le type d'erreur de population.
+     */
+    public PopulationException(String message) {
+        super(message);
+    }
+
     /**
      * Obtient un message d'erreur spécifique en fonction de l'état de la
      * population.
@@ -28,6 +40,9 @@ class PopulationException extends Exception {
      */
     @Override
     public String getMessage() {
+        if (pop == null) {
+            return super.getMessage();
+        }
         if (pop.taille() <= 1) {
             return "population is empty";
         }
@@ -0,0 +1,248 @@
+package jeudelavie;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Affichage de l'état de la simulation, génération après génération.
+ * <p>
+ * Les lignes sont regroupées en lots, déposés dans une file bornée ; un thread
+ * d'écriture vide cette file dans un flux tamponné, si bien que la simulation
+ * n'attend la console ou le disque que lorsque la file est pleine. Au niveau
+ * {@link Niveau#ECHANTILLON}, dont les lignes ne sont qu'un aperçu, les lots
+ * qui ne trouvent pas de place dans la file sont abandonnés plutôt que de
+ * bloquer la simulation, et leur nombre est signalé à la fermeture ; aux
+ * niveaux {@link Niveau#RESUME} et {@link Niveau#COMPLET}, aucune ligne n'est
+ * perdue : la simulation attend que la file se libère.
+ * </p>
+ * <p>
+ * Le {@link Niveau niveau} du rapport fixe ce qui est affiché : le résumé de
+ * chaque génération, un échantillon des humains, ou toute la population et
+ * tous les décès.
+ * </p>
+ */
+public final class Rapport implements AutoCloseable {
+
+    /**
+     * Niveau de détail d'un rapport, chaque niveau incluant les précédents.
+     */
+    public enum Niveau {
+        /** Taille de la population et bilan des rencontres. */
+        RESUME,
+        /** Un humain sur {@link Rapport#getPasEchantillon()}. */
+        ECHANTILLON,
+        /** Tous les humains et tous les décès. */
+        COMPLET
+    }
+
+    /** Nombre de caractères au-delà duquel un lot est déposé dans la file. */
+    private static final int TAILLE_LOT = 1 << 16;
+
+    /** Nombre de lots que peut contenir la file. */
+    private static final int CAPACITE_FILE = 256;
+
+    /** Lot vide signalant au thread d'écriture la fin du rapport. */
+    private static final String FIN = new String();
+
+    /** Le niveau de détail du rapport. */
+    private final Niveau niveau;
+
+    /** L'écart entre deux humains de l'échantillon. */
+    private final int pasEchantillon;
+
+    /** La file des lots à écrire, ou {@code null} pour un rapport synchrone. */
+    private final BlockingQueue<String> file;
+
+    /** Le flux de sortie du thread d'écriture. */
+    private final Writer sortie;
+
+    /** Indique si le flux de sortie doit être fermé avec le rapport. */
+    private final boolean fermerSortie;
+
+    /** Le thread d'écriture. */
+    private final Thread ecrivain;
+
+    /** Le lot en cours de remplissage. */
+    private final StringBuilder lot = new StringBuilder();
+
+    /** Le nombre de lots abandonnés faute de place dans la file. */
+    private long perdus;
+
+    /** L'erreur rencontrée par le thread d'écriture, le cas échéant. */
+    private volatile IOException erreur;
+
+    /**
+     * Constructeur de la classe {@code Rapport}.
+     * <p>
+     * Démarre le thread d'écriture.
+     * </p>
+     *
+     * @param niveau         Le niveau de détail du rapport.
+     * @param pasEchantillon L'écart entre deux humains de l'échantillon.
+     * @param flux           Le flux où écrire le rapport.
+     * @param fermerFlux     {@code true} si le flux doit être fermé avec le
+     *                       rapport (fichier), {@code false} sinon (console).
+     */
+    public Rapport(Niveau niveau, int pasEchantillon, OutputStream flux, boolean fermerFlux) {
+        if (pasEchantillon < 1) {
+            throw new IllegalArgumentException("Pas d'echantillonnage invalide : " + pasEchantillon);
+        }
+        this.niveau = niveau;
+        this.pasEchantillon = pasEchantillon;
+        this.file = new ArrayBlockingQueue<>(CAPACITE_FILE);
+        this.sortie = new BufferedWriter(new OutputStreamWriter(flux), TAILLE_LOT);
+        this.fermerSortie = fermerFlux;
+        this.ecrivain = new Thread(this::ecrire, "rapport");
+        this.ecrivain.setDaemon(true);
+        this.ecrivain.start();
+    }
+
+    /**
+     * Constructeur d'un rapport complet et synchrone, écrit directement sur
+     * {@link System#out}.
+     */
+    private Rapport() {
+        this.niveau = Niveau.COMPLET;
+        this.pasEchantillon = 1;
+        this.file = null;
+        this.sortie = null;
+        this.fermerSortie = false;
+        this.ecrivain = null;
+    }
+
+    /**
+     * Crée un rapport complet qui écrit chaque ligne directement sur
+     * {@link System#out}, sans thread d'écriture.
+     *
+     * @return Un rapport synchrone.
+     */
+    public static Rapport console() {
+        return new Rapport();
+    }
+
+    /**
+     * Indique si le rapport affiche les informations d'un niveau donné.
+     *
+     * @param n Le niveau des informations.
+     * @return {@code true} si le niveau du rapport est au moins {@code n}.
+     */
+    public boolean accepte(Niveau n) {
+        return n.compareTo(niveau) <= 0;
+    }
+
+    /**
+     * Retourne l'écart entre deux humains de l'échantillon.
+     *
+     * @return Le pas d'échantillonnage.
+     */
+    public int getPasEchantillon() {
+        return pasEchantillon;
+    }
+
+    /**
+     * Ajoute une ligne au rapport.
+     *
+     * @param texte La ligne à ajouter.
+     */
+    public void ligne(String texte) {
+        if (file == null) {
+            System.out.println(texte);
+            return;
+        }
+        lot.append(texte).append('\n');
+        if (lot.length() >= TAILLE_LOT) {
+            publier();
+        }
+    }
+
+    /**
+     * Dépose dans la file les lignes ajoutées depuis le dernier dépôt, sans
+     * attendre qu'elles soient écrites. Si la file est pleine, le lot est
+     * abandonné au niveau {@link Niveau#ECHANTILLON}, et sinon déposé dès
+     * qu'une place se libère.
+     */
+    public void publier() {
+        if (file == null || lot.length() == 0) {
+            return;
+        }
+        if (niveau == Niveau.ECHANTILLON) {
+            if (!file.offer(lot.toString())) {
+                perdus++;
+            }
+        } else {
+            try {
+                file.put(lot.toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                perdus++;
+            }
+        }
+        lot.setLength(0);
+    }
+
+    /**
+     * Écrit les dernières lignes, attend la fin du thread d'écriture et ferme
+     * le flux de sortie s'il le faut.
+     */
+    @Override
+    public void close() {
+        if (file == null) {
+            return;
+        }
+        publier();
+        try {
+            file.put(FIN);
+            ecrivain.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (fermerSortie) {
+                sortie.close();
+            } else {
+                sortie.flush();
+            }
+        } catch (IOException e) {
+            erreur = e;
+        }
+        if (perdus > 0) {
+            System.err.println("Rapport : " + perdus + " lots abandonnes, la sortie etait trop lente");
+        }
+        if (erreur != null) {
+            System.err.println("Rapport : erreur d'ecriture : " + erreur.getMessage());
+        }
+    }
+
+    /**
+     * Boucle du thread d'écriture : écrit les lots dans l'ordre où ils ont
+     * été déposés, et vide le tampon chaque fois que la file est vide.
+     */
+    private void ecrire() {
+        try {
+            while (true) {
+                String s = file.take();
+                if (s == FIN) {
+                    break;
+                }
+                if (erreur != null) {
+                    continue;
+                }
+                try {
+                    sortie.write(s);
+                    if (file.isEmpty()) {
+                        sortie.flush();
+                    }
+                } catch (IOException e) {
+                    erreur = e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package jeudelavie;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Règles d'une rencontre entre deux humains, exprimées sans exception.
+ * <p>
+ * L'issue d'une rencontre est représentée par un code entier : soit
+ * {@link #NAISSANCE}, soit l'un des motifs d'échec. Les motifs {@link #SEXE},
+ * {@link #POIDS} et {@link #AGE} correspondent aux valeurs de
+ * {@link BreedingForbiddenException.Erreur}, et {@link #HOMME_INFERTILE} et
+ * {@link #FEMME_INFERTILE} aux cas de {@link NoBreedingException}.
+ * </p>
+ * <p>
+ * Ces règles sont partagées par {@link Homme#rencontre(Humain)},
+ * {@link Femme#rencontre(Humain)} et {@link Population#rencontrer(int, int)},
+ * qui évite ainsi d'allouer une exception pour chaque rencontre infructueuse.
+ * </p>
+ */
+final class Rencontre {
+
+    /** La rencontre donne naissance à un bébé. */
+    static final int NAISSANCE = 0;
+
+    /** Les deux humains sont de même sexe. */
+    static final int SEXE = 1;
+
+    /** L'un des deux humains est trop lourd. */
+    static final int POIDS = 2;
+
+    /** L'un des deux humains n'a pas l'âge. */
+    static final int AGE = 3;
+
+    /** L'homme n'a pas voulu ou pas pu engendrer d'enfant. */
+    static final int HOMME_INFERTILE = 4;
+
+    /** La femme n'a pas été fécondée. */
+    static final int FEMME_INFERTILE = 5;
+
+    /** Nombre de codes d'issue distincts. */
+    static final int NB_ISSUES = 6;
+
+    /**
+     * Constructeur privé : cette classe ne contient que des méthodes statiques.
+     */
+    private Rencontre() {
+    }
+
+    /**
+     * Vérifie les conditions d'âge, de poids et de sexe d'une rencontre.
+     * <p>
+     * Un homme qui rencontre vérifie d'abord l'âge puis le poids, une femme
+     * d'abord le poids puis l'âge ; le sexe est vérifié en dernier.
+     * </p>
+     *
+     * @param masculin1 {@code true} si l'humain qui rencontre est de sexe masculin.
+     * @param age1      L'âge de l'humain qui rencontre.
+     * @param poids1    Le poids de l'humain qui rencontre.
+     * @param masculin2 {@code true} si l'humain rencontré est de sexe masculin.
+     * @param age2      L'âge de l'humain rencontré.
+     * @param poids2    Le poids de l'humain rencontré.
+     * @return {@link #NAISSANCE} si la rencontre est permise, sinon
+     *         {@link #AGE}, {@link #POIDS} ou {@link #SEXE}.
+     */
+    static int verifier(boolean masculin1, int age1, int poids1, boolean masculin2, int age2, int poids2) {
+        boolean ageOk = age1 > 15 && age1 < 50 && age2 > 15 && age2 < 50;
+        boolean poidsOk = poids1 <= 150 && poids2 <= 150;
+        if (masculin1) {
+            if (!ageOk) {
+                return AGE;
+            }
+            if (!poidsOk) {
+                return POIDS;
+            }
+        } else {
+            if (!poidsOk) {
+                return POIDS;
+            }
+            if (!ageOk) {
+                return AGE;
+            }
+        }
+        if (masculin1 == masculin2) {
+            return SEXE;
+        }
+        return NAISSANCE;
+    }
+
+    /**
+     * Indique si un humain remplit à lui seul les conditions d'âge et de poids
+     * d'une rencontre ; deux humains de sexes opposés qui les remplissent
+     * passent toujours {@link #verifier}.
+     *
+     * @param age   L'âge de l'humain.
+     * @param poids Le poids de l'humain.
+     * @return {@code true} si l'humain est en âge et en poids de procréer.
+     */
+    static boolean isFecond(int age, int poids) {
+        return age > 15 && age < 50 && poids <= 150;
+    }
+
+    /**
+     * Tire au sort la fécondité d'un couple autorisé à se rencontrer.
+     *
+     * @param batifolage Le taux de batifolage de l'homme.
+     * @param fertilite  Le niveau de fertilité de la femme.
+     * @param loto       Le générateur de nombres aléatoires à utiliser.
+     * @return {@link #NAISSANCE}, {@link #HOMME_INFERTILE} ou
+     *         {@link #FEMME_INFERTILE}.
+     */
+    static int tirerFecondite(int batifolage, int fertilite, RandomGenerator loto) {
+        if (loto.nextInt(101) < batifolage) {
+            return HOMME_INFERTILE;
+        }
+        if (loto.nextInt(101) > fertilite) {
+            return FEMME_INFERTILE;
+        }
+        return NAISSANCE;
+    }
+
+    /**
+     * Retourne le motif de {@link BreedingForbiddenException} correspondant à un
+     * code d'issue.
+     *
+     * @param issue Un code parmi {@link #SEXE}, {@link #POIDS} et {@link #AGE}.
+     * @return Le motif correspondant.
+     */
+    static BreedingForbiddenException.Erreur motif(int issue) {
+        return BreedingForbiddenException.Erreur.values()[issue - SEXE];
+    }
+
+    /**
+     * Lève l'exception équivalente à une rencontre infructueuse.
+     * <p>
+     * Ne fait rien si l'issue est une naissance ; cette méthode sert à conserver
+     * l'API à exceptions au-dessus des codes d'issue.
+     * </p>
+     *
+     * @param issue Le code d'issue de la rencontre.
+     * @param h1    L'humain qui rencontre.
+     * @param h2    L'humain rencontré.
+     * @param homme L'homme du couple.
+     * @param femme La femme du couple.
+     * @throws BreedingForbiddenException Si l'issue est {@link #SEXE},
+     *                                    {@link #POIDS} ou {@link #AGE}.
+     * @throws NoBreedingException        Si l'issue est {@link #HOMME_INFERTILE}
+     *                                    ou {@link #FEMME_INFERTILE}.
+     */
+    static void lever(int issue, Humain h1, Humain h2, Humain homme, Humain femme)
+            throws BreedingForbiddenException, NoBreedingException {
+        switch (issue) {
+            case NAISSANCE:
+                return;
+            case HOMME_INFERTILE:
+                throw new NoBreedingException(homme);
+            case FEMME_INFERTILE:
+                throw new NoBreedingException(femme);
+            default:
+                throw new BreedingForbiddenException(h1, h2, motif(issue));
+        }
+    }
+}
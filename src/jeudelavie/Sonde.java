@@ -0,0 +1,484 @@
+package jeudelavie;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Instrumentation d'une simulation : durée de chaque phase d'une génération,
+ * issues des rencontres et mémoire.
+ * <p>
+ * Les mesures sont cumulées et exposées par un MBean JMX (voir
+ * {@link SondeMBean} et {@link #enregistrer()}), et publiées sous forme
+ * d'événements JFR : un événement {@value #EVENEMENT_PHASE} par phase et un
+ * événement {@value #EVENEMENT_GENERATION} par génération. Une génération ne
+ * coûte que quelques appels à {@link System#nanoTime()} et quelques petits
+ * objets ; les événements ne sont enregistrés que si un enregistrement JFR
+ * les a activés, par exemple avec
+ * {@code -XX:StartFlightRecording:filename=simulation.jfr}.
+ * </p>
+ * <p>
+ * La sonde est mise à jour par le thread principal de la simulation et lue
+ * par les threads JMX.
+ * </p>
+ */
+public final class Sonde implements SondeMBean {
+
+    /** Nom de l'événement JFR d'une phase. */
+    static final String EVENEMENT_PHASE = "jeudelavie.Phase";
+
+    /** Nom de l'événement JFR d'une génération. */
+    static final String EVENEMENT_GENERATION = "jeudelavie.Generation";
+
+    /** Nom du MBean de la sonde. */
+    public static final String NOM_MBEAN = "jeudelavie:type=Sonde";
+
+    /**
+     * Phase d'une génération.
+     */
+    enum Phase {
+        /** Formation des couples (croissance forcée seulement). */
+        APPARIEMENT,
+        /**
+         * Rencontres ; en fonctionnement normal et en croissance régulée, le
+         * tirage de chaque couple est compris dans cette phase.
+         */
+        RENCONTRES,
+        /** Vieillissement des humains. */
+        VIEILLISSEMENT,
+        /** Retrait des morts, y compris les morts au hasard après une naissance. */
+        DECES,
+        /** Intégration des bébés à la population. */
+        NAISSANCES,
+        /** Tri de la population. */
+        TRI,
+        /** Rapport, statistiques et points de reprise. */
+        SORTIE
+    }
+
+    /** Les threads de la JVM, pour mesurer les allocations. */
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /** La durée cumulée de chaque phase, en nanosecondes. */
+    private final AtomicLongArray durees = new AtomicLongArray(Phase.values().length);
+
+    /** Le numéro de la génération en cours. */
+    private int numero;
+
+    /** L'événement de la génération en cours. */
+    private EvenementGeneration generationEnCours;
+
+    /** Le début de la génération en cours. */
+    private long debutGeneration;
+
+    /** La phase en cours. */
+    private Phase phase;
+
+    /** L'événement de la phase en cours. */
+    private EvenementPhase phaseEnCours;
+
+    /** Le début de la phase en cours. */
+    private long debutPhase;
+
+    /** Les octets alloués par les threads au début de la génération en cours. */
+    private long allouesAuDebut;
+
+    /** Les octets alloués par chaque thread vivant lors de la dernière mesure, par numéro de thread. */
+    private Map<Long, Long> allouesParThread = new HashMap<>();
+
+    /** Les octets alloués par les threads terminés depuis la première mesure. */
+    private long allouesParLesThreadsTermines;
+
+    /** Les octets alloués par les threads de calcul qui se sont terminés depuis la dernière mesure, par numéro de thread. */
+    private final Map<Long, Long> allouesALaFin = new ConcurrentHashMap<>();
+
+    /** Le numéro de la dernière génération terminée. */
+    private volatile int generation = -1;
+
+    /** La taille de la population à la fin de la dernière génération. */
+    private volatile long taille;
+
+    /** La durée de la dernière génération, en nanosecondes. */
+    private volatile long dureeGeneration;
+
+    /** Le nombre de rencontres. */
+    private volatile long rencontres;
+
+    /** Le nombre de rencontres écartées. */
+    private volatile long ecartees;
+
+    /** Le nombre de naissances. */
+    private volatile long naissances;
+
+    /** Le nombre de rencontres refusées pour chaque motif. */
+    private final AtomicLongArray rejets = new AtomicLongArray(BreedingForbiddenException.Erreur.values().length);
+
+    /** Le nombre de rencontres improductives à cause de l'homme. */
+    private volatile long hommesInfertiles;
+
+    /** Le nombre de rencontres improductives à cause de la femme. */
+    private volatile long femmesInfertiles;
+
+    /** Le nombre d'octets alloués, ou -1 si la JVM ne le mesure pas. */
+    private volatile long octetsAlloues;
+
+    /** La mémoire occupée dans le tas à la fin de la dernière génération. */
+    private volatile long tasUtilise;
+
+    /**
+     * Enregistre la sonde auprès du serveur de MBeans de la plateforme, sous le
+     * nom {@value #NOM_MBEAN}.
+     *
+     * @throws JMException Si le MBean ne peut pas être enregistré.
+     */
+    public void enregistrer() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new StandardMBean(this, SondeMBean.class),
+                new ObjectName(NOM_MBEAN));
+    }
+
+    /**
+     * Signale le début d'une génération.
+     *
+     * @param numero Le numéro de la génération.
+     */
+    void debutGeneration(int numero) {
+        this.numero = numero;
+        generationEnCours = new EvenementGeneration();
+        generationEnCours.begin();
+        debutGeneration = System.nanoTime();
+        allouesAuDebut = octetsAllouesParLesThreads();
+    }
+
+    /**
+     * Signale la fin du thread courant, un thread de calcul, pour que ses
+     * allocations restent comptées une fois qu'il ne sera plus mesurable.
+     */
+    void finThread() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean t = (com.sun.management.ThreadMXBean) THREADS;
+            if (t.isThreadAllocatedMemoryEnabled()) {
+                allouesALaFin.put(Thread.currentThread().getId(), t.getCurrentThreadAllocatedBytes());
+            }
+        }
+    }
+
+    /**
+     * Signale le début d'une phase ; la phase précédente doit être terminée.
+     *
+     * @param p La phase qui commence.
+     */
+    void debut(Phase p) {
+        phase = p;
+        phaseEnCours = new EvenementPhase();
+        phaseEnCours.begin();
+        debutPhase = System.nanoTime();
+    }
+
+    /**
+     * Signale la fin de la phase en cours.
+     */
+    void fin() {
+        durees.addAndGet(phase.ordinal(), System.nanoTime() - debutPhase);
+        phaseEnCours.end();
+        if (phaseEnCours.shouldCommit()) {
+            phaseEnCours.generation = numero;
+            phaseEnCours.phase = phase.name();
+            phaseEnCours.commit();
+        }
+        phaseEnCours = null;
+    }
+
+    /**
+     * Signale la fin d'une génération, avant la remise à zéro du bilan des
+     * rencontres.
+     *
+     * @param n     La taille de la population.
+     * @param bilan Le bilan des rencontres de la génération.
+     */
+    void finGeneration(long n, BilanRencontres bilan) {
+        long duree = System.nanoTime() - debutGeneration;
+        long alloues = octetsAllouesParLesThreads();
+        long delta = alloues < 0 ? -1 : alloues - allouesAuDebut;
+        long tas = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+
+        generation = numero;
+        taille = n;
+        dureeGeneration = duree;
+        rencontres += bilan.getRencontres();
+        ecartees += bilan.getEcartees();
+        naissances += bilan.getNaissances();
+        for (BreedingForbiddenException.Erreur motif : BreedingForbiddenException.Erreur.values()) {
+            rejets.addAndGet(motif.ordinal(), bilan.getRejets(motif));
+        }
+        hommesInfertiles += bilan.getHommesInfertiles();
+        femmesInfertiles += bilan.getFemmesInfertiles();
+        octetsAlloues = delta < 0 ? -1 : octetsAlloues + delta;
+        tasUtilise = tas;
+
+        EvenementGeneration e = generationEnCours;
+        e.end();
+        if (e.shouldCommit()) {
+            e.generation = numero;
+            e.taille = n;
+            e.rencontres = bilan.getRencontres();
+            e.naissances = bilan.getNaissances();
+            e.rejetsSexe = bilan.getRejets(BreedingForbiddenException.Erreur.SEXE);
+            e.rejetsPoids = bilan.getRejets(BreedingForbiddenException.Erreur.POIDS);
+            e.rejetsAge = bilan.getRejets(BreedingForbiddenException.Erreur.AGE);
+            e.hommesInfertiles = bilan.getHommesInfertiles();
+            e.femmesInfertiles = bilan.getFemmesInfertiles();
+            e.octetsAlloues = delta;
+            e.tasUtilise = tas;
+            e.commit();
+        }
+        generationEnCours = null;
+    }
+
+    @Override
+    public int getGeneration() {
+        return generation;
+    }
+
+    @Override
+    public long getTaille() {
+        return taille;
+    }
+
+    @Override
+    public double getDureeDerniereGeneration() {
+        return dureeGeneration / 1e6;
+    }
+
+    @Override
+    public double getTempsAppariement() {
+        return temps(Phase.APPARIEMENT);
+    }
+
+    @Override
+    public double getTempsRencontres() {
+        return temps(Phase.RENCONTRES);
+    }
+
+    @Override
+    public double getTempsVieillissement() {
+        return temps(Phase.VIEILLISSEMENT);
+    }
+
+    @Override
+    public double getTempsDeces() {
+        return temps(Phase.DECES);
+    }
+
+    @Override
+    public double getTempsNaissances() {
+        return temps(Phase.NAISSANCES);
+    }
+
+    @Override
+    public double getTempsTri() {
+        return temps(Phase.TRI);
+    }
+
+    @Override
+    public double getTempsSortie() {
+        return temps(Phase.SORTIE);
+    }
+
+    @Override
+    public long getRencontres() {
+        return rencontres;
+    }
+
+    @Override
+    public long getRencontresEcartees() {
+        return ecartees;
+    }
+
+    @Override
+    public long getNaissances() {
+        return naissances;
+    }
+
+    @Override
+    public long getRejetsSexe() {
+        return rejets.get(BreedingForbiddenException.Erreur.SEXE.ordinal());
+    }
+
+    @Override
+    public long getRejetsPoids() {
+        return rejets.get(BreedingForbiddenException.Erreur.POIDS.ordinal());
+    }
+
+    @Override
+    public long getRejetsAge() {
+        return rejets.get(BreedingForbiddenException.Erreur.AGE.ordinal());
+    }
+
+    @Override
+    public long getHommesInfertiles() {
+        return hommesInfertiles;
+    }
+
+    @Override
+    public long getFemmesInfertiles() {
+        return femmesInfertiles;
+    }
+
+    @Override
+    public long getOctetsAlloues() {
+        return octetsAlloues;
+    }
+
+    @Override
+    public long getTasUtilise() {
+        return tasUtilise;
+    }
+
+    /**
+     * Retourne la durée cumulée d'une phase.
+     *
+     * @param p La phase.
+     * @return La durée en millisecondes.
+     */
+    private double temps(Phase p) {
+        return durees.get(p.ordinal()) / 1e6;
+    }
+
+    /**
+     * Retourne le nombre total d'octets alloués par les threads, y compris les
+     * threads de calcul du {@link MoteurParallele}.
+     * <p>
+     * La JVM ne mesure que les threads vivants : la dernière mesure de chaque
+     * thread est conservée, et un thread qui s'est terminé depuis est ajouté
+     * aux octets des threads terminés, avec la mesure relevée à sa fin par
+     * {@link #finThread()} s'il l'a signalée, sa dernière mesure sinon. Le
+     * total ne diminue donc jamais, et les threads de calcul sont comptés en
+     * entier, même s'ils ont commencé et fini entre deux mesures.
+     * </p>
+     *
+     * @return Le nombre d'octets, ou -1 si la JVM ne le mesure pas.
+     */
+    private long octetsAllouesParLesThreads() {
+        if (!(THREADS instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean t = (com.sun.management.ThreadMXBean) THREADS;
+        if (!t.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long[] ids = t.getAllThreadIds();
+        long[] octets = t.getThreadAllocatedBytes(ids);
+        Map<Long, Long> mesures = new HashMap<>();
+        long total = 0;
+        for (int k = 0; k < ids.length; k++) {
+            if (octets[k] > 0) {
+                mesures.put(ids[k], octets[k]);
+                total += octets[k];
+            }
+        }
+        for (Map.Entry<Long, Long> e : allouesParThread.entrySet()) {
+            if (!mesures.containsKey(e.getKey())) {
+                Long aLaFin = allouesALaFin.remove(e.getKey());
+                allouesParLesThreadsTermines += aLaFin != null ? Math.max(aLaFin, e.getValue()) : e.getValue();
+            }
+        }
+        for (Map.Entry<Long, Long> e : allouesALaFin.entrySet()) {
+            if (!mesures.containsKey(e.getKey()) && allouesALaFin.remove(e.getKey(), e.getValue())) {
+                allouesParLesThreadsTermines += e.getValue();
+            }
+        }
+        allouesParThread = mesures;
+        return allouesParLesThreadsTermines + total;
+    }
+
+    /**
+     * Événement JFR d'une phase d'une génération.
+     */
+    @Name(EVENEMENT_PHASE)
+    @Label("Phase")
+    @Category("Jeu de la vie")
+    @Description("Une phase d'une génération de la simulation")
+    @StackTrace(false)
+    static final class EvenementPhase extends Event {
+
+        /** Le numéro de la génération. */
+        @Label("Génération")
+        int generation;
+
+        /** Le nom de la phase. */
+        @Label("Phase")
+        String phase;
+    }
+
+    /**
+     * Événement JFR d'une génération.
+     */
+    @Name(EVENEMENT_GENERATION)
+    @Label("Génération")
+    @Category("Jeu de la vie")
+    @Description("Une génération de la simulation")
+    @StackTrace(false)
+    static final class EvenementGeneration extends Event {
+
+        /** Le numéro de la génération. */
+        @Label("Génération")
+        int generation;
+
+        /** La taille de la population à la fin de la génération. */
+        @Label("Taille")
+        long taille;
+
+        /** Le nombre de rencontres. */
+        @Label("Rencontres")
+        long rencontres;
+
+        /** Le nombre de naissances. */
+        @Label("Naissances")
+        long naissances;
+
+        /** Le nombre de rencontres entre humains de même sexe. */
+        @Label("Rejets (sexe)")
+        long rejetsSexe;
+
+        /** Le nombre de rencontres refusées pour le poids. */
+        @Label("Rejets (poids)")
+        long rejetsPoids;
+
+        /** Le nombre de rencontres refusées pour l'âge. */
+        @Label("Rejets (âge)")
+        long rejetsAge;
+
+        /** Le nombre de rencontres improductives à cause de l'homme. */
+        @Label("Hommes infertiles")
+        long hommesInfertiles;
+
+        /** Le nombre de rencontres improductives à cause de la femme. */
+        @Label("Femmes infertiles")
+        long femmesInfertiles;
+
+        /** Le nombre d'octets alloués pendant la génération. */
+        @Label("Octets alloués")
+        @DataAmount
+        long octetsAlloues;
+
+        /** La mémoire occupée dans le tas à la fin de la génération. */
+        @Label("Tas utilisé")
+        @DataAmount
+        long tasUtilise;
+    }
+}
@@ -0,0 +1,155 @@
+package jeudelavie;
+
+/**
+ * Interface d'administration JMX de la {@link Sonde} d'une simulation.
+ * <p>
+ * Les durées et les compteurs sont cumulés depuis le début de la simulation ;
+ * un outil de supervision (par exemple JConsole) en déduit les débits en les
+ * relevant à intervalles réguliers.
+ * </p>
+ */
+public interface SondeMBean {
+
+    /**
+     * Retourne le numéro de la dernière génération terminée.
+     *
+     * @return Le numéro de la génération, ou -1 avant la fin de la première.
+     */
+    int getGeneration();
+
+    /**
+     * Retourne la taille de la population à la fin de la dernière génération.
+     *
+     * @return Le nombre d'humains.
+     */
+    long getTaille();
+
+    /**
+     * Retourne la durée de la dernière génération.
+     *
+     * @return La durée en millisecondes.
+     */
+    double getDureeDerniereGeneration();
+
+    /**
+     * Retourne le temps passé à former les couples.
+     *
+     * @return La durée cumulée en millisecondes.
+     */
+    double getTempsAppariement();
+
+    /**
+     * Retourne le temps passé dans les rencontres.
+     *
+     * @return La durée cumulée en millisecondes.
+     */
+    double getTempsRencontres();
+
+    /**
+     * Retourne le temps passé à faire vieillir les humains.
+     *
+     * @return La durée cumulée en millisecondes.
+     */
+    double getTempsVieillissement();
+
+    /**
+     * Retourne le temps passé à retirer les morts de la population.
+     *
+     * @return La durée cumulée en millisecondes.
+     */
+    double getTempsDeces();
+
+    /**
+     * Retourne le temps passé à intégrer les bébés à la population.
+     *
+     * @return La durée cumulée en millisecondes.
+     */
+    double getTempsNaissances();
+
+    /**
+     * Retourne le temps passé à trier la population.
+     *
+     * @return La durée cumulée en millisecondes.
+     */
+    double getTempsTri();
+
+    /**
+     * Retourne le temps passé à écrire le rapport, les statistiques et les
+     * points de reprise.
+     *
+     * @return La durée cumulée en millisecondes.
+     */
+    double getTempsSortie();
+
+    /**
+     * Retourne le nombre de rencontres effectuées.
+     *
+     * @return Le nombre de rencontres.
+     */
+    long getRencontres();
+
+    /**
+     * Retourne le nombre de rencontres écartées sans être tirées, faute de
+     * couple fécond.
+     *
+     * @return Le nombre de rencontres écartées.
+     */
+    long getRencontresEcartees();
+
+    /**
+     * Retourne le nombre de naissances.
+     *
+     * @return Le nombre de naissances.
+     */
+    long getNaissances();
+
+    /**
+     * Retourne le nombre de rencontres entre humains de même sexe.
+     *
+     * @return Le nombre de rencontres refusées.
+     */
+    long getRejetsSexe();
+
+    /**
+     * Retourne le nombre de rencontres refusées pour un poids trop élevé.
+     *
+     * @return Le nombre de rencontres refusées.
+     */
+    long getRejetsPoids();
+
+    /**
+     * Retourne le nombre de rencontres refusées pour un âge hors limites.
+     *
+     * @return Le nombre de rencontres refusées.
+     */
+    long getRejetsAge();
+
+    /**
+     * Retourne le nombre de rencontres improductives à cause de l'homme.
+     *
+     * @return Le nombre de rencontres improductives.
+     */
+    long getHommesInfertiles();
+
+    /**
+     * Retourne le nombre de rencontres improductives à cause de la femme.
+     *
+     * @return Le nombre de rencontres improductives.
+     */
+    long getFemmesInfertiles();
+
+    /**
+     * Retourne le nombre d'octets alloués par les threads de la simulation.
+     *
+     * @return Le nombre d'octets, ou -1 si la JVM ne le mesure pas.
+     */
+    long getOctetsAlloues();
+
+    /**
+     * Retourne la mémoire occupée dans le tas à la fin de la dernière
+     * génération.
+     *
+     * @return Le nombre d'octets.
+     */
+    long getTasUtilise();
+}
@@ -0,0 +1,432 @@
+package jeudelavie;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Statistiques agrégées d'une simulation, génération après génération.
+ * <p>
+ * Chaque génération est résumée en une ligne, calculée en un seul parcours de
+ * la population : effectifs par sexe et par stade, naissances, décès par
+ * cause, rapport de masculinité, âge et poids moyens, et distribution des
+ * salaires des hommes salariés. Les lignes sont accumulées par paquets de
+ * {@link #TAILLE_PAQUET} puis ajoutées au fichier à travers un
+ * {@link FileChannel} tamponné, soit en CSV, soit dans un format binaire en
+ * colonnes.
+ * </p>
+ * <p>
+ * Le format binaire, en petit-boutiste, commence par un en-tête : l'entier
+ * {@code "JDLS"}, la version, le nombre de colonnes entières puis réelles et
+ * leurs noms (longueur puis octets UTF-8). Suivent des paquets : le nombre de
+ * lignes du paquet, puis chaque colonne entière ({@code long}) et chaque
+ * colonne réelle ({@code double}) du paquet, à la suite. Une génération
+ * occupe ainsi {@value #OCTETS_PAR_LIGNE} octets.
+ * </p>
+ * <p>
+ * Comme {@link Rapport}, une erreur d'écriture n'interrompt pas la simulation :
+ * les lignes suivantes sont abandonnées et l'erreur est signalée à la
+ * fermeture.
+ * </p>
+ */
+public final class Statistiques implements AutoCloseable {
+
+    /** Les noms des colonnes entières. */
+    static final String[] ENTIERS = { "generation", "taille", "garcons", "filles", "hommes", "femmes",
+            "naissances", "morts_vieillesse", "morts_maigreur", "morts_hasard", "salaire_min", "salaire_q1",
+            "salaire_mediane", "salaire_q3", "salaire_max" };
+
+    /** Les noms des colonnes réelles. */
+    static final String[] REELS = { "rapport_masculinite", "age_moyen", "poids_moyen", "salaire_moyen" };
+
+    /** Le nombre d'octets d'une génération dans le format binaire. */
+    static final int OCTETS_PAR_LIGNE = 8 * (15 + 4);
+
+    /** Le nombre de lignes d'un paquet. */
+    private static final int TAILLE_PAQUET = 1024;
+
+    /** Les quatre premiers octets du format binaire, "JDLS". */
+    private static final int MAGIE = 0x4A444C53;
+
+    /** La version du format binaire. */
+    private static final int VERSION = 1;
+
+    /** Le nombre de salaires distincts. */
+    private static final int NB_SALAIRES = Short.MAX_VALUE + 1;
+
+    /** Indique si le fichier est au format CSV plutôt que binaire. */
+    private final boolean csv;
+
+    /** Le canal du fichier. */
+    private final FileChannel canal;
+
+    /** Le tampon d'écriture. */
+    private final ByteBuffer tampon = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+    /** Les colonnes entières du paquet en cours. */
+    private final long[][] entiers = new long[ENTIERS.length][TAILLE_PAQUET];
+
+    /** Les colonnes réelles du paquet en cours. */
+    private final double[][] reels = new double[REELS.length][TAILLE_PAQUET];
+
+    /** Le nombre de lignes du paquet en cours. */
+    private int lignes;
+
+    /** Le nombre d'hommes de chaque salaire, remis à zéro après chaque génération. */
+    private final int[] salaires = new int[NB_SALAIRES];
+
+    /** L'erreur d'écriture rencontrée, le cas échéant. */
+    private IOException erreur;
+
+    /**
+     * Constructeur de la classe {@code Statistiques}.
+     *
+     * @param canal Le canal du fichier, positionné à la fin.
+     * @param csv   {@code true} pour le format CSV, {@code false} pour le format
+     *              binaire.
+     */
+    private Statistiques(FileChannel canal, boolean csv) {
+        this.canal = canal;
+        this.csv = csv;
+    }
+
+    /**
+     * Ouvre un fichier de statistiques. Le format est CSV si le nom du fichier
+     * se termine par {@code .csv}, binaire sinon.
+     *
+     * @param fichier   Le fichier.
+     * @param continuer {@code true} pour ajouter les lignes à un fichier existant,
+     *                  par exemple lors de la reprise d'une simulation ;
+     *                  {@code false} pour remplacer le fichier.
+     * @return Les statistiques.
+     * @throws IOException Si le fichier ne peut pas être ouvert.
+     */
+    public static Statistiques ouvrir(Path fichier, boolean continuer) throws IOException {
+        return ouvrir(fichier, continuer, -1);
+    }
+
+    /**
+     * Ouvre un fichier de statistiques pour la reprise d'une simulation : les
+     * lignes écrites après le point de reprise, par une simulation interrompue
+     * ou poursuivie au-delà, sont retirées avant d'ajouter les suivantes.
+     *
+     * @param fichier Le fichier.
+     * @param octets  La longueur du fichier au moment du point de reprise,
+     *                voir {@link #octets()}, ou -1 pour ajouter les lignes à
+     *                la fin du fichier.
+     * @return Les statistiques.
+     * @throws IOException Si le fichier ne peut pas être ouvert.
+     */
+    public static Statistiques reprendre(Path fichier, long octets) throws IOException {
+        return ouvrir(fichier, true, octets);
+    }
+
+    /**
+     * Ouvre un fichier de statistiques.
+     *
+     * @param fichier   Le fichier.
+     * @param continuer {@code true} pour ajouter les lignes au fichier existant.
+     * @param octets    La longueur à laquelle tronquer le fichier existant, ou
+     *                  -1 pour le garder en entier.
+     * @return Les statistiques.
+     * @throws IOException Si le fichier ne peut pas être ouvert.
+     */
+    private static Statistiques ouvrir(Path fichier, boolean continuer, long octets) throws IOException {
+        boolean csv = fichier.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+        boolean entete = !continuer || !Files.exists(fichier) || Files.size(fichier) == 0 || octets == 0;
+        FileChannel canal;
+        if (entete) {
+            canal = FileChannel.open(fichier, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+        } else {
+            canal = FileChannel.open(fichier, StandardOpenOption.WRITE);
+            try {
+                if (octets >= 0 && octets < canal.size()) {
+                    canal.truncate(octets);
+                }
+                canal.position(canal.size());
+            } catch (IOException e) {
+                canal.close();
+                throw e;
+            }
+        }
+        Statistiques s = new Statistiques(canal, csv);
+        if (entete) {
+            try {
+                s.ecrireEntete();
+            } catch (IOException e) {
+                canal.close();
+                throw e;
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Mesure l'état d'une population à la fin d'une génération, avant la remise
+     * à zéro de ses bilans.
+     *
+     * @param generation Le numéro de la génération.
+     * @param population La population.
+     */
+    void mesurer(int generation, Population population) {
+        Colonnes c = population.col;
+        int n = c.taille();
+        long[] parType = new long[4];
+        long sommeAge = 0;
+        long sommePoids = 0;
+        long sommeSalaires = 0;
+        long salaries = 0;
+        int min = NB_SALAIRES;
+        int max = -1;
+        for (int i = 0; i < n; i++) {
+            parType[c.type(i)]++;
+            sommeAge += c.age(i);
+            sommePoids += c.poids(i);
+            int s = c.salaire(i);
+            if (s > 0) {
+                salaires[s]++;
+                sommeSalaires += s;
+                salaries++;
+                min = Math.min(min, s);
+                max = Math.max(max, s);
+            }
+        }
+
+        int l = lignes;
+        BilanDeces deces = population.getDeces();
+        long masculins = parType[Colonnes.GARCON] + parType[Colonnes.HOMME];
+        long feminins = parType[Colonnes.FILLE] + parType[Colonnes.FEMME];
+        entiers[0][l] = generation;
+        entiers[1][l] = n;
+        entiers[2][l] = parType[Colonnes.GARCON];
+        entiers[3][l] = parType[Colonnes.FILLE];
+        entiers[4][l] = parType[Colonnes.HOMME];
+        entiers[5][l] = parType[Colonnes.FEMME];
+        entiers[6][l] = population.getBilan().getNaissances();
+        entiers[7][l] = deces.get(BilanDeces.VIEILLESSE);
+        entiers[8][l] = deces.get(BilanDeces.MAIGREUR);
+        entiers[9][l] = deces.get(BilanDeces.HASARD);
+        entiers[10][l] = salaries == 0 ? 0 : min;
+        entiers[11][l] = quantile(salaries, 1, 4, min, max);
+        entiers[12][l] = quantile(salaries, 1, 2, min, max);
+        entiers[13][l] = quantile(salaries, 3, 4, min, max);
+        entiers[14][l] = salaries == 0 ? 0 : max;
+        reels[0][l] = feminins == 0 ? Double.NaN : (double) masculins / feminins;
+        reels[1][l] = n == 0 ? Double.NaN : (double) sommeAge / n;
+        reels[2][l] = n == 0 ? Double.NaN : (double) sommePoids / n;
+        reels[3][l] = salaries == 0 ? Double.NaN : (double) sommeSalaires / salaries;
+        if (max >= 0) {
+            Arrays.fill(salaires, min, max + 1, 0);
+        }
+
+        if (++lignes == TAILLE_PAQUET) {
+            publier();
+        }
+    }
+
+    /**
+     * Ajoute au fichier les lignes mesurées depuis le dernier ajout.
+     */
+    void publier() {
+        if (lignes == 0) {
+            return;
+        }
+        if (erreur == null) {
+            try {
+                if (csv) {
+                    ecrireLignes();
+                } else {
+                    ecrirePaquet();
+                }
+                vider();
+            } catch (IOException e) {
+                erreur = e;
+            }
+        }
+        lignes = 0;
+    }
+
+    /**
+     * Retourne la longueur du fichier, lignes publiées comprises : après
+     * {@link #publier()}, celle que retrouvera {@link #reprendre(Path, long)}.
+     *
+     * @return Le nombre d'octets écrits dans le fichier.
+     * @throws IOException Si la position du fichier ne peut pas être lue.
+     */
+    long octets() throws IOException {
+        return canal.position();
+    }
+
+    /**
+     * Ajoute au fichier les dernières lignes et le ferme.
+     */
+    @Override
+    public void close() {
+        publier();
+        try {
+            canal.close();
+        } catch (IOException e) {
+            if (erreur == null) {
+                erreur = e;
+            }
+        }
+        if (erreur != null) {
+            System.err.println("Statistiques : erreur d'ecriture : " + erreur.getMessage());
+        }
+    }
+
+    /**
+     * Retourne le salaire en dessous duquel se trouve une fraction donnée des
+     * hommes salariés, d'après l'histogramme {@link #salaires}.
+     *
+     * @param salaries    Le nombre d'hommes salariés.
+     * @param numerateur  Le numérateur de la fraction.
+     * @param denominateur Le dénominateur de la fraction.
+     * @param min         Le plus petit salaire.
+     * @param max         Le plus grand salaire.
+     * @return Le quantile, ou 0 s'il n'y a aucun homme salarié.
+     */
+    private int quantile(long salaries, int numerateur, int denominateur, int min, int max) {
+        if (salaries == 0) {
+            return 0;
+        }
+        long rang = Math.max(1, (salaries * numerateur + denominateur - 1) / denominateur);
+        long cumul = 0;
+        for (int s = min; s <= max; s++) {
+            cumul += salaires[s];
+            if (cumul >= rang) {
+                return s;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Écrit l'en-tête du fichier.
+     *
+     * @throws IOException Si le fichier ne peut pas être écrit.
+     */
+    private void ecrireEntete() throws IOException {
+        if (csv) {
+            StringBuilder sb = new StringBuilder();
+            for (String nom : ENTIERS) {
+                sb.append(nom).append(',');
+            }
+            for (String nom : REELS) {
+                sb.append(nom).append(',');
+            }
+            sb.setCharAt(sb.length() - 1, '\n');
+            ecrire(sb);
+        } else {
+            tampon.putInt(MAGIE).putInt(VERSION).putInt(ENTIERS.length).putInt(REELS.length);
+            for (String nom : ENTIERS) {
+                ecrireNom(nom);
+            }
+            for (String nom : REELS) {
+                ecrireNom(nom);
+            }
+        }
+        vider();
+    }
+
+    /**
+     * Écrit le nom d'une colonne dans le tampon.
+     *
+     * @param nom Le nom.
+     */
+    private void ecrireNom(String nom) {
+        byte[] octets = nom.getBytes(StandardCharsets.UTF_8);
+        tampon.putInt(octets.length).put(octets);
+    }
+
+    /**
+     * Écrit le paquet en cours, colonne par colonne.
+     *
+     * @throws IOException Si le fichier ne peut pas être écrit.
+     */
+    private void ecrirePaquet() throws IOException {
+        assurer(Integer.BYTES);
+        tampon.putInt(lignes);
+        for (long[] colonne : entiers) {
+            for (int l = 0; l < lignes; l++) {
+                assurer(Long.BYTES);
+                tampon.putLong(colonne[l]);
+            }
+        }
+        for (double[] colonne : reels) {
+            for (int l = 0; l < lignes; l++) {
+                assurer(Double.BYTES);
+                tampon.putDouble(colonne[l]);
+            }
+        }
+    }
+
+    /**
+     * Écrit les lignes du paquet en cours au format CSV.
+     *
+     * @throws IOException Si le fichier ne peut pas être écrit.
+     */
+    private void ecrireLignes() throws IOException {
+        StringBuilder sb = new StringBuilder(256);
+        for (int l = 0; l < lignes; l++) {
+            sb.setLength(0);
+            for (long[] colonne : entiers) {
+                sb.append(colonne[l]).append(',');
+            }
+            for (double[] colonne : reels) {
+                if (!Double.isNaN(colonne[l])) {
+                    sb.append(String.format(Locale.ROOT, "%.4f", colonne[l]));
+                }
+                sb.append(',');
+            }
+            sb.setCharAt(sb.length() - 1, '\n');
+            ecrire(sb);
+        }
+    }
+
+    /**
+     * Écrit une ligne de texte ASCII dans le tampon.
+     *
+     * @param ligne La ligne.
+     * @throws IOException Si le fichier ne peut pas être écrit.
+     */
+    private void ecrire(CharSequence ligne) throws IOException {
+        assurer(ligne.length());
+        for (int k = 0; k < ligne.length(); k++) {
+            tampon.put((byte) ligne.charAt(k));
+        }
+    }
+
+    /**
+     * Vide le tampon s'il ne reste pas assez de place pour un nombre d'octets.
+     *
+     * @param n Le nombre d'octets à écrire.
+     * @throws IOException Si le fichier ne peut pas être écrit.
+     */
+    private void assurer(int n) throws IOException {
+        if (tampon.remaining() < n) {
+            vider();
+        }
+    }
+
+    /**
+     * Écrit le contenu du tampon dans le fichier.
+     *
+     * @throws IOException Si le fichier ne peut pas être écrit.
+     */
+    private void vider() throws IOException {
+        tampon.flip();
+        while (tampon.hasRemaining()) {
+            canal.write(tampon);
+        }
+        tampon.clear();
+    }
+}
@@ -0,0 +1,93 @@
+package jeudelavie;
+
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+
+/**
+ * Stockage des numéros des parents enregistrés par une {@link Genealogie} :
+ * une entrée de deux entiers longs par humain, indexée par son numéro.
+ * <p>
+ * Le registre grandit avec chaque naissance et dépasse vite, sur une longue
+ * simulation, la population vivante elle-même. {@link #surTas()} range les
+ * entrées dans des pages de tableaux Java ; {@code FiliationsHorsTas} les
+ * range hors du tas, dans des segments de mémoire native ou projetés depuis
+ * un fichier, avec l'API Foreign Memory du module incubateur
+ * {@code jdk.incubator.foreign}, si bien que le tas et les pauses du
+ * ramasse-miettes ne dépendent plus du nombre d'humains enregistrés. Comme
+ * le noyau vectoriel, il est compilé à part, dans le module Maven
+ * {@code horstas}, et chargé par {@link #horsTas(Path)}.
+ * </p>
+ */
+public interface StockageFiliations {
+
+    /** Le nom de la classe du stockage hors du tas. */
+    String CLASSE_HORS_TAS = "jeudelavie.FiliationsHorsTas";
+
+    /**
+     * Obtient le numéro du père d'un humain.
+     *
+     * @param id Le numéro de l'humain, déjà écrit.
+     * @return Le numéro de son père, ou {@code -1}.
+     */
+    long getPere(long id);
+
+    /**
+     * Obtient le numéro de la mère d'un humain.
+     *
+     * @param id Le numéro de l'humain, déjà écrit.
+     * @return Le numéro de sa mère, ou {@code -1}.
+     */
+    long getMere(long id);
+
+    /**
+     * Écrit l'entrée d'un humain. Les entrées sont écrites dans l'ordre des
+     * numéros : {@code id} est au plus égal au nombre d'entrées déjà écrites.
+     *
+     * @param id   Le numéro de l'humain.
+     * @param pere Le numéro de son père, ou {@code -1}.
+     * @param mere Le numéro de sa mère, ou {@code -1}.
+     */
+    void ecrire(long id, long pere, long mere);
+
+    /**
+     * Supprime toutes les entrées.
+     */
+    void vider();
+
+    /**
+     * Retourne un nouveau stockage dans le tas Java.
+     *
+     * @return Le stockage.
+     */
+    static StockageFiliations surTas() {
+        return new FiliationsSurTas();
+    }
+
+    /**
+     * Retourne un nouveau stockage hors du tas.
+     *
+     * @param fichier Le fichier où projeter les entrées, créé ou remplacé, ou
+     *                {@code null} pour les ranger en mémoire native.
+     * @return Le stockage.
+     * @throws IllegalStateException Si la classe {@value #CLASSE_HORS_TAS}
+     *                               est absente du classpath, ou si le module
+     *                               {@code jdk.incubator.foreign} n'est pas
+     *                               chargé.
+     * @throws java.io.UncheckedIOException Si le fichier ne peut pas être
+     *                                      créé.
+     */
+    static StockageFiliations horsTas(Path fichier) {
+        try {
+            return (StockageFiliations) Class.forName(CLASSE_HORS_TAS).getDeclaredConstructor(Path.class)
+                    .newInstance(fichier);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IllegalStateException("Stockage hors du tas indisponible : ajoutez le module horstas au"
+                    + " classpath et lancez java avec --add-modules jdk.incubator.foreign", e);
+        }
+    }
+}
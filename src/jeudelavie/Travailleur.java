@@ -0,0 +1,138 @@
+package jeudelavie;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * Processus qui joue une île pour un {@link Coordinateur}.
+ * <p>
+ * Le travailleur se connecte au coordinateur, reçoit les paramètres de la
+ * simulation, crée son île comme le ferait un {@link Archipel}, puis exécute
+ * les messages du coordinateur jusqu'à {@link Coordinateur#FIN}, voir le
+ * protocole décrit dans {@link Coordinateur}. Il n'écrit rien sur la sortie
+ * standard.
+ * </p>
+ */
+public final class Travailleur {
+
+    /** L'île jouée par le travailleur. */
+    private final MoteurSimulation ile;
+
+    /** Les paramètres de la simulation. */
+    private final Configuration config;
+
+    /** La source des nombres aléatoires de l'archipel. */
+    private final Hasard hasard;
+
+    /** Le numéro de l'île. */
+    private final int numero;
+
+    /** Le bilan des rencontres de la dernière génération de l'île. */
+    private final BilanRencontres bilan = new BilanRencontres();
+
+    /** Les migrants qui quittent l'île, puis ceux qui y arrivent. */
+    private final ColonnesSurTas migrants = new ColonnesSurTas();
+
+    /**
+     * Constructeur de la classe {@code Travailleur}.
+     *
+     * @param config Les paramètres de la simulation.
+     * @param numero Le numéro de l'île.
+     */
+    private Travailleur(Configuration config, int numero) {
+        this.config = config;
+        this.numero = numero;
+        this.hasard = new Hasard(config.getGraine(), config.getAlgorithme());
+        this.ile = Archipel.creerIle(config, hasard, numero, bilan);
+    }
+
+    /**
+     * Point d'entrée d'un travailleur, lancé par le coordinateur.
+     *
+     * @param args Le port local du coordinateur et le numéro de l'île.
+     */
+    public static void main(String[] args) {
+        int port = Integer.parseInt(args[0]);
+        int numero = Integer.parseInt(args[1]);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(Coordinateur.MAGIE);
+            out.writeInt(Coordinateur.VERSION);
+            out.writeInt(numero);
+            out.flush();
+
+            Configuration config = new Configuration(in.readInt(), in.readInt(), in.readInt());
+            config.setIles(in.readInt());
+            config.setGraine(in.readLong());
+            config.setAlgorithme(in.readUTF());
+            config.setRecyclage(in.readBoolean());
+            config.setTauxMigration(in.readDouble());
+            Travailleur travailleur = new Travailleur(config, numero);
+            try {
+                out.writeInt(travailleur.ile.getPopulation().taille());
+                out.flush();
+                travailleur.servir(in, out);
+            } finally {
+                travailleur.ile.close();
+            }
+        } catch (IOException | PopulationException e) {
+            System.err.println("Travailleur " + numero + " : " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Exécute les messages du coordinateur jusqu'à {@link Coordinateur#FIN}.
+     *
+     * @param in  Le flux d'entrée du coordinateur.
+     * @param out Le flux de sortie vers le coordinateur.
+     * @throws IOException         Si la connexion est interrompue ou qu'un
+     *                             message est inconnu.
+     * @throws PopulationException Si l'île n'a pas pu jouer sa génération.
+     */
+    private void servir(DataInputStream in, DataOutputStream out) throws IOException, PopulationException {
+        Population population = ile.getPopulation();
+        while (true) {
+            byte message = in.readByte();
+            switch (message) {
+                case Coordinateur.GENERATION:
+                    int generation = in.readInt();
+                    boolean migration = in.readBoolean();
+                    bilan.reinitialiser();
+                    boolean active = Archipel.viable(population);
+                    if (active) {
+                        ile.step();
+                    }
+                    out.writeBoolean(active);
+                    out.writeInt(population.taille());
+                    bilan.envoyer(out);
+                    if (migration) {
+                        Archipel.emigrer(population, config, hasard, generation, numero, migrants);
+                        migrants.envoyer(out);
+                        migrants.vider();
+                    }
+                    out.flush();
+                    break;
+                case Coordinateur.MIGRANTS:
+                    migrants.recevoir(in);
+                    population.immigrer(migrants);
+                    migrants.vider();
+                    population.trierPop();
+                    out.writeInt(population.taille());
+                    out.flush();
+                    break;
+                case Coordinateur.FIN:
+                    return;
+                default:
+                    throw new IOException("Message inconnu : " + message);
+            }
+        }
+    }
+}
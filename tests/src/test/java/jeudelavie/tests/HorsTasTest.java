@@ -0,0 +1,37 @@
+package jeudelavie.tests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import jeudelavie.Colonnes;
+import jeudelavie.Configuration;
+import jeudelavie.MoteurSimulation;
+
+/**
+ * Une simulation de graine donnée ne dépend pas du rangement des humains :
+ * dans le tas, en mémoire native ou projetés dans un fichier.
+ */
+class HorsTasTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 2 })
+    void memeEtatDansEtHorsDuTas(int mode, @TempDir Path dossier) throws Exception {
+        byte[] surTas = Instantanes.jouer(new MoteurSimulation(Instantanes.configuration(mode)),
+                Instantanes.GENERATIONS, dossier.resolve("tas.jdlv"));
+
+        Configuration natif = Instantanes.configuration(mode);
+        natif.setColonnes(Colonnes.horsTas(null));
+        assertArrayEquals(surTas, Instantanes.jouer(new MoteurSimulation(natif), Instantanes.GENERATIONS,
+                dossier.resolve("natif.jdlv")), "memoire native, mode " + mode);
+
+        Configuration projete = Instantanes.configuration(mode);
+        projete.setColonnes(Colonnes.horsTas(dossier.resolve("population.col")));
+        assertArrayEquals(surTas, Instantanes.jouer(new MoteurSimulation(projete), Instantanes.GENERATIONS,
+                dossier.resolve("projete.jdlv")), "fichier projete, mode " + mode);
+    }
+}
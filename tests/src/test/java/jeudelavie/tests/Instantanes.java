@@ -0,0 +1,67 @@
+package jeudelavie.tests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import jeudelavie.Configuration;
+import jeudelavie.MoteurSimulation;
+import jeudelavie.PopulationException;
+
+/**
+ * Simulations de référence des tests d'équivalence, comparées par leur point
+ * de reprise : deux simulations dans le même état écrivent exactement les
+ * mêmes octets.
+ */
+final class Instantanes {
+
+    /** La taille initiale des populations simulées. */
+    static final int TAILLE = 3000;
+
+    /** Le nombre de naissances par génération en croissance régulée. */
+    static final int NBB = 50;
+
+    /** La graine de toutes les simulations. */
+    static final long GRAINE = 42;
+
+    /** Le nombre de générations jouées. */
+    static final int GENERATIONS = 12;
+
+    /**
+     * Constructeur privé : cette classe ne contient que des méthodes statiques.
+     */
+    private Instantanes() {
+    }
+
+    /**
+     * Retourne la configuration de référence d'un mode de fonctionnement.
+     *
+     * @param mode Le mode de fonctionnement (0, 1 ou 2).
+     * @return Une nouvelle configuration, sur un thread.
+     */
+    static Configuration configuration(int mode) {
+        Configuration config = new Configuration(TAILLE, mode, mode == 2 ? NBB : 0);
+        config.setGraine(GRAINE);
+        config.setThreads(1);
+        return config;
+    }
+
+    /**
+     * Joue des générations puis retourne le point de reprise de la simulation.
+     *
+     * @param simulation  La simulation, fermée par cette méthode.
+     * @param generations Le nombre de générations à jouer.
+     * @param fichier     Le fichier du point de reprise.
+     * @return Le contenu du point de reprise.
+     * @throws PopulationException Si la population s'éteint.
+     * @throws IOException         Si le point de reprise ne peut pas être écrit.
+     */
+    static byte[] jouer(MoteurSimulation simulation, int generations, Path fichier)
+            throws PopulationException, IOException {
+        try (simulation) {
+            simulation.run(generations);
+            simulation.ecrirePointDeReprise(fichier);
+        }
+        return Files.readAllBytes(fichier);
+    }
+}
@@ -0,0 +1,33 @@
+package jeudelavie.tests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import jeudelavie.Configuration;
+import jeudelavie.MoteurSimulation;
+
+/**
+ * Une simulation de graine donnée ne dépend pas du nombre de threads.
+ */
+class ParallelismeTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 2 })
+    void memeEtatSurUnOuPlusieursThreads(int mode, @TempDir Path dossier) throws Exception {
+        byte[] sequentiel = Instantanes.jouer(new MoteurSimulation(Instantanes.configuration(mode)),
+                Instantanes.GENERATIONS, dossier.resolve("un.jdlv"));
+
+        for (int threads : new int[] { 2, 4, 7 }) {
+            Configuration config = Instantanes.configuration(mode);
+            config.setThreads(threads);
+            byte[] parallele = Instantanes.jouer(new MoteurSimulation(config), Instantanes.GENERATIONS,
+                    dossier.resolve(threads + ".jdlv"));
+            assertArrayEquals(sequentiel, parallele, threads + " threads, mode " + mode);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package jeudelavie.tests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import jeudelavie.MoteurSimulation;
+import jeudelavie.PointDeReprise;
+
+/**
+ * Une simulation reprise d'un point de reprise se poursuit exactement comme
+ * si elle ne s'était pas interrompue.
+ */
+class RepriseTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 2 })
+    void repriseIdentiqueALaSimulationContinue(int mode, @TempDir Path dossier) throws Exception {
+        byte[] continu = Instantanes.jouer(new MoteurSimulation(Instantanes.configuration(mode)),
+                Instantanes.GENERATIONS, dossier.resolve("continue.jdlv"));
+
+        int arret = Instantanes.GENERATIONS / 3;
+        Path fichier = dossier.resolve("arret.jdlv");
+        Instantanes.jouer(new MoteurSimulation(Instantanes.configuration(mode)), arret, fichier);
+
+        PointDeReprise reprise = PointDeReprise.lire(fichier);
+        assertEquals(arret, reprise.getGeneration());
+        byte[] repris = Instantanes.jouer(new MoteurSimulation(Instantanes.configuration(mode), reprise),
+                Instantanes.GENERATIONS - arret, dossier.resolve("repris.jdlv"));
+        assertArrayEquals(continu, repris, "mode " + mode);
+    }
+}
@@ -0,0 +1,106 @@
+package jeudelavie;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Noyau du vieillissement écrit avec l'API Vector : l'âge, le poids et les
+ * marques de plusieurs humains sont calculés à chaque instruction.
+ * <p>
+ * Les colonnes d'entiers (âge, poids) sont lues et écrites par vecteurs de la
+ * forme préférée de la machine, et les colonnes d'octets (espérance de vie,
+ * type, marques) par vecteurs d'autant d'octets que d'entiers, si bien que le
+ * passage des uns aux autres est une simple extension de signe ou une
+ * troncature. Le poids des enfants, {@code 3 + (int) (3.6 * age)} pour un
+ * garçon et {@code 3 + (int) (2.6 * age)} pour une fille, est calculé en
+ * entiers par {@code (36 * age * 6554) >> 16}, qui donne exactement la même
+ * valeur jusqu'à 20 ans. Les derniers humains, qui ne remplissent pas un
+ * vecteur, sont traités par {@link NoyauVieillissement#vieillirUn}.
+ * </p>
+ * <p>
+ * Compilation et exécution : voir le module Maven {@code vectoriel} et
+ * {@link NoyauVieillissement#vectoriel()}.
+ * </p>
+ */
+final class NoyauVectoriel implements NoyauVieillissement {
+
+    /**
+     * La forme des vecteurs d'entiers : la forme préférée, ou 256 bits si elle
+     * contient moins de 8 entiers, les vecteurs d'octets ne pouvant pas faire
+     * moins de 64 bits.
+     */
+    private static final VectorSpecies<Integer> ENTIERS = IntVector.SPECIES_PREFERRED.length() >= 8
+            ? IntVector.SPECIES_PREFERRED : IntVector.SPECIES_256;
+
+    /** La forme des vecteurs d'octets, avec autant d'éléments que {@link #ENTIERS}. */
+    private static final VectorSpecies<Byte> OCTETS = VectorSpecies.of(byte.class,
+            VectorShape.forBitSize(ENTIERS.length() * Byte.SIZE));
+
+    /** Multiplicateur de la division par 10 : {@code x / 10 == (x * 6554) >> 16} pour {@code x < 1000}. */
+    private static final int INVERSE_DIX = 6554;
+
+    @Override
+    public void vieillir(int[] age, int[] poids, byte[] esperanceVie, byte[] type, int de, int a, byte[] marques) {
+        int i = de;
+        int borne = de + ENTIERS.loopBound(a - de);
+        for (; i < borne; i += ENTIERS.length()) {
+            IntVector esperance = (IntVector) ByteVector.fromArray(OCTETS, esperanceVie, i)
+                    .convertShape(VectorOperators.B2I, ENTIERS, 0);
+            IntVector t = (IntVector) ByteVector.fromArray(OCTETS, type, i)
+                    .convertShape(VectorOperators.B2I, ENTIERS, 0);
+            IntVector marque = vieillir(age, poids, i, esperance, t);
+            ((ByteVector) marque.convertShape(VectorOperators.I2B, OCTETS, 0)).intoArray(marques, i - de);
+        }
+        for (; i < a; i++) {
+            marques[i - de] = NoyauVieillissement.vieillirUn(age, poids, esperanceVie, type, i);
+        }
+    }
+
+    /**
+     * Fait vieillir les humains d'un vecteur d'entiers.
+     *
+     * @param age          L'âge de chaque humain.
+     * @param poids        Le poids de chaque humain.
+     * @param j            L'index du premier humain du vecteur.
+     * @param esperanceVie L'espérance de vie des humains du vecteur.
+     * @param type         Le type des humains du vecteur.
+     * @return Les marques des humains du vecteur.
+     */
+    private static IntVector vieillir(int[] age, int[] poids, int j, IntVector esperanceVie, IntVector type) {
+        IntVector age0 = IntVector.fromArray(ENTIERS, age, j);
+        IntVector poids0 = IntVector.fromArray(ENTIERS, poids, j);
+        VectorMask<Integer> fecond = fecond(age0, poids0);
+
+        IntVector ageAtteint = age0.add(1);
+        VectorMask<Integer> masculin = type.compare(VectorOperators.LT, Colonnes.FILLE);
+        IntVector enfant = IntVector.broadcast(ENTIERS, 26).blend(36, masculin)
+                .mul(ageAtteint).mul(INVERSE_DIX).lanewise(VectorOperators.ASHR, 16).add(3);
+        IntVector p = poids0
+                .blend(poids0.add(ageAtteint.and(1)), ageAtteint.compare(VectorOperators.GE, 50))
+                .blend(enfant, ageAtteint.compare(VectorOperators.LE, 20));
+        ageAtteint.intoArray(age, j);
+        p.intoArray(poids, j);
+
+        VectorMask<Integer> mort = ageAtteint.compare(VectorOperators.GT, esperanceVie)
+                .or(p.compare(VectorOperators.LT, 0));
+        VectorMask<Integer> changement = fecond.eq(fecond(ageAtteint, p)).not();
+        return IntVector.zero(ENTIERS).blend(MORT, mort).or(IntVector.zero(ENTIERS).blend(CHANGEMENT, changement));
+    }
+
+    /**
+     * Calcule {@link Rencontre#isFecond(int, int)} pour un vecteur d'humains.
+     *
+     * @param age   L'âge des humains.
+     * @param poids Le poids des humains.
+     * @return Le masque des humains féconds.
+     */
+    private static VectorMask<Integer> fecond(IntVector age, IntVector poids) {
+        return age.compare(VectorOperators.GT, 15)
+                .and(age.compare(VectorOperators.LT, 50))
+                .and(poids.compare(VectorOperators.LE, 150));
+    }
+}